@@ -75,6 +75,11 @@ configure<SourceSetContainer> {
         compileClasspath += sourceSets["main"].output
         runtimeClasspath += sourceSets["main"].output
     }
+    register("benchmarks") {
+        java.srcDir("src/benchmarks/java")
+        compileClasspath += sourceSets["main"].output
+        runtimeClasspath += sourceSets["main"].output
+    }
 }
 
 val testJava8 by sourceSets.creating {
@@ -144,6 +149,9 @@ dependencies {
     // since jna is a transitive runtime dependency of opus-java we don't include it explicitly as dependency
     compileOnly(libs.jna)
 
+    //Optional zstd-stream gateway compression, only needed when Compression.ZSTD is used
+    compileOnly(libs.zstd.jni)
+
     /* Internal dependencies */
 
     //General Utility
@@ -160,6 +168,13 @@ dependencies {
         addAll(configurations["compileOnly"].allDependencies)
     }
 
+    //Sets the dependencies for the benchmarks
+    configurations["benchmarksImplementation"].withDependencies {
+        addAll(configurations["api"].allDependencies)
+        addAll(configurations["implementation"].allDependencies)
+        addAll(configurations["compileOnly"].allDependencies)
+    }
+
     testImplementation(libs.bundles.junit)
     testImplementation(libs.reflections)
     testImplementation(libs.mockito)
@@ -167,6 +182,7 @@ dependencies {
     testImplementation(libs.commons.lang3)
     testImplementation(libs.logback.classic)
     testImplementation(libs.archunit)
+    testImplementation(libs.zstd.jni)
 
     testJava8Implementation(libs.bundles.junit.java8)
     testJava8Implementation(libs.assertj)
@@ -497,6 +513,15 @@ tasks.named("check").configure {
     dependsOn(testJava8Compatibility)
 }
 
+// Benchmarks are not part of the regular build, run one with ./gradlew benchmark -Pbenchmark=<ClassName>
+val benchmark by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Runs one of the benchmarks in src/benchmarks"
+
+    classpath = sourceSets["benchmarks"].runtimeClasspath
+    mainClass = providers.gradleProperty("benchmark").map { "net.dv8tion.jda.benchmarks.$it" }
+}
+
 val verifyBytecodeVersion by tasks.registering(VerifyBytecodeVersion::class) {
     group = "verification"
 
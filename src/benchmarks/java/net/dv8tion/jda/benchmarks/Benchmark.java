@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmarks;
+
+import java.util.Locale;
+
+/**
+ * Minimal harness for the benchmarks in this source set.
+ *
+ * <p>Every benchmark is run for a few warmup rounds first, to let the JIT settle,
+ * followed by the measured rounds. The throughput is printed as the mean and standard deviation over all rounds.
+ * This is not meant to replace a proper harness like JMH, but is good enough to compare two implementations
+ * on the same machine.
+ */
+public final class Benchmark {
+    public static final int WARMUP_ROUNDS = Integer.getInteger("benchmark.warmup", 3);
+    public static final int MEASURED_ROUNDS = Integer.getInteger("benchmark.rounds", 5);
+
+    private Benchmark() {}
+
+    /**
+     * Runs the provided round and prints its throughput.
+     *
+     * @param name
+     *        The name printed for this benchmark
+     * @param operations
+     *        The number of operations performed by a single round
+     * @param round
+     *        The benchmark round
+     *
+     * @throws Exception
+     *         If a round fails
+     */
+    public static void run(String name, long operations, Round round) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+
+        double[] results = new double[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            round.run();
+            long elapsed = System.nanoTime() - start;
+            results[i] = operations * 1e9 / elapsed;
+        }
+
+        double mean = 0;
+        for (double result : results) {
+            mean += result;
+        }
+        mean /= results.length;
+
+        double variance = 0;
+        for (double result : results) {
+            variance += (result - mean) * (result - mean);
+        }
+        double deviation = Math.sqrt(variance / results.length);
+
+        System.out.printf(Locale.ROOT, "%-48s %,14.0f ops/s  ± %,.0f%n", name, mean, deviation);
+    }
+
+    @FunctionalInterface
+    public interface Round {
+        void run() throws Exception;
+    }
+}
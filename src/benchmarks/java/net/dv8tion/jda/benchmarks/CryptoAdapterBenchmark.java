@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmarks;
+
+import net.dv8tion.jda.internal.audio.AudioEncryption;
+import net.dv8tion.jda.internal.audio.AudioPacket;
+import net.dv8tion.jda.internal.audio.CryptoAdapter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.DatagramPacket;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures the per-packet cost of encrypting and decrypting voice packets with each {@link AudioEncryption} mode.
+ *
+ * <p>The packets carry a typical opus frame and are encrypted into a reused buffer, like the audio connection does.
+ * Besides the throughput, the heap allocated per packet is printed, when the JVM supports measuring it.
+ */
+public class CryptoAdapterBenchmark {
+    private static final int PACKETS = 200_000;
+    private static final int OPUS_FRAME_SIZE = 120;
+    private static final int SSRC = 5678;
+
+    public static void main(String[] args) throws Exception {
+        byte[] key = new byte[32];
+        byte[] frame = new byte[OPUS_FRAME_SIZE];
+        Random random = new Random(42);
+        random.nextBytes(key);
+        random.nextBytes(frame);
+        ByteBuffer audio = ByteBuffer.wrap(frame);
+
+        for (AudioEncryption mode : AudioEncryption.values()) {
+            if (!CryptoAdapter.isModeSupported(mode)) {
+                System.out.printf(Locale.ROOT, "%s is not supported by this JVM%n", mode);
+                continue;
+            }
+            CryptoAdapter adapter = CryptoAdapter.getAdapter(mode, key);
+            ByteBuffer output = ByteBuffer.allocate(512);
+
+            Benchmark.Round encrypt = () -> {
+                for (int i = 0; i < PACKETS; i++) {
+                    AudioPacket.writeEncryptedPacket(adapter, output, (char) i, i * 960, SSRC, audio);
+                }
+            };
+            Benchmark.run("encrypt " + mode, PACKETS, encrypt);
+            printAllocation(encrypt);
+
+            ByteBuffer encrypted = AudioPacket.writeEncryptedPacket(adapter, output, 'a', 960, SSRC, audio);
+            byte[] received = new byte[encrypted.remaining()];
+            encrypted.get(received);
+            DatagramPacket packet = new DatagramPacket(received, received.length);
+            Benchmark.Round decrypt = () -> {
+                for (int i = 0; i < PACKETS; i++) {
+                    AudioPacket.decryptAudioPacket(adapter, packet);
+                }
+            };
+            Benchmark.run("decrypt " + mode, PACKETS, decrypt);
+            printAllocation(decrypt);
+        }
+    }
+
+    private static void printAllocation(Benchmark.Round round) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        long thread = Thread.currentThread().getId();
+        long start = allocations.getThreadAllocatedBytes(thread);
+        round.run();
+        long allocated = allocations.getThreadAllocatedBytes(thread) - start;
+        System.out.printf(Locale.ROOT, "%-48s %,14.1f bytes/packet%n", "", (double) allocated / PACKETS);
+    }
+}
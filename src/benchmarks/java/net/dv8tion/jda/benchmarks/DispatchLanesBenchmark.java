@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmarks;
+
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.DispatchLanes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the dispatch throughput of {@link DispatchLanes} compared to handling every event on the reading thread.
+ *
+ * <p>Each event is parsed from its raw JSON and its content is read, which is roughly the work done by a handler.
+ * By default, the traffic is generated with a skewed distribution over a few hundred guilds.
+ * Recorded traffic can be replayed instead by passing a file with one gateway payload per line.
+ */
+public class DispatchLanesBenchmark {
+    private static final int GUILDS = 500;
+    private static final int EVENTS = 200_000;
+
+    private static final LongAdder handled = new LongAdder();
+
+    public static void main(String[] args) throws Exception {
+        List<byte[]> traffic = args.length > 0 ? readTraffic(args[0]) : generateTraffic();
+        long[] keys = new long[traffic.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = DataObject.fromJson(traffic.get(i))
+                    .optObject("d")
+                    .map(d -> d.getUnsignedLong("guild_id", 0L))
+                    .orElse(0L);
+        }
+
+        Benchmark.run("serial", traffic.size(), () -> {
+            for (byte[] event : traffic) {
+                handle(event);
+            }
+        });
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int lanes = 1; lanes <= Math.max(cores, DispatchLanes.DEFAULT_LANES); lanes *= 2) {
+            int laneCount = lanes;
+            Benchmark.run("lanes=" + laneCount, traffic.size(), () -> {
+                DispatchLanes<Void> dispatch = new DispatchLanes<>(
+                        "Benchmark", laneCount, DispatchLanes.DEFAULT_CAPACITY, () -> null, () -> {});
+                try {
+                    for (int i = 0; i < keys.length; i++) {
+                        byte[] event = traffic.get(i);
+                        dispatch.execute(keys[i], ignored -> handle(event));
+                    }
+                    dispatch.awaitIdle();
+                } finally {
+                    dispatch.shutdown();
+                }
+            });
+        }
+
+        System.out.println("Handled " + handled.sum() + " events");
+    }
+
+    private static void handle(byte[] event) {
+        DataObject payload = DataObject.fromJson(event);
+        DataObject content = payload.getObject("d");
+        // Touch the fields a message handler would read
+        content.getString("content", "");
+        content.getObject("author").getString("username");
+        content.optArray("mentions").map(DataArray::length).orElse(0);
+        handled.increment();
+    }
+
+    private static List<byte[]> readTraffic(String path) throws IOException {
+        List<byte[]> traffic = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+            if (!line.trim().isEmpty()) {
+                traffic.add(line.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return traffic;
+    }
+
+    private static List<byte[]> generateTraffic() {
+        Random random = new Random(42);
+        List<byte[]> traffic = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            // A few large guilds produce most of the traffic, similar to a real session
+            long guildId = 1000 + (long) (GUILDS * Math.pow(random.nextDouble(), 3));
+            DataObject author = DataObject.empty()
+                    .put("id", Long.toUnsignedString(random.nextLong()))
+                    .put("username", "user" + random.nextInt(10_000));
+            DataObject content = DataObject.empty()
+                    .put("id", Long.toUnsignedString(random.nextLong()))
+                    .put("guild_id", Long.toString(guildId))
+                    .put("channel_id", Long.toString(guildId * 10 + random.nextInt(10)))
+                    .put("content", "message content " + i)
+                    .put("author", author)
+                    .put("mentions", DataArray.empty());
+            DataObject payload = DataObject.empty()
+                    .put("op", 0)
+                    .put("t", "MESSAGE_CREATE")
+                    .put("s", i)
+                    .put("d", content);
+            traffic.add(payload.toJson());
+        }
+        return traffic;
+    }
+}
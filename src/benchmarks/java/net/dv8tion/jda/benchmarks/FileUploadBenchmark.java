@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.benchmarks;
+
+import net.dv8tion.jda.api.utils.FileUpload;
+import okhttp3.MultipartBody;
+import okio.BufferedSink;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Measures the throughput and peak heap usage of sending the same file to many channels at once.
+ *
+ * <p>Every round writes the multipart body of each upload to a sink which discards the data,
+ * so the network is not part of the measurement. The file is uploaded as a file-backed {@link FileUpload},
+ * which is shared by all requests, and compared to a stream supplier and to a byte array held in memory.
+ */
+public class FileUploadBenchmark {
+    private static final int FILE_SIZE = 25 * 1024 * 1024;
+    private static final int CHANNELS = 50;
+
+    public static void main(String[] args) throws Exception {
+        Path path = Files.createTempFile("jda-benchmark", ".bin");
+        byte[] data = new byte[FILE_SIZE];
+        new Random(42).nextBytes(data);
+        Files.write(path, data);
+        data = null;
+
+        ExecutorService executor = Executors.newFixedThreadPool(CHANNELS);
+        try {
+            FileUpload file = FileUpload.fromData(path);
+            run("file", executor, () -> file);
+
+            FileUpload stream = FileUpload.fromStreamSupplier("data.bin", () -> {
+                try {
+                    return Files.newInputStream(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            run("stream supplier", executor, () -> stream);
+
+            byte[] content = Files.readAllBytes(path);
+            run("byte array", executor, () -> FileUpload.fromData(content, "data.bin"));
+        } finally {
+            executor.shutdown();
+            Files.delete(path);
+        }
+    }
+
+    private static void run(String name, ExecutorService executor, Supplier<FileUpload> uploads) throws Exception {
+        resetPeakHeap();
+        Benchmark.run(name + " uploads", CHANNELS, () -> {
+            List<Future<?>> requests = new ArrayList<>(CHANNELS);
+            for (int i = 0; i < CHANNELS; i++) {
+                requests.add(executor.submit(() -> {
+                    MultipartBody.Builder builder = new MultipartBody.Builder().setType(MultipartBody.FORM);
+                    uploads.get().addPart(builder, 0);
+                    try (BufferedSink sink = Okio.buffer(Okio.blackhole())) {
+                        builder.build().writeTo(sink);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> request : requests) {
+                request.get();
+            }
+        });
+        System.out.printf(Locale.ROOT, "%-48s %,14.1f MiB peak heap%n", name, getPeakHeap() / 1024.0 / 1024.0);
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long getPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmarks;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import net.dv8tion.jda.internal.utils.compress.Decompressor;
+import net.dv8tion.jda.internal.utils.compress.ZlibDecompressor;
+import net.dv8tion.jda.internal.utils.compress.ZstdDecompressor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+
+/**
+ * Compares the CPU time and throughput of decompressing gateway traffic with zlib-stream and zstd-stream.
+ *
+ * <p>The traffic is compressed once up front, as one stream with a flush after every message, like the gateway does.
+ * Every round decompresses the entire stream with a new decompressor, which keeps its context across messages.
+ *
+ * <p>Recorded traffic can be replayed by setting the {@code benchmark.traffic} system property to a file,
+ * which contains one gateway payload per line. Otherwise, a mix of typical dispatch events is generated.
+ */
+public class GatewayCompressionBenchmark {
+    private static final int GENERATED_MESSAGES = 20_000;
+    private static final int MAX_BUFFER_SIZE = 2048;
+
+    public static void main(String[] args) throws Exception {
+        List<byte[]> messages = loadTraffic();
+        long size = messages.stream().mapToLong(message -> message.length).sum();
+
+        List<byte[]> zlib = compressZlib(messages);
+        run("zlib-stream", messages.size(), size, zlib, () -> new ZlibDecompressor(MAX_BUFFER_SIZE));
+
+        if (!ZstdDecompressor.isAvailable()) {
+            System.out.println("zstd-jni is not available");
+            return;
+        }
+        List<byte[]> zstd = compressZstd(messages);
+        run("zstd-stream", messages.size(), size, zstd, () -> new ZstdDecompressor(MAX_BUFFER_SIZE));
+    }
+
+    private static void run(
+            String name, int count, long size, List<byte[]> compressed, Supplier<Decompressor> decompressors)
+            throws Exception {
+        long compressedSize = compressed.stream().mapToLong(message -> message.length).sum();
+        Benchmark.Round round = () -> {
+            Decompressor decompressor = decompressors.get();
+            try {
+                for (byte[] message : compressed) {
+                    if (decompressor.decompressToBuffer(message) == null) {
+                        throw new IllegalStateException("Message was not decompressed");
+                    }
+                }
+            } finally {
+                decompressor.shutdown();
+            }
+        };
+        Benchmark.run(name + " messages", count, round);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < Benchmark.MEASURED_ROUNDS; i++) {
+            round.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long cpu = threads.getCurrentThreadCpuTime() - cpuStart;
+        System.out.printf(
+                Locale.ROOT,
+                "%-48s %,14.1f MB/s  compressed to %.1f%%, %.2fms cpu per MB%n",
+                name + " decompressed",
+                size * Benchmark.MEASURED_ROUNDS / (elapsed / 1e9) / 1e6,
+                compressedSize * 100.0 / size,
+                cpu / 1e6 / (size * Benchmark.MEASURED_ROUNDS / 1e6));
+    }
+
+    private static List<byte[]> compressZlib(List<byte[]> messages) {
+        Deflater deflater = new Deflater();
+        byte[] buffer = new byte[64 * 1024];
+        List<byte[]> compressed = new ArrayList<>(messages.size());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (byte[] message : messages) {
+            output.reset();
+            deflater.setInput(message);
+            int length;
+            // A sync flush ends every message with the suffix the decompressor is looking for
+            while ((length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH)) > 0) {
+                output.write(buffer, 0, length);
+            }
+            compressed.add(output.toByteArray());
+        }
+        deflater.end();
+        return compressed;
+    }
+
+    private static List<byte[]> compressZstd(List<byte[]> messages) throws IOException {
+        List<byte[]> compressed = new ArrayList<>(messages.size());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZstdOutputStream compressor = new ZstdOutputStream(output)) {
+            for (byte[] message : messages) {
+                output.reset();
+                compressor.write(message);
+                compressor.flush();
+                compressed.add(output.toByteArray());
+            }
+        }
+        return compressed;
+    }
+
+    private static List<byte[]> loadTraffic() throws IOException {
+        String file = System.getProperty("benchmark.traffic");
+        List<byte[]> messages = new ArrayList<>();
+        if (file != null) {
+            for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+                if (!line.isEmpty()) {
+                    messages.add(line.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return messages;
+        }
+
+        Random random = new Random(42);
+        long guildId = snowflake(random);
+        List<String> events = Arrays.asList(
+                "{\"t\":\"MESSAGE_CREATE\",\"s\":%d,\"op\":0,\"d\":{\"type\":0,\"tts\":false,\"timestamp\":"
+                        + "\"2024-05-01T12:00:00.000000+00:00\",\"pinned\":false,\"mentions\":[],\"mention_roles\":[],"
+                        + "\"mention_everyone\":false,\"member\":{\"roles\":[\"%d\"],\"premium_since\":null,"
+                        + "\"pending\":false,\"nick\":null,\"mute\":false,\"joined_at\":"
+                        + "\"2021-01-01T00:00:00.000000+00:00\",\"flags\":0,\"deaf\":false,\"avatar\":null},"
+                        + "\"id\":\"%d\",\"flags\":0,\"embeds\":[],\"edited_timestamp\":null,\"content\":\"%s\","
+                        + "\"components\":[],\"channel_id\":\"%d\",\"author\":{\"username\":\"user%d\","
+                        + "\"public_flags\":0,\"id\":\"%d\",\"global_name\":null,\"discriminator\":\"0\","
+                        + "\"avatar\":\"%s\"},\"attachments\":[],\"guild_id\":\"" + guildId + "\"}}",
+                "{\"t\":\"PRESENCE_UPDATE\",\"s\":%d,\"op\":0,\"d\":{\"user\":{\"id\":\"%d\"},\"status\":\"online\","
+                        + "\"guild_id\":\"" + guildId + "\",\"client_status\":{\"desktop\":\"online\"},"
+                        + "\"activities\":[{\"type\":0,\"name\":\"%s\",\"id\":\"%d\",\"created_at\":%d}]}}",
+                "{\"t\":\"TYPING_START\",\"s\":%d,\"op\":0,\"d\":{\"user_id\":\"%d\",\"timestamp\":%d,"
+                        + "\"member\":{\"user\":{\"username\":\"user%d\",\"id\":\"%d\",\"avatar\":\"%s\"},"
+                        + "\"roles\":[\"%d\"],\"joined_at\":\"2021-01-01T00:00:00.000000+00:00\"},"
+                        + "\"channel_id\":\"%d\",\"guild_id\":\"" + guildId + "\"}}");
+
+        for (int sequence = 1; sequence <= GENERATED_MESSAGES; sequence++) {
+            String json;
+            switch (random.nextInt(3)) {
+                case 0:
+                    json = String.format(
+                            Locale.ROOT,
+                            events.get(0),
+                            sequence,
+                            snowflake(random),
+                            snowflake(random),
+                            text(random),
+                            snowflake(random),
+                            random.nextInt(10_000),
+                            snowflake(random),
+                            Long.toHexString(random.nextLong()));
+                    break;
+                case 1:
+                    json = String.format(
+                            Locale.ROOT,
+                            events.get(1),
+                            sequence,
+                            snowflake(random),
+                            text(random),
+                            snowflake(random),
+                            1_700_000_000_000L + sequence);
+                    break;
+                default:
+                    json = String.format(
+                            Locale.ROOT,
+                            events.get(2),
+                            sequence,
+                            snowflake(random),
+                            1_700_000_000L + sequence,
+                            random.nextInt(10_000),
+                            snowflake(random),
+                            Long.toHexString(random.nextLong()),
+                            snowflake(random),
+                            snowflake(random));
+                    break;
+            }
+            messages.add(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return messages;
+    }
+
+    private static long snowflake(Random random) {
+        // Snowflakes of the last few years, which share most of their leading digits
+        return (1_600_000_000_000L - 1_420_070_400_000L + random.nextInt(100_000_000)) << 22 | random.nextInt(4096);
+    }
+
+    private static String text(Random random) {
+        String[] words = {"hello", "world", "the", "gateway", "is", "sending", "a", "lot", "of", "events", "today"};
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0, count = 3 + random.nextInt(20); i < count; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(words[random.nextInt(words.length)]);
+        }
+        return builder.toString();
+    }
+}
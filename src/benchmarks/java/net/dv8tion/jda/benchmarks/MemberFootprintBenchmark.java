@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.benchmarks;
+
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.entities.RoleImpl;
+import net.dv8tion.jda.internal.entities.UserImpl;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import net.dv8tion.jda.internal.utils.config.MetaConfig;
+import net.dv8tion.jda.internal.utils.config.flags.ConfigFlag;
+
+import java.util.EnumSet;
+import java.util.Locale;
+
+/**
+ * Measures the heap retained by cached {@link MemberImpl Members},
+ * with and without {@link ConfigFlag#COMPACT_MEMBER_ROLES compact member roles}.
+ *
+ * <p>The members of a single guild are created with a fixed number of roles each,
+ * which can be passed as the first argument. The retained size is the difference of the used heap before and after, which includes the users of the members.
+ */
+public class MemberFootprintBenchmark {
+    private static final int MEMBERS = 200_000;
+    private static final int GUILD_ROLES = 20;
+
+    public static void main(String[] args) {
+        int roles = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+
+        for (int i = 0; i < Benchmark.WARMUP_ROUNDS; i++) {
+            measure(false, roles);
+            measure(true, roles);
+        }
+
+        System.out.printf(Locale.ROOT, "%-48s %,10.1f bytes/member%n", "default", measure(false, roles));
+        System.out.printf(Locale.ROOT, "%-48s %,10.1f bytes/member%n", "compact", measure(true, roles));
+    }
+
+    private static double measure(boolean compact, int roleCount) {
+        EnumSet<ConfigFlag> flags = ConfigFlag.getDefault();
+        if (compact) {
+            flags.add(ConfigFlag.COMPACT_MEMBER_ROLES);
+        }
+        JDAImpl api = new JDAImpl(
+                new AuthorizationConfig("benchmark"), null, null, new MetaConfig(2048, null, null, flags), null);
+        GuildImpl guild = new GuildImpl(api, 1);
+        Role[] roles = new Role[GUILD_ROLES];
+        for (int i = 0; i < roles.length; i++) {
+            roles[i] = new RoleImpl(i + 2, guild);
+        }
+
+        MemberImpl[] members = new MemberImpl[MEMBERS];
+        long before = usedHeap();
+        for (int i = 0; i < members.length; i++) {
+            MemberImpl member = new MemberImpl(guild, new UserImpl(1000L + i, api));
+            for (int j = 0; j < roleCount; j++) {
+                member.getRoleSet().add(roles[(i + j) % roles.length]);
+            }
+            members[i] = member;
+        }
+        long after = usedHeap();
+
+        // Keep the members reachable until the heap was measured
+        if (members[members.length - 1].getRoleSet().size() != Math.min(roleCount, roles.length)) {
+            throw new IllegalStateException("Unexpected number of roles");
+        }
+        return (double) (after - before) / members.length;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
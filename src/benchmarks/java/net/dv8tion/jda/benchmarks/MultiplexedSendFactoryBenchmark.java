@@ -0,0 +1,221 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmarks;
+
+import net.dv8tion.jda.api.audio.factory.IAudioSendSystem;
+import net.dv8tion.jda.api.audio.factory.IPacketProvider;
+import net.dv8tion.jda.api.audio.factory.MultiplexedSendFactory;
+import net.dv8tion.jda.api.audio.hooks.ConnectionStatus;
+import net.dv8tion.jda.api.entities.channel.middleman.AudioChannel;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Measures the packet timing jitter and CPU time of the {@link MultiplexedSendFactory}
+ * at 100, 1,000, and 5,000 connections.
+ *
+ * <p>Every connection provides a prepared opus-sized packet, which is sent to a local socket that never reads it.
+ * The jitter is how far the time between two packets of the same connection differs from the 20 millisecond frame,
+ * which is reported as percentiles over all packets. The CPU time is measured for the worker threads of the factory.
+ * Encryption of the packets is not part of the measurement.
+ *
+ * <p>The number of worker threads can be set with the {@code benchmark.threads} system property,
+ * and defaults to the default of the factory.
+ */
+public class MultiplexedSendFactoryBenchmark {
+    private static final int[] CONNECTIONS = {100, 1_000, 5_000};
+    private static final int PACKET_SIZE = 160;
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(10);
+    // Jitter histogram with 10 microsecond buckets, everything above 100 milliseconds ends up in the last bucket
+    private static final long BUCKET_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final int BUCKETS = 10_001;
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger(
+                "benchmark.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        System.out.printf(Locale.ROOT, "worker threads: %d%n", threads);
+        for (int connections : CONNECTIONS) {
+            runRound(connections, threads);
+        }
+    }
+
+    private static void runRound(int connections, int threads) throws Exception {
+        Recorder recorder = new Recorder();
+        MultiplexedSendFactory factory = new MultiplexedSendFactory(threads);
+        List<IAudioSendSystem> systems = new ArrayList<>(connections);
+        try (DatagramChannel sink = DatagramChannel.open();
+                DatagramSocket udpSocket = new DatagramSocket()) {
+            sink.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            InetSocketAddress address = (InetSocketAddress) sink.getLocalAddress();
+            for (int i = 0; i < connections; i++) {
+                IAudioSendSystem system =
+                        factory.createSendSystem(new TimedPacketProvider(recorder, udpSocket, address));
+                system.start();
+                systems.add(system);
+            }
+
+            TimeUnit.NANOSECONDS.sleep(WARMUP_NANOS);
+            long cpuStart = workerCpuTime();
+            long start = System.nanoTime();
+            recorder.recording = true;
+            TimeUnit.NANOSECONDS.sleep(MEASURE_NANOS);
+            recorder.recording = false;
+            long elapsed = System.nanoTime() - start;
+            long cpu = workerCpuTime() - cpuStart;
+
+            long packets = recorder.count();
+            long expected = elapsed / FRAME_NANOS * connections;
+            System.out.printf(
+                    Locale.ROOT,
+                    "connections=%-6d packets=%,d (%.1f%%)  jitter p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms"
+                            + "  cpu=%.1f%% of a core (%.2fus/packet)%n",
+                    connections,
+                    packets,
+                    packets * 100.0 / expected,
+                    recorder.percentile(0.5) / 1e6,
+                    recorder.percentile(0.99) / 1e6,
+                    recorder.percentile(0.999) / 1e6,
+                    recorder.max.get() / 1e6,
+                    cpu * 100.0 / elapsed,
+                    packets == 0 ? 0 : cpu / 1e3 / packets);
+        } finally {
+            systems.forEach(IAudioSendSystem::shutdown);
+            factory.shutdown();
+        }
+    }
+
+    private static long workerCpuTime() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("MultiplexedSendFactory Worker")) {
+                total += Math.max(0, threads.getThreadCpuTime(thread.getId()));
+            }
+        }
+        return total;
+    }
+
+    private static class Recorder {
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        private final AtomicLong max = new AtomicLong();
+        private volatile boolean recording;
+
+        private void record(long jitter) {
+            histogram.incrementAndGet((int) Math.min(BUCKETS - 1, jitter / BUCKET_NANOS));
+            max.accumulateAndGet(jitter, Math::max);
+        }
+
+        private long count() {
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                count += histogram.get(i);
+            }
+            return count;
+        }
+
+        private long percentile(double percentile) {
+            long target = (long) Math.ceil(count() * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram.get(i);
+                if (seen >= target) {
+                    return i * BUCKET_NANOS;
+                }
+            }
+            return max.get();
+        }
+    }
+
+    private static class TimedPacketProvider implements IPacketProvider {
+        private final ByteBuffer packet = ByteBuffer.allocateDirect(PACKET_SIZE);
+        private final Recorder recorder;
+        private final DatagramSocket udpSocket;
+        private final InetSocketAddress address;
+        private long lastPacket;
+
+        private TimedPacketProvider(Recorder recorder, DatagramSocket udpSocket, InetSocketAddress address) {
+            this.recorder = recorder;
+            this.udpSocket = udpSocket;
+            this.address = address;
+        }
+
+        @Nonnull
+        @Override
+        public String getIdentifier() {
+            return "benchmark";
+        }
+
+        @Nonnull
+        @Override
+        public AudioChannel getConnectedChannel() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Nonnull
+        @Override
+        public DatagramSocket getUdpSocket() {
+            return udpSocket;
+        }
+
+        @Nonnull
+        @Override
+        public InetSocketAddress getSocketAddress() {
+            return address;
+        }
+
+        @Override
+        public ByteBuffer getNextPacketRaw(boolean changeTalking) {
+            // Only called by the worker thread of this connection
+            long now = System.nanoTime();
+            if (lastPacket != 0 && recorder.recording) {
+                recorder.record(Math.abs(now - lastPacket - FRAME_NANOS));
+            }
+            lastPacket = now;
+            packet.clear();
+            return packet;
+        }
+
+        @Override
+        public DatagramPacket getNextPacket(boolean changeTalking) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void onConnectionError(@Nonnull ConnectionStatus status) {}
+
+        @Override
+        public void onConnectionLost() {}
+    }
+}
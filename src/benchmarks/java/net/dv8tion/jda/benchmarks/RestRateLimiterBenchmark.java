@@ -0,0 +1,165 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmarks;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.requests.SequentialRestRateLimiter;
+import okhttp3.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Measures how many requests per second can be enqueued and dispatched by the {@link SequentialRestRateLimiter},
+ * compared to the {@link GlobalLockRestRateLimiter previous implementation} with a single global lock.
+ *
+ * <p>Requests complete immediately without a response, so this only measures the overhead of the rate limiter itself.
+ * The requests are spread over a number of buckets, and enqueued by 1, 8, and 64 threads at once.
+ */
+public class RestRateLimiterBenchmark {
+    private static final int REQUESTS_PER_THREAD = 50_000;
+    private static final int BUCKETS = 64;
+    private static final int[] THREADS = {1, 8, 64};
+
+    public static void main(String[] args) throws Exception {
+        for (int producers : THREADS) {
+            long operations = (long) producers * REQUESTS_PER_THREAD;
+            Benchmark.run(
+                    "global lock threads=" + producers,
+                    operations,
+                    () -> runRound(producers, GlobalLockRestRateLimiter::new));
+            Benchmark.run(
+                    "per-bucket threads=" + producers,
+                    operations,
+                    () -> runRound(producers, SequentialRestRateLimiter::new));
+        }
+    }
+
+    private static void runRound(
+            int producers, Function<RestRateLimiter.RateLimitConfig, RestRateLimiter> implementation)
+            throws Exception {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        ExecutorService elastic = Executors.newCachedThreadPool();
+        ExecutorService producerPool = Executors.newFixedThreadPool(producers);
+        RestRateLimiter.RateLimitConfig config =
+                new RestRateLimiter.RateLimitConfig(scheduler, elastic, RestRateLimiter.GlobalRateLimit.create(), true);
+        RestRateLimiter rateLimiter = implementation.apply(config);
+
+        CountDownLatch done = new CountDownLatch(producers * REQUESTS_PER_THREAD);
+        Route.CompiledRoute[] routes = new Route.CompiledRoute[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            routes[i] = Route.Messages.SEND_MESSAGE.compile(String.valueOf(i));
+        }
+
+        try {
+            List<Future<?>> tasks = new ArrayList<>(producers);
+            for (int i = 0; i < producers; i++) {
+                int offset = i;
+                tasks.add(producerPool.submit(() -> {
+                    for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+                        rateLimiter.enqueue(new ImmediateWork(routes[(offset + j) % BUCKETS], done));
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            if (!done.await(1, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Requests did not finish in time");
+            }
+        } finally {
+            rateLimiter.stop(true, () -> {});
+            producerPool.shutdownNow();
+            elastic.shutdownNow();
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static class ImmediateWork implements RestRateLimiter.Work {
+        private static final CompletableFuture<Response> RESPONSE = CompletableFuture.completedFuture(null);
+
+        private final Route.CompiledRoute route;
+        private final CountDownLatch done;
+        private volatile boolean executed;
+
+        private ImmediateWork(Route.CompiledRoute route, CountDownLatch done) {
+            this.route = route;
+            this.done = done;
+        }
+
+        @Nonnull
+        @Override
+        public Route.CompiledRoute getRoute() {
+            return route;
+        }
+
+        @Nonnull
+        @Override
+        public JDA getJDA() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Response execute() {
+            return executeAsync().join();
+        }
+
+        @Nonnull
+        @Override
+        public CompletableFuture<Response> executeAsync() {
+            executed = true;
+            done.countDown();
+            return RESPONSE;
+        }
+
+        @Override
+        public boolean isSkipped() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return executed;
+        }
+
+        @Override
+        public boolean isPriority() {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void cancel() {}
+    }
+}
@@ -46,6 +46,7 @@ import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.Once;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.api.utils.cache.CacheView;
+import net.dv8tion.jda.api.utils.cache.EventCacheMetrics;
 import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
 import net.dv8tion.jda.internal.interactions.CommandDataImpl;
 import net.dv8tion.jda.internal.requests.CompletedRestAction;
@@ -1797,6 +1798,21 @@ public interface JDA extends IGuildChannelContainer<Channel> {
      */
     long getResponseTotal();
 
+    /**
+     * Metrics for the events which are held back, because they reference an entity which is not loaded yet.
+     * <br>These events are replayed once the entity is loaded, or dropped if it is not loaded soon enough.
+     *
+     * @param  type
+     *         The type of entity the events are waiting for
+     *
+     * @throws IllegalArgumentException
+     *         If the provided type is null
+     *
+     * @return The live {@link EventCacheMetrics} for the provided type
+     */
+    @Nonnull
+    EventCacheMetrics getEventCacheMetrics(@Nonnull EventCacheMetrics.Type type);
+
     /**
      * This value is the maximum amount of time, in seconds, that JDA will wait between reconnect attempts.
      * <br>Can be set using {@link net.dv8tion.jda.api.JDABuilder#setMaxReconnectDelay(int) JDABuilder.setMaxReconnectDelay(int)}.
@@ -42,8 +42,9 @@ public interface AudioSendHandler {
 
     /**
      * If {@link #canProvide()} returns true JDA will call this method in an attempt to retrieve audio data from the
-     * handler. This method need to provide 20 Milliseconds of audio data as a <b>array-backed</b> {@link java.nio.ByteBuffer}.
-     * Use either {@link java.nio.ByteBuffer#allocate(int)} or {@link java.nio.ByteBuffer#wrap(byte[])}.
+     * handler. This method need to provide 20 Milliseconds of audio data as a {@link java.nio.ByteBuffer}.
+     * The buffer may be {@link java.nio.ByteBuffer#allocateDirect(int) direct}, which avoids copying audio
+     * from native sources, and can be reused for every frame, since JDA does not keep a reference to it.
      * <p>
      * Considering this system needs to be low-latency / high-speed, it is recommended that the loading of audio data
      * be done before hand or in parallel and not loaded from disk when this method is called by JDA. Attempting to load
@@ -100,6 +100,8 @@ public interface IPacketProvider {
      *
      * <p><b>Note:</b> When the AudioSendHandler cannot or does not provide a new packet to send, this method will return null.
      *
+     * <p><u>The packet and its data may be used again on the next call to this getter, if you plan on storing it, copy it.</u>
+     *
      * @return Possibly-null {@link java.net.DatagramPacket DatagramPacket} containing an encoded and encrypted packet
      *         of audio data ready to be sent to discord.
      */
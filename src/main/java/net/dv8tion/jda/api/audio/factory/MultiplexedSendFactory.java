@@ -0,0 +1,311 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.api.audio.factory;
+
+import net.dv8tion.jda.internal.audio.AudioConnection;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.net.NoRouteToHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import static net.dv8tion.jda.api.audio.OpusPacket.OPUS_FRAME_TIME_AMOUNT;
+
+/**
+ * An {@link IAudioSendFactory} which sends the audio of all its connections from a small, fixed pool of threads.
+ *
+ * <p>The {@link DefaultSendFactory} starts one thread per audio connection, which does not scale well
+ * for applications with thousands of voice connections. This factory instead assigns every connection
+ * to the worker thread with the fewest connections. Each worker wakes up once every 20 milliseconds,
+ * based on {@link System#nanoTime()} deadlines, and sends one packet for each of its connections.
+ *
+ * <p>Packets are sent through a non-blocking {@link DatagramChannel} per connection,
+ * connected to the {@link IPacketProvider#getSocketAddress() voice server address}.
+ * If the channel cannot accept a packet right away, the packet is dropped instead of stalling the other connections.
+ * Receiving audio still uses the {@link IPacketProvider#getUdpSocket() connection socket} and is not affected.
+ *
+ * <p>A worker has to produce the packets of all its connections within a single frame.
+ * Sending a packet takes a few microseconds of CPU time, without encryption, which limits a single worker
+ * to about 5,000 connections before it uses an entire core. Beyond that, or when the worker does not get a core
+ * to itself, packets are sent late and the timing jitter grows quickly.
+ * Encrypting the packets, and encoding PCM audio rather than providing opus frames, lowers this limit considerably.
+ * Use enough worker threads to keep each of them well below this limit, for instance 1,000 connections per thread.
+ *
+ * <p>The same factory instance should be shared by all shards, using
+ * {@link net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder#setAudioSendFactory(IAudioSendFactory)}.
+ * The worker threads are daemon threads, started on demand, which stay idle while they have no connections.
+ */
+public class MultiplexedSendFactory implements IAudioSendFactory {
+    private static final Logger LOG = JDALogger.getLog(MultiplexedSendFactory.class);
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(OPUS_FRAME_TIME_AMOUNT);
+    // Skip ahead instead of sending a burst of packets, when a worker falls behind by more than 3 frames
+    private static final long MAX_DELAY_NANOS = FRAME_NANOS * 3;
+
+    private final Worker[] workers;
+
+    /**
+     * Creates a new factory with one worker thread for every two available processors.
+     */
+    public MultiplexedSendFactory() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * Creates a new factory with the provided number of worker threads.
+     *
+     * @param  threadCount
+     *         The number of worker threads
+     *
+     * @throws IllegalArgumentException
+     *         If the thread count is not positive
+     */
+    public MultiplexedSendFactory(int threadCount) {
+        Checks.positive(threadCount, "Thread count");
+        this.workers = new Worker[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            workers[i] = new Worker(i);
+        }
+    }
+
+    /**
+     * The number of worker threads used by this factory.
+     *
+     * @return The number of worker threads
+     */
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    /**
+     * The number of connections currently sending through this factory.
+     *
+     * @return The number of connections
+     */
+    public int getConnectionCount() {
+        int count = 0;
+        for (Worker worker : workers) {
+            count += worker.senders.size();
+        }
+        return count;
+    }
+
+    @Nonnull
+    @Override
+    public IAudioSendSystem createSendSystem(@Nonnull IPacketProvider packetProvider) {
+        return new MultiplexedSendSystem(packetProvider);
+    }
+
+    /**
+     * Stops all worker threads.
+     * <br>Connections which are still using this factory will stop sending audio.
+     */
+    public void shutdown() {
+        for (Worker worker : workers) {
+            worker.shutdown();
+        }
+    }
+
+    private synchronized Worker register(MultiplexedSendSystem sender) {
+        Worker target = workers[0];
+        for (Worker worker : workers) {
+            if (worker.senders.size() < target.senders.size()) {
+                target = worker;
+            }
+        }
+        target.add(sender);
+        return target;
+    }
+
+    private class MultiplexedSendSystem implements IAudioSendSystem {
+        private final IPacketProvider packetProvider;
+        private ConcurrentMap<String, String> contextMap;
+        private DatagramChannel channel;
+        private Worker worker;
+        private long lastFrameSent;
+        private boolean sentPacket = true;
+
+        private MultiplexedSendSystem(IPacketProvider packetProvider) {
+            this.packetProvider = packetProvider;
+        }
+
+        @Override
+        public void setContextMap(@CheckForNull ConcurrentMap<String, String> contextMap) {
+            this.contextMap = contextMap;
+        }
+
+        @Override
+        public synchronized void start() {
+            if (worker != null) {
+                return;
+            }
+            try {
+                channel = DatagramChannel.open();
+                channel.configureBlocking(false);
+                channel.connect(packetProvider.getSocketAddress());
+            } catch (IOException e) {
+                AudioConnection.LOG.error("Failed to open udp channel for audio sending", e);
+                closeChannel();
+                packetProvider.onConnectionLost();
+                return;
+            }
+            lastFrameSent = System.nanoTime();
+            worker = register(this);
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            if (worker != null) {
+                worker.remove(this);
+                worker = null;
+            }
+            closeChannel();
+        }
+
+        // Called by the worker thread, returns false once this connection should be removed
+        private boolean sendNext(long now) {
+            if (packetProvider.getUdpSocket().isClosed() || !channel.isOpen()) {
+                return false;
+            }
+            if (contextMap != null) {
+                MDC.setContextMap(contextMap);
+            }
+            try {
+                boolean changeTalking = !sentPacket || now - lastFrameSent > FRAME_NANOS;
+                ByteBuffer packet = packetProvider.getNextPacketRaw(changeTalking);
+                sentPacket = packet != null;
+                if (sentPacket) {
+                    // A full send buffer returns 0, in that case this frame is dropped
+                    channel.write(packet);
+                    lastFrameSent = now;
+                }
+            } catch (NoRouteToHostException e) {
+                packetProvider.onConnectionLost();
+            } catch (ClosedChannelException e) {
+                // The connection has been shut down concurrently
+                return false;
+            } catch (Exception e) {
+                AudioConnection.LOG.error("Error while sending udp audio data", e);
+            } finally {
+                if (contextMap != null) {
+                    MDC.clear();
+                }
+            }
+            return true;
+        }
+
+        private void closeChannel() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static class Worker implements Runnable {
+        private final List<MultiplexedSendSystem> senders = new CopyOnWriteArrayList<>();
+        private final int id;
+        private Thread thread;
+        private volatile boolean shutdown;
+
+        private Worker(int id) {
+            this.id = id;
+        }
+
+        private synchronized void add(MultiplexedSendSystem sender) {
+            senders.add(sender);
+            if (thread == null) {
+                startThread();
+            } else {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        private void remove(MultiplexedSendSystem sender) {
+            senders.remove(sender);
+        }
+
+        private synchronized void startThread() {
+            if (shutdown) {
+                return;
+            }
+            thread = new Thread(this, "MultiplexedSendFactory Worker " + id);
+            thread.setUncaughtExceptionHandler((t, throwable) -> {
+                LOG.error("Uncaught exception in audio send worker", throwable);
+                startThread();
+            });
+            thread.setDaemon(true);
+            thread.setPriority((Thread.NORM_PRIORITY + Thread.MAX_PRIORITY) / 2);
+            thread.start();
+        }
+
+        private synchronized void shutdown() {
+            shutdown = true;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            long deadline = System.nanoTime();
+            while (!shutdown) {
+                if (senders.isEmpty()) {
+                    // Sleep until the next connection is added, a spurious wakeup only checks again
+                    LockSupport.park(this);
+                    deadline = System.nanoTime();
+                    continue;
+                }
+
+                long now = System.nanoTime();
+                for (MultiplexedSendSystem sender : senders) {
+                    if (shutdown) {
+                        return;
+                    }
+                    if (!sender.sendNext(now)) {
+                        senders.remove(sender);
+                    }
+                }
+
+                deadline += FRAME_NANOS;
+                now = System.nanoTime();
+                if (now - deadline > MAX_DELAY_NANOS) {
+                    deadline = now;
+                }
+                while (!shutdown && deadline - now > 0) {
+                    LockSupport.parkNanos(this, deadline - now);
+                    now = System.nanoTime();
+                }
+            }
+        }
+    }
+}
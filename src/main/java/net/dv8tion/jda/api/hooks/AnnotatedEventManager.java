@@ -23,6 +23,9 @@ import net.dv8tion.jda.internal.utils.JDALogger;
 import org.jetbrains.annotations.Unmodifiable;
 import org.slf4j.Logger;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -48,6 +51,10 @@ import javax.annotation.Nonnull;
  * }
  * }
  *
+ * <p>By default, listener methods are invoked reflectively.
+ * Use {@link #AnnotatedEventManager(boolean)} to enable compiled dispatch,
+ * which resolves the listener methods for each event class once and invokes them through pre-bound {@link MethodHandle MethodHandles}.
+ *
  * @see net.dv8tion.jda.api.hooks.InterfacedEventManager
  * @see net.dv8tion.jda.api.hooks.IEventManager
  * @see net.dv8tion.jda.api.hooks.SubscribeEvent
@@ -56,6 +63,30 @@ public class AnnotatedEventManager implements IEventManager {
     private static final Logger LOGGER = JDALogger.getLog(AnnotatedEventManager.class);
     private final Set<Object> listeners = ConcurrentHashMap.newKeySet();
     private final Map<Class<?>, Map<Object, List<Method>>> methods = new ConcurrentHashMap<>();
+    private final boolean compiled;
+    // Concrete event class -> flattened listener methods, replaced whenever the listeners change
+    private volatile Map<Class<?>, MethodHandle[]> compiledMethods = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new AnnotatedEventManager, which invokes listener methods reflectively.
+     */
+    public AnnotatedEventManager() {
+        this(false);
+    }
+
+    /**
+     * Creates a new AnnotatedEventManager.
+     *
+     * <p>When compiled dispatch is enabled, the listener methods for each concrete event class are resolved on the first event of that class
+     * and cached as {@link MethodHandle MethodHandles} bound to their listener instance.
+     * This cache is invalidated whenever a listener is registered or unregistered.
+     *
+     * @param compiled
+     *        True, to enable compiled dispatch
+     */
+    public AnnotatedEventManager(boolean compiled) {
+        this.compiled = compiled;
+    }
 
     @Override
     public void register(@Nonnull Object listener) {
@@ -68,6 +99,7 @@ public class AnnotatedEventManager implements IEventManager {
 
         if (listeners.add(listener)) {
             registerListenerMethods(listener);
+            compiledMethods = new ConcurrentHashMap<>();
         }
     }
 
@@ -94,6 +126,11 @@ public class AnnotatedEventManager implements IEventManager {
 
     @Override
     public void handle(@Nonnull GenericEvent event) {
+        if (compiled) {
+            handleCompiled(event);
+            return;
+        }
+
         for (Class<?> eventClass : ClassWalker.walk(event.getClass())) {
             Map<Object, List<Method>> listeners = methods.get(eventClass);
             if (listeners != null) {
@@ -114,11 +151,57 @@ public class AnnotatedEventManager implements IEventManager {
         }
     }
 
+    private void handleCompiled(GenericEvent event) {
+        Map<Class<?>, MethodHandle[]> cache = compiledMethods;
+        MethodHandle[] handles = cache.get(event.getClass());
+        if (handles == null) {
+            handles = cache.computeIfAbsent(event.getClass(), this::compileMethods);
+        }
+
+        for (MethodHandle handle : handles) {
+            try {
+                handle.invokeExact(event);
+            } catch (Throwable throwable) {
+                JDAImpl.LOG.error("One of the EventListeners had an uncaught exception", throwable);
+                if (throwable instanceof Error) {
+                    throw (Error) throwable;
+                }
+            }
+        }
+    }
+
+    private MethodHandle[] compileMethods(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType handleType = MethodType.methodType(void.class, GenericEvent.class);
+        List<MethodHandle> handles = new ArrayList<>();
+        for (Class<?> eventClass : ClassWalker.walk(type)) {
+            Map<Object, List<Method>> listeners = methods.get(eventClass);
+            if (listeners == null) {
+                continue;
+            }
+
+            listeners.forEach((listener, value) -> value.forEach(method -> {
+                try {
+                    method.setAccessible(true);
+                    MethodHandle handle = lookup.unreflect(method);
+                    if (!Modifier.isStatic(method.getModifiers())) {
+                        handle = handle.bindTo(listener);
+                    }
+                    handles.add(handle.asType(handleType));
+                } catch (IllegalAccessException | RuntimeException e) {
+                    JDAImpl.LOG.error("Couldn't access annotated EventListener method", e);
+                }
+            }));
+        }
+        return handles.toArray(new MethodHandle[0]);
+    }
+
     private void updateMethods() {
         methods.clear();
         for (Object listener : listeners) {
             registerListenerMethods(listener);
         }
+        compiledMethods = new ConcurrentHashMap<>();
     }
 
     private void registerListenerMethods(Object listener) {
@@ -24,6 +24,8 @@ import org.jetbrains.annotations.Unmodifiable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.annotation.Nonnull;
@@ -39,13 +41,37 @@ import javax.annotation.Nonnull;
  *
  * <p><b>This is the default IEventManager used by JDA</b>
  *
+ * <p>Use {@link #InterfacedEventManager(boolean)} to enable indexed dispatch.
+ * This detects which methods each {@link net.dv8tion.jda.api.hooks.ListenerAdapter ListenerAdapter} overrides,
+ * and only delivers events to the adapters that handle them.
+ *
  * @see net.dv8tion.jda.api.hooks.AnnotatedEventManager
  * @see net.dv8tion.jda.api.hooks.IEventManager
  */
 public class InterfacedEventManager implements IEventManager {
     private final CopyOnWriteArrayList<EventListener> listeners = new CopyOnWriteArrayList<>();
+    private final boolean indexed;
+    // Concrete event class -> listeners handling it, replaced whenever the listeners change
+    private volatile Map<Class<?>, EventListener[]> index = new ConcurrentHashMap<>();
+
+    public InterfacedEventManager() {
+        this(false);
+    }
 
-    public InterfacedEventManager() {}
+    /**
+     * Creates a new InterfacedEventManager.
+     *
+     * <p>When indexed dispatch is enabled, the listeners for each concrete event class are resolved on the first event of that class.
+     * A {@link net.dv8tion.jda.api.hooks.ListenerAdapter ListenerAdapter} is skipped for events
+     * where it does not override any of the methods {@link ListenerAdapter#onEvent(GenericEvent)} would call.
+     * Other {@link net.dv8tion.jda.api.hooks.EventListener EventListener} implementations receive every event.
+     *
+     * @param indexed
+     *        True, to enable indexed dispatch
+     */
+    public InterfacedEventManager(boolean indexed) {
+        this.indexed = indexed;
+    }
 
     /**
      * {@inheritDoc}
@@ -59,6 +85,7 @@ public class InterfacedEventManager implements IEventManager {
             throw new IllegalArgumentException("Listener must implement EventListener");
         }
         listeners.add((EventListener) listener);
+        index = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -72,7 +99,9 @@ public class InterfacedEventManager implements IEventManager {
         }
 
         //noinspection SuspiciousMethodCalls
-        listeners.remove(listener);
+        if (listeners.remove(listener)) {
+            index = new ConcurrentHashMap<>();
+        }
     }
 
     @Nonnull
@@ -84,15 +113,46 @@ public class InterfacedEventManager implements IEventManager {
 
     @Override
     public void handle(@Nonnull GenericEvent event) {
+        if (indexed) {
+            for (EventListener listener : getListeners(event.getClass())) {
+                handle(listener, event);
+            }
+            return;
+        }
+
+        for (EventListener listener : listeners) {
+            handle(listener, event);
+        }
+    }
+
+    private void handle(EventListener listener, GenericEvent event) {
+        try {
+            listener.onEvent(event);
+        } catch (Throwable throwable) {
+            JDAImpl.LOG.error("One of the EventListeners had an uncaught exception", throwable);
+            if (throwable instanceof Error) {
+                throw (Error) throwable;
+            }
+        }
+    }
+
+    private EventListener[] getListeners(Class<?> eventType) {
+        Map<Class<?>, EventListener[]> index = this.index;
+        EventListener[] handlers = index.get(eventType);
+        if (handlers == null) {
+            handlers = index.computeIfAbsent(eventType, this::resolveListeners);
+        }
+        return handlers;
+    }
+
+    private EventListener[] resolveListeners(Class<?> eventType) {
+        List<EventListener> handlers = new ArrayList<>();
         for (EventListener listener : listeners) {
-            try {
-                listener.onEvent(event);
-            } catch (Throwable throwable) {
-                JDAImpl.LOG.error("One of the EventListeners had an uncaught exception", throwable);
-                if (throwable instanceof Error) {
-                    throw (Error) throwable;
-                }
+            if (!(listener instanceof ListenerAdapter)
+                    || ListenerAdapter.isHandled(((ListenerAdapter) listener).getClass(), eventType)) {
+                handlers.add(listener);
             }
         }
+        return handlers.toArray(new EventListener[0]);
     }
 }
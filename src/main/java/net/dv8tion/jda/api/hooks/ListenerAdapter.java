@@ -670,13 +670,54 @@ public abstract class ListenerAdapter implements EventListener {
         }
     }
 
-    private static MethodHandle findMethod(Class<?> clazz) {
+    /**
+     * Whether {@link #onEvent(GenericEvent)} would call any method overridden by the listener type for the event type.
+     * <br>Used by the {@link InterfacedEventManager} to skip listeners which do not handle an event.
+     */
+    static boolean isHandled(Class<? extends ListenerAdapter> listenerType, Class<?> eventType) {
+        if (isOverridden(listenerType, "onGenericEvent", GenericEvent.class)) {
+            return true;
+        }
+        if (UpdateEvent.class.isAssignableFrom(eventType)
+                && isOverridden(listenerType, "onGenericUpdate", UpdateEvent.class)) {
+            return true;
+        }
+
+        for (Class<?> clazz : ClassWalker.range(eventType, GenericEvent.class)) {
+            if (unresolved.contains(clazz)) {
+                continue;
+            }
+            MethodHandle mh = methods.computeIfAbsent(clazz, ListenerAdapter::findMethod);
+            if (mh == null) {
+                unresolved.add(clazz);
+                continue;
+            }
+
+            if (isOverridden(listenerType, getMethodName(clazz), clazz)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOverridden(Class<?> listenerType, String name, Class<?> parameterType) {
+        try {
+            return listenerType.getMethod(name, parameterType).getDeclaringClass() != ListenerAdapter.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static String getMethodName(Class<?> clazz) {
         String name = clazz.getSimpleName();
+        return "on" + name.substring(0, name.length() - "Event".length());
+    }
+
+    private static MethodHandle findMethod(Class<?> clazz) {
         MethodType type = MethodType.methodType(Void.TYPE, clazz);
         try {
-            name = "on" + name.substring(0, name.length() - "Event".length());
-            return lookup.findVirtual(ListenerAdapter.class, name, type);
-        } catch (NoSuchMethodException | IllegalAccessException ignored) {
+            return lookup.findVirtual(ListenerAdapter.class, getMethodName(clazz), type);
+        } catch (NoSuchMethodException | IllegalAccessException | IndexOutOfBoundsException ignored) {
         } // this means this is probably a custom event!
         return null;
     }
@@ -47,6 +47,7 @@ public class RestConfig {
     private String userAgent = USER_AGENT;
     private String baseUrl = DEFAULT_BASE_URL;
     private boolean relativeRateLimit = true;
+    private boolean asyncExecution = false;
     private Consumer<? super Request.Builder> customBuilder;
     private Function<? super RestRateLimiter.RateLimitConfig, ? extends RestRateLimiter> rateLimiter =
             SequentialRestRateLimiter::new;
@@ -66,6 +67,25 @@ public class RestConfig {
         return this;
     }
 
+    /**
+     * Whether requests should be executed asynchronously using {@link okhttp3.Call#enqueue(okhttp3.Callback)}.
+     * <br>By default, requests are executed on the rate-limit elastic pool and block a thread until the response is received.
+     *
+     * <p>When enabled, the {@link RestRateLimiter} receives the response through {@link RestRateLimiter.Work#executeAsync()}
+     * and no thread is occupied while a request is in flight.
+     * The number of concurrent requests is then limited by the {@link okhttp3.Dispatcher Dispatcher} of the configured {@link okhttp3.OkHttpClient OkHttpClient} instead.
+     *
+     * @param  asyncExecution
+     *         True, to execute requests asynchronously
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setAsyncExecution(boolean asyncExecution) {
+        this.asyncExecution = asyncExecution;
+        return this;
+    }
+
     /**
      * Provide a custom implementation of {@link RestRateLimiter}.
      * <br>By default, this will use the {@link SequentialRestRateLimiter}.
@@ -208,4 +228,15 @@ public class RestConfig {
     public boolean isRelativeRateLimit() {
         return relativeRateLimit;
     }
+
+    /**
+     * Whether requests are executed asynchronously.
+     *
+     * @return True, if requests are executed asynchronously
+     *
+     * @see    #setAsyncExecution(boolean)
+     */
+    public boolean isAsyncExecution() {
+        return asyncExecution;
+    }
 }
@@ -20,6 +20,7 @@ import net.dv8tion.jda.api.JDA;
 import okhttp3.Response;
 import org.jetbrains.annotations.Blocking;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
@@ -122,6 +123,26 @@ public interface RestRateLimiter {
         @Blocking
         Response execute();
 
+        /**
+         * Executes the request without blocking the calling thread, if supported.
+         * <br>The returned future completes with the same result as {@link #execute()}, which might be null when the request has been skipped.
+         * Retries for certain response codes are already handled by this method.
+         *
+         * <p>By default, this simply calls {@link #execute()} on the calling thread and returns a completed future.
+         *
+         * @return {@link CompletableFuture} of the {@link Response} instance, used to update the rate-limit data
+         */
+        @Nonnull
+        default CompletableFuture<Response> executeAsync() {
+            CompletableFuture<Response> future = new CompletableFuture<>();
+            try {
+                future.complete(execute());
+            } catch (RuntimeException ex) {
+                future.completeExceptionally(ex);
+            }
+            return future;
+        }
+
         /**
          * Whether the request should be skipped.
          * <br>This can be caused by user cancellation.
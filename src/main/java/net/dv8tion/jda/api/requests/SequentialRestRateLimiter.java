@@ -72,17 +72,16 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
     private final Future<?> cleanupWorker;
     private final RateLimitConfig config;
 
-    private boolean isStopped, isShutdown;
+    private volatile boolean isStopped, isShutdown;
 
+    // Only guards the stop/shutdown transitions, buckets are synchronized individually
     private final ReentrantLock lock = new ReentrantLock();
     // Route -> Should we print warning for 429? AKA did we already hit it once before
-    private final Set<Route> hitRatelimit = new HashSet<>(5);
+    private final Set<Route> hitRatelimit = ConcurrentHashMap.newKeySet(5);
     // Route -> Hash
-    private final Map<Route, String> hashes = new HashMap<>();
+    private final ConcurrentMap<Route, String> hashes = new ConcurrentHashMap<>();
     // Hash + Major Parameter -> Bucket
-    private final Map<String, Bucket> buckets = new HashMap<>();
-    // Bucket -> Rate-Limit Worker
-    private final Map<Bucket, Future<?>> rateLimitQueue = new HashMap<>();
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
 
     public SequentialRestRateLimiter(@Nonnull RateLimitConfig config) {
         this.config = config;
@@ -91,11 +90,11 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
 
     @Override
     public void enqueue(@Nonnull RestRateLimiter.Work task) {
-        MiscUtil.locked(lock, () -> {
-            Bucket bucket = getBucket(task.getRoute());
-            bucket.enqueue(task);
-            runBucket(bucket);
-        });
+        // The bucket might be removed by the cleanup worker concurrently, in which case we use its replacement
+        Bucket bucket;
+        do {
+            bucket = getBucket(task.getRoute());
+        } while (!bucket.enqueue(task));
     }
 
     @Override
@@ -129,23 +128,21 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
 
     @Override
     public int cancelRequests() {
-        return MiscUtil.locked(lock, () -> {
-            // Empty buckets will be removed by the cleanup worker,
-            // which also checks for rate limit parameters
-            int cancelled = (int) buckets.values().stream()
-                    .map(Bucket::getRequests)
-                    .flatMap(Collection::stream)
-                    .filter(request -> !request.isPriority() && !request.isCancelled())
-                    .peek(Work::cancel)
-                    .count();
-
-            if (cancelled == 1) {
-                log.warn("Cancelled 1 request!");
-            } else if (cancelled > 1) {
-                log.warn("Cancelled {} requests!", cancelled);
-            }
-            return cancelled;
-        });
+        // Empty buckets will be removed by the cleanup worker,
+        // which also checks for rate limit parameters
+        int cancelled = (int) buckets.values().stream()
+                .map(Bucket::getRequests)
+                .flatMap(Collection::stream)
+                .filter(request -> !request.isPriority() && !request.isCancelled())
+                .peek(Work::cancel)
+                .count();
+
+        if (cancelled == 1) {
+            log.warn("Cancelled 1 request!");
+        } else if (cancelled > 1) {
+            log.warn("Cancelled {} requests!", cancelled);
+        }
+        return cancelled;
     }
 
     private void shutdown() {
@@ -160,42 +157,44 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
         // to avoid memory leakage
         // We will keep the hashes in memory since they are very limited
         // (by the amount of possible routes)
-        MiscUtil.locked(lock, () -> {
-            int size = buckets.size();
-            Iterator<Map.Entry<String, Bucket>> entries = buckets.entrySet().iterator();
-
-            while (entries.hasNext()) {
-                Map.Entry<String, Bucket> entry = entries.next();
-                Bucket bucket = entry.getValue();
-                if (isShutdown) {
-                    bucket.requests.forEach(Work::cancel); // Cancel all requests
-                }
-                bucket.requests.removeIf(Work::isSkipped); // Remove cancelled requests
+        int removed = 0;
+        Iterator<Bucket> iterator = buckets.values().iterator();
+
+        while (iterator.hasNext()) {
+            Bucket bucket = iterator.next();
+            if (isShutdown) {
+                bucket.requests.forEach(Work::cancel); // Cancel all requests
+            }
+            bucket.requests.removeIf(Work::isSkipped); // Remove cancelled requests
 
+            synchronized (bucket) {
                 // Check if the bucket is empty
-                if (bucket.requests.isEmpty() && !rateLimitQueue.containsKey(bucket)) {
-                    // remove uninit if requests are empty
-                    if (bucket.isUninit()) {
-                        entries.remove();
-                        // If the requests of the bucket are drained and the reset is expired the
-                        // bucket has no valuable information
-                    } else if (bucket.reset <= getNow()) {
-                        entries.remove();
-                        // Remove empty buckets when the rate limiter is stopped
-                    } else if (isStopped) {
-                        entries.remove();
-                    }
+                if (!bucket.requests.isEmpty() || bucket.worker != null) {
+                    continue;
                 }
-            }
 
-            // Log how many buckets were removed
-            size -= buckets.size();
-            if (size > 0) {
-                log.debug("Removed {} expired buckets", size);
-            } else if (isStopped && !isShutdown) {
-                shutdown();
+                // remove uninit if requests are empty
+                // If the requests of the bucket are drained and the reset is expired the
+                // bucket has no valuable information
+                // Remove empty buckets when the rate limiter is stopped
+                if (bucket.isUninit() || bucket.reset <= getNow() || isStopped) {
+                    bucket.removed = true;
+                    iterator.remove();
+                    removed++;
+                }
             }
-        });
+        }
+
+        // Log how many buckets were removed
+        if (removed > 0) {
+            log.debug("Removed {} expired buckets", removed);
+        } else if (isStopped && !isShutdown) {
+            MiscUtil.locked(lock, () -> {
+                if (!isShutdown) {
+                    shutdown();
+                }
+            });
+        }
     }
 
     private String getRouteHash(Route route) {
@@ -203,18 +202,21 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
     }
 
     private Bucket getBucket(Route.CompiledRoute route) {
-        return MiscUtil.locked(lock, () -> {
-            // Retrieve the hash via the route
-            String hash = getRouteHash(route.getBaseRoute());
-            // Get or create a bucket for the hash + major parameters
-            String bucketId = hash + ":" + route.getMajorParameters();
-            return this.buckets.computeIfAbsent(bucketId, (id) -> {
-                if (route.getBaseRoute().isInteractionBucket()) {
-                    return new InteractionBucket(id);
-                } else {
-                    return new ClassicBucket(id);
-                }
-            });
+        // Retrieve the hash via the route
+        String hash = getRouteHash(route.getBaseRoute());
+        // Get or create a bucket for the hash + major parameters
+        String bucketId = hash + ":" + route.getMajorParameters();
+        // Avoid locking the map entry if the bucket already exists
+        Bucket bucket = this.buckets.get(bucketId);
+        if (bucket != null) {
+            return bucket;
+        }
+        return this.buckets.computeIfAbsent(bucketId, (id) -> {
+            if (route.getBaseRoute().isInteractionBucket()) {
+                return new InteractionBucket(id);
+            } else {
+                return new ClassicBucket(id);
+            }
         });
     }
 
@@ -250,10 +252,12 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
             return;
         }
         // Schedule a new bucket worker if no worker is running
-        MiscUtil.locked(
-                lock,
-                () -> rateLimitQueue.computeIfAbsent(bucket, k -> config.getScheduler()
-                        .schedule(() -> scheduleElastic(bucket), bucket.getRateLimit(), TimeUnit.MILLISECONDS)));
+        synchronized (bucket) {
+            if (bucket.worker == null) {
+                bucket.worker = config.getScheduler()
+                        .schedule(() -> scheduleElastic(bucket), bucket.getRateLimit(), TimeUnit.MILLISECONDS);
+            }
+        }
     }
 
     private long parseLong(String input) {
@@ -271,117 +275,123 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
     }
 
     private Bucket updateBucket(Route.CompiledRoute route, Response response) {
-        return MiscUtil.locked(lock, () -> {
-            try {
-                Bucket bucket = getBucket(route);
-                Headers headers = response.headers();
-
-                boolean global = headers.get(GLOBAL_HEADER) != null;
-                boolean cloudflare = headers.get("via") == null;
-                String hash = headers.get(HASH_HEADER);
-                String scope = headers.get(SCOPE_HEADER);
-                long now = getNow();
-
-                // Create a new bucket for the hash if needed
-                Route baseRoute = route.getBaseRoute();
-                if (hash != null) {
-                    if (!this.hashes.containsKey(baseRoute)) {
-                        this.hashes.put(baseRoute, hash);
-                        log.debug("Caching bucket hash {} -> {}", baseRoute, hash);
-                    }
+        try {
+            Bucket bucket = getBucket(route);
+            Headers headers = response.headers();
+
+            boolean global = headers.get(GLOBAL_HEADER) != null;
+            boolean cloudflare = headers.get("via") == null;
+            String hash = headers.get(HASH_HEADER);
+            String scope = headers.get(SCOPE_HEADER);
+            long now = getNow();
 
-                    bucket = getBucket(route);
+            // Create a new bucket for the hash if needed
+            Route baseRoute = route.getBaseRoute();
+            if (hash != null) {
+                if (this.hashes.putIfAbsent(baseRoute, hash) == null) {
+                    log.debug("Caching bucket hash {} -> {}", baseRoute, hash);
                 }
 
-                if (response.code() == 429) {
-                    String retryAfterHeader = headers.get(RETRY_AFTER_HEADER);
-                    long retryAfter = parseLong(retryAfterHeader) * 1000; // seconds precision
-                    // Handle global rate limit if necessary
-                    if (global) {
-                        config.getGlobalRateLimit().setClassic(now + retryAfter);
-                        log.error("Encountered global rate limit! Retry-After: {} ms Scope: {}", retryAfter, scope);
-                    }
-                    // Handle cloudflare rate limits,
-                    // this applies to all routes and uses seconds for retry-after
-                    else if (cloudflare) {
-                        config.getGlobalRateLimit().setCloudflare(now + retryAfter);
-                        log.error("Encountered cloudflare rate limit! Retry-After: {} s", retryAfter / 1000);
-                    }
-                    // Handle hard rate limit, pretty much just log that it happened
-                    else {
-                        boolean firstHit = hitRatelimit.add(baseRoute) && retryAfter < 60000;
-                        // Update the bucket to the new information
-                        bucket.remaining = 0;
-                        bucket.reset = now + retryAfter;
-                        // don't log warning if we hit the rate limit for the first time,
-                        // likely due to initialization of the bucket
-                        // unless its a long retry-after delay (more than a minute)
-                        if (firstHit) {
-                            log.debug(
-                                    "Encountered 429 on route {} with bucket {} Retry-After: {} ms Scope: {}",
-                                    baseRoute,
-                                    bucket.bucketId,
-                                    retryAfter,
-                                    scope);
-                        } else {
-                            log.warn(
-                                    "Encountered 429 on route {} with bucket {} Retry-After: {} ms Scope: {}",
-                                    baseRoute,
-                                    bucket.bucketId,
-                                    retryAfter,
-                                    scope);
-                        }
-                    }
+                bucket = getBucket(route);
+            }
 
-                    log.trace("Updated bucket {} to retry after {}", bucket.bucketId, bucket.reset - now);
-                    return bucket;
+            if (response.code() == 429) {
+                String retryAfterHeader = headers.get(RETRY_AFTER_HEADER);
+                long retryAfter = parseLong(retryAfterHeader) * 1000; // seconds precision
+                // Handle global rate limit if necessary
+                if (global) {
+                    config.getGlobalRateLimit().setClassic(now + retryAfter);
+                    log.error("Encountered global rate limit! Retry-After: {} ms Scope: {}", retryAfter, scope);
                 }
-
-                // If hash is null this means we didn't get enough information to update a bucket
-                if (hash == null) {
-                    return bucket;
+                // Handle cloudflare rate limits,
+                // this applies to all routes and uses seconds for retry-after
+                else if (cloudflare) {
+                    config.getGlobalRateLimit().setCloudflare(now + retryAfter);
+                    log.error("Encountered cloudflare rate limit! Retry-After: {} s", retryAfter / 1000);
                 }
-
-                // Update the bucket parameters with new information
-                String limitHeader = headers.get(LIMIT_HEADER);
-                String remainingHeader = headers.get(REMAINING_HEADER);
-                String resetAfterHeader = headers.get(RESET_AFTER_HEADER);
-                String resetHeader = headers.get(RESET_HEADER);
-
-                //                bucket.limit = (int) Math.max(1L, parseLong(limitHeader));
-                bucket.remaining = (int) parseLong(remainingHeader);
-                if (config.isRelative()) {
-                    bucket.reset = now + parseDouble(resetAfterHeader);
-                } else {
-                    bucket.reset = parseDouble(resetHeader);
+                // Handle hard rate limit, pretty much just log that it happened
+                else {
+                    boolean firstHit = hitRatelimit.add(baseRoute) && retryAfter < 60000;
+                    // Update the bucket to the new information
+                    bucket = updateBucket(route, 0, now + retryAfter);
+                    // don't log warning if we hit the rate limit for the first time,
+                    // likely due to initialization of the bucket
+                    // unless its a long retry-after delay (more than a minute)
+                    if (firstHit) {
+                        log.debug(
+                                "Encountered 429 on route {} with bucket {} Retry-After: {} ms Scope: {}",
+                                baseRoute,
+                                bucket.bucketId,
+                                retryAfter,
+                                scope);
+                    } else {
+                        log.warn(
+                                "Encountered 429 on route {} with bucket {} Retry-After: {} ms Scope: {}",
+                                baseRoute,
+                                bucket.bucketId,
+                                retryAfter,
+                                scope);
+                    }
                 }
-                log.trace(
-                        "Updated bucket {} to ({}/{}, {})",
-                        bucket.bucketId,
-                        bucket.remaining,
-                        limitHeader,
-                        bucket.reset - now);
+
+                log.trace("Updated bucket {} to retry after {}", bucket.bucketId, bucket.reset - now);
                 return bucket;
-            } catch (Exception e) {
-                Bucket bucket = getBucket(route);
-                log.error(
-                        "Encountered Exception while updating a bucket. Route: {} Bucket: {} Code: {} Headers:\n{}",
-                        route.getBaseRoute(),
-                        bucket,
-                        response.code(),
-                        response.headers(),
-                        e);
+            }
+
+            // If hash is null this means we didn't get enough information to update a bucket
+            if (hash == null) {
                 return bucket;
             }
-        });
+
+            // Update the bucket parameters with new information
+            String limitHeader = headers.get(LIMIT_HEADER);
+            String remainingHeader = headers.get(REMAINING_HEADER);
+            String resetAfterHeader = headers.get(RESET_AFTER_HEADER);
+            String resetHeader = headers.get(RESET_HEADER);
+
+            //                bucket.limit = (int) Math.max(1L, parseLong(limitHeader));
+            int remaining = (int) parseLong(remainingHeader);
+            long reset = config.isRelative() ? now + parseDouble(resetAfterHeader) : parseDouble(resetHeader);
+            bucket = updateBucket(route, remaining, reset);
+            log.trace(
+                    "Updated bucket {} to ({}/{}, {})",
+                    bucket.bucketId,
+                    bucket.remaining,
+                    limitHeader,
+                    bucket.reset - now);
+            return bucket;
+        } catch (Exception e) {
+            Bucket bucket = getBucket(route);
+            log.error(
+                    "Encountered Exception while updating a bucket. Route: {} Bucket: {} Code: {} Headers:\n{}",
+                    route.getBaseRoute(),
+                    bucket,
+                    response.code(),
+                    response.headers(),
+                    e);
+            return bucket;
+        }
+    }
+
+    private Bucket updateBucket(Route.CompiledRoute route, int remaining, long reset) {
+        // The bucket might be removed by the cleanup worker concurrently, in which case we update its replacement
+        Bucket bucket;
+        do {
+            bucket = getBucket(route);
+        } while (!bucket.update(remaining, reset));
+        return bucket;
     }
 
     private abstract class Bucket implements Runnable {
         protected final String bucketId;
         protected final Deque<Work> requests = new ConcurrentLinkedDeque<>();
 
-        protected long reset = 0;
-        protected int remaining = 1;
+        protected volatile long reset = 0;
+        protected volatile int remaining = 1;
+
+        // Guarded by the bucket monitor
+        protected Future<?> worker;
+        protected boolean removed;
 
         public Bucket(@Nonnull String bucketId) {
             this.bucketId = bucketId;
@@ -391,8 +401,28 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
             return bucketId.startsWith(UNINIT_BUCKET);
         }
 
-        public void enqueue(@Nonnull Work request) {
-            requests.addLast(request);
+        public boolean enqueue(@Nonnull Work request) {
+            synchronized (this) {
+                // Removed by the cleanup worker, the request has to go to the replacement bucket
+                if (removed) {
+                    return false;
+                }
+                requests.addLast(request);
+                runBucket(this);
+                return true;
+            }
+        }
+
+        public boolean update(int remaining, long reset) {
+            synchronized (this) {
+                // Removed by the cleanup worker, the information has to go to the replacement bucket
+                if (removed) {
+                    return false;
+                }
+                this.remaining = remaining;
+                this.reset = reset;
+                return true;
+            }
         }
 
         public void retry(@Nonnull Work request) {
@@ -433,17 +463,23 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
 
         protected void backoff() {
             // Schedule backoff if requests are not done
-            MiscUtil.locked(lock, () -> {
-                rateLimitQueue.remove(this);
+            synchronized (this) {
+                worker = null;
                 if (!requests.isEmpty()) {
                     runBucket(this);
                 } else if (isStopped) {
-                    buckets.remove(bucketId);
+                    removed = true;
+                    buckets.remove(bucketId, this);
                 }
-                if (isStopped && buckets.isEmpty()) {
-                    shutdown();
-                }
-            });
+            }
+
+            if (isStopped && buckets.isEmpty()) {
+                MiscUtil.locked(lock, () -> {
+                    if (!isShutdown) {
+                        shutdown();
+                    }
+                });
+            }
         }
 
         @Nonnull
@@ -452,20 +488,61 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
         }
 
         protected boolean moveRequest(@Nonnull Work request) {
-            return MiscUtil.locked(lock, () -> {
-                // Attempt moving request to correct bucket if it has been created
-                Bucket bucket = getBucket(request.getRoute());
-                if (bucket != this) {
-                    bucket.enqueue(request);
-                    runBucket(bucket);
+            // Attempt moving request to correct bucket if it has been created
+            Bucket bucket = getBucket(request.getRoute());
+            if (bucket == this) {
+                return false;
+            }
+            if (!bucket.enqueue(request)) {
+                enqueue(request);
+            }
+            return true;
+        }
+
+        @Nonnull
+        protected CompletableFuture<Response> execute(@Nonnull Work request) {
+            try {
+                return request.executeAsync();
+            } catch (Throwable ex) {
+                CompletableFuture<Response> future = new CompletableFuture<>();
+                future.completeExceptionally(ex);
+                return future;
+            }
+        }
+
+        protected void resume(@Nonnull Work request, @Nonnull CompletableFuture<Response> future) {
+            // The bucket remains in the rate-limit queue while the request is in flight,
+            // which prevents another worker from being started for it
+            future.whenComplete((response, error) -> {
+                boolean stop = true;
+                try {
+                    stop = handleResult(request, response, error);
+                } finally {
+                    if (stop) {
+                        backoff();
+                    } else {
+                        scheduleElastic(this);
+                    }
                 }
-                return bucket != this;
             });
         }
 
-        protected boolean execute(@Nonnull Work request) {
+        private boolean handleResult(@Nonnull Work request, @Nonnull CompletableFuture<Response> future) {
+            try {
+                return handleResult(request, future.join(), null);
+            } catch (RuntimeException ex) {
+                return handleResult(request, null, ex);
+            }
+        }
+
+        private boolean handleResult(@Nonnull Work request, Response response, Throwable error) {
             try {
-                Response response = request.execute();
+                if (error instanceof CompletionException && error.getCause() != null) {
+                    error = error.getCause();
+                }
+                if (error != null) {
+                    throw error;
+                }
                 if (response != null) {
                     updateBucket(request.getRoute(), response);
                 }
@@ -511,7 +588,14 @@ public final class SequentialRestRateLimiter implements RestRateLimiter {
                     continue;
                 }
 
-                if (execute(request)) {
+                CompletableFuture<Response> future = execute(request);
+                if (!future.isDone()) {
+                    // Continue once the response is received, without blocking this thread
+                    resume(request, future);
+                    return;
+                }
+
+                if (handleResult(request, future)) {
                     break;
                 }
             }
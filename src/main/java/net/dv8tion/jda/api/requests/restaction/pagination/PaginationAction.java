@@ -315,6 +315,42 @@ public interface PaginationAction<T, M extends PaginationAction<T, M>>
      */
     boolean isCacheEnabled();
 
+    /**
+     * The amount of pages to retrieve ahead of the consumer of {@link #iterator()} and {@link #stream()}.
+     * <b>Default: 0</b>
+     *
+     * <p>By default, the next page is only requested once all entities of the current page have been consumed.
+     * With prefetching enabled, the next page is requested as soon as the previous one has been received,
+     * until the specified amount of pages is buffered and waiting to be consumed.
+     * Consuming a page from the buffer resumes the requests.
+     * This means the time spent on processing the entities overlaps with the time spent waiting for new pages,
+     * while the memory used by buffered entities stays bounded.
+     *
+     * <p>Pages are still requested one after another, since every request depends on the last entity of the previous page,
+     * and all requests are subject to the usual rate limits.
+     * Abandoning the iterator early may cause up to {@code pages} pages to be retrieved without being consumed.
+     *
+     * @param  pages
+     *         The maximum amount of buffered pages, or {@code 0} to disable prefetching
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the provided amount is negative
+     *
+     * @return The current PaginationAction implementation instance
+     */
+    @Nonnull
+    @CheckReturnValue
+    M prefetch(int pages);
+
+    /**
+     * The amount of pages retrieved ahead of the consumer.
+     *
+     * @return The amount of prefetched pages, or {@code 0} if prefetching is disabled
+     *
+     * @see    #prefetch(int)
+     */
+    int getPrefetch();
+
     /**
      * The maximum limit that can be used for this PaginationAction
      * <br>Limits provided to {@link #limit(int)} must not be greater
@@ -700,6 +736,8 @@ public interface PaginationAction<T, M extends PaginationAction<T, M>>
      * {@link PaginationIterator PaginationIterator}
      * that will iterate over all entities for this PaginationAction.
      *
+     * <p>If {@link #prefetch(int) prefetching} is enabled, the first page is requested when the iterator is created.
+     *
      * @return new PaginationIterator
      */
     @Nonnull
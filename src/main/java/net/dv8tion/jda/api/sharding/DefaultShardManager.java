@@ -21,13 +21,19 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.ISnowflake;
 import net.dv8tion.jda.api.entities.SelfUser;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.Channel;
+import net.dv8tion.jda.api.entities.channel.concrete.*;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.exceptions.InvalidTokenException;
 import net.dv8tion.jda.api.requests.*;
 import net.dv8tion.jda.api.utils.ChunkingFilter;
 import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.SessionController;
 import net.dv8tion.jda.api.utils.cache.ShardCacheView;
+import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.SelfUserImpl;
@@ -37,7 +43,10 @@ import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.CacheIndex;
+import net.dv8tion.jda.internal.utils.cache.ShardCacheIndex;
 import net.dv8tion.jda.internal.utils.cache.ShardCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.UnifiedCacheViewImpl;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
@@ -51,13 +60,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.EnumSet;
-import java.util.Queue;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.IntFunction;
 
 import javax.annotation.Nonnull;
@@ -92,6 +99,11 @@ public class DefaultShardManager implements ShardManager {
      */
     protected ShardCacheViewImpl shards;
 
+    /**
+     * Index of which shard holds a user, guild, or channel, maintained by the caches of all shards.
+     */
+    protected final ShardCacheIndex cacheIndex = new ShardCacheIndex();
+
     /**
      * This can be used to check if the ShardManager is shutting down.
      */
@@ -252,6 +264,106 @@ public class DefaultShardManager implements ShardManager {
         return shard == null ? null : shard.getGuildById(id);
     }
 
+    @Nonnull
+    @Override
+    public SnowflakeCacheView<Guild> getGuildCache() {
+        return indexedView(Collections.singletonList(cacheIndex.getGuildIndex()), JDA::getGuildCache);
+    }
+
+    @Nullable
+    @Override
+    public User getUserById(long id) {
+        return getUserCache().getElementById(id);
+    }
+
+    @Nonnull
+    @Override
+    public SnowflakeCacheView<User> getUserCache() {
+        return indexedView(Collections.singletonList(cacheIndex.getUserIndex()), JDA::getUserCache);
+    }
+
+    @Nullable
+    @Override
+    public GuildChannel getGuildChannelById(long id) {
+        for (CacheIndex index : cacheIndex.getChannelIndices(GuildChannel.class)) {
+            int shardId = index.getShard(id);
+            if (shardId != CacheIndex.NO_SHARD) {
+                JDA shard = getShardById(shardId);
+                GuildChannel channel = shard == null ? null : shard.getGuildChannelById(id);
+                return channel != null ? channel : ShardManager.super.getGuildChannelById(id);
+            }
+        }
+        return null;
+    }
+
+    @Nonnull
+    @Override
+    public SnowflakeCacheView<Category> getCategoryCache() {
+        return channelView(Category.class, JDA::getCategoryCache);
+    }
+
+    @Nonnull
+    @Override
+    public SnowflakeCacheView<PrivateChannel> getPrivateChannelCache() {
+        return channelView(PrivateChannel.class, JDA::getPrivateChannelCache);
+    }
+
+    @Nonnull
+    @Override
+    public SnowflakeCacheView<TextChannel> getTextChannelCache() {
+        return channelView(TextChannel.class, JDA::getTextChannelCache);
+    }
+
+    @Nonnull
+    @Override
+    public SnowflakeCacheView<VoiceChannel> getVoiceChannelCache() {
+        return channelView(VoiceChannel.class, JDA::getVoiceChannelCache);
+    }
+
+    @Nonnull
+    @Override
+    public SnowflakeCacheView<StageChannel> getStageChannelCache() {
+        return channelView(StageChannel.class, JDA::getStageChannelCache);
+    }
+
+    @Nonnull
+    @Override
+    public SnowflakeCacheView<ThreadChannel> getThreadChannelCache() {
+        return channelView(ThreadChannel.class, JDA::getThreadChannelCache);
+    }
+
+    @Nonnull
+    @Override
+    public SnowflakeCacheView<NewsChannel> getNewsChannelCache() {
+        return channelView(NewsChannel.class, JDA::getNewsChannelCache);
+    }
+
+    @Nonnull
+    @Override
+    public SnowflakeCacheView<ForumChannel> getForumChannelCache() {
+        return channelView(ForumChannel.class, JDA::getForumChannelCache);
+    }
+
+    @Nonnull
+    @Override
+    public SnowflakeCacheView<MediaChannel> getMediaChannelCache() {
+        return channelView(MediaChannel.class, JDA::getMediaChannelCache);
+    }
+
+    private <T extends Channel> SnowflakeCacheView<T> channelView(
+            Class<T> type, Function<JDA, SnowflakeCacheView<T>> mapper) {
+        return indexedView(cacheIndex.getChannelIndices(type), mapper);
+    }
+
+    private <T extends ISnowflake> SnowflakeCacheView<T> indexedView(
+            List<CacheIndex> indices, Function<JDA, SnowflakeCacheView<T>> mapper) {
+        return new UnifiedCacheViewImpl.IndexedSnowflakeCacheView<>(
+                () -> getShardCache().stream().map(mapper), indices, shardId -> {
+                    JDA shard = getShardById(shardId);
+                    return shard == null ? null : mapper.apply(shard);
+                });
+    }
+
     @Nonnull
     @Override
     public ShardCacheView getShardCache() {
@@ -307,6 +419,7 @@ public class DefaultShardManager implements ShardManager {
                 jda.shutdown();
             }
         }
+        cacheIndex.unbind(shardId);
 
         enqueueShard(shardId);
     }
@@ -369,6 +482,7 @@ public class DefaultShardManager implements ShardManager {
                 jda.shutdown();
             }
         }
+        cacheIndex.unbind(shardId);
     }
 
     @Override
@@ -509,7 +623,8 @@ public class DefaultShardManager implements ShardManager {
                 this.metaConfig.getMaxBufferSize(),
                 this.metaConfig.getContextMap(shardId),
                 this.metaConfig.getCacheFlags(),
-                this.sessionConfig.getFlags());
+                this.sessionConfig.getFlags(),
+                cacheIndex.bind(shardId));
         RestConfig restConfig = this.restConfigProvider.apply(shardId);
         if (restConfig == null) {
             restConfig = new RestConfig();
@@ -537,6 +652,11 @@ public class DefaultShardManager implements ShardManager {
             jda.setAudioSendFactory(this.sessionConfig.getAudioSendFactory());
         }
 
+        if (this.sessionConfig.getSessionSnapshotDirectory() != null) {
+            jda.setSessionSnapshotFile(
+                    this.sessionConfig.getSessionSnapshotDirectory().resolve("shard-" + shardId + ".snapshot"));
+        }
+
         jda.addEventListener(this.eventConfig.getListeners().toArray());
         this.eventConfig.getListenerProviders().forEach(provider -> jda.addEventListener(provider.apply(shardId)));
 
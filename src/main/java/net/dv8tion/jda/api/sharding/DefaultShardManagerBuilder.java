@@ -35,12 +35,14 @@ import net.dv8tion.jda.api.utils.SessionController;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.compress.ZstdDecompressor;
 import net.dv8tion.jda.internal.utils.concurrent.CountingThreadFactory;
 import net.dv8tion.jda.internal.utils.config.flags.ConfigFlag;
 import net.dv8tion.jda.internal.utils.config.flags.ShardingConfigFlag;
 import net.dv8tion.jda.internal.utils.config.sharding.*;
 import okhttp3.OkHttpClient;
 
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.IntFunction;
@@ -106,6 +108,7 @@ public class DefaultShardManagerBuilder {
     protected OkHttpClient httpClient = null;
     protected WebSocketFactory wsFactory = null;
     protected IAudioSendFactory audioSendFactory = null;
+    protected Path sessionSnapshotDirectory = null;
     protected ThreadFactory threadFactory = null;
     protected ChunkingFilter chunkingFilter = ChunkingFilter.ALL;
     protected MemberCachePolicy memberCachePolicy = MemberCachePolicy.ALL;
@@ -540,6 +543,111 @@ public class DefaultShardManagerBuilder {
         return setFlag(ConfigFlag.EVENT_PASSTHROUGH, enable);
     }
 
+    /**
+     * Whether the user, guild, and member caches should use lock-free reads.
+     * <br>Default: {@code false}
+     *
+     * <p>By default, every read of these caches, such as {@link net.dv8tion.jda.api.entities.Guild#getMemberById(long) Guild.getMemberById(long)},
+     * acquires a shared read lock, which contends with cache updates from the gateway.
+     * When enabled, these caches are backed by a concurrent map instead, which allows reads without any locking.
+     * Updates are still applied one at a time.
+     * Iteration reads the live cache, so it may or may not see updates which happen while it is in progress.
+     *
+     * <p>This is useful for bots which read these caches from many threads at once, for instance with a large event pool.
+     *
+     * @param  enable
+     *         True, if the caches should use lock-free reads
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setLockFreeCacheEnabled(boolean enable) {
+        return setFlag(ConfigFlag.LOCK_FREE_CACHE, enable);
+    }
+
+    /**
+     * Whether members should be built incrementally while a guild is being chunked.
+     * <br>Default: {@code false}
+     *
+     * <p>By default, JDA keeps the raw JSON of every member received in a {@code GUILD_MEMBERS_CHUNK}
+     * until the guild has been fully chunked, and only then creates the {@link net.dv8tion.jda.api.entities.Member Members}.
+     * When enabled, the members are created as soon as each chunk arrives, and the JSON can be discarded right away.
+     * This reduces the peak memory usage while chunking large guilds, and spreads the work across the chunks.
+     *
+     * <p>Chunk requests are sent as fast as the gateway rate limit allows,
+     * so multiple guilds are chunked concurrently either way.
+     *
+     * @param  enable
+     *         True, if members should be built for each chunk
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     *
+     * @see    #setChunkingFilter(ChunkingFilter)
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setStreamingChunksEnabled(boolean enable) {
+        return setFlag(ConfigFlag.STREAMING_CHUNKS, enable);
+    }
+
+    /**
+     * Whether the roles of cached {@link net.dv8tion.jda.api.entities.Member Members}
+     * should be stored in a compact set.
+     * <br>Default: {@code false}
+     *
+     * <p>By default, every member keeps its roles in a concurrent hash set.
+     * When enabled, the roles are instead kept in a copy-on-write array, which only needs a fraction of the memory.
+     * This is useful when caching a large number of members, since most members only have a few roles.
+     * In exchange, every role update of a member copies its roles.
+     *
+     * <p>Only the role set is stored compactly. Every cached member is still a regular object,
+     * with its own fields for the nickname, avatar, flags, and timestamps, and a reference to its {@link net.dv8tion.jda.api.entities.User User}.
+     * To reduce the memory used by members beyond their roles, cache fewer members with {@link #setMemberCachePolicy(MemberCachePolicy)}.
+     *
+     * @param  enable
+     *         True, if member roles should be stored compactly
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     *
+     * @see    #setMemberCachePolicy(MemberCachePolicy)
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setCompactMemberRolesEnabled(boolean enable) {
+        return setFlag(ConfigFlag.COMPACT_MEMBER_ROLES, enable);
+    }
+
+    /**
+     * Whether gateway events should be applied to the cache in parallel, partitioned by guild.
+     * <br>Default: {@code false}
+     *
+     * <p>By default, every gateway event is handled by the thread that reads the websocket,
+     * which updates the cache before the event is passed on to the {@link #setEventPool(ExecutorService) event pool}.
+     * When enabled, events are instead handed to a fixed set of worker lanes, where each guild is always handled by the same lane.
+     * Events of the same guild are still handled in the order they were received,
+     * while events of different guilds can be handled at the same time.
+     * Events without a guild, like direct messages or {@code USER_UPDATE}, are handled in order on a separate lane.
+     * Events which change the state of the entire session, like {@code READY} or a guild being set up,
+     * wait for all lanes to finish their previous work.
+     *
+     * <p>This is useful for sessions with many active guilds, where a single thread cannot keep up with the gateway.
+     * Since events of different guilds are no longer handled in order, your event listeners should not rely on that order.
+     * {@link #setEventPassthrough(boolean) Event passthrough} and {@link #setRawEventsEnabled(boolean) raw events}
+     * are still provided for each event, on the thread of its lane.
+     *
+     * <p><b>Your event listeners will be called from several threads at once and have to be thread-safe.</b>
+     * This also applies without an {@link #setEventPool(ExecutorService) event pool},
+     * since the events are then passed to your listeners directly on the threads of the lanes.
+     * Any state which is shared between events of different guilds has to be synchronized.
+     *
+     * @param  enable
+     *         True, if events should be handled in parallel
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setParallelDispatchEnabled(boolean enable) {
+        return setFlag(ConfigFlag.PARALLEL_DISPATCH, enable);
+    }
+
     /**
      * Custom {@link RestConfig} to use.
      * <br>This can be used to customize how rate-limits are handled and configure a custom http proxy.
@@ -804,11 +912,15 @@ public class DefaultShardManagerBuilder {
      * <p><b>We recommend to keep this on the default unless you have issues with the decompression</b>
      * <br>This mode might become obligatory in a future version, do not rely on this switch to stay.
      *
+     * <p>{@link net.dv8tion.jda.api.utils.Compression#ZSTD ZSTD} requires the optional
+     * <a href="https://github.com/luben/zstd-jni" target="_blank">zstd-jni</a> dependency.
+     *
      * @param  compression
      *         The compression algorithm to use for the gateway connection
      *
      * @throws java.lang.IllegalArgumentException
-     *         If provided with null
+     *         If provided with null, or if {@link net.dv8tion.jda.api.utils.Compression#ZSTD ZSTD}
+     *         is used without zstd-jni being available
      *
      * @return The DefaultShardManagerBuilder instance. Useful for chaining.
      *
@@ -817,6 +929,9 @@ public class DefaultShardManagerBuilder {
     @Nonnull
     public DefaultShardManagerBuilder setCompression(@Nonnull Compression compression) {
         Checks.notNull(compression, "Compression");
+        Checks.check(
+                compression != Compression.ZSTD || ZstdDecompressor.isAvailable(),
+                "Cannot use ZSTD compression without zstd-jni on the classpath");
         this.compression = compression;
         return this;
     }
@@ -977,6 +1092,39 @@ public class DefaultShardManagerBuilder {
         return this;
     }
 
+    /**
+     * Sets the directory used to persist the gateway session and guild cache of each shard between restarts.
+     *
+     * <p>When this is set, a graceful {@link net.dv8tion.jda.api.JDA#shutdown() shutdown} (including the shutdown hook) writes
+     * the session id, the last sequence number, and the cached guilds, channels, roles, members, and emojis
+     * to a file in this directory, and closes the connection without invalidating the session.
+     * On the next startup, the cache is restored from that file and JDA attempts to resume the session,
+     * instead of identifying and receiving every guild again.
+     * The file is deleted once it has been read.
+     *
+     * <p>If the snapshot is missing, was written by a different account, shard, or intents, or the session
+     * can no longer be resumed, JDA falls back to a regular identify. Threads and voice states are restored as well.
+     * Stickers and scheduled events are not part of the snapshot and are only cached again once they are updated.
+     *
+     * <p>Presences are not part of the snapshot either, since they change too frequently to be restored reliably.
+     * Therefore, no snapshot is written or restored while {@link CacheFlag#ONLINE_STATUS ONLINE_STATUS},
+     * {@link CacheFlag#ACTIVITY ACTIVITY}, or {@link CacheFlag#CLIENT_STATUS CLIENT_STATUS} is enabled,
+     * and such sessions always identify on startup.
+     *
+     * <p>The file contains cached user data and should be stored accordingly.
+     *
+     * @param  directory
+     *         The directory for the snapshot files, each shard uses its own {@code shard-<id>.snapshot} file,
+     *         or null to disable snapshots (default: null)
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setSessionSnapshotDirectory(@Nullable Path directory) {
+        this.sessionSnapshotDirectory = directory;
+        return this;
+    }
+
     /**
      * Changes the factory used to create {@link net.dv8tion.jda.api.audio.factory.IAudioSendSystem IAudioSendSystem}
      * objects which handle the sending loop for audio packets.
@@ -2214,6 +2362,7 @@ public class DefaultShardManagerBuilder {
                 httpClientBuilder,
                 wsFactory,
                 audioSendFactory,
+                sessionSnapshotDirectory,
                 flags,
                 shardingFlags,
                 maxReconnectDelay,
@@ -56,6 +56,12 @@ public class AttachmentProxy extends FileProxy {
         return (AttachmentProxy) super.withClient(customHttpClient);
     }
 
+    @Nonnull
+    @Override
+    public AttachmentProxy withCache(@Nonnull FileProxyCache cache) {
+        return (AttachmentProxy) super.withCache(cache);
+    }
+
     /**
      * Returns the attachment URL for the specified width and height.
      * <br>The width and height is a best-effort resize from Discord.
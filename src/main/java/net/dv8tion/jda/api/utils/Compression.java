@@ -28,7 +28,14 @@ public enum Compression {
     /** Don't use any compression */
     NONE(""),
     /** Use ZLIB transport compression */
-    ZLIB("zlib-stream");
+    ZLIB("zlib-stream"),
+    /**
+     * Use Zstandard transport compression.
+     *
+     * <p>This usually results in smaller payloads and faster decompression than {@link #ZLIB},
+     * but requires the optional <a href="https://github.com/luben/zstd-jni" target="_blank">zstd-jni</a> dependency.
+     */
+    ZSTD("zstd-stream");
 
     private final String key;
 
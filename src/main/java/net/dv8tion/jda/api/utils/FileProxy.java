@@ -39,15 +39,18 @@ import java.util.function.Function;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * A utility class to download files.
  */
 public class FileProxy {
     private static volatile OkHttpClient defaultHttpClient;
+    private static volatile FileProxyCache defaultCache;
 
     private final String url;
     private OkHttpClient customHttpClient;
+    private FileProxyCache customCache;
 
     /**
      * Constructs a new {@link FileProxy} for the provided URL.
@@ -78,6 +81,19 @@ public class FileProxy {
         FileProxy.defaultHttpClient = httpClient;
     }
 
+    /**
+     * Sets the default {@link FileProxyCache} used by {@link FileProxy} and its subclasses.
+     * <br>This can still be overridden on a per-instance basis with {@link #withCache(FileProxyCache)}.
+     *
+     * <p>By default, no cache is used and every download makes a new request.
+     *
+     * @param  cache
+     *         The default cache to use, or null to disable caching
+     */
+    public static void setDefaultCache(@Nullable FileProxyCache cache) {
+        FileProxy.defaultCache = cache;
+    }
+
     /**
      * Returns the URL that has been passed to this proxy.
      * <br>This URL is always from Discord.
@@ -107,8 +123,31 @@ public class FileProxy {
         return this;
     }
 
+    /**
+     * Sets the {@link FileProxyCache} used by this instance, regardless of if {@link #setDefaultCache(FileProxyCache)} has been used or not.
+     *
+     * @param  cache
+     *         The cache to use for downloads of this proxy
+     *
+     * @throws IllegalArgumentException
+     *         If the provided cache is null
+     *
+     * @return This proxy for chaining convenience.
+     */
+    @Nonnull
+    public FileProxy withCache(@Nonnull FileProxyCache cache) {
+        Checks.notNull(cache, "Cache");
+        this.customCache = cache;
+        return this;
+    }
+
     // INTERNAL DOWNLOAD METHODS
 
+    @Nullable
+    protected FileProxyCache getCache() {
+        return customCache != null ? customCache : defaultCache;
+    }
+
     protected OkHttpClient getHttpClient() {
         // Return custom HTTP client if set
         if (customHttpClient != null) {
@@ -159,15 +198,51 @@ public class FileProxy {
     private DownloadTask downloadInternal(String url) {
         CompletableFuture<InputStream> future = new CompletableFuture<>();
 
+        FileProxyCache cache = getCache();
+        FileProxyCache.Entry cached = cache != null ? cache.get(url) : null;
+        if (cached != null && cached.isFresh()) {
+            future.complete(cached.openStream());
+            return new DownloadTask(null, future);
+        }
+
         Request req = getRequest(url);
         OkHttpClient httpClient = getHttpClient();
+        if (cache != null) {
+            httpClient = cache.getHttpClient(httpClient);
+        }
+
+        // Stale entries are revalidated with a conditional request, which avoids downloading unchanged files again
+        FileProxyCache.Entry revalidating = cached != null && cached.canRevalidate() ? cached : null;
+        if (revalidating != null) {
+            Request.Builder builder = req.newBuilder();
+            if (revalidating.getETag() != null) {
+                builder.header("if-none-match", revalidating.getETag());
+            }
+            if (revalidating.getLastModified() != null) {
+                builder.header("if-modified-since", revalidating.getLastModified());
+            }
+            req = builder.build();
+        }
+
         Call newCall = httpClient.newCall(req);
 
         newCall.enqueue(FunctionalCallback.onFailure(
                         (call, e) -> future.completeExceptionally(new UncheckedIOException(e)))
                 .onSuccess((call, response) -> {
-                    if (response.isSuccessful()) {
+                    if (revalidating != null && response.code() == 304) {
+                        IOUtil.silentClose(response);
+                        future.complete(cache.revalidated(revalidating, response));
+                    } else if (response.isSuccessful()) {
                         InputStream body = IOUtil.getBody(response);
+                        if (cache != null && body != null) {
+                            try {
+                                body = cache.store(url, response, body);
+                            } catch (IOException e) {
+                                IOUtil.silentClose(response);
+                                future.completeExceptionally(new UncheckedIOException(e));
+                                return;
+                            }
+                        }
                         if (!future.complete(body)) {
                             IOUtil.silentClose(response);
                         }
@@ -367,7 +442,9 @@ public class FileProxy {
         }
 
         protected void cancelCall() {
-            call.cancel();
+            if (call != null) {
+                call.cancel();
+            }
         }
 
         @Nonnull
@@ -0,0 +1,423 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.utils;
+
+import net.dv8tion.jda.internal.utils.Checks;
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Content cache used by {@link FileProxy} and its subclasses, to serve repeated downloads of the same file locally.
+ *
+ * <p>Files are kept in memory, keyed by their full URL (including query parameters such as the image size),
+ * and the least recently used files are evicted once the {@link #setMemoryLimit(long, int) memory limit} is exceeded.
+ * Once an entry {@link #setExpireAfter(Duration) expires}, the next download revalidates it with a conditional request,
+ * which only downloads the file again if it has changed.
+ *
+ * <p>Optionally, an {@link #setDirectory(Path, long) on-disk cache} can be configured,
+ * which is used for files that are not in memory, or too large to be kept in memory.
+ *
+ * <p>A cache can be shared by all proxies with {@link FileProxy#setDefaultCache(FileProxyCache)},
+ * or used by a single proxy with {@link FileProxy#withCache(FileProxyCache)}.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * FileProxy.setDefaultCache(new FileProxyCache()
+ *         .setMemoryLimit(64 * 1024 * 1024, 4 * 1024 * 1024)
+ *         .setDirectory(Paths.get("cache"), 512 * 1024 * 1024));
+ * }</pre>
+ */
+public class FileProxyCache implements Closeable {
+    /** The default limit for the total size of all files kept in memory, 32 MiB */
+    public static final long DEFAULT_MEMORY_LIMIT = 32 * 1024 * 1024;
+    /** The default limit for the size of a single file kept in memory, 4 MiB */
+    public static final int DEFAULT_ENTRY_LIMIT = 4 * 1024 * 1024;
+    /** The default duration after which an entry is revalidated, 10 minutes */
+    public static final Duration DEFAULT_EXPIRE_AFTER = Duration.ofMinutes(10);
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private volatile long memoryLimit = DEFAULT_MEMORY_LIMIT;
+    private volatile int entryLimit = DEFAULT_ENTRY_LIMIT;
+    private volatile long expireAfter = DEFAULT_EXPIRE_AFTER.toMillis();
+    private volatile Cache diskCache;
+    private long memorySize;
+
+    private OkHttpClient baseClient;
+    private OkHttpClient cachingClient;
+
+    /**
+     * Sets the memory limits of this cache.
+     * <br>Files larger than {@code maxEntrySize} are never kept in memory,
+     * but can still be stored in the {@link #setDirectory(Path, long) disk cache}.
+     *
+     * <p>Default: {@value #DEFAULT_MEMORY_LIMIT} bytes in total, and {@value #DEFAULT_ENTRY_LIMIT} bytes per file
+     *
+     * @param  maxSize
+     *         The maximum size of all files kept in memory, in bytes
+     * @param  maxEntrySize
+     *         The maximum size of a single file kept in memory, in bytes
+     *
+     * @throws IllegalArgumentException
+     *         If either size is negative, or the entry size is larger than the total size
+     *
+     * @return The current FileProxyCache instance
+     */
+    @Nonnull
+    public FileProxyCache setMemoryLimit(long maxSize, int maxEntrySize) {
+        Checks.notNegative(maxSize, "Memory limit");
+        Checks.notNegative(maxEntrySize, "Entry limit");
+        Checks.check(maxEntrySize <= maxSize, "Entry limit must not be larger than memory limit");
+        synchronized (entries) {
+            this.memoryLimit = maxSize;
+            this.entryLimit = maxEntrySize;
+            trim();
+        }
+        return this;
+    }
+
+    /**
+     * Sets the duration after which a cached file is revalidated.
+     * <br>If the server specifies a shorter {@code max-age}, the shorter duration is used instead.
+     *
+     * <p>Revalidation uses the {@code ETag} and {@code Last-Modified} headers of the cached response.
+     * If neither is present, the file is downloaded again.
+     *
+     * <p>Default: {@link #DEFAULT_EXPIRE_AFTER 10 minutes}
+     *
+     * @param  duration
+     *         The duration after which files should be revalidated
+     *
+     * @throws IllegalArgumentException
+     *         If null or negative
+     *
+     * @return The current FileProxyCache instance
+     */
+    @Nonnull
+    public FileProxyCache setExpireAfter(@Nonnull Duration duration) {
+        Checks.notNull(duration, "Duration");
+        Checks.check(!duration.isNegative(), "Duration must not be negative");
+        this.expireAfter = duration.toMillis();
+        return this;
+    }
+
+    /**
+     * Enables the on-disk cache, using the provided directory.
+     * <br>This uses the {@link Cache HTTP cache} of OkHttp, which follows the caching headers sent by the server,
+     * and evicts the least recently used files once the size limit is exceeded.
+     *
+     * <p>The directory should be used exclusively by this cache.
+     *
+     * @param  directory
+     *         The directory to store cached files in, or null to disable the disk cache
+     * @param  maxSize
+     *         The maximum size of the directory, in bytes
+     *
+     * @throws IllegalArgumentException
+     *         If the size is not positive
+     *
+     * @return The current FileProxyCache instance
+     */
+    @Nonnull
+    public FileProxyCache setDirectory(@Nullable Path directory, long maxSize) {
+        Cache cache = null;
+        if (directory != null) {
+            Checks.positive(maxSize, "Disk cache size");
+            cache = new Cache(directory.toFile(), maxSize);
+        }
+        synchronized (this) {
+            this.diskCache = cache;
+            this.baseClient = null;
+            this.cachingClient = null;
+        }
+        return this;
+    }
+
+    /**
+     * The number of downloads which were served from memory, without any request.
+     *
+     * @return The memory hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * The number of downloads which were served from memory,
+     * after a conditional request confirmed that the file did not change.
+     *
+     * @return The revalidation count
+     */
+    public long getRevalidationCount() {
+        return revalidations.get();
+    }
+
+    /**
+     * The number of downloads which could not be served from memory.
+     * <br>These might still have been served by the {@link #getDiskHitCount() disk cache}.
+     *
+     * @return The memory miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * The number of files evicted from memory, to stay within the memory limit.
+     *
+     * @return The eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * The number of downloads served by the disk cache, without any request.
+     *
+     * @return The disk hit count, or 0 if the disk cache is disabled
+     */
+    public long getDiskHitCount() {
+        Cache cache = diskCache;
+        return cache == null ? 0 : cache.hitCount();
+    }
+
+    /**
+     * The total size of all files currently kept in memory.
+     *
+     * @return The memory size in bytes
+     */
+    public long getMemorySize() {
+        synchronized (entries) {
+            return memorySize;
+        }
+    }
+
+    /**
+     * The number of files currently kept in memory.
+     *
+     * @return The number of files
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Removes the file with the provided URL from memory.
+     *
+     * @param  url
+     *         The URL of the file
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     */
+    public void invalidate(@Nonnull String url) {
+        Checks.notNull(url, "URL");
+        synchronized (entries) {
+            Entry entry = entries.remove(url);
+            if (entry != null) {
+                memorySize -= entry.data.length;
+            }
+        }
+    }
+
+    /**
+     * Removes all files from memory.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            memorySize = 0;
+        }
+    }
+
+    /**
+     * Removes all files from memory, and closes the disk cache.
+     *
+     * @throws IOException
+     *         If the disk cache could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        clear();
+        Cache cache = diskCache;
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    // INTERNAL CACHE METHODS
+
+    @Nullable
+    Entry get(String url) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(url);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+        } else if (entry.isFresh()) {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+
+    InputStream revalidated(Entry entry, Response response) {
+        revalidations.incrementAndGet();
+        entry.validUntil = computeExpiration(response);
+        return entry.openStream();
+    }
+
+    InputStream store(String url, Response response, InputStream body) throws IOException {
+        if (response.cacheControl().noStore()) {
+            return body;
+        }
+
+        int limit = entryLimit;
+        byte[] buffer = new byte[(int) Math.min(limit + 1L, 8192)];
+        int length = 0;
+        int read;
+        // Read at most one byte more than the limit, to check whether the whole body fits
+        while ((read = body.read(buffer, length, buffer.length - length)) > 0) {
+            length += read;
+            if (length == buffer.length) {
+                if (length > limit) {
+                    break;
+                }
+                byte[] grown = new byte[(int) Math.min(limit + 1L, buffer.length * 2L)];
+                System.arraycopy(buffer, 0, grown, 0, length);
+                buffer = grown;
+            }
+        }
+
+        if (length > limit) {
+            // Too large to keep in memory, continue streaming the rest of the body
+            return new SequenceInputStream(new ByteArrayInputStream(buffer, 0, length), body);
+        }
+
+        body.close();
+        byte[] data = length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+        Entry entry = new Entry(
+                data, response.header("ETag"), response.header("Last-Modified"), computeExpiration(response));
+        put(url, entry);
+        return entry.openStream();
+    }
+
+    OkHttpClient getHttpClient(OkHttpClient client) {
+        if (diskCache == null) {
+            return client;
+        }
+
+        synchronized (this) {
+            Cache cache = diskCache;
+            if (cache == null) {
+                return client;
+            }
+            if (baseClient != client || cachingClient == null) {
+                baseClient = client;
+                cachingClient = client.newBuilder().cache(cache).build();
+            }
+            return cachingClient;
+        }
+    }
+
+    private void put(String url, Entry entry) {
+        synchronized (entries) {
+            Entry previous = entries.put(url, entry);
+            if (previous != null) {
+                memorySize -= previous.data.length;
+            }
+            memorySize += entry.data.length;
+            trim();
+        }
+    }
+
+    private void trim() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (memorySize > memoryLimit && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            memorySize -= eldest.data.length;
+            evictions.incrementAndGet();
+        }
+    }
+
+    private long computeExpiration(Response response) {
+        long duration = expireAfter;
+        CacheControl cacheControl = response.cacheControl();
+        if (cacheControl.noCache()) {
+            duration = 0;
+        } else if (cacheControl.maxAgeSeconds() >= 0) {
+            duration = Math.min(duration, TimeUnit.SECONDS.toMillis(cacheControl.maxAgeSeconds()));
+        }
+        return System.currentTimeMillis() + duration;
+    }
+
+    static final class Entry {
+        private final byte[] data;
+        private final String etag;
+        private final String lastModified;
+        private volatile long validUntil;
+
+        private Entry(byte[] data, String etag, String lastModified, long validUntil) {
+            this.data = data;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.validUntil = validUntil;
+        }
+
+        boolean isFresh() {
+            return System.currentTimeMillis() < validUntil;
+        }
+
+        boolean canRevalidate() {
+            return etag != null || lastModified != null;
+        }
+
+        String getETag() {
+            return etag;
+        }
+
+        String getLastModified() {
+            return lastModified;
+        }
+
+        InputStream openStream() {
+            return new ByteArrayInputStream(data);
+        }
+    }
+}
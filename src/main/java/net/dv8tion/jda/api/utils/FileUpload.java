@@ -22,6 +22,7 @@ import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.EntityString;
 import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.requestbody.DataSupplierBody;
+import net.dv8tion.jda.internal.utils.requestbody.FileBody;
 import net.dv8tion.jda.internal.utils.requestbody.TypedBody;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
@@ -51,8 +52,9 @@ import javax.annotation.Nullable;
 public class FileUpload implements Closeable, AttachedFile {
     private final InputStream resource;
     private final Supplier<? extends Source> resourceSupplier;
+    private final Path file;
     private String name;
-    private TypedBody<?> body;
+    private volatile TypedBody<?> body;
     private String description;
     private MediaType mediaType = Requester.MEDIA_TYPE_OCTET;
     private byte[] waveform;
@@ -61,12 +63,21 @@ public class FileUpload implements Closeable, AttachedFile {
     protected FileUpload(InputStream resource, String name) {
         this.resource = resource;
         this.resourceSupplier = null;
+        this.file = null;
         this.name = name;
     }
 
     protected FileUpload(Supplier<? extends Source> resourceSupplier, String name) {
         this.resourceSupplier = resourceSupplier;
         this.resource = null;
+        this.file = null;
+        this.name = name;
+    }
+
+    protected FileUpload(Path file, String name) {
+        this.file = file;
+        this.resource = null;
+        this.resourceSupplier = null;
         this.name = name;
     }
 
@@ -175,8 +186,11 @@ public class FileUpload implements Closeable, AttachedFile {
      * Create a new {@link FileUpload} for a local file.
      * <br>This is used to upload data to discord for various purposes.
      *
-     * <p>This opens a {@link FileInputStream}, which will be closed on consumption by the request.
-     * You can use {@link FileUpload#close()} to close the stream manually.
+     * <p>The file is streamed directly from disk, and opened again for every request that uses this upload.
+     * This means the upload can be sent by multiple requests, without holding the file in memory.
+     * Since the file is only read once a request is sent, it must not be moved, deleted, or replaced
+     * until all requests using this upload have completed. Otherwise, these requests fail or upload the new content.
+     * Its size is measured once, when it is first uploaded.
      *
      * @param  file
      *         The {@link File} to upload
@@ -195,19 +209,23 @@ public class FileUpload implements Closeable, AttachedFile {
     @Nonnull
     public static FileUpload fromData(@Nonnull File file, @Nonnull String name) {
         Checks.notNull(file, "File");
-        try {
-            return fromData(new FileInputStream(file), name);
-        } catch (FileNotFoundException e) {
-            throw new UncheckedIOException(e);
+        Checks.notBlank(name, "Name");
+        Path path = file.toPath();
+        if (!Files.isRegularFile(path) || !Files.isReadable(path)) {
+            throw new UncheckedIOException(new FileNotFoundException(file.getPath()));
         }
+        return new FileUpload(path, name);
     }
 
     /**
      * Create a new {@link FileUpload} for a local file.
      * <br>This is used to upload data to discord for various purposes.
      *
-     * <p>This opens a {@link FileInputStream}, which will be closed on consumption by the request.
-     * You can use {@link FileUpload#close()} to close the stream manually.
+     * <p>The file is streamed directly from disk, and opened again for every request that uses this upload.
+     * This means the upload can be sent by multiple requests, without holding the file in memory.
+     * Since the file is only read once a request is sent, it must not be moved, deleted, or replaced
+     * until all requests using this upload have completed. Otherwise, these requests fail or upload the new content.
+     * Its size is measured once, when it is first uploaded.
      *
      * @param  file
      *         The {@link File} to upload
@@ -225,18 +243,19 @@ public class FileUpload implements Closeable, AttachedFile {
     @Nonnull
     public static FileUpload fromData(@Nonnull File file) {
         Checks.notNull(file, "File");
-        try {
-            return fromData(new FileInputStream(file), file.getName());
-        } catch (FileNotFoundException e) {
-            throw new UncheckedIOException(e);
-        }
+        return fromData(file, file.getName());
     }
 
     /**
      * Create a new {@link FileUpload} for a local file.
      * <br>This is used to upload data to discord for various purposes.
      *
-     * <p>This opens the path using {@link Files#newInputStream(Path, OpenOption...)}, which will be closed on consumption by the request.
+     * <p>If no {@link OpenOption OpenOptions} are provided, the file is streamed directly from disk,
+     * and opened again for every request that uses this upload.
+     * Since the file is only read once a request is sent, it must not be moved, deleted, or replaced
+     * until all requests using this upload have completed. Otherwise, these requests fail or upload the new content.
+     * Its size is measured once, when it is first uploaded.
+     * Otherwise, this opens the path using {@link Files#newInputStream(Path, OpenOption...)}, which will be closed on consumption by the request.
      * You can use {@link FileUpload#close()} to close the stream manually.
      *
      * @param  path
@@ -258,6 +277,10 @@ public class FileUpload implements Closeable, AttachedFile {
         Checks.notNull(path, "Path");
         Checks.noneNull(options, "Options");
         Checks.check(Files.isReadable(path), "File for specified path cannot be read. Path: %s", path);
+        if (options.length == 0 && Files.isRegularFile(path)) {
+            Checks.notBlank(name, "Name");
+            return new FileUpload(path, name);
+        }
         try {
             return fromData(Files.newInputStream(path, options), name);
         } catch (IOException e) {
@@ -270,7 +293,12 @@ public class FileUpload implements Closeable, AttachedFile {
      * <br>This is used to upload data to discord for various purposes.
      * Uses {@link Path#getFileName()} to specify the name of the file, to customize the filename use {@link #fromData(Path, String, OpenOption...)}.
      *
-     * <p>This opens the path using {@link Files#newInputStream(Path, OpenOption...)}, which will be closed on consumption by the request.
+     * <p>If no {@link OpenOption OpenOptions} are provided, the file is streamed directly from disk,
+     * and opened again for every request that uses this upload.
+     * Since the file is only read once a request is sent, it must not be moved, deleted, or replaced
+     * until all requests using this upload have completed. Otherwise, these requests fail or upload the new content.
+     * Its size is measured once, when it is first uploaded.
+     * Otherwise, this opens the path using {@link Files#newInputStream(Path, OpenOption...)}, which will be closed on consumption by the request.
      * You can use {@link FileUpload#close()} to close the stream manually.
      *
      * @param  path
@@ -436,6 +464,12 @@ public class FileUpload implements Closeable, AttachedFile {
     public InputStream getData() {
         if (resource != null) {
             return resource;
+        } else if (file != null) {
+            try {
+                return Files.newInputStream(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open file for specified path. Path: " + file, e);
+            }
         } else {
             return Okio.buffer(resourceSupplier.get()).inputStream();
         }
@@ -446,6 +480,7 @@ public class FileUpload implements Closeable, AttachedFile {
      *
      * <p>This body will automatically close the {@link #getData() resource} when the request is done.
      * However, since the body buffers the data, it can be used multiple times regardless.
+     * Uploads created for a local file are streamed directly from disk instead, and never buffered in memory.
      *
      * @param  type
      *         The content-type to use for the body (e.g. {@code "application/octet-stream"})
@@ -456,22 +491,30 @@ public class FileUpload implements Closeable, AttachedFile {
      * @return {@link RequestBody}
      */
     @Nonnull
-    public synchronized RequestBody getRequestBody(@Nonnull MediaType type) {
+    public RequestBody getRequestBody(@Nonnull MediaType type) {
         Checks.notNull(type, "Type");
+        TypedBody<?> body = this.body;
         if (body != null) { // This allows FileUpload to be used more than once!
             return body.withType(type);
         }
 
-        if (resource == null) {
-            return body = new DataSupplierBody(type, resourceSupplier);
-        } else {
-            return body = IOUtil.createRequestBody(type, resource);
+        synchronized (this) {
+            if (this.body != null) {
+                return this.body.withType(type);
+            }
+            if (file != null) {
+                return this.body = new FileBody(type, file);
+            } else if (resource == null) {
+                return this.body = new DataSupplierBody(type, resourceSupplier);
+            } else {
+                return this.body = IOUtil.createRequestBody(type, resource);
+            }
         }
     }
 
     @Override
     @SuppressWarnings("ConstantConditions")
-    public synchronized void addPart(@Nonnull MultipartBody.Builder builder, int index) {
+    public void addPart(@Nonnull MultipartBody.Builder builder, int index) {
         builder.addFormDataPart("files[" + index + "]", name, getRequestBody(mediaType));
     }
 
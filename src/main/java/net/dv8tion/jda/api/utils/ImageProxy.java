@@ -58,6 +58,12 @@ public class ImageProxy extends FileProxy {
         return (ImageProxy) super.withClient(customHttpClient);
     }
 
+    @Nonnull
+    @Override
+    public ImageProxy withCache(@Nonnull FileProxyCache cache) {
+        return (ImageProxy) super.withCache(cache);
+    }
+
     /**
      * Returns the image URL for the specified size.
      * <br>The size is a best-effort resize from Discord, with recommended size values as powers of 2 such as 1024 or 512.
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.api.utils.cache;
+
+import net.dv8tion.jda.api.JDA;
+
+/**
+ * Counters for the events which were held back by JDA, because they referenced an entity which was not loaded yet.
+ * <br>These events are replayed once the entity is loaded, or dropped if it is not loaded soon enough.
+ *
+ * <p>The counters are live and start with the creation of the JDA instance, they are not reset on reconnects.
+ *
+ * @see JDA#getEventCacheMetrics(Type)
+ */
+public interface EventCacheMetrics {
+    /**
+     * The number of events which have been added to the cache.
+     *
+     * @return The number of cached events
+     */
+    long getCached();
+
+    /**
+     * The number of events which have been replayed, after their entity was loaded.
+     *
+     * @return The number of replayed events
+     */
+    long getReplayed();
+
+    /**
+     * The number of events which have been dropped, because their entity was not loaded in time.
+     *
+     * @return The number of expired events
+     */
+    long getExpired();
+
+    /**
+     * The number of events which have been dropped, because their entity was deleted or the session was invalidated.
+     *
+     * @return The number of cleared events
+     */
+    long getCleared();
+
+    /**
+     * The type of entity the cached events are waiting for.
+     */
+    enum Type {
+        USER,
+        MEMBER,
+        GUILD,
+        CHANNEL,
+        ROLE,
+        RELATIONSHIP,
+        CALL,
+        SCHEDULED_EVENT
+    }
+}
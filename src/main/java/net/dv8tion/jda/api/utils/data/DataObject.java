@@ -22,6 +22,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.type.MapType;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import net.dv8tion.jda.api.exceptions.DataObjectParsingException;
 import net.dv8tion.jda.api.exceptions.ParsingException;
 import net.dv8tion.jda.api.utils.MiscUtil;
@@ -29,6 +30,7 @@ import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
 import net.dv8tion.jda.api.utils.data.etf.ExTermEncoder;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.JDALogger;
 import net.dv8tion.jda.internal.utils.SerializationUtil;
 import org.jetbrains.annotations.Contract;
 import org.slf4j.Logger;
@@ -107,6 +109,33 @@ public class DataObject implements SerializableData {
         }
     }
 
+    /**
+     * Parses a JSON payload into a DataObject instance.
+     * <br>This reads the remaining bytes of the buffer, without copying them if the buffer is backed by an accessible array.
+     *
+     * @param  data
+     *         The buffer containing the correctly formatted JSON payload to parse
+     *
+     * @throws net.dv8tion.jda.api.exceptions.ParsingException
+     *         If the provided json is incorrectly formatted
+     *
+     * @return A DataObject instance for the provided payload
+     */
+    @Nonnull
+    public static DataObject fromJson(@Nonnull ByteBuffer data) {
+        try {
+            Map<String, Object> map;
+            if (data.hasArray()) {
+                map = mapper.readValue(data.array(), data.arrayOffset() + data.position(), data.remaining(), mapType);
+            } else {
+                map = mapper.readValue(new ByteBufferBackedInputStream(data.duplicate()), mapType);
+            }
+            return new DataObject(map);
+        } catch (IOException ex) {
+            throw new ParsingException(ex);
+        }
+    }
+
     /**
      * Parses a JSON payload into a DataObject instance.
      *
@@ -196,6 +225,63 @@ public class DataObject implements SerializableData {
         }
     }
 
+    /**
+     * Parses using {@link ExTermDecoder}.
+     * The remaining bytes of the provided buffer must start with the correct version header (131).
+     *
+     * @param  data
+     *         The buffer containing the data to decode
+     *
+     * @throws IllegalArgumentException
+     *         If the provided data is null
+     * @throws net.dv8tion.jda.api.exceptions.ParsingException
+     *         If the provided ETF payload is incorrectly formatted or an I/O error occurred
+     *
+     * @return A DataObject instance for the provided payload
+     */
+    @Nonnull
+    public static DataObject fromETF(@Nonnull ByteBuffer data) {
+        return fromETF(data, false);
+    }
+
+    /**
+     * Parses using {@link ExTermDecoder}.
+     * The remaining bytes of the provided buffer must start with the correct version header (131).
+     *
+     * <p>With {@code parseSnowflakes} enabled, snowflake strings are decoded as numbers,
+     * which makes {@link #getLong(String)} and {@link #getUnsignedLong(String)} cheaper.
+     * Other getters, such as {@link #getString(String)}, still work with these values.
+     *
+     * @param  data
+     *         The buffer containing the data to decode
+     * @param  parseSnowflakes
+     *         Whether to decode snowflake strings as numbers, see {@link ExTermDecoder#unpack(ByteBuffer, boolean)}
+     *
+     * @throws IllegalArgumentException
+     *         If the provided data is null
+     * @throws net.dv8tion.jda.api.exceptions.ParsingException
+     *         If the provided ETF payload is incorrectly formatted or an I/O error occurred
+     *
+     * @return A DataObject instance for the provided payload
+     */
+    @Nonnull
+    public static DataObject fromETF(@Nonnull ByteBuffer data, boolean parseSnowflakes) {
+        Checks.notNull(data, "Data");
+        ByteBuffer buffer = data.slice();
+        try {
+            Map<String, Object> map = ExTermDecoder.unpackMap(buffer, parseSnowflakes);
+            return new DataObject(map);
+        } catch (Exception ex) {
+            log.error("Failed to parse ETF data {}", JDALogger.getLazyString(() -> {
+                ByteBuffer copy = data.duplicate();
+                byte[] arr = new byte[copy.remaining()];
+                copy.get(arr);
+                return Arrays.toString(arr);
+            }), ex);
+            throw new ParsingException(ex);
+        }
+    }
+
     /**
      * Whether the specified key is present.
      *
@@ -16,14 +16,13 @@
 
 package net.dv8tion.jda.api.utils.data.etf;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.zip.InflaterOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 import javax.annotation.Nonnull;
 
@@ -37,6 +36,28 @@ import static net.dv8tion.jda.api.utils.data.etf.ExTermTag.*;
  * @see #unpackList(ByteBuffer)
  */
 public class ExTermDecoder {
+    private static final int KEY_CACHE_SIZE = 1024; // must be a power of two
+    private static final int MAX_CACHED_KEY_LENGTH = 32;
+    private static final int MAX_INFLATE_BUFFER_SIZE = 64 * 1024;
+
+    // Integer.valueOf only caches values up to 127
+    private static final Integer[] SMALL_INTS = new Integer[256];
+    // Keys which hold a list of snowflakes, rather than a single snowflake
+    private static final Set<String> SNOWFLAKE_LIST_KEYS =
+            new HashSet<>(Arrays.asList("roles", "mention_roles", "applied_tags"));
+
+    // Map keys are repeated in every payload, this avoids decoding the same strings over and over.
+    // The entries are immutable, so racing writes only cause a cache miss.
+    private static final CachedKey[] keyCache = new CachedKey[KEY_CACHE_SIZE];
+    private static final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+    private static final ThreadLocal<byte[]> inflateBuffers = new ThreadLocal<>();
+
+    static {
+        for (int i = 0; i < SMALL_INTS.length; i++) {
+            SMALL_INTS[i] = i;
+        }
+    }
+
     /**
      * Unpacks the provided term into a java object.
      *
@@ -61,11 +82,35 @@ public class ExTermDecoder {
      */
     @Nonnull
     public static Object unpack(@Nonnull ByteBuffer buffer) {
+        return unpack(buffer, false);
+    }
+
+    /**
+     * Unpacks the provided term into a java object.
+     *
+     * <p>This uses the same mapping as {@link #unpack(ByteBuffer)}.
+     * If {@code parseSnowflakes} is enabled, snowflake strings are decoded to {@code Long} instead.
+     * This applies to the values of {@code id} and {@code *_id} keys, as well as the elements of
+     * {@code roles}, {@code mention_roles}, and {@code applied_tags} lists.
+     * Strings which would not convert back to the same value, such as {@code "0123"}, are kept as strings.
+     *
+     * @param  buffer
+     *         The {@link ByteBuffer} containing the encoded term
+     * @param  parseSnowflakes
+     *         Whether to decode snowflake strings to {@code Long}
+     *
+     * @throws IllegalArgumentException
+     *         If the buffer does not start with the version byte {@code 131} or contains an unsupported tag
+     *
+     * @return The java object
+     */
+    @Nonnull
+    public static Object unpack(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
         if (buffer.get() != -125) {
             throw new IllegalArgumentException("Failed header check");
         }
 
-        return unpack0(buffer);
+        return unpack0(buffer, parseSnowflakes);
     }
 
     /**
@@ -91,13 +136,37 @@ public class ExTermDecoder {
      * @return The parsed {@link Map} instance
      */
     @Nonnull
-    @SuppressWarnings("unchecked")
     public static Map<String, Object> unpackMap(@Nonnull ByteBuffer buffer) {
-        byte tag = buffer.get(1);
-        if (tag != MAP) {
+        return unpackMap(buffer, false);
+    }
+
+    /**
+     * Unpacks the provided term into a java {@link Map}.
+     *
+     * <p>This uses the same mapping as {@link #unpack(ByteBuffer, boolean)}.
+     *
+     * @param  buffer
+     *         The {@link ByteBuffer} containing the encoded term
+     * @param  parseSnowflakes
+     *         Whether to decode snowflake strings to {@code Long}
+     *
+     * @throws IllegalArgumentException
+     *         If the buffer does not start with a Map term, does not have the right version byte, or the format includes an unsupported tag
+     *
+     * @return The parsed {@link Map} instance
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> unpackMap(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
+        byte tag = buffer.get(buffer.position() + 1);
+        if (tag != MAP && tag != COMPRESSED) {
             throw new IllegalArgumentException("Cannot unpack map from tag " + tag);
         }
-        return (Map<String, Object>) unpack(buffer);
+        Object value = unpack(buffer, parseSnowflakes);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Cannot unpack map from compressed term " + value);
+        }
+        return (Map<String, Object>) value;
     }
 
     /**
@@ -125,7 +194,7 @@ public class ExTermDecoder {
     @Nonnull
     @SuppressWarnings("unchecked")
     public static List<Object> unpackList(@Nonnull ByteBuffer buffer) {
-        byte tag = buffer.get(1);
+        byte tag = buffer.get(buffer.position() + 1);
         if (tag != LIST) {
             throw new IllegalArgumentException("Cannot unpack list from tag " + tag);
         }
@@ -133,11 +202,11 @@ public class ExTermDecoder {
         return (List<Object>) unpack(buffer);
     }
 
-    private static Object unpack0(@Nonnull ByteBuffer buffer) {
+    private static Object unpack0(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
         int tag = buffer.get();
         switch (tag) {
             case COMPRESSED:
-                return unpackCompressed(buffer);
+                return unpackCompressed(buffer, parseSnowflakes);
             case SMALL_INT:
                 return unpackSmallInt(buffer);
             case SMALL_BIGINT:
@@ -160,9 +229,9 @@ public class ExTermDecoder {
                 return unpackAtom(buffer, StandardCharsets.ISO_8859_1);
 
             case MAP:
-                return unpackMap0(buffer);
+                return unpackMap0(buffer, parseSnowflakes);
             case LIST:
-                return unpackList0(buffer);
+                return unpackList0(buffer, parseSnowflakes, false);
             case NIL:
                 return Collections.emptyList();
 
@@ -175,17 +244,55 @@ public class ExTermDecoder {
         }
     }
 
-    private static Object unpackCompressed(@Nonnull ByteBuffer buffer) {
+    private static Object unpackCompressed(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
         int size = buffer.getInt();
-        ByteArrayOutputStream decompressed = new ByteArrayOutputStream(size);
-        try (InflaterOutputStream inflater = new InflaterOutputStream(decompressed)) {
-            inflater.write(buffer.array(), buffer.position(), buffer.remaining());
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        int compressedLength = buffer.remaining();
+        Inflater inflater = inflaters.get();
+        byte[] decompressed = acquireInflateBuffer(size);
+        try {
+            if (buffer.hasArray()) {
+                inflater.setInput(buffer.array(), buffer.arrayOffset() + buffer.position(), compressedLength);
+            } else {
+                byte[] input = new byte[compressedLength];
+                buffer.duplicate().get(input);
+                inflater.setInput(input);
+            }
+
+            int inflated = 0;
+            while (inflated < size && !inflater.finished() && !inflater.needsInput() && !inflater.needsDictionary()) {
+                inflated += inflater.inflate(decompressed, inflated, size - inflated);
+            }
+            if (inflated != size) {
+                throw new IllegalArgumentException(
+                        "Compressed term inflated to " + inflated + " bytes, expected " + size);
+            }
+            ((Buffer) buffer).position(buffer.position() + compressedLength - inflater.getRemaining());
+
+            // The decoded values never reference the buffer, so it can be reused once this returns
+            return unpack0(ByteBuffer.wrap(decompressed, 0, size), parseSnowflakes);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Failed to inflate compressed term", e);
+        } finally {
+            inflater.reset();
+            releaseInflateBuffer(decompressed);
         }
+    }
 
-        buffer = ByteBuffer.wrap(decompressed.toByteArray());
-        return unpack0(buffer);
+    private static byte[] acquireInflateBuffer(int size) {
+        byte[] buffer = inflateBuffers.get();
+        if (buffer == null || buffer.length < size) {
+            return new byte[size];
+        }
+        // Compressed terms could be nested, the inner term must not use the same buffer
+        inflateBuffers.set(null);
+        return buffer;
+    }
+
+    private static void releaseInflateBuffer(byte[] buffer) {
+        byte[] current = inflateBuffers.get();
+        if (buffer.length <= MAX_INFLATE_BUFFER_SIZE && (current == null || current.length < buffer.length)) {
+            inflateBuffers.set(buffer);
+        }
     }
 
     private static double unpackOldFloat(@Nonnull ByteBuffer buffer) {
@@ -210,8 +317,8 @@ public class ExTermDecoder {
         return sign == 0 ? sum : -sum;
     }
 
-    private static int unpackSmallInt(@Nonnull ByteBuffer buffer) {
-        return Byte.toUnsignedInt(buffer.get());
+    private static Integer unpackSmallInt(@Nonnull ByteBuffer buffer) {
+        return SMALL_INTS[Byte.toUnsignedInt(buffer.get())];
     }
 
     private static int unpackInt(@Nonnull ByteBuffer buffer) {
@@ -232,6 +339,35 @@ public class ExTermDecoder {
         return getString(buffer, StandardCharsets.UTF_8, length);
     }
 
+    private static Object unpackSnowflake(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
+        int position = buffer.position();
+        if (buffer.get(position) == BINARY) {
+            int length = buffer.getInt(position + 1);
+            long snowflake = parseSnowflake(buffer, position + 5, length);
+            if (snowflake >= 0) {
+                ((Buffer) buffer).position(position + 5 + length);
+                return snowflake;
+            }
+        }
+        return unpack0(buffer, parseSnowflakes);
+    }
+
+    private static long parseSnowflake(@Nonnull ByteBuffer buffer, int offset, int length) {
+        // Only accept the canonical representation, so that converting back to a string gives the same value
+        if (length < 1 || length > 19 || (length > 1 && buffer.get(offset) == '0')) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = buffer.get(offset + i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
     private static Object unpackSmallAtom(@Nonnull ByteBuffer buffer, @Nonnull Charset charset) {
         int length = Byte.toUnsignedInt(buffer.get());
         return unpackAtom(buffer, charset, length);
@@ -257,33 +393,139 @@ public class ExTermDecoder {
     }
 
     private static String getString(@Nonnull ByteBuffer buffer, @Nonnull Charset charset, int length) {
+        if (buffer.hasArray()) {
+            // Decode directly from the backing array, instead of copying the bytes first
+            int position = buffer.position();
+            String value = new String(buffer.array(), buffer.arrayOffset() + position, length, charset);
+            ((Buffer) buffer).position(position + length);
+            return value;
+        }
         byte[] array = new byte[length];
         buffer.get(array);
         return new String(array, charset);
     }
 
-    private static List<Object> unpackList0(@Nonnull ByteBuffer buffer) {
+    private static String unpackKey(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
+        int position = buffer.position();
+        int tag = buffer.get(position);
+        int headerLength;
+        int length;
+        switch (tag) {
+            case SMALL_ATOM_UTF8:
+            case SMALL_ATOM:
+                headerLength = 2;
+                length = Byte.toUnsignedInt(buffer.get(position + 1));
+                break;
+            case ATOM_UTF8:
+            case ATOM:
+                headerLength = 3;
+                length = Short.toUnsignedInt(buffer.getShort(position + 1));
+                break;
+            case BINARY:
+                headerLength = 5;
+                length = buffer.getInt(position + 1);
+                break;
+            default:
+                return String.valueOf(unpack0(buffer, parseSnowflakes));
+        }
+
+        String key = getCachedKey(buffer, position + headerLength, length);
+        // The nil atom would be decoded to null, which is turned into "null" as a key
+        if (key == null || (tag != BINARY && key.equals("nil"))) {
+            return String.valueOf(unpack0(buffer, parseSnowflakes));
+        }
+        ((Buffer) buffer).position(position + headerLength + length);
+        return key;
+    }
+
+    private static String getCachedKey(@Nonnull ByteBuffer buffer, int offset, int length) {
+        if (length > MAX_CACHED_KEY_LENGTH) {
+            return null;
+        }
+
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(offset + i);
+            if (b < 0) {
+                // Only ASCII keys are cached, those are decoded the same way by every charset
+                return null;
+            }
+            hash = 31 * hash + b;
+        }
+
+        int index = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+        CachedKey cached = keyCache[index];
+        if (cached != null && cached.matches(buffer, offset, length)) {
+            return cached.value;
+        }
+
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        String value = new String(bytes, StandardCharsets.ISO_8859_1).intern();
+        keyCache[index] = new CachedKey(bytes, value);
+        return value;
+    }
+
+    private static boolean isSnowflakeKey(@Nonnull String key) {
+        return key.equals("id") || (key.endsWith("_id") && !key.equals("custom_id"));
+    }
+
+    private static List<Object> unpackList0(
+            @Nonnull ByteBuffer buffer, boolean parseSnowflakes, boolean snowflakeElements) {
         int length = buffer.getInt();
         List<Object> list = new ArrayList<>(length);
         while (length-- > 0) {
-            list.add(unpack0(buffer));
+            list.add(snowflakeElements ? unpackSnowflake(buffer, true) : unpack0(buffer, parseSnowflakes));
         }
-        Object tail = unpack0(buffer);
+        Object tail = unpack0(buffer, parseSnowflakes);
         if (tail != Collections.emptyList()) {
             throw new IllegalArgumentException("Unexpected tail " + tail);
         }
         return list;
     }
 
-    private static Map<String, Object> unpackMap0(@Nonnull ByteBuffer buffer) {
-        Map<String, Object> map = new HashMap<>();
+    private static Map<String, Object> unpackMap0(@Nonnull ByteBuffer buffer, boolean parseSnowflakes) {
         int arity = buffer.getInt();
+        Map<String, Object> map = new HashMap<>(arity * 4 / 3 + 1);
         while (arity-- > 0) {
-            Object rawKey = unpack0(buffer);
-            String key = String.valueOf(rawKey);
-            Object value = unpack0(buffer);
+            String key = unpackKey(buffer, parseSnowflakes);
+            Object value;
+            if (!parseSnowflakes) {
+                value = unpack0(buffer, false);
+            } else if (isSnowflakeKey(key)) {
+                value = unpackSnowflake(buffer, true);
+            } else if (buffer.get(buffer.position()) == LIST && SNOWFLAKE_LIST_KEYS.contains(key)) {
+                buffer.get();
+                value = unpackList0(buffer, true, true);
+            } else {
+                value = unpack0(buffer, true);
+            }
             map.put(key, value);
         }
         return map;
     }
+
+    private static final class CachedKey {
+        private final byte[] bytes;
+        private final String value;
+
+        private CachedKey(byte[] bytes, String value) {
+            this.bytes = bytes;
+            this.value = value;
+        }
+
+        private boolean matches(ByteBuffer buffer, int offset, int length) {
+            if (bytes.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] != buffer.get(offset + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -58,6 +58,7 @@ import net.dv8tion.jda.api.utils.*;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.api.utils.cache.CacheView;
 import net.dv8tion.jda.api.utils.cache.ChannelCacheView;
+import net.dv8tion.jda.api.utils.cache.EventCacheMetrics;
 import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
@@ -65,6 +66,7 @@ import net.dv8tion.jda.internal.entities.EntityBuilder;
 import net.dv8tion.jda.internal.entities.UserImpl;
 import net.dv8tion.jda.internal.handle.EventCache;
 import net.dv8tion.jda.internal.handle.GuildSetupController;
+import net.dv8tion.jda.internal.handle.SocketHandler;
 import net.dv8tion.jda.internal.hooks.EventManagerProxy;
 import net.dv8tion.jda.internal.interactions.CommandDataImpl;
 import net.dv8tion.jda.internal.interactions.command.CommandImpl;
@@ -82,6 +84,7 @@ import net.dv8tion.jda.internal.utils.*;
 import net.dv8tion.jda.internal.utils.Helpers;
 import net.dv8tion.jda.internal.utils.cache.AbstractCacheView;
 import net.dv8tion.jda.internal.utils.cache.ChannelCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.ShardCacheIndex;
 import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
@@ -92,6 +95,7 @@ import okhttp3.RequestBody;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
 
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.concurrent.*;
@@ -102,14 +106,14 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public class JDAImpl implements JDA {
     public static final Logger LOG = JDALogger.getLog(JDA.class);
 
-    protected final SnowflakeCacheViewImpl<User> userCache = new SnowflakeCacheViewImpl<>(User.class, User::getName);
-    protected final SnowflakeCacheViewImpl<Guild> guildCache =
-            new SnowflakeCacheViewImpl<>(Guild.class, Guild::getName);
-    protected final ChannelCacheViewImpl<Channel> channelCache = new ChannelCacheViewImpl<>(Channel.class);
+    protected final SnowflakeCacheViewImpl<User> userCache;
+    protected final SnowflakeCacheViewImpl<Guild> guildCache;
+    protected final ChannelCacheViewImpl<Channel> channelCache;
     protected final ArrayDeque<Long> privateChannelLRU = new ArrayDeque<>();
 
     protected final AbstractCacheView<AudioManager> audioManagers = new CacheView.SimpleCacheView<>(
@@ -135,6 +139,7 @@ public class JDAImpl implements JDA {
     protected WebSocketClient client;
     protected Requester requester;
     protected IAudioSendFactory audioSendFactory = new DefaultSendFactory();
+    protected Path sessionSnapshotFile;
     protected SelfUser selfUser;
     protected ShardInfo shardInfo;
     protected long responseTotal;
@@ -167,12 +172,31 @@ public class JDAImpl implements JDA {
         this.sessionConfig = sessionConfig == null ? SessionConfig.getDefault() : sessionConfig;
         this.metaConfig = metaConfig == null ? MetaConfig.getDefault() : metaConfig;
         this.restConfig = restConfig == null ? new RestConfig() : restConfig;
+        boolean lockFreeCache = this.metaConfig.isLockFreeCache();
+        ShardCacheIndex.Bindings cacheIndex = this.metaConfig.getCacheIndex();
+        if (cacheIndex == null) {
+            this.userCache = new SnowflakeCacheViewImpl<>(User.class, User::getName, lockFreeCache);
+            this.guildCache = new SnowflakeCacheViewImpl<>(Guild.class, Guild::getName, lockFreeCache);
+            this.channelCache = new ChannelCacheViewImpl<>(Channel.class);
+        } else {
+            // Report cache changes to the index of the shard manager, for unified lookups across all shards
+            this.userCache = new SnowflakeCacheViewImpl<>(
+                    User.class, User::getName, lockFreeCache, cacheIndex.getUserBinding());
+            this.guildCache = new SnowflakeCacheViewImpl<>(
+                    Guild.class, Guild::getName, lockFreeCache, cacheIndex.getGuildBinding());
+            this.channelCache = new ChannelCacheViewImpl<>(Channel.class, cacheIndex::getChannelBinding);
+        }
         this.shutdownHook =
                 this.metaConfig.isUseShutdownHook() ? new Thread(this::shutdownNow, "JDA Shutdown Hook") : null;
         this.presence = new PresenceImpl(this);
         this.guildSetupController = new GuildSetupController(this);
         this.audioController = new DirectAudioControllerImpl(this);
-        this.eventCache = new EventCache();
+        this.eventCache = new EventCache(type -> {
+            // Replay with the handlers of the current dispatch lane
+            WebSocketClient socket = this.client;
+            SocketHandler handler = socket == null ? null : socket.getHandlers().get(type);
+            return handler == null ? null : handler::handle;
+        });
         this.eventManager = new EventManagerProxy(new InterfacedEventManager(), this.threadConfig.getEventPool());
     }
 
@@ -205,6 +229,22 @@ public class JDAImpl implements JDA {
         return metaConfig.getMaxBufferSize();
     }
 
+    public boolean isLockFreeCache() {
+        return metaConfig.isLockFreeCache();
+    }
+
+    public boolean isStreamingChunks() {
+        return metaConfig.isStreamingChunks();
+    }
+
+    public boolean isCompactMemberRoles() {
+        return metaConfig.isCompactMemberRoles();
+    }
+
+    public boolean isParallelDispatch() {
+        return metaConfig.isParallelDispatch();
+    }
+
     public boolean chunkGuild(long id) {
         try {
             return isIntent(GatewayIntent.GUILD_MEMBERS) && chunkingFilter.filter(id);
@@ -952,6 +992,13 @@ public class JDAImpl implements JDA {
         return responseTotal;
     }
 
+    @Nonnull
+    @Override
+    public EventCacheMetrics getEventCacheMetrics(@Nonnull EventCacheMetrics.Type type) {
+        Checks.notNull(type, "Type");
+        return eventCache.getMetrics(EventCache.Type.valueOf(type.name()));
+    }
+
     @Override
     public int getMaxReconnectDelay() {
         return sessionConfig.getMaxReconnectDelay();
@@ -1232,6 +1279,15 @@ public class JDAImpl implements JDA {
         this.audioSendFactory = factory;
     }
 
+    @Nullable
+    public Path getSessionSnapshotFile() {
+        return sessionSnapshotFile;
+    }
+
+    public void setSessionSnapshotFile(@Nullable Path file) {
+        this.sessionSnapshotFile = file;
+    }
+
     public void setGatewayPing(long ping) {
         long oldPing = this.gatewayPing;
         this.gatewayPing = ping;
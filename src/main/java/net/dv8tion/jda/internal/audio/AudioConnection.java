@@ -42,6 +42,7 @@ import tomp2p.opuswrapper.Opus;
 import java.net.*;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
 import java.util.*;
@@ -77,6 +78,9 @@ public class AudioConnection {
 
     private AudioChannel channel;
     private PointerByReference opusEncoder;
+    // Reused for every frame, only accessed by the sending thread
+    private ShortBuffer opusInput;
+    private final ByteBuffer opusOutput = ByteBuffer.allocateDirect(4096);
     private ScheduledExecutorService combinedAudioExecutor;
     private IAudioSendSystem sendSystem;
     private Thread receiveThread;
@@ -330,8 +334,11 @@ public class AudioConnection {
                 } catch (SocketException e) {
                     LOG.error("Couldn't set SO_TIMEOUT for UDP socket", e);
                 }
+                // The packet is decrypted into a new buffer, so the receive buffer can be reused
+                byte[] receiveBuffer = new byte[1920];
+                DatagramPacket receivedPacket = new DatagramPacket(receiveBuffer, receiveBuffer.length);
                 while (!udpSocket.isClosed() && !Thread.currentThread().isInterrupted()) {
-                    DatagramPacket receivedPacket = new DatagramPacket(new byte[1920], 1920);
+                    receivedPacket.setData(receiveBuffer, 0, receiveBuffer.length);
                     try {
                         udpSocket.receive(receivedPacket);
 
@@ -451,12 +458,14 @@ public class AudioConnection {
                 });
                 return t;
             });
+            // Mixing buffer reused by every tick of the combined executor
+            int[] mixBuffer = new int[1920]; // 960 PCM samples for each channel
             combinedAudioExecutor.scheduleAtFixedRate(
                     () -> {
                         getJDA().setContext();
                         try {
-                            List<User> users = new LinkedList<>();
-                            List<short[]> audioParts = new LinkedList<>();
+                            List<User> users = new ArrayList<>();
+                            List<short[]> audioParts = new ArrayList<>();
                             if (receiveHandler != null && receiveHandler.canReceiveCombined()) {
                                 long currentTime = System.currentTimeMillis();
                                 for (Map.Entry<User, Queue<AudioData>> entry : combinedQueue.entrySet()) {
@@ -483,22 +492,22 @@ public class AudioConnection {
                                 }
 
                                 if (!audioParts.isEmpty()) {
-                                    int audioLength = audioParts.stream()
-                                            .mapToInt(it -> it.length)
-                                            .max()
-                                            .getAsInt();
-                                    short[] mix = new short[1920]; // 960 PCM samples for each channel
+                                    int audioLength = 0;
+                                    for (short[] audio : audioParts) {
+                                        audioLength = Math.max(audioLength, audio.length);
+                                    }
+                                    int[] samples = mixBuffer.length >= audioLength ? mixBuffer : new int[audioLength];
+                                    Arrays.fill(samples, 0, audioLength, 0);
+                                    for (short[] audio : audioParts) {
+                                        for (int i = 0; i < audio.length; i++) {
+                                            samples[i] += audio[i];
+                                        }
+                                    }
+
+                                    short[] mix = new short[Math.max(1920, audioLength)];
                                     int sample;
                                     for (int i = 0; i < audioLength; i++) {
-                                        sample = 0;
-                                        for (Iterator<short[]> iterator = audioParts.iterator(); iterator.hasNext(); ) {
-                                            short[] audio = iterator.next();
-                                            if (i < audio.length) {
-                                                sample += audio[i];
-                                            } else {
-                                                iterator.remove();
-                                            }
-                                        }
+                                        sample = samples[i];
                                         if (sample > Short.MAX_VALUE) {
                                             mix[i] = Short.MAX_VALUE;
                                         } else if (sample < Short.MIN_VALUE) {
@@ -526,8 +535,15 @@ public class AudioConnection {
     }
 
     private ByteBuffer encodeToOpus(ByteBuffer rawAudio) {
-        ShortBuffer nonEncodedBuffer = ShortBuffer.allocate(rawAudio.remaining() / 2);
-        ByteBuffer encoded = ByteBuffer.allocate(4096);
+        int samples = rawAudio.remaining() / 2;
+        if (opusInput == null || opusInput.capacity() < samples) {
+            // Direct buffers are passed to opus without copying them first
+            opusInput = ByteBuffer.allocateDirect(samples * 2).order(ByteOrder.nativeOrder()).asShortBuffer();
+        }
+        ShortBuffer nonEncodedBuffer = opusInput;
+        ByteBuffer encoded = opusOutput;
+        ((Buffer) nonEncodedBuffer).clear();
+        ((Buffer) encoded).clear();
         for (int i = rawAudio.position(); i < rawAudio.limit(); i += 2) {
             int firstByte =
                     (0x000000FF & rawAudio.get(i)); // Promotes to int and handles the fact that it was unsigned.
@@ -569,7 +585,7 @@ public class AudioConnection {
         private char seq = 0; // Sequence of audio packets. Used to determine the order of the packets.
         private int timestamp = 0; // Used to sync up our packets within the same timeframe of other people talking.
         private ByteBuffer buffer = ByteBuffer.allocate(512);
-        private ByteBuffer encryptionBuffer = ByteBuffer.allocate(512);
+        private DatagramPacket packet;
 
         @Nonnull
         @Override
@@ -607,12 +623,7 @@ public class AudioConnection {
             try {
                 if (sendHandler != null && sendHandler.canProvide()) {
                     ByteBuffer rawAudio = sendHandler.provide20MsAudio();
-                    if (rawAudio != null && !rawAudio.hasArray()) {
-                        // we can't use the boxer without an array so encryption would not work
-                        LOG.error("AudioSendHandler provided ByteBuffer without a backing array! This is unsupported.");
-                    }
-
-                    if (rawAudio != null && rawAudio.hasRemaining() && rawAudio.hasArray()) {
+                    if (rawAudio != null && rawAudio.hasRemaining()) {
                         if (!sendHandler.isOpus()) {
                             rawAudio = encodeAudio(rawAudio);
                             if (rawAudio == null) {
@@ -664,22 +675,19 @@ public class AudioConnection {
             byte[] data = b.array();
             int offset = b.arrayOffset() + b.position();
             int length = b.remaining();
-            return new DatagramPacket(data, offset, length, webSocket.getAddress());
+            // The packet shares the reused buffer anyway, so it can be reused as well
+            if (packet == null) {
+                packet = new DatagramPacket(data, offset, length, webSocket.getAddress());
+            } else {
+                packet.setData(data, offset, length);
+                packet.setSocketAddress(webSocket.getAddress());
+            }
+            return packet;
         }
 
         private ByteBuffer getPacketData(ByteBuffer rawAudio) {
-            ensureEncryptionBuffer(rawAudio);
-            AudioPacket packet = new AudioPacket(encryptionBuffer, seq, timestamp, webSocket.getSSRC(), rawAudio);
-            return buffer = packet.asEncryptedPacket(webSocket.crypto, buffer);
-        }
-
-        private void ensureEncryptionBuffer(ByteBuffer data) {
-            ((Buffer) encryptionBuffer).clear();
-            int currentCapacity = encryptionBuffer.remaining();
-            int requiredCapacity = AudioPacket.RTP_HEADER_BYTE_LENGTH + data.remaining();
-            if (currentCapacity < requiredCapacity) {
-                encryptionBuffer = ByteBuffer.allocate(requiredCapacity);
-            }
+            return buffer = AudioPacket.writeEncryptedPacket(
+                    webSocket.crypto, buffer, seq, timestamp, webSocket.getSSRC(), rawAudio);
         }
 
         @Override
@@ -56,13 +56,17 @@ public class AudioPacket {
     private final ByteBuffer encodedAudio;
 
     public AudioPacket(DatagramPacket packet) {
-        this(Arrays.copyOf(packet.getData(), packet.getLength()));
+        this(Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getOffset() + packet.getLength()));
     }
 
     public AudioPacket(byte[] rawPacket) {
+        this(rawPacket, rawPacket.length);
+    }
+
+    private AudioPacket(byte[] rawPacket, int length) {
         this.rawPacket = rawPacket;
 
-        ByteBuffer buffer = ByteBuffer.wrap(rawPacket);
+        ByteBuffer buffer = ByteBuffer.wrap(rawPacket, 0, length);
 
         // Parsing header as described by https://datatracker.ietf.org/doc/html/rfc3550#section-5.1
 
@@ -108,7 +112,25 @@ public class AudioPacket {
         this.encodedAudio = encodedAudio;
     }
 
+    private AudioPacket(char seq, int timestamp, int ssrc, ByteBuffer encodedAudio) {
+        this.seq = seq;
+        this.ssrc = ssrc;
+        this.timestamp = timestamp;
+        this.csrc = new int[0];
+        this.extension = 0;
+        this.hasExtension = false;
+        this.headerLength = RTP_HEADER_BYTE_LENGTH;
+        this.type = RTP_PAYLOAD_TYPE;
+        this.rawPacket = null; // header is generated on demand
+        this.encodedAudio = encodedAudio;
+    }
+
     public byte[] getHeader() {
+        if (rawPacket == null) {
+            ByteBuffer header = ByteBuffer.allocate(RTP_HEADER_BYTE_LENGTH);
+            writeHeader(seq, timestamp, ssrc, header);
+            return header.array();
+        }
         return Arrays.copyOf(rawPacket, headerLength);
     }
 
@@ -129,6 +151,17 @@ public class AudioPacket {
     }
 
     public ByteBuffer asEncryptedPacket(CryptoAdapter crypto, ByteBuffer buffer) {
+        return writeEncryptedPacket(crypto, buffer, seq, timestamp, ssrc, encodedAudio);
+    }
+
+    /**
+     * Writes the header and the encrypted audio directly into the provided buffer, without copying the audio first.
+     * <br>The audio buffer may be direct and its position is not modified.
+     *
+     * @return The buffer containing the packet, which is a new buffer if the provided buffer was too small
+     */
+    public static ByteBuffer writeEncryptedPacket(
+            CryptoAdapter crypto, ByteBuffer buffer, char seq, int timestamp, int ssrc, ByteBuffer encodedAudio) {
         ((Buffer) buffer).clear();
         writeHeader(seq, timestamp, ssrc, buffer);
         buffer = crypto.encrypt(buffer, encodedAudio);
@@ -137,7 +170,11 @@ public class AudioPacket {
     }
 
     public static AudioPacket decryptAudioPacket(CryptoAdapter crypto, DatagramPacket packet) {
-        AudioPacket encryptedPacket = new AudioPacket(packet);
+        // The encrypted packet is only used until it is decrypted,
+        // which allows reading directly from the receive buffer
+        AudioPacket encryptedPacket = packet.getOffset() == 0
+                ? new AudioPacket(packet.getData(), packet.getLength())
+                : new AudioPacket(packet);
         if (encryptedPacket.type != RTP_PAYLOAD_TYPE) {
             return null;
         }
@@ -146,7 +183,6 @@ public class AudioPacket {
         int offset = 4 * encryptedPacket.extension;
 
         return new AudioPacket(
-                null,
                 encryptedPacket.seq,
                 encryptedPacket.timestamp,
                 encryptedPacket.ssrc,
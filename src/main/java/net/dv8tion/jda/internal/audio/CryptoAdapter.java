@@ -16,10 +16,10 @@
 
 package net.dv8tion.jda.internal.audio;
 
-import com.google.crypto.tink.aead.internal.InsecureNonceAesGcmJce;
 import com.google.crypto.tink.aead.internal.InsecureNonceXChaCha20Poly1305;
 import net.dv8tion.jda.internal.utils.IOUtil;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
@@ -27,6 +27,10 @@ import java.security.Security;
 import java.util.Arrays;
 import java.util.EnumSet;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
 public interface CryptoAdapter {
     String AES_GCM_NO_PADDING = "AES_256/GCM/NOPADDING";
 
@@ -73,7 +77,9 @@ public interface CryptoAdapter {
         protected static final SecureRandom random = new SecureRandom();
 
         protected final byte[] secretKey;
+        // Nonce buffers are only used by the sending and receiving thread respectively
         protected final byte[] nonceBuffer;
+        protected final byte[] decryptNonceBuffer;
         protected final int tagBytes;
         protected final int paddedNonceBytes;
         protected int encryptCounter;
@@ -83,6 +89,7 @@ public interface CryptoAdapter {
             this.tagBytes = tagBytes;
             this.paddedNonceBytes = paddedNonceBytes;
             this.nonceBuffer = new byte[paddedNonceBytes];
+            this.decryptNonceBuffer = new byte[paddedNonceBytes];
             this.encryptCounter = Math.abs(random.nextInt()) % 513 + 1;
         }
 
@@ -112,14 +119,11 @@ public interface CryptoAdapter {
         public byte[] decrypt(ByteBuffer packet) {
             try {
                 int headerLength = packet.position();
-                packet.position(0);
-                byte[] associatedData = new byte[headerLength];
-                packet.get(associatedData);
-                byte[] cipherText = new byte[packet.remaining() - nonceBytes];
-                packet.get(cipherText);
-                byte[] nonce = new byte[paddedNonceBytes];
-                packet.get(nonce, 0, nonceBytes);
-                return decryptInternally(cipherText, associatedData, nonce);
+                int cipherTextLength = packet.remaining() - nonceBytes;
+                // The nonce is appended to the end of the packet, the remaining bytes are always zero
+                packet.position(headerLength + cipherTextLength);
+                packet.get(decryptNonceBuffer, 0, nonceBytes);
+                return decryptInternally(packet, headerLength, cipherTextLength, decryptNonceBuffer);
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -127,22 +131,50 @@ public interface CryptoAdapter {
 
         protected abstract void encryptInternally(ByteBuffer output, ByteBuffer audio, byte[] nonce) throws Exception;
 
-        protected abstract byte[] decryptInternally(byte[] cipherText, byte[] associatedData, byte[] nonce)
-                throws Exception;
+        /**
+         * Decrypts the cipher text, which starts directly after the header of the packet.
+         * The header is used as associated data.
+         */
+        protected abstract byte[] decryptInternally(
+                ByteBuffer packet, int headerLength, int cipherTextLength, byte[] nonce) throws Exception;
 
         protected byte[] getAssociatedData(ByteBuffer output) {
-            return Arrays.copyOfRange(output.array(), output.arrayOffset(), output.arrayOffset() + output.position());
+            if (output.hasArray()) {
+                return Arrays.copyOfRange(
+                        output.array(), output.arrayOffset(), output.arrayOffset() + output.position());
+            }
+            ByteBuffer associatedData = output.duplicate();
+            ((Buffer) associatedData).flip();
+            return getPlaintextCopy(associatedData);
         }
 
         protected byte[] getPlaintextCopy(ByteBuffer audio) {
-            return Arrays.copyOfRange(
-                    audio.array(), audio.arrayOffset() + audio.position(), audio.arrayOffset() + audio.limit());
+            if (audio.hasArray()) {
+                return Arrays.copyOfRange(
+                        audio.array(), audio.arrayOffset() + audio.position(), audio.arrayOffset() + audio.limit());
+            }
+            // Direct buffers have to be copied with a relative read, which must not move the original position
+            byte[] plaintext = new byte[audio.remaining()];
+            audio.duplicate().get(plaintext);
+            return plaintext;
         }
     }
 
     class AES_GCM_Adapter extends AbstractAaedAdapter implements CryptoAdapter {
+        private final SecretKeySpec key;
+        // Cipher instances are not thread-safe, sending and receiving use their own instance
+        private final Cipher encryptCipher;
+        private final Cipher decryptCipher;
+
         public AES_GCM_Adapter(byte[] secretKey) {
             super(secretKey, 16, 12);
+            try {
+                this.key = new SecretKeySpec(secretKey, "AES");
+                this.encryptCipher = Cipher.getInstance(AES_GCM_NO_PADDING);
+                this.decryptCipher = Cipher.getInstance(AES_GCM_NO_PADDING);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to initialize AES-GCM cipher", e);
+            }
         }
 
         @Override
@@ -152,26 +184,50 @@ public interface CryptoAdapter {
 
         @Override
         protected void encryptInternally(ByteBuffer output, ByteBuffer audio, byte[] nonce) throws Exception {
-            InsecureNonceAesGcmJce cipher = getCipher();
-            byte[] input = getPlaintextCopy(audio);
-            byte[] associatedData = getAssociatedData(output);
-            output.put(cipher.encrypt(nonce, input, associatedData));
+            synchronized (encryptCipher) {
+                encryptCipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(tagBytes * 8, nonce));
+                if (output.hasArray()) {
+                    encryptCipher.updateAAD(output.array(), output.arrayOffset(), output.position());
+                } else {
+                    ByteBuffer associatedData = output.duplicate();
+                    ((Buffer) associatedData).flip();
+                    encryptCipher.updateAAD(associatedData);
+                }
+
+                // Encrypts directly into the output buffer, without moving the audio buffer
+                int position = audio.position();
+                encryptCipher.doFinal(audio, output);
+                ((Buffer) audio).position(position);
+            }
         }
 
         @Override
-        public byte[] decryptInternally(byte[] cipherText, byte[] associatedData, byte[] nonce) throws Exception {
-            InsecureNonceAesGcmJce cipher = getCipher();
-            return cipher.decrypt(nonce, cipherText, associatedData);
-        }
-
-        private InsecureNonceAesGcmJce getCipher() throws GeneralSecurityException {
-            return new InsecureNonceAesGcmJce(secretKey);
+        protected byte[] decryptInternally(ByteBuffer packet, int headerLength, int cipherTextLength, byte[] nonce)
+                throws Exception {
+            byte[] data = packet.array();
+            int offset = packet.arrayOffset();
+            byte[] plaintext = new byte[cipherTextLength - tagBytes];
+
+            synchronized (decryptCipher) {
+                decryptCipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(tagBytes * 8, nonce));
+                decryptCipher.updateAAD(data, offset, headerLength);
+                decryptCipher.doFinal(data, offset + headerLength, cipherTextLength, plaintext, 0);
+            }
+            return plaintext;
         }
     }
 
     class XChaCha20Poly1305Adapter extends AbstractAaedAdapter implements CryptoAdapter {
+        // Tink ciphers are immutable and can be shared between the sending and receiving thread
+        private final InsecureNonceXChaCha20Poly1305 cipher;
+
         public XChaCha20Poly1305Adapter(byte[] secretKey) {
             super(secretKey, 16, 24);
+            try {
+                this.cipher = new InsecureNonceXChaCha20Poly1305(secretKey);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to initialize XChaCha20-Poly1305 cipher", e);
+            }
         }
 
         @Override
@@ -181,20 +237,20 @@ public interface CryptoAdapter {
 
         @Override
         public void encryptInternally(ByteBuffer output, ByteBuffer audio, byte[] nonce) throws Exception {
-            InsecureNonceXChaCha20Poly1305 cipher = getCipher();
             byte[] input = getPlaintextCopy(audio);
             byte[] associatedData = getAssociatedData(output);
             output.put(cipher.encrypt(nonce, input, associatedData));
         }
 
         @Override
-        public byte[] decryptInternally(byte[] cipherText, byte[] associatedData, byte[] nonce) throws Exception {
-            InsecureNonceXChaCha20Poly1305 cipher = getCipher();
+        public byte[] decryptInternally(ByteBuffer packet, int headerLength, int cipherTextLength, byte[] nonce)
+                throws Exception {
+            byte[] data = packet.array();
+            int offset = packet.arrayOffset();
+            byte[] associatedData = Arrays.copyOfRange(data, offset, offset + headerLength);
+            byte[] cipherText =
+                    Arrays.copyOfRange(data, offset + headerLength, offset + headerLength + cipherTextLength);
             return cipher.decrypt(nonce, cipherText, associatedData);
         }
-
-        private InsecureNonceXChaCha20Poly1305 getCipher() throws GeneralSecurityException {
-            return new InsecureNonceXChaCha20Poly1305(secretKey);
-        }
     }
 }
@@ -20,6 +20,7 @@ import com.sun.jna.ptr.PointerByReference;
 import net.dv8tion.jda.api.audio.OpusPacket;
 import tomp2p.opuswrapper.Opus;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
@@ -33,6 +34,10 @@ public class Decoder {
     protected int lastTimestamp;
     protected PointerByReference opusDecoder;
 
+    // Reused for every packet of this ssrc
+    private final ShortBuffer decoded = ShortBuffer.allocate(4096);
+    private byte[] encodedBuffer = new byte[0];
+
     protected Decoder(int ssrc) {
         this.ssrc = ssrc;
         this.lastSeq = (char) -1;
@@ -54,9 +59,9 @@ public class Decoder {
         return newSeq > lastSeq + 1;
     }
 
-    public short[] decodeFromOpus(AudioPacket decryptedPacket) {
+    public synchronized short[] decodeFromOpus(AudioPacket decryptedPacket) {
         int result;
-        ShortBuffer decoded = ShortBuffer.allocate(4096);
+        ((Buffer) decoded).clear();
         if (decryptedPacket == null) // Flag for packet-loss
         {
             result = Opus.INSTANCE.opus_decode(opusDecoder, null, 0, decoded, OpusPacket.OPUS_FRAME_SIZE, 0);
@@ -69,10 +74,16 @@ public class Decoder {
             ByteBuffer encodedAudio = decryptedPacket.getEncodedAudio();
             int length = encodedAudio.remaining();
             int offset = encodedAudio.arrayOffset() + encodedAudio.position();
-            byte[] buf = new byte[length];
             byte[] data = encodedAudio.array();
-            System.arraycopy(data, offset, buf, 0, length);
-            result = Opus.INSTANCE.opus_decode(opusDecoder, buf, buf.length, decoded, OpusPacket.OPUS_FRAME_SIZE, 0);
+            // Opus reads the packet from the start of the array
+            if (offset != 0) {
+                if (encodedBuffer.length < length) {
+                    encodedBuffer = new byte[length];
+                }
+                System.arraycopy(data, offset, encodedBuffer, 0, length);
+                data = encodedBuffer;
+            }
+            result = Opus.INSTANCE.opus_decode(opusDecoder, data, length, decoded, OpusPacket.OPUS_FRAME_SIZE, 0);
         }
 
         // If we get a result that is less than 0, then there was an error. Return null as a
@@ -270,7 +270,42 @@ public class EntityBuilder extends AbstractEntityBuilder {
 
     public GuildImpl createGuild(
             long guildId, DataObject guildJson, TLongObjectMap<DataObject> members, int memberCount) {
+        return createGuild(new GuildImpl(getJDA(), guildId), guildJson, members, null, memberCount);
+    }
+
+    /**
+     * Creates a guild which is not yet registered in the guild cache, with only its roles loaded.
+     * <br>This is used to build members while the guild is still being chunked,
+     * the guild is completed later by passing it to {@link #createGuild(GuildImpl, DataObject, TLongObjectMap, TLongObjectMap, int)}.
+     */
+    public GuildImpl createStreamingGuild(long guildId, DataObject guildJson) {
         GuildImpl guildObj = new GuildImpl(getJDA(), guildId);
+        DataArray roleArray = guildJson.getArray("roles");
+        SnowflakeCacheViewImpl<Role> roleView = guildObj.getRolesView();
+        try (UnlockHook hook = roleView.writeLock()) {
+            TLongObjectMap<Role> map = roleView.getMap();
+            for (int i = 0; i < roleArray.length(); i++) {
+                DataObject obj = roleArray.getObject(i);
+                long id = obj.getLong("id");
+                // Not using createRole here, the event cache should only be replayed once the guild is registered
+                RoleImpl role = new RoleImpl(id, guildObj);
+                configureRole(obj, role, id);
+                map.put(id, role);
+                if (id == guildId) {
+                    guildObj.setPublicRole(role);
+                }
+            }
+        }
+        return guildObj;
+    }
+
+    public GuildImpl createGuild(
+            GuildImpl guildObj,
+            DataObject guildJson,
+            TLongObjectMap<DataObject> members,
+            @Nullable TLongObjectMap<MemberImpl> loadedMembers,
+            int memberCount) {
+        long guildId = guildObj.getIdLong();
         String name = guildJson.getString("name", "");
         String iconId = guildJson.getString("icon", null);
         String splashId = guildJson.getString("splash", null);
@@ -362,6 +397,13 @@ public class EntityBuilder extends AbstractEntityBuilder {
                 }
             }
         }
+        if (loadedMembers != null) {
+            // The roles were created before the guild was registered, so createRole did not replay these
+            for (int i = 0; i < roleArray.length(); i++) {
+                getJDA().getEventCache()
+                        .playbackCache(EventCache.Type.ROLE, roleArray.getObject(i).getLong("id"));
+            }
+        }
 
         for (int i = 0; i < channelArray.length(); i++) {
             DataObject channelJson = channelArray.getObject(i);
@@ -383,6 +425,28 @@ public class EntityBuilder extends AbstractEntityBuilder {
                 DataObject presence = presences.get(userId);
                 updateMemberCache(createMember(guildObj, memberJson, voiceState, presence));
             }
+            if (loadedMembers != null) {
+                SnowflakeCacheViewImpl<User> usersView = getJDA().getUsersView();
+                for (MemberImpl member : loadedMembers.valueCollection()) {
+                    // Another guild might have finished its setup while this one was chunking,
+                    // in which case the user was cached from a different instance than this member was built with
+                    User cachedUser = usersView.get(member.getIdLong());
+                    if (cachedUser != null) {
+                        member.setUser(cachedUser);
+                    }
+                    DataObject voiceState = voiceStates.get(member.getIdLong());
+                    DataObject presence = presences.get(member.getIdLong());
+                    // The channels did not exist yet when this member was created
+                    if (voiceState != null) {
+                        createGuildVoiceState(member, voiceState);
+                    }
+                    if (presence != null) {
+                        createPresence(member, presence);
+                    }
+                    guildObj.updateCacheVoiceStateMember(member);
+                    updateMemberCache(member);
+                }
+            }
         }
 
         if (guildObj.getOwner() == null) {
@@ -515,61 +579,65 @@ public class EntityBuilder extends AbstractEntityBuilder {
     }
 
     public void updateUser(UserImpl userObj, DataObject user) {
-        String oldName = userObj.getName();
-        String newName = user.getString("username");
-        String oldGlobalName = userObj.getGlobalName();
-        String newGlobalName = user.getString("global_name", null);
-        short oldDiscriminator = userObj.getDiscriminatorInt();
-        short newDiscriminator = Short.parseShort(user.getString("discriminator", "0"));
-        String oldAvatar = userObj.getAvatarId();
-        String newAvatar = user.getString("avatar", null);
-        int oldFlags = userObj.getFlagsRaw();
-        int newFlags = user.getInt("public_flags", 0);
-        User.PrimaryGuild oldPrimaryGuild = userObj.getPrimaryGuild();
-        User.PrimaryGuild newPrimaryGuild =
-                user.optObject("primary_guild").map(this::createPrimaryGuild).orElse(null);
-
-        JDAImpl jda = getJDA();
-        long responseNumber = jda.getResponseTotal();
-        if (!oldName.equals(newName)) {
-            userObj.setName(newName);
-            jda.handleEvent(new UserUpdateNameEvent(
-                    jda, responseNumber,
-                    userObj, oldName));
-        }
+        // Users are shared by all guilds, with parallel dispatch the same user can be updated by multiple lanes
+        synchronized (userObj) {
+            String oldName = userObj.getName();
+            String newName = user.getString("username");
+            String oldGlobalName = userObj.getGlobalName();
+            String newGlobalName = user.getString("global_name", null);
+            short oldDiscriminator = userObj.getDiscriminatorInt();
+            short newDiscriminator = Short.parseShort(user.getString("discriminator", "0"));
+            String oldAvatar = userObj.getAvatarId();
+            String newAvatar = user.getString("avatar", null);
+            int oldFlags = userObj.getFlagsRaw();
+            int newFlags = user.getInt("public_flags", 0);
+            User.PrimaryGuild oldPrimaryGuild = userObj.getPrimaryGuild();
+            User.PrimaryGuild newPrimaryGuild =
+                    user.optObject("primary_guild").map(this::createPrimaryGuild).orElse(null);
+
+            JDAImpl jda = getJDA();
+            long responseNumber = jda.getResponseTotal();
+            if (!oldName.equals(newName)) {
+                userObj.setName(newName);
+                jda.handleEvent(new UserUpdateNameEvent(
+                        jda, responseNumber,
+                        userObj, oldName));
+            }
 
-        if (!Objects.equals(oldGlobalName, newGlobalName)) {
-            userObj.setGlobalName(newGlobalName);
-            jda.handleEvent(new UserUpdateGlobalNameEvent(
-                    jda, responseNumber,
-                    userObj, oldGlobalName));
-        }
+            if (!Objects.equals(oldGlobalName, newGlobalName)) {
+                userObj.setGlobalName(newGlobalName);
+                jda.handleEvent(new UserUpdateGlobalNameEvent(
+                        jda, responseNumber,
+                        userObj, oldGlobalName));
+            }
 
-        if (oldDiscriminator != newDiscriminator) {
-            String oldDiscrimString = userObj.getDiscriminator();
-            userObj.setDiscriminator(newDiscriminator);
-            jda.handleEvent(new UserUpdateDiscriminatorEvent(
-                    jda, responseNumber,
-                    userObj, oldDiscrimString));
-        }
+            if (oldDiscriminator != newDiscriminator) {
+                String oldDiscrimString = userObj.getDiscriminator();
+                userObj.setDiscriminator(newDiscriminator);
+                jda.handleEvent(new UserUpdateDiscriminatorEvent(
+                        jda, responseNumber,
+                        userObj, oldDiscrimString));
+            }
 
-        if (!Objects.equals(oldAvatar, newAvatar)) {
-            userObj.setAvatarId(newAvatar);
-            jda.handleEvent(new UserUpdateAvatarEvent(
-                    jda, responseNumber,
-                    userObj, oldAvatar));
-        }
+            if (!Objects.equals(oldAvatar, newAvatar)) {
+                userObj.setAvatarId(newAvatar);
+                jda.handleEvent(new UserUpdateAvatarEvent(
+                        jda, responseNumber,
+                        userObj, oldAvatar));
+            }
 
-        if (oldFlags != newFlags) {
-            userObj.setFlags(newFlags);
-            jda.handleEvent(new UserUpdateFlagsEvent(jda, responseNumber, userObj, User.UserFlag.getFlags(oldFlags)));
-        }
+            if (oldFlags != newFlags) {
+                userObj.setFlags(newFlags);
+                jda.handleEvent(
+                        new UserUpdateFlagsEvent(jda, responseNumber, userObj, User.UserFlag.getFlags(oldFlags)));
+            }
 
-        if (!Objects.equals(oldPrimaryGuild, newPrimaryGuild)) {
-            userObj.setPrimaryGuild(newPrimaryGuild);
-            jda.handleEvent(new UserUpdatePrimaryGuildEvent(
-                    jda, responseNumber,
-                    userObj, oldPrimaryGuild));
+            if (!Objects.equals(oldPrimaryGuild, newPrimaryGuild)) {
+                userObj.setPrimaryGuild(newPrimaryGuild);
+                jda.handleEvent(new UserUpdatePrimaryGuildEvent(
+                        jda, responseNumber,
+                        userObj, oldPrimaryGuild));
+            }
         }
     }
 
@@ -581,14 +649,19 @@ public class EntityBuilder extends AbstractEntityBuilder {
         GuildImpl guild = member.getGuild();
         UserImpl user = (UserImpl) member.getUser();
         MemberCacheViewImpl membersView = guild.getMembersView();
+        SnowflakeCacheViewImpl<User> usersView = getJDA().getUsersView();
         if (forceRemove || !getJDA().cacheMember(member)) {
-            if (membersView.remove(member.getIdLong()) == null) {
-                return false;
-            }
-            LOG.trace("Unloading member {}", member);
-            if (user.getMutualGuilds().isEmpty()) {
-                // we no longer share any guilds/channels with this user so remove it from cache
-                getJDA().getUsersView().remove(user.getIdLong());
+            // The user lock makes sure no member of the same user is loaded for another guild in the meantime,
+            // which would otherwise be possible with parallel dispatch
+            try (UnlockHook hook = usersView.writeLock()) {
+                if (membersView.remove(member.getIdLong()) == null) {
+                    return false;
+                }
+                LOG.trace("Unloading member {}", member);
+                if (user.getMutualGuilds().isEmpty()) {
+                    // we no longer share any guilds/channels with this user so remove it from cache
+                    usersView.remove(user.getIdLong());
+                }
             }
             return false;
         } else if (guild.getMemberById(member.getIdLong()) != null) {
@@ -598,17 +671,19 @@ public class EntityBuilder extends AbstractEntityBuilder {
 
         LOG.trace("Loading member {}", member);
 
-        if (getJDA().getUserById(user.getIdLong()) == null) {
-            SnowflakeCacheViewImpl<User> usersView = getJDA().getUsersView();
-            try (UnlockHook hook1 = usersView.writeLock()) {
-                usersView.getMap().put(user.getIdLong(), user);
+        try (UnlockHook hook = usersView.writeLock()) {
+            // The user might have been cached or removed by another guild since it was resolved for this member,
+            // so it has to be checked again while holding the lock
+            User cachedUser = usersView.getMap().putIfAbsent(user.getIdLong(), user);
+            if (cachedUser != null && cachedUser != user) {
+                member.setUser(cachedUser);
             }
-        }
 
-        try (UnlockHook hook = membersView.writeLock()) {
-            membersView.getMap().put(member.getIdLong(), member);
-            if (member.isOwner()) {
-                guild.setOwner(member);
+            try (UnlockHook hook1 = membersView.writeLock()) {
+                membersView.getMap().put(member.getIdLong(), member);
+                if (member.isOwner()) {
+                    guild.setOwner(member);
+                }
             }
         }
 
@@ -756,6 +831,7 @@ public class EntityBuilder extends AbstractEntityBuilder {
             if (epoch != member.getTimeOutEndRaw()) {
                 OffsetDateTime oldTime = member.getTimeOutEnd();
                 member.setTimeOutEnd(epoch);
+                guild.invalidatePermissionCache();
                 getJDA().handleEvent(new GuildMemberUpdateTimeOutEvent(getJDA(), responseNumber, member, oldTime));
             }
         }
@@ -811,6 +887,9 @@ public class EntityBuilder extends AbstractEntityBuilder {
         if (newRoles.size() > 0) {
             currentRoles.addAll(newRoles);
         }
+        if (removedRoles.size() > 0 || newRoles.size() > 0) {
+            member.getGuild().invalidatePermissionCache();
+        }
 
         if (removedRoles.size() > 0) {
             getJDA().handleEvent(new GuildMemberRoleRemoveEvent(getJDA(), responseNumber, member, removedRoles));
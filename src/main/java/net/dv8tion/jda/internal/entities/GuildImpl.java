@@ -116,7 +116,7 @@ public class GuildImpl implements Guild {
             new SnowflakeCacheViewImpl<>(RichCustomEmoji.class, RichCustomEmoji::getName);
     private final SnowflakeCacheViewImpl<GuildSticker> stickerCache =
             new SnowflakeCacheViewImpl<>(GuildSticker.class, GuildSticker::getName);
-    private final MemberCacheViewImpl memberCache = new MemberCacheViewImpl();
+    private final MemberCacheViewImpl memberCache;
     private final CacheView.SimpleCacheView<MemberPresenceImpl> memberPresences;
     private final SnowflakeCacheViewImpl<GuildVoiceStateImpl> voiceStateCache = new SnowflakeCacheViewImpl<>(
             GuildVoiceStateImpl.class, state -> state.getMember().getEffectiveName());
@@ -151,10 +151,12 @@ public class GuildImpl implements Guild {
     private int memberCount;
     private int systemChannelFlags;
     private boolean boostProgressBarEnabled;
+    private volatile long permissionVersion = PermissionCache.nextVersion();
 
     public GuildImpl(JDAImpl api, long id) {
         this.id = id;
         this.api = api;
+        this.memberCache = new MemberCacheViewImpl(api.isLockFreeCache());
         if (api.getCacheFlags().stream().anyMatch(CacheFlag::isPresence)) {
             memberPresences = new CacheView.SimpleCacheView<>(MemberPresenceImpl.class, null);
         } else {
@@ -819,8 +821,10 @@ public class GuildImpl implements Guild {
     @Override
     public List<GuildChannel> getChannels(boolean includeHidden) {
         if (includeHidden) {
-            return channelCache.applyStream(stream ->
-                    stream.filter(it -> !it.getType().isThread()).sorted().collect(Helpers.toUnmodifiableList()));
+            // The cache keeps a sorted snapshot, which avoids sorting all channels again
+            return channelCache.asList().stream()
+                    .filter(it -> !it.getType().isThread())
+                    .collect(Helpers.toUnmodifiableList());
         }
 
         // When we remove hidden channels there are 2 considerations to account for:
@@ -837,7 +841,7 @@ public class GuildImpl implements Guild {
 
         Member self = getSelfMember();
 
-        SortedSet<GuildChannel> channels = new TreeSet<>();
+        Set<GuildChannel> visible = new HashSet<>();
         channelCache.ofType(ICategorizableChannel.class).forEachUnordered(channel -> {
             // Hide threads and inaccessible channels
             if (channel.getType().isThread() || !self.hasPermission(channel, Permission.VIEW_CHANNEL)) {
@@ -845,16 +849,23 @@ public class GuildImpl implements Guild {
             }
 
             Category category = channel.getParentCategory();
-            channels.add(channel);
+            visible.add(channel);
 
             // Empty categories will never show up here,
             // since no categorizable channel will add them to this group
             if (category != null) {
-                channels.add(category);
+                visible.add(category);
             }
         });
 
-        return Collections.unmodifiableList(new ArrayList<>(channels));
+        // Filter the sorted snapshot, instead of sorting the visible channels again
+        List<GuildChannel> channels = new ArrayList<>(visible.size());
+        for (GuildChannel channel : channelCache.asList()) {
+            if (visible.contains(channel)) {
+                channels.add(channel);
+            }
+        }
+        return Collections.unmodifiableList(channels);
     }
 
     @Nonnull
@@ -2298,6 +2309,17 @@ public class GuildImpl implements Guild {
         }
     }
 
+    // -- Permission Cache Handling --
+
+    public long getPermissionVersion() {
+        return permissionVersion;
+    }
+
+    // Must be called after the change has been applied, and before any events for it are fired
+    public void invalidatePermissionCache() {
+        permissionVersion = PermissionCache.nextVersion();
+    }
+
     // -- Voice State Cache Handling --
 
     public boolean shouldCacheVoiceState(long userId) {
@@ -30,9 +30,11 @@ import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.channel.mixin.attribute.IPermissionContainerMixin;
 import net.dv8tion.jda.internal.entities.mixin.MemberMixin;
 import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.CompactConcurrentSet;
 import net.dv8tion.jda.internal.utils.EntityString;
 import net.dv8tion.jda.internal.utils.Helpers;
 import net.dv8tion.jda.internal.utils.PermissionUtil;
+import net.dv8tion.jda.internal.utils.cache.PermissionCache;
 
 import java.awt.*;
 import java.time.OffsetDateTime;
@@ -46,7 +48,7 @@ import javax.annotation.Nullable;
 
 public class MemberImpl implements Member, MemberMixin<MemberImpl> {
     private final JDAImpl api;
-    private final Set<Role> roles = ConcurrentHashMap.newKeySet();
+    private final Set<Role> roles;
 
     private GuildImpl guild;
     private User user;
@@ -55,9 +57,13 @@ public class MemberImpl implements Member, MemberMixin<MemberImpl> {
     private long joinDate, boostDate, timeOutEnd;
     private boolean pending = false;
     private int flags;
+    // Allocated on the first channel permission check, most members are never checked
+    private volatile PermissionCache permissionCache;
 
     public MemberImpl(GuildImpl guild, User user) {
         this.api = (JDAImpl) user.getJDA();
+        // Members are by far the most numerous entity, the compact set trades slower role updates for memory
+        this.roles = api.isCompactMemberRoles() ? new CompactConcurrentSet<>() : ConcurrentHashMap.newKeySet();
         this.guild = guild;
         this.user = user;
         this.joinDate = 0;
@@ -68,6 +74,19 @@ public class MemberImpl implements Member, MemberMixin<MemberImpl> {
         return false;
     }
 
+    public PermissionCache getPermissionCache() {
+        PermissionCache cache = permissionCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = permissionCache;
+                if (cache == null) {
+                    permissionCache = cache = new PermissionCache();
+                }
+            }
+        }
+        return cache;
+    }
+
     public MemberPresenceImpl getPresence() {
         CacheView.SimpleCacheView<MemberPresenceImpl> presences = guild.getPresenceView();
         return presences == null ? null : presences.get(getIdLong());
@@ -354,6 +373,11 @@ public class MemberImpl implements Member, MemberMixin<MemberImpl> {
         return user.getDefaultAvatarId();
     }
 
+    public MemberImpl setUser(User user) {
+        this.user = user;
+        return this;
+    }
+
     @Override
     public MemberImpl setNickname(String nickname) {
         this.nickname = nickname;
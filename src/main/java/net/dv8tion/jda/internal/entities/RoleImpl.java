@@ -388,8 +388,9 @@ public class RoleImpl implements Role, RoleMixin<RoleImpl> {
     public RoleImpl setRawPosition(int rawPosition) {
         SortedSnowflakeCacheViewImpl<Role> roleCache =
                 (SortedSnowflakeCacheViewImpl<Role>) getGuild().getRoleCache();
-        roleCache.clearCachedLists();
         this.rawPosition = rawPosition;
+        // Invalidate after the change, so a concurrent read cannot keep the previous order
+        roleCache.clearCachedLists();
         return this;
     }
 
@@ -59,8 +59,8 @@ public abstract class AbstractStandardGuildChannelImpl<T extends AbstractStandar
     @Override
     @SuppressWarnings("unchecked")
     public T setPosition(int position) {
-        onPositionChange();
         this.position = position;
+        onPositionChange();
         return (T) this;
     }
 
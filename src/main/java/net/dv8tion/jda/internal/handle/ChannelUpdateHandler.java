@@ -219,6 +219,8 @@ public class ChannelUpdateHandler extends SocketHandler {
 
         guild.uncacheChannel(channel, true);
         Channel newChannel = builder.createGuildChannel(guild, content);
+        // Audio channels require the connect permission, so the new type can change the permissions
+        guild.invalidatePermissionCache();
 
         if (channel instanceof IThreadContainer) {
             if (newChannel instanceof IThreadContainer) {
@@ -258,6 +260,7 @@ public class ChannelUpdateHandler extends SocketHandler {
 
         currentOverrides.forEachValue(override -> {
             channel.getPermissionOverrideMap().remove(override.getIdLong());
+            invalidatePermissionCache(channel);
             addPermissionHolder(changed, guild, override.getIdLong());
             api.handleEvent(new PermissionOverrideDeleteEvent(
                     api, responseNumber,
@@ -310,6 +313,7 @@ public class ChannelUpdateHandler extends SocketHandler {
                 // We delete empty overrides for the @everyone role because that's what the client
                 // also does, otherwise our sync checks don't work!
                 channel.getPermissionOverrideMap().remove(overrideId);
+                invalidatePermissionCache(channel);
                 api.handleEvent(new PermissionOverrideDeleteEvent(
                         api, responseNumber,
                         channel, currentOverride));
@@ -318,6 +322,7 @@ public class ChannelUpdateHandler extends SocketHandler {
 
             impl.setAllow(allow);
             impl.setDeny(deny);
+            invalidatePermissionCache(channel);
             api.handleEvent(new PermissionOverrideUpdateEvent(
                     api, responseNumber, channel, currentOverride, oldAllow, oldDeny));
         } else // New override?
@@ -331,6 +336,7 @@ public class ChannelUpdateHandler extends SocketHandler {
             impl.setAllow(allow);
             impl.setDeny(deny);
             channel.getPermissionOverrideMap().put(overrideId, currentOverride);
+            invalidatePermissionCache(channel);
             api.handleEvent(new PermissionOverrideCreateEvent(
                     api, responseNumber,
                     channel, currentOverride));
@@ -339,6 +345,10 @@ public class ChannelUpdateHandler extends SocketHandler {
         return true;
     }
 
+    private void invalidatePermissionCache(GuildChannel channel) {
+        ((GuildImpl) channel.getGuild()).invalidatePermissionCache();
+    }
+
     private void handleHideChildThreads(IThreadContainer channel) {
         List<ThreadChannel> threads = channel.getThreadChannels();
         if (threads.isEmpty()) {
@@ -460,6 +470,8 @@ public class ChannelUpdateHandler extends SocketHandler {
         Category oldParent = channel.getParentCategory();
         channel.setParentCategory(parentId);
         Category newParent = channel.getParentCategory();
+        // Permissions on the parent category can grant MANAGE_CHANNEL
+        invalidatePermissionCache(channel);
 
         api.handleEvent(new ChannelUpdateParentEvent(api, responseNumber, channel, oldParent, newParent));
     }
@@ -14,114 +14,302 @@
  * limitations under the License.
  */
 
+
 package net.dv8tion.jda.internal.handle;
 
-import gnu.trove.iterator.TLongObjectIterator;
-import gnu.trove.map.TLongObjectMap;
-import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.utils.cache.EventCacheMetrics;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.utils.CacheConsumer;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import org.slf4j.Logger;
 
 import java.util.EnumMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
+/**
+ * Cache for events which reference entities that are not loaded yet.
+ * <br>The events are replayed once the entity is created, or expire after {@link #TIMEOUT_AMOUNT} further events.
+ *
+ * <p>Every event is indexed twice, once by the id of the entity it is waiting for, and once in a ring of
+ * expiry buckets, each holding the events of {@value #BUCKET_WIDTH} consecutive sequence numbers.
+ * Expiring events only has to drain the buckets which are old enough, instead of scanning the entire cache.
+ *
+ * <p>Caching does not acquire any locks. An event is handled exactly once, by whichever of replay, expiry,
+ * or clear claims it first.
+ */
 public class EventCache {
     public static final Logger LOG = JDALogger.getLog(EventCache.class);
     /** Sequence difference after which events will be removed from cache */
     public static final long TIMEOUT_AMOUNT = 100;
+    /** Number of consecutive sequence numbers which share an expiry bucket */
+    public static final int BUCKET_WIDTH = 10;
+    // The buckets of the timeout window, and the buckets which are currently being filled
+    private static final int BUCKET_COUNT = 16;
 
-    private final EnumMap<Type, TLongObjectMap<List<CacheNode>>> eventCache = new EnumMap<>(Type.class);
+    private final Map<Type, ConcurrentMap<Long, NodeQueue>> eventCache = new EnumMap<>(Type.class);
+    private final Map<Type, Metrics> metrics = new EnumMap<>(Type.class);
+    private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(BUCKET_COUNT);
+    // The id of the newest bucket which has been expired
+    private final AtomicLong expiredBucket = new AtomicLong(-1);
+    private final AtomicInteger size = new AtomicInteger();
+    private final Function<String, ? extends CacheConsumer> handlers;
 
-    public EventCache() {}
+    public EventCache() {
+        this(type -> null);
+    }
 
-    public synchronized void timeout(long responseTotal) {
-        if (eventCache.isEmpty()) {
+    /**
+     * Creates an event cache which replays events with the handler for their type, looked up at the time of the replay.
+     * <br>With parallel dispatch, this is the handler of the lane which replays the event,
+     * instead of the handler of the lane which cached it.
+     * Events without a handler for their type are replayed with the callback they were cached with.
+     *
+     * @param handlers
+     *        Function which returns the handler for the provided event type, or null
+     */
+    public EventCache(Function<String, ? extends CacheConsumer> handlers) {
+        this.handlers = handlers;
+        // Both maps are only populated here, which allows reading them without synchronization
+        for (Type type : Type.values()) {
+            eventCache.put(type, new ConcurrentHashMap<>());
+            metrics.put(type, new Metrics());
+        }
+    }
+
+    public void timeout(long responseTotal) {
+        // Buckets can only be expired once all of their events are older than the timeout
+        long target = Math.floorDiv(responseTotal - TIMEOUT_AMOUNT, BUCKET_WIDTH) - 1;
+        long current = expiredBucket.get();
+        if (current >= target) {
             return;
         }
-        AtomicInteger count = new AtomicInteger();
-        eventCache.forEach((type, map) -> {
-            if (map.isEmpty()) {
-                return;
+
+        int count = 0;
+        while (current < target) {
+            // Every slot of the ring is visited once, when the sequence jumped further than the ring is long
+            long next = Math.max(current + 1, target - BUCKET_COUNT + 1);
+            if (!expiredBucket.compareAndSet(current, next)) {
+                current = expiredBucket.get();
+                continue;
             }
-            TLongObjectIterator<List<CacheNode>> iterator = map.iterator();
-            while (iterator.hasNext()) {
-                iterator.advance();
-                long triggerId = iterator.key();
-                List<CacheNode> cache = iterator.value();
-                // Remove when this node is more than 100 events ago
-                cache.removeIf(node -> {
-                    boolean remove = responseTotal - node.responseTotal > TIMEOUT_AMOUNT;
-                    if (remove) {
-                        count.incrementAndGet();
-                        LOG.trace("Removing type {}/{} from event cache with payload {}", type, triggerId, node.event);
-                    }
-                    return remove;
-                });
-                if (cache.isEmpty()) {
-                    iterator.remove();
+            for (long id = Math.max(current + 1, next - BUCKET_COUNT + 1); id <= next; id++) {
+                int slot = (int) (id % BUCKET_COUNT);
+                Bucket bucket = buckets.get(slot);
+                if (bucket != null && bucket.id <= next) {
+                    count += expire(slot, bucket);
                 }
             }
-        });
-        int amount = count.get();
-        if (amount > 0) {
-            LOG.debug("Removed {} events from cache that were too old to be recycled", amount);
+            current = next;
+        }
+
+        if (count > 0) {
+            LOG.debug("Removed {} events from cache that were too old to be recycled", count);
         }
     }
 
-    public synchronized void cache(
-            Type type, long triggerId, long responseTotal, DataObject event, CacheConsumer handler) {
-        TLongObjectMap<List<CacheNode>> triggerCache =
-                eventCache.computeIfAbsent(type, k -> new TLongObjectHashMap<>());
+    public void cache(Type type, long triggerId, long responseTotal, DataObject event, CacheConsumer handler) {
+        CacheNode node = new CacheNode(type, triggerId, responseTotal, event, handler);
+        size.incrementAndGet();
+        metrics.get(type).cached.increment();
+        addToQueue(node);
+        addToBucket(node);
+    }
 
-        List<CacheNode> items = triggerCache.get(triggerId);
+    public void playbackCache(Type type, long triggerId) {
+        NodeQueue items = eventCache.get(type).remove(triggerId);
         if (items == null) {
-            items = new LinkedList<>();
-            triggerCache.put(triggerId, items);
+            return;
+        }
+
+        // Replay without holding any locks, the handlers might be busy on another dispatch lane and cache new events
+        items.closed = true;
+        Metrics typeMetrics = metrics.get(type);
+        int count = 0;
+        CacheNode item;
+        while ((item = items.poll()) != null) {
+            if (claim(item)) {
+                if (count++ == 0) {
+                    EventCache.LOG.debug("Replaying events from the EventCache for type {} with id: {}", type, triggerId);
+                }
+                typeMetrics.replayed.increment();
+                item.execute(handlers);
+            }
         }
+    }
 
-        items.add(new CacheNode(responseTotal, event, handler));
+    public int size() {
+        return size.get();
     }
 
-    public synchronized void playbackCache(Type type, long triggerId) {
-        TLongObjectMap<List<CacheNode>> typeCache = this.eventCache.get(type);
-        if (typeCache == null) {
-            return;
+    /**
+     * The metrics for the events of the provided type, since this cache was created.
+     *
+     * @param  type
+     *         The cache type
+     *
+     * @return The live metrics, which are updated as events are cached
+     */
+    public Metrics getMetrics(Type type) {
+        return metrics.get(type);
+    }
+
+    public void clear() {
+        for (Map.Entry<Type, ConcurrentMap<Long, NodeQueue>> entry : eventCache.entrySet()) {
+            ConcurrentMap<Long, NodeQueue> typeCache = entry.getValue();
+            for (Long id : typeCache.keySet()) {
+                NodeQueue events = typeCache.remove(id);
+                if (events != null) {
+                    drain(entry.getKey(), events);
+                }
+            }
+        }
+        // The sequence starts over with the next session.
+        // Reset the window first, so new buckets are created for the new sequence as soon as possible.
+        expiredBucket.set(-1);
+        for (int slot = 0; slot < BUCKET_COUNT; slot++) {
+            Bucket bucket = buckets.getAndSet(slot, null);
+            if (bucket != null) {
+                bucket.closed = true;
+            }
         }
+    }
+
+    public void clear(Type type, long id) {
+        NodeQueue events = eventCache.get(type).remove(id);
+        if (events != null) {
+            LOG.debug("Clearing cache for type {} with ID {} (Size: {})", type, id, drain(type, events));
+        }
+    }
 
-        List<CacheNode> items = typeCache.remove(triggerId);
-        if (items != null && !items.isEmpty()) {
-            EventCache.LOG.debug(
-                    "Replaying {} events from the EventCache for type {} with id: {}", items.size(), type, triggerId);
-            for (CacheNode item : items) {
-                item.execute();
+    private int drain(Type type, NodeQueue events) {
+        events.closed = true;
+        Metrics typeMetrics = metrics.get(type);
+        int count = 0;
+        CacheNode node;
+        while ((node = events.poll()) != null) {
+            if (claim(node)) {
+                typeMetrics.cleared.increment();
+                count++;
             }
         }
+        return count;
     }
 
-    public synchronized int size() {
-        return (int) eventCache.values().stream()
-                .mapToLong(typeMap ->
-                        typeMap.valueCollection().stream().mapToLong(List::size).sum())
-                .sum();
+    private boolean claim(CacheNode node) {
+        if (node.claim()) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
     }
 
-    public synchronized void clear() {
-        eventCache.clear();
+    private void addToQueue(CacheNode node) {
+        ConcurrentMap<Long, NodeQueue> typeCache = eventCache.get(node.type);
+        while (true) {
+            NodeQueue queue = typeCache.get(node.triggerId);
+            if (queue == null) {
+                NodeQueue created = new NodeQueue();
+                queue = typeCache.putIfAbsent(node.triggerId, created);
+                if (queue == null) {
+                    queue = created;
+                }
+            }
+
+            queue.add(node);
+            // If the queue was closed concurrently, and the node is still in it, nobody is going to see it there.
+            // Otherwise, the thread which closed the queue has taken the node out and handles it.
+            if (!queue.closed || !queue.remove(node)) {
+                return;
+            }
+        }
     }
 
-    public synchronized void clear(Type type, long id) {
-        TLongObjectMap<List<CacheNode>> typeCache = this.eventCache.get(type);
-        if (typeCache == null) {
+    private void addToBucket(CacheNode node) {
+        while (true) {
+            long expired = expiredBucket.get();
+            long target = node.responseTotal / BUCKET_WIDTH;
+            if (target > expired + BUCKET_COUNT) {
+                // The sequence is ahead of the window, for instance with the first events of a restored session.
+                // Move the window forward first, the newest bucket of the old window would be expired right away.
+                timeout(node.responseTotal);
+                continue;
+            }
+            // Events from before the window, for instance replayed events, expire with the oldest bucket
+            long id = Math.max(expired + 1, target);
+            int slot = (int) (id % BUCKET_COUNT);
+
+            Bucket bucket = buckets.get(slot);
+            if (bucket == null || bucket.id != id) {
+                if (bucket != null) {
+                    if (bucket.id < id) {
+                        // Only possible for a bucket which is already behind the window, help with its expiry
+                        expire(slot, bucket);
+                    } else if (expiredBucket.get() == expired) {
+                        // Ahead of the window, this bucket was created with the window of the previous session,
+                        // while the cache was cleared. The new sequence would not reach it for a long time.
+                        expire(slot, bucket);
+                    }
+                    continue;
+                }
+                Bucket created = new Bucket(id);
+                if (!buckets.compareAndSet(slot, null, created)) {
+                    continue;
+                }
+                bucket = created;
+            }
+
+            bucket.nodes.add(node);
+            if (!bucket.closed || !bucket.nodes.remove(node)) {
+                return;
+            }
+        }
+    }
+
+    private int expire(int slot, Bucket bucket) {
+        if (!buckets.compareAndSet(slot, bucket, null)) {
+            return 0;
+        }
+
+        bucket.closed = true;
+        int count = 0;
+        CacheNode node;
+        while ((node = bucket.nodes.poll()) != null) {
+            if (claim(node)) {
+                LOG.trace(
+                        "Removing type {}/{} from event cache with payload {}", node.type, node.triggerId, node.event);
+                metrics.get(node.type).expired.increment();
+                removeFromQueue(node);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void removeFromQueue(CacheNode node) {
+        ConcurrentMap<Long, NodeQueue> typeCache = eventCache.get(node.type);
+        NodeQueue queue = typeCache.get(node.triggerId);
+        if (queue == null || !queue.remove(node) || !queue.isEmpty()) {
             return;
         }
 
-        List<CacheNode> events = typeCache.remove(id);
-        if (events != null) {
-            LOG.debug("Clearing cache for type {} with ID {} (Size: {})", type, id, events.size());
+        // Drop the empty queue, nodes which were added in the meantime are moved to a new queue
+        queue.closed = true;
+        if (typeCache.remove(node.triggerId, queue)) {
+            CacheNode remaining;
+            while ((remaining = queue.poll()) != null) {
+                if (!remaining.isDone()) {
+                    addToQueue(remaining);
+                }
+            }
         }
     }
 
@@ -136,19 +324,89 @@ public class EventCache {
         SCHEDULED_EVENT
     }
 
-    private class CacheNode {
+    /**
+     * Counters for the events of a single {@link Type}.
+     */
+    public static class Metrics implements EventCacheMetrics {
+        private final LongAdder cached = new LongAdder();
+        private final LongAdder replayed = new LongAdder();
+        private final LongAdder expired = new LongAdder();
+        private final LongAdder cleared = new LongAdder();
+
+        @Override
+        public long getCached() {
+            return cached.sum();
+        }
+
+        @Override
+        public long getReplayed() {
+            return replayed.sum();
+        }
+
+        @Override
+        public long getExpired() {
+            return expired.sum();
+        }
+
+        @Override
+        public long getCleared() {
+            return cleared.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "EventCache.Metrics(cached=" + getCached() + ", replayed=" + getReplayed() + ", expired="
+                    + getExpired() + ", cleared=" + getCleared() + ")";
+        }
+    }
+
+    private static class NodeQueue extends ConcurrentLinkedQueue<CacheNode> {
+        private volatile boolean closed;
+    }
+
+    private static class Bucket {
+        private final long id;
+        private final ConcurrentLinkedQueue<CacheNode> nodes = new ConcurrentLinkedQueue<>();
+        private volatile boolean closed;
+
+        private Bucket(long id) {
+            this.id = id;
+        }
+    }
+
+    private static class CacheNode {
+        private static final AtomicIntegerFieldUpdater<CacheNode> DONE =
+                AtomicIntegerFieldUpdater.newUpdater(CacheNode.class, "done");
+
+        private final Type type;
+        private final long triggerId;
         private final long responseTotal;
         private final DataObject event;
+        private final String eventType;
         private final CacheConsumer callback;
+        volatile int done;
 
-        public CacheNode(long responseTotal, DataObject event, CacheConsumer callback) {
+        public CacheNode(Type type, long triggerId, long responseTotal, DataObject event, CacheConsumer callback) {
+            this.type = type;
+            this.triggerId = triggerId;
             this.responseTotal = responseTotal;
             this.event = event;
+            this.eventType = event.getString("t", null);
             this.callback = callback;
         }
 
-        void execute() {
-            callback.execute(responseTotal, event);
+        boolean isDone() {
+            return done != 0;
+        }
+
+        boolean claim() {
+            return DONE.compareAndSet(this, 0, 1);
+        }
+
+        void execute(Function<String, ? extends CacheConsumer> handlers) {
+            // The callback might belong to a handler of another dispatch lane, which must not be used concurrently
+            CacheConsumer handler = eventType == null ? null : handlers.apply(eventType);
+            (handler != null ? handler : callback).execute(responseTotal, event);
         }
     }
 }
@@ -63,6 +63,7 @@ public class GuildRoleDeleteHandler extends SocketHandler {
             MemberImpl member = (MemberImpl) m;
             member.getRoleSet().remove(removedRole);
         });
+        guild.invalidatePermissionCache();
 
         for (RichCustomEmoji emoji : guild.getEmojiCache()) {
             RichCustomEmojiImpl impl = (RichCustomEmojiImpl) emoji;
@@ -96,6 +96,7 @@ public class GuildRoleUpdateHandler extends SocketHandler {
         if (!Objects.equals(permissions, role.getPermissionsRaw())) {
             long oldPermissionsRaw = role.getPermissionsRaw();
             role.setRawPermissions(permissions);
+            guild.invalidatePermissionCache();
             getJDA().handleEvent(new RoleUpdatePermissionsEvent(getJDA(), responseNumber, role, oldPermissionsRaw));
         }
 
@@ -17,7 +17,6 @@
 package net.dv8tion.jda.internal.handle;
 
 import gnu.trove.iterator.TLongIterator;
-import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.map.TLongObjectMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
 import gnu.trove.set.TLongSet;
@@ -34,6 +33,7 @@ import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
 import net.dv8tion.jda.internal.managers.AudioManagerImpl;
 import net.dv8tion.jda.internal.utils.EntityString;
 import net.dv8tion.jda.internal.utils.UnlockHook;
@@ -51,6 +51,9 @@ public class GuildSetupNode {
     private final List<DataObject> cachedEvents = new LinkedList<>();
     private TLongObjectMap<DataObject> members;
     private TLongSet removedMembers;
+    // Only used with streaming chunks, members are built right away instead of keeping their JSON around
+    private TLongObjectMap<MemberImpl> loadedMembers;
+    private GuildImpl streamingGuild;
     private DataObject partialGuild;
     private int expectedMemberCount = 1;
     boolean requestedChunk;
@@ -88,7 +91,7 @@ public class GuildSetupNode {
     }
 
     public int getCurrentMemberCount() {
-        TLongHashSet knownMembers = new TLongHashSet(members.keySet());
+        TLongHashSet knownMembers = new TLongHashSet(getMemberMap().keySet());
         knownMembers.removeAll(removedMembers);
         return knownMembers.size();
     }
@@ -110,10 +113,11 @@ public class GuildSetupNode {
     }
 
     public boolean containsMember(long userId) {
-        if (members == null || members.isEmpty()) {
+        TLongObjectMap<?> memberMap = getMemberMap();
+        if (memberMap == null || memberMap.isEmpty()) {
             return false;
         }
-        return members.containsKey(userId);
+        return memberMap.containsKey(userId);
     }
 
     @Override
@@ -163,9 +167,7 @@ public class GuildSetupNode {
         expectedMemberCount = 1;
         partialGuild = null;
         requestedChunk = false;
-        if (members != null) {
-            members.clear();
-        }
+        clearMembers();
         if (removedMembers != null) {
             removedMembers.clear();
         }
@@ -221,13 +223,11 @@ public class GuildSetupNode {
             return true;
         }
         for (int index = 0; index < arr.length(); index++) {
-            DataObject obj = arr.getObject(index);
-            long id = obj.getObject("user").getLong("id");
-            members.put(id, obj);
+            putMember(arr.getObject(index));
         }
 
         if (last
-                || members.size() >= expectedMemberCount
+                || getMemberMap().size() >= expectedMemberCount
                 || !getController().getJDA().chunkGuild(id)) {
             completeSetup();
             return false;
@@ -240,8 +240,7 @@ public class GuildSetupNode {
             return;
         }
         expectedMemberCount++;
-        long userId = member.getObject("user").getLong("id");
-        members.put(userId, member);
+        long userId = putMember(member);
         removedMembers.remove(userId);
     }
 
@@ -251,7 +250,7 @@ public class GuildSetupNode {
         }
         expectedMemberCount--;
         long userId = member.getObject("user").getLong("id");
-        members.remove(userId);
+        getMemberMap().remove(userId);
         removedMembers.add(userId);
         EventCache eventCache = getController().getJDA().getEventCache();
         if (!getController()
@@ -312,10 +311,10 @@ public class GuildSetupNode {
             }
         });
 
-        if (members != null) {
-            for (TLongObjectIterator<DataObject> it = members.iterator(); it.hasNext(); ) {
-                it.advance();
-                long userId = it.key();
+        TLongObjectMap<?> memberMap = getMemberMap();
+        if (memberMap != null) {
+            for (TLongIterator it = memberMap.keySet().iterator(); it.hasNext(); ) {
+                long userId = it.next();
                 if (!getController().containsMember(userId, this)) {
                     // if no other setup node contains this userId we clear it here
                     eventCache.clear(EventCache.Type.USER, userId);
@@ -327,11 +326,18 @@ public class GuildSetupNode {
     private void completeSetup() {
         updateStatus(GuildSetupController.Status.BUILDING);
         JDAImpl api = getController().getJDA();
+        TLongObjectMap<?> memberMap = getMemberMap();
         for (TLongIterator it = removedMembers.iterator(); it.hasNext(); ) {
-            members.remove(it.next());
+            memberMap.remove(it.next());
         }
         removedMembers.clear();
-        GuildImpl guild = api.getEntityBuilder().createGuild(id, partialGuild, members, expectedMemberCount);
+        GuildImpl guild;
+        if (loadedMembers != null) {
+            guild = api.getEntityBuilder()
+                    .createGuild(streamingGuild, partialGuild, members, loadedMembers, expectedMemberCount);
+        } else {
+            guild = api.getEntityBuilder().createGuild(id, partialGuild, members, expectedMemberCount);
+        }
         updateAudioManagerReference(guild);
         switch (type) {
             case AVAILABLE:
@@ -359,7 +365,14 @@ public class GuildSetupNode {
 
     private void ensureMembers() {
         expectedMemberCount = partialGuild.getInt("member_count");
-        members = new TLongObjectHashMap<>(expectedMemberCount);
+        if (getController().getJDA().isStreamingChunks()) {
+            // The guild payload might have changed, so the roles have to be loaded again
+            streamingGuild = getController().getJDA().getEntityBuilder().createStreamingGuild(id, partialGuild);
+            members = new TLongObjectHashMap<>();
+            loadedMembers = new TLongObjectHashMap<>(expectedMemberCount);
+        } else {
+            members = new TLongObjectHashMap<>(expectedMemberCount);
+        }
         removedMembers = new TLongHashSet();
         DataArray memberArray = partialGuild.getArray("members");
         if (!getController().getJDA().chunkGuild(id)) {
@@ -378,15 +391,40 @@ public class GuildSetupNode {
                             + "member_count: {} members: {} actual_members: {} guild_id: {}",
                     expectedMemberCount,
                     memberArray.length(),
-                    members.size(),
+                    getMemberMap().size(),
                     id);
-            members.clear();
+            clearMembers();
             updateStatus(GuildSetupController.Status.CHUNKING);
             getController().addGuildForChunking(id, isJoin());
             requestedChunk = true;
         }
     }
 
+    private long putMember(DataObject memberJson) {
+        long userId = memberJson.getObject("user").getLong("id");
+        if (loadedMembers != null) {
+            MemberImpl member =
+                    getController().getJDA().getEntityBuilder().createMember(streamingGuild, memberJson);
+            loadedMembers.put(userId, member);
+        } else {
+            members.put(userId, memberJson);
+        }
+        return userId;
+    }
+
+    private TLongObjectMap<?> getMemberMap() {
+        return loadedMembers != null ? loadedMembers : members;
+    }
+
+    private void clearMembers() {
+        if (members != null) {
+            members.clear();
+        }
+        if (loadedMembers != null) {
+            loadedMembers.clear();
+        }
+    }
+
     private void updateAudioManagerReference(GuildImpl guild) {
         JDAImpl api = getController().getJDA();
         AbstractCacheView<AudioManager> managerView = api.getAudioManagersView();
@@ -130,6 +130,7 @@ public class GuildUpdateHandler extends SocketHandler {
             }
             guild.setOwner(newOwner);
             guild.setOwnerId(ownerId);
+            guild.invalidatePermissionCache();
             getJDA().handleEvent(
                             new GuildUpdateOwnerEvent(getJDA(), responseNumber, guild, oldOwner, oldOwnerId, ownerId));
         }
@@ -0,0 +1,581 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.handle;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.*;
+import net.dv8tion.jda.api.entities.channel.attribute.*;
+import net.dv8tion.jda.api.entities.channel.concrete.*;
+import net.dv8tion.jda.api.entities.channel.forums.ForumTag;
+import net.dv8tion.jda.api.entities.channel.middleman.AudioChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.StandardGuildMessageChannel;
+import net.dv8tion.jda.api.entities.emoji.CustomEmoji;
+import net.dv8tion.jda.api.entities.emoji.EmojiUnion;
+import net.dv8tion.jda.api.entities.emoji.RichCustomEmoji;
+import net.dv8tion.jda.api.entities.guild.SecurityIncidentActions;
+import net.dv8tion.jda.api.entities.guild.SecurityIncidentDetections;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.EntityBuilder;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.GuildVoiceStateImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.entities.channel.concrete.ThreadChannelImpl;
+import net.dv8tion.jda.internal.entities.channel.mixin.attribute.IPostContainerMixin;
+import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.time.OffsetDateTime;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Snapshot of a gateway session and the guild cache, which allows a new process to resume the session
+ * instead of identifying and loading every guild again.
+ *
+ * <p>The cached entities are stored in the same shape as the gateway payloads, so restoring them goes through
+ * the {@link EntityBuilder} just like a {@code GUILD_CREATE}. The file is a gzip compressed JSON document.
+ *
+ * <p>Guilds, channels, threads, roles, members, voice states, and emojis are stored.
+ * Stickers, scheduled events, and stage instances are not restored.
+ * Presences are not stored either, sessions which cache them always identify, see {@link #isSupported(JDAImpl)}.
+ */
+public class SessionSnapshot {
+    public static final Logger LOG = JDALogger.getLog(SessionSnapshot.class);
+    public static final int VERSION = 1;
+
+    private final DataObject data;
+
+    private SessionSnapshot(DataObject data) {
+        this.data = data;
+    }
+
+    /**
+     * Whether the cache of the provided JDA instance can be restored from a snapshot.
+     * <br>Presences are not part of a snapshot, restoring the cache of a session which caches them
+     * would leave every member offline until their presence is updated.
+     *
+     * @param  api
+     *         The JDA instance
+     *
+     * @return True, if snapshots can be used with the cache flags of this JDA instance
+     */
+    public static boolean isSupported(@Nonnull JDAImpl api) {
+        return !api.isCacheFlagSet(CacheFlag.ONLINE_STATUS)
+                && !api.isCacheFlagSet(CacheFlag.ACTIVITY)
+                && !api.isCacheFlagSet(CacheFlag.CLIENT_STATUS);
+    }
+
+    @Nonnull
+    public static SessionSnapshot capture(
+            @Nonnull JDAImpl api, @Nonnull String sessionId, @Nullable String resumeUrl, int intents) {
+        // Read the sequence first, events handled during the capture are replayed again on resume
+        long sequence = api.getResponseTotal();
+        SelfUser self = api.getSelfUser();
+        DataArray guilds = DataArray.empty();
+        api.getGuildsView().forEach(guild -> guilds.add(serializeGuild((GuildImpl) guild)));
+        DataArray unavailable = DataArray.empty();
+        api.getGuildSetupController().getUnavailableGuilds().forEach(id -> {
+            unavailable.add(Long.toUnsignedString(id));
+            return true;
+        });
+
+        JDA.ShardInfo shardInfo = api.getShardInfo();
+        DataObject data = DataObject.empty()
+                .put("version", VERSION)
+                .put("session_id", sessionId)
+                .put("resume_url", resumeUrl)
+                .put("seq", sequence)
+                .put("intents", intents)
+                .put("shard_id", shardInfo.getShardId())
+                .put("shard_total", shardInfo.getShardTotal())
+                .put(
+                        "user",
+                        serializeUser(self)
+                                .put("verified", self.isVerified())
+                                .put("mfa_enabled", self.isMfaEnabled())
+                                .put("application_id", self.getApplicationId()))
+                .put("guilds", guilds)
+                .put("unavailable_guilds", unavailable);
+        return new SessionSnapshot(data);
+    }
+
+    /**
+     * Reads and deletes the snapshot file, so that it is never used for more than one resume attempt.
+     *
+     * @param  file
+     *         The snapshot file
+     *
+     * @throws IOException
+     *         If the file could not be read
+     *
+     * @return The snapshot, or null if the file does not exist
+     */
+    @Nullable
+    public static SessionSnapshot read(@Nonnull Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            return new SessionSnapshot(DataObject.fromJson(input));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void write(@Nonnull Path file) throws IOException {
+        // Write to a temporary file first, a partially written snapshot would fail to restore
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                output.write(data.toJson());
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Nonnull
+    public String getSessionId() {
+        return data.getString("session_id");
+    }
+
+    @Nullable
+    public String getResumeUrl() {
+        return data.getString("resume_url", null);
+    }
+
+    public int getSequence() {
+        return data.getInt("seq");
+    }
+
+    public int getGuildCount() {
+        return data.getArray("guilds").length();
+    }
+
+    /**
+     * Whether this snapshot was taken by a session with the same account, shard, and intents.
+     *
+     * @param  api
+     *         The JDA instance to restore the snapshot into
+     * @param  intents
+     *         The gateway intents of the new session
+     *
+     * @return True, if the snapshot can be used to resume
+     */
+    public boolean isCompatible(@Nonnull JDAImpl api, int intents) {
+        if (data.getInt("version", 0) != VERSION || data.isNull("session_id")) {
+            return false;
+        }
+        if (api.hasSelfUser() && api.getSelfUser().getIdLong() != data.getObject("user").getUnsignedLong("id")) {
+            return false;
+        }
+        JDA.ShardInfo shardInfo = api.getShardInfo();
+        return data.getInt("intents") == intents
+                && data.getInt("shard_id") == shardInfo.getShardId()
+                && data.getInt("shard_total") == shardInfo.getShardTotal();
+    }
+
+    /**
+     * Creates the cached entities of this snapshot.
+     * <br>This does not fire any events.
+     *
+     * @param  api
+     *         The JDA instance, which must not have any guilds cached yet
+     *
+     * @return False, if a guild was missing the self member, in which case the cache has to be cleared again
+     */
+    public boolean restore(@Nonnull JDAImpl api) {
+        EntityBuilder builder = api.getEntityBuilder();
+        // The self user is usually already loaded by the token verification, which is more recent
+        if (!api.hasSelfUser()) {
+            builder.createSelfUser(data.getObject("user"));
+        }
+        long selfId = api.getSelfUser().getIdLong();
+
+        DataArray guilds = data.getArray("guilds");
+        for (int i = 0; i < guilds.length(); i++) {
+            DataObject guild = guilds.getObject(i);
+            TLongObjectMap<DataObject> members = new TLongObjectHashMap<>();
+            DataArray memberArray = guild.getArray("members");
+            for (int j = 0; j < memberArray.length(); j++) {
+                DataObject member = memberArray.getObject(j);
+                members.put(member.getObject("user").getUnsignedLong("id"), member);
+            }
+            // Without the self member, the entity builder would try to request it from the gateway
+            if (!members.containsKey(selfId)) {
+                return false;
+            }
+            builder.createGuild(guild.getUnsignedLong("id"), guild, members, guild.getInt("member_count"));
+        }
+
+        DataArray unavailable = data.getArray("unavailable_guilds");
+        for (int i = 0; i < unavailable.length(); i++) {
+            api.getGuildSetupController().onUnavailable(unavailable.getUnsignedLong(i));
+        }
+        return true;
+    }
+
+    private static DataObject serializeGuild(GuildImpl guild) {
+        DataArray roles = DataArray.empty();
+        guild.getRolesView().forEach(role -> roles.add(serializeRole(role)));
+        DataArray channels = DataArray.empty();
+        DataArray threads = DataArray.empty();
+        guild.getChannelView().forEach(channel -> {
+            if (channel instanceof ThreadChannel) {
+                threads.add(serializeThread((ThreadChannelImpl) channel));
+            } else {
+                DataObject json = serializeChannel(channel);
+                if (json != null) {
+                    channels.add(json);
+                }
+            }
+        });
+        DataArray members = DataArray.empty();
+        DataArray voiceStates = DataArray.empty();
+        guild.getMembersView().forEach(member -> {
+            members.add(serializeMember((MemberImpl) member));
+            GuildVoiceStateImpl voiceState = ((MemberImpl) member).getVoiceState();
+            if (voiceState != null && voiceState.inAudioChannel()) {
+                voiceStates.add(serializeVoiceState(voiceState));
+            }
+        });
+        DataArray emojis = DataArray.empty();
+        guild.getEmojisView().forEach(emoji -> emojis.add(serializeEmoji(emoji)));
+
+        DataObject incidents = DataObject.empty();
+        SecurityIncidentActions actions = guild.getSecurityIncidentActions();
+        if (actions != null) {
+            incidents
+                    .put("invites_disabled_until", toIso(actions.getInvitesDisabledUntil()))
+                    .put("dms_disabled_until", toIso(actions.getDirectMessagesDisabledUntil()));
+        }
+        SecurityIncidentDetections detections = guild.getSecurityIncidentDetections();
+        if (detections != null) {
+            incidents
+                    .put("dm_spam_detected_at", toIso(detections.getTimeDetectedDmSpam()))
+                    .put("raid_detected_at", toIso(detections.getTimeDetectedRaid()));
+        }
+
+        return DataObject.empty()
+                .put("id", guild.getId())
+                .put("name", guild.getName())
+                .put("icon", guild.getIconId())
+                .put("splash", guild.getSplashId())
+                .put("description", guild.getDescription())
+                .put("vanity_url_code", guild.getVanityCode())
+                .put("banner", guild.getBannerId())
+                .put("preferred_locale", guild.getLocale().getLocale())
+                .put("owner_id", Long.toUnsignedString(guild.getOwnerIdLong()))
+                .put("afk_channel_id", idOf(guild.getAfkChannel()))
+                .put("system_channel_id", idOf(guild.getSystemChannel()))
+                .put("rules_channel_id", idOf(guild.getRulesChannel()))
+                .put("public_updates_channel_id", idOf(guild.getCommunityUpdatesChannel()))
+                .put("safety_alerts_channel_id", idOf(guild.getSafetyAlertsChannel()))
+                .put("premium_subscription_count", guild.getBoostCount())
+                .put("premium_tier", guild.getBoostTier().getKey())
+                .put("max_members", guild.getMaxMembers())
+                .put("max_presences", guild.getMaxPresences())
+                .put("mfa_level", guild.getRequiredMFALevel().getKey())
+                .put("afk_timeout", guild.getAfkTimeout().getSeconds())
+                .put("verification_level", guild.getVerificationLevel().getKey())
+                .put("default_message_notifications", guild.getDefaultNotificationLevel().getKey())
+                .put("explicit_content_filter", guild.getExplicitContentLevel().getKey())
+                .put("nsfw_level", guild.getNSFWLevel().getKey())
+                .put("premium_progress_bar_enabled", guild.isBoostProgressBarEnabled())
+                .put("system_channel_flags", guild.getSystemChannelFlagsRaw())
+                .put("features", DataArray.fromCollection(guild.getFeatures()))
+                .put("member_count", guild.getMemberCount())
+                .put("incidents_data", incidents)
+                .put("roles", roles)
+                .put("channels", channels)
+                .put("members", members)
+                .put("emojis", emojis)
+                .put("threads", threads)
+                .put("voice_states", voiceStates)
+                // Required by the entity builder, but not part of the snapshot
+                .put("guild_scheduled_events", DataArray.empty());
+    }
+
+    private static DataObject serializeRole(Role role) {
+        RoleIcon icon = role.getIcon();
+        Role.RoleTags tags = role.getTags();
+        DataObject tagsJson = DataObject.empty();
+        if (tags.isBot()) {
+            tagsJson.put("bot_id", tags.getBotId());
+        }
+        if (tags.isIntegration()) {
+            tagsJson.put("integration_id", tags.getIntegrationId());
+        }
+        if (tags.hasSubscriptionListing()) {
+            tagsJson.put("subscription_listing_id", tags.getSubscriptionId());
+        }
+        // These tags are represented by the presence of the key
+        if (tags.isBoost()) {
+            tagsJson.put("premium_subscriber", null);
+        }
+        if (tags.isAvailableForPurchase()) {
+            tagsJson.put("available_for_purchase", null);
+        }
+        if (tags.isLinkedRole()) {
+            tagsJson.put("guild_connections", null);
+        }
+
+        return DataObject.empty()
+                .put("id", role.getId())
+                .put("name", role.getName())
+                .put("position", role.getPositionRaw())
+                .put("permissions", role.getPermissionsRaw())
+                .put("managed", role.isManaged())
+                .put("hoist", role.isHoisted())
+                .put("mentionable", role.isMentionable())
+                .put("colors", role.getColors().toData())
+                .put("tags", tagsJson)
+                .put("icon", icon == null ? null : icon.getIconId())
+                .put("unicode_emoji", icon == null ? null : icon.getEmoji());
+    }
+
+    @Nullable
+    private static DataObject serializeChannel(GuildChannel channel) {
+        DataObject json = DataObject.empty()
+                .put("id", channel.getId())
+                .put("type", channel.getType().getId())
+                .put("name", channel.getName());
+        if (channel instanceof IPositionableChannel) {
+            json.put("position", ((IPositionableChannel) channel).getPositionRaw());
+        }
+        if (channel instanceof ICategorizableChannel) {
+            long parentId = ((ICategorizableChannel) channel).getParentCategoryIdLong();
+            json.put("parent_id", parentId == 0 ? null : Long.toUnsignedString(parentId));
+        }
+        if (channel instanceof MessageChannel) {
+            long latestMessageId = ((MessageChannel) channel).getLatestMessageIdLong();
+            json.put("last_message_id", latestMessageId == 0 ? null : Long.toUnsignedString(latestMessageId));
+        }
+        if (channel instanceof StandardGuildMessageChannel) {
+            json.put("topic", ((StandardGuildMessageChannel) channel).getTopic());
+        }
+        if (channel instanceof IAgeRestrictedChannel) {
+            json.put("nsfw", ((IAgeRestrictedChannel) channel).isNSFW());
+        }
+        if (channel instanceof ISlowmodeChannel) {
+            json.put("rate_limit_per_user", ((ISlowmodeChannel) channel).getSlowmode());
+        }
+        if (channel instanceof IThreadContainer) {
+            json.put("default_thread_rate_limit_per_user", ((IThreadContainer) channel).getDefaultThreadSlowmode());
+        }
+        if (channel instanceof AudioChannel) {
+            AudioChannel audio = (AudioChannel) channel;
+            json.put("bitrate", audio.getBitrate())
+                    .put("user_limit", audio.getUserLimit())
+                    .put("rtc_region", audio.getRegionRaw());
+        }
+        if (channel instanceof IVoiceStatusChannel) {
+            json.put("status", ((IVoiceStatusChannel) channel).getStatus());
+        }
+        if (channel instanceof IPostContainerMixin) {
+            serializePostContainer((IPostContainerMixin<?>) channel, json);
+        }
+        if (channel instanceof ForumChannel) {
+            json.put("default_forum_layout", ((ForumChannel) channel).getDefaultLayout().getKey());
+        }
+        if (channel instanceof IPermissionContainer) {
+            DataArray overrides = DataArray.empty();
+            for (PermissionOverride override : ((IPermissionContainer) channel).getPermissionOverrides()) {
+                overrides.add(DataObject.empty()
+                        .put("id", override.getId())
+                        .put("type", override.isRoleOverride() ? 0 : 1)
+                        .put("allow", override.getAllowedRaw())
+                        .put("deny", override.getDeniedRaw()));
+            }
+            json.put("permission_overwrites", overrides);
+        }
+        return json;
+    }
+
+    private static DataObject serializeThread(ThreadChannelImpl thread) {
+        DataArray appliedTags = DataArray.empty();
+        thread.getAppliedTagsSet().forEach(id -> {
+            appliedTags.add(Long.toUnsignedString(id));
+            return true;
+        });
+
+        DataObject json = DataObject.empty()
+                .put("id", thread.getId())
+                .put("type", thread.getType().getId())
+                .put("parent_id", thread.getParentChannel().getId())
+                .put("name", thread.getName())
+                .put("flags", thread.getRawFlags())
+                .put("owner_id", Long.toUnsignedString(thread.getOwnerIdLong()))
+                .put("member_count", thread.getMemberCount())
+                .put("message_count", thread.getMessageCount())
+                .put("total_message_count", thread.getTotalMessageCount())
+                .put("last_message_id", Long.toUnsignedString(thread.getLatestMessageIdLong()))
+                .put("rate_limit_per_user", thread.getSlowmode())
+                .put("applied_tags", appliedTags)
+                .put(
+                        "thread_metadata",
+                        DataObject.empty()
+                                .put("locked", thread.isLocked())
+                                .put("archived", thread.isArchived())
+                                .put("invitable", thread.isInvitable())
+                                .put("archive_timestamp", toIso(thread.getTimeArchiveInfoLastModified()))
+                                .put("create_timestamp", toIso(thread.getTimeCreated()))
+                                .put("auto_archive_duration", thread.getAutoArchiveDuration().getMinutes()));
+
+        // Only the thread member of the self user is part of the guild payload
+        ThreadMember self = thread.getThreadMemberView().get(thread.getJDA().getSelfUser().getIdLong());
+        if (self != null) {
+            json.put("member", DataObject.empty().put("join_timestamp", toIso(self.getTimeJoined())));
+        }
+        return json;
+    }
+
+    private static DataObject serializeVoiceState(GuildVoiceStateImpl voiceState) {
+        OffsetDateTime requestToSpeak = voiceState.getRequestToSpeakTimestamp();
+        return DataObject.empty()
+                .put("user_id", voiceState.getMember().getId())
+                .put("channel_id", voiceState.getChannel().getId())
+                .put("session_id", voiceState.getSessionId())
+                .put("self_mute", voiceState.isSelfMuted())
+                .put("self_deaf", voiceState.isSelfDeafened())
+                .put("mute", voiceState.isGuildMuted())
+                .put("deaf", voiceState.isGuildDeafened())
+                .put("suppress", voiceState.isSuppressed())
+                .put("self_stream", voiceState.isStream())
+                .put("request_to_speak_timestamp", toIso(requestToSpeak));
+    }
+
+    private static void serializePostContainer(IPostContainerMixin<?> channel, DataObject json) {
+        DataArray tags = DataArray.empty();
+        for (ForumTag tag : channel.getAvailableTags()) {
+            tags.add(putEmoji(
+                    DataObject.empty()
+                            .put("id", tag.getId())
+                            .put("name", tag.getName())
+                            .put("moderated", tag.isModerated()),
+                    tag.getEmoji()));
+        }
+        EmojiUnion reaction = channel.getDefaultReaction();
+        json.put("available_tags", tags)
+                .put("flags", channel.getRawFlags())
+                .put("default_sort_order", channel.getRawSortOrder())
+                .put("default_reaction_emoji", reaction == null ? null : putEmoji(DataObject.empty(), reaction));
+    }
+
+    private static DataObject putEmoji(DataObject json, @Nullable EmojiUnion emoji) {
+        if (emoji instanceof CustomEmoji) {
+            json.put("emoji_id", ((CustomEmoji) emoji).getId()).put("emoji_name", emoji.getName());
+        } else if (emoji != null) {
+            json.put("emoji_name", emoji.getName());
+        }
+        return json;
+    }
+
+    private static DataObject serializeMember(MemberImpl member) {
+        DataArray roles = DataArray.empty();
+        for (Role role : member.getRoleSet()) {
+            roles.add(role.getId());
+        }
+        return DataObject.empty()
+                .put("user", serializeUser(member.getUser()))
+                .put("nick", member.getNickname())
+                .put("avatar", member.getAvatarId())
+                .put("flags", member.getFlagsRaw())
+                .put("premium_since", member.isBoosting() ? toIso(Helpers.toOffset(member.getBoostDateRaw())) : null)
+                .put(
+                        "communication_disabled_until",
+                        member.getTimeOutEndRaw() == 0 ? null : toIso(Helpers.toOffset(member.getTimeOutEndRaw())))
+                .put("pending", member.isPending())
+                .put("joined_at", member.hasTimeJoined() ? toIso(member.getTimeJoined()) : null)
+                .put("roles", roles);
+    }
+
+    private static DataObject serializeUser(User user) {
+        DataObject json = DataObject.empty()
+                .put("id", user.getId())
+                .put("username", user.getName())
+                .put("global_name", user.getGlobalName())
+                .put("discriminator", user.getDiscriminator())
+                .put("avatar", user.getAvatarId())
+                .put("bot", user.isBot())
+                .put("system", user.isSystem())
+                .put("public_flags", user.getFlagsRaw());
+        User.PrimaryGuild primaryGuild = user.getPrimaryGuild();
+        if (primaryGuild != null) {
+            json.put(
+                    "primary_guild",
+                    DataObject.empty()
+                            .put("identity_guild_id", primaryGuild.getId())
+                            .put("identity_enabled", primaryGuild.isIdentityEnabled())
+                            .put("tag", primaryGuild.getTag())
+                            .put("badge", primaryGuild.getBadgeHash()));
+        }
+        return json;
+    }
+
+    private static DataObject serializeEmoji(RichCustomEmoji emoji) {
+        DataArray roles = DataArray.empty();
+        for (Role role : emoji.getRoles()) {
+            roles.add(role.getId());
+        }
+        DataObject json = DataObject.empty()
+                .put("id", emoji.getId())
+                .put("name", emoji.getName())
+                .put("animated", emoji.isAnimated())
+                .put("managed", emoji.isManaged())
+                .put("available", emoji.isAvailable())
+                .put("roles", roles);
+        User owner = emoji.getOwner();
+        if (owner != null) {
+            json.put("user", serializeUser(owner));
+        }
+        return json;
+    }
+
+    @Nullable
+    private static String idOf(@Nullable ISnowflake entity) {
+        return entity == null ? null : entity.getId();
+    }
+
+    @Nullable
+    private static String toIso(@Nullable OffsetDateTime time) {
+        return time == null ? null : time.toString();
+    }
+}
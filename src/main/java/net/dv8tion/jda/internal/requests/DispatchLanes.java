@@ -0,0 +1,215 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Fixed set of worker lanes, which apply gateway dispatches in parallel.
+ *
+ * <p>Every task is assigned to a lane by its key, usually the guild id, so tasks with the same key always run
+ * in the order they were submitted. Tasks without a key run on a separate serial lane.
+ * For tasks that touch state shared by all lanes, {@link #awaitIdle()} waits until every lane has finished
+ * its queued work, after which the caller can run the task itself.
+ *
+ * <p>Each lane has its own context, created by the provided supplier, which is passed to every task of that lane.
+ * The queue of each lane is bounded, so a slow lane eventually blocks the submitting thread instead of buffering
+ * the entire gateway traffic.
+ *
+ * @param <T> The type of the per-lane context
+ */
+public class DispatchLanes<T> {
+    public static final Logger LOG = JDALogger.getLog(DispatchLanes.class);
+    public static final int DEFAULT_LANES =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final ThreadLocal<Lane> currentLane = new ThreadLocal<>();
+    private final Runnable initializer;
+    private final Lane serial;
+    private final Lane[] lanes;
+    private volatile boolean shutdown;
+
+    @SuppressWarnings("unchecked")
+    public DispatchLanes(
+            @Nonnull String name,
+            int laneCount,
+            int capacity,
+            @Nonnull Supplier<? extends T> context,
+            @Nonnull Runnable initializer) {
+        this.initializer = initializer;
+        this.serial = new Lane(name + " DispatchLane-Serial", capacity, context.get());
+        this.lanes = new DispatchLanes.Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(name + " DispatchLane-" + i, capacity, context.get());
+        }
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * The context of the lane the current thread belongs to.
+     *
+     * @return The lane context, or null if this is not called by a lane
+     */
+    @Nullable
+    public T getCurrentContext() {
+        Lane lane = currentLane.get();
+        return lane == null ? null : lane.context;
+    }
+
+    /**
+     * Submits a task to the lane of the provided key.
+     * <br>This blocks while the queue of that lane is full.
+     *
+     * @param key
+     *        The key of the task, or {@code 0} to use the serial lane
+     * @param task
+     *        The task to run with the lane context
+     */
+    public void execute(long key, @Nonnull Consumer<? super T> task) {
+        if (shutdown) {
+            return;
+        }
+        Lane lane = key == 0 ? serial : lanes[index(key)];
+        lane.submit(() -> task.accept(lane.context));
+    }
+
+    /**
+     * Blocks until every task that was submitted before this call has finished.
+     * <br>This does nothing when called by one of the lanes, since it would wait for itself.
+     */
+    public void awaitIdle() {
+        if (shutdown || currentLane.get() != null) {
+            return;
+        }
+
+        CountDownLatch latch = new CountDownLatch(lanes.length + 1);
+        serial.submit(latch::countDown);
+        for (Lane lane : lanes) {
+            lane.submit(latch::countDown);
+        }
+
+        try {
+            // The lanes drop their queued tasks on shutdown, so we cannot rely on every countdown to happen
+            while (!latch.await(1, TimeUnit.SECONDS)) {
+                if (shutdown) {
+                    return;
+                }
+                if (!serial.isAlive() || Arrays.stream(lanes).anyMatch(lane -> !lane.isAlive())) {
+                    LOG.error("Stopped waiting for the dispatch lanes to become idle, because one of them has died");
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops all lanes.
+     * <br>Tasks which have not started yet are dropped.
+     */
+    public void shutdown() {
+        shutdown = true;
+        serial.thread.interrupt();
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+    }
+
+    private int index(long key) {
+        // The lower bits of a snowflake are mostly the same, mix in the timestamp to spread guilds across lanes
+        return Math.floorMod(Long.hashCode(key ^ (key >>> 22)), lanes.length);
+    }
+
+    private class Lane implements Runnable {
+        private final BlockingQueue<Runnable> queue;
+        private final T context;
+        private final Thread thread;
+
+        private Lane(String name, int capacity, T context) {
+            this.queue = new LinkedBlockingQueue<>(capacity);
+            this.context = context;
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private boolean isAlive() {
+            return thread.isAlive();
+        }
+
+        private void submit(Runnable task) {
+            try {
+                // A lane which died would never make room in its queue again
+                while (!queue.offer(task, 1, TimeUnit.SECONDS)) {
+                    if (shutdown) {
+                        return;
+                    }
+                    if (!isAlive()) {
+                        LOG.error("Cannot submit a task to {}, because the lane has died", thread.getName());
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.warn("Interrupted while submitting a task to {}, the task was dropped", thread.getName());
+            }
+        }
+
+        @Override
+        public void run() {
+            currentLane.set(this);
+            initializer.run();
+            try {
+                while (!shutdown) {
+                    Runnable task = queue.take();
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        // Keep the lane running, nothing would replace it and its guilds would never be handled again
+                        LOG.error("Encountered an uncaught exception in {}", thread.getName(), t);
+                    }
+                }
+            } catch (InterruptedException ignored) {
+                // Interrupted by shutdown
+            } finally {
+                queue.clear();
+            }
+        }
+    }
+}
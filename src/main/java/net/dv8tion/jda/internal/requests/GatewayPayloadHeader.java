@@ -0,0 +1,374 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nullable;
+
+import static net.dv8tion.jda.api.utils.data.etf.ExTermTag.*;
+
+/**
+ * The routing fields of a gateway payload ({@code op}, {@code s}, {@code t}, and {@code d.guild_id}),
+ * read with a streaming cursor without materializing the payload into a {@link net.dv8tion.jda.api.utils.data.DataObject DataObject}.
+ *
+ * <p>This is used by the {@link WebSocketClient} to drop dispatches that would be ignored anyway,
+ * before paying for the full parse.
+ */
+public class GatewayPayloadHeader {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final int OP = 1;
+    private static final int SEQUENCE = 1 << 1;
+    private static final int TYPE = 1 << 2;
+    private static final int GUILD_ID = 1 << 3;
+    private static final int DISPATCH_FIELDS = OP | SEQUENCE | TYPE;
+
+    private int fields;
+    private int op = -1;
+    private int sequence = -1;
+    private String type;
+    private long guildId;
+
+    private GatewayPayloadHeader() {}
+
+    public int getOp() {
+        return op;
+    }
+
+    public boolean hasSequence() {
+        return sequence >= 0;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    @Nullable
+    public String getType() {
+        return type;
+    }
+
+    public long getGuildId() {
+        return guildId;
+    }
+
+    private boolean isComplete(boolean includeGuildId) {
+        if ((fields & OP) != 0 && op != WebSocketCode.DISPATCH) {
+            return true; // Only dispatches need the remaining fields
+        }
+        int required = includeGuildId ? DISPATCH_FIELDS | GUILD_ID : DISPATCH_FIELDS;
+        return (fields & required) == required;
+    }
+
+    /**
+     * Reads the header of a JSON payload.
+     *
+     * @param  data
+     *         The buffer containing the payload, which is not modified by this method
+     * @param  includeGuildId
+     *         Whether to also look for {@code d.guild_id}, which requires scanning the keys of the {@code d} object
+     *
+     * @return The header, or {@code null} if the payload could not be peeked and should be parsed normally instead
+     */
+    @Nullable
+    public static GatewayPayloadHeader peekJson(ByteBuffer data, boolean includeGuildId) {
+        if (!data.hasArray()) {
+            return null;
+        }
+
+        try (JsonParser parser =
+                JSON_FACTORY.createParser(data.array(), data.arrayOffset() + data.position(), data.remaining())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            GatewayPayloadHeader header = new GatewayPayloadHeader();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "op":
+                        if (value != JsonToken.VALUE_NUMBER_INT) {
+                            return null;
+                        }
+                        header.op = parser.getIntValue();
+                        header.fields |= OP;
+                        break;
+                    case "s":
+                        if (value == JsonToken.VALUE_NUMBER_INT) {
+                            header.sequence = parser.getIntValue();
+                        }
+                        header.fields |= SEQUENCE;
+                        break;
+                    case "t":
+                        if (value == JsonToken.VALUE_STRING) {
+                            header.type = parser.getText();
+                        }
+                        header.fields |= TYPE;
+                        break;
+                    case "d":
+                        if (includeGuildId && value == JsonToken.START_OBJECT) {
+                            header.guildId = readGuildId(parser);
+                        } else {
+                            parser.skipChildren();
+                        }
+                        header.fields |= GUILD_ID;
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+
+                if (header.isComplete(includeGuildId)) {
+                    return header;
+                }
+            }
+            return (header.fields & OP) != 0 ? header : null;
+        } catch (IOException | NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static long readGuildId(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (name.equals("guild_id") && value == JsonToken.VALUE_STRING) {
+                // Skip the rest of the object, so the parser is positioned after it
+                long id = Long.parseLong(parser.getText());
+                parser.skipChildren();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
+                return id;
+            }
+            parser.skipChildren();
+        }
+        return 0;
+    }
+
+    /**
+     * Reads the header of an ETF payload.
+     *
+     * @param  data
+     *         The buffer containing the payload, which is not modified by this method
+     * @param  includeGuildId
+     *         Whether to also look for {@code d.guild_id}, which requires skipping over the terms of the {@code d} map
+     *
+     * @return The header, or {@code null} if the payload could not be peeked and should be parsed normally instead
+     */
+    @Nullable
+    public static GatewayPayloadHeader peekETF(ByteBuffer data, boolean includeGuildId) {
+        ByteBuffer buffer = data.slice();
+        try {
+            if (buffer.get() != -125 || buffer.get() != MAP) {
+                return null;
+            }
+
+            GatewayPayloadHeader header = new GatewayPayloadHeader();
+            int arity = buffer.getInt();
+            while (arity-- > 0) {
+                int keyLength = readKeyLength(buffer);
+                int keyStart = buffer.position();
+                buffer.position(keyStart + keyLength);
+
+                if (keyEquals(buffer, keyStart, keyLength, "op")) {
+                    header.op = readInt(buffer);
+                    header.fields |= OP;
+                } else if (keyEquals(buffer, keyStart, keyLength, "s")) {
+                    byte tag = buffer.get(buffer.position());
+                    if (tag == SMALL_INT || tag == INT) {
+                        header.sequence = readInt(buffer);
+                    } else {
+                        skipTerm(buffer);
+                    }
+                    header.fields |= SEQUENCE;
+                } else if (keyEquals(buffer, keyStart, keyLength, "t")) {
+                    header.type = readString(buffer);
+                    header.fields |= TYPE;
+                } else if (keyEquals(buffer, keyStart, keyLength, "d")) {
+                    if (includeGuildId && buffer.get(buffer.position()) == MAP) {
+                        header.guildId = readGuildId(buffer);
+                    } else {
+                        skipTerm(buffer);
+                    }
+                    header.fields |= GUILD_ID;
+                } else {
+                    skipTerm(buffer);
+                }
+
+                if (header.isComplete(includeGuildId)) {
+                    return header;
+                }
+            }
+            return (header.fields & OP) != 0 ? header : null;
+        } catch (RuntimeException ex) {
+            // Unsupported or malformed terms are left to the full decoder, which will report them properly
+            return null;
+        }
+    }
+
+    private static long readGuildId(ByteBuffer buffer) {
+        buffer.get(); // MAP
+        int arity = buffer.getInt();
+        long guildId = 0;
+        while (arity-- > 0) {
+            int keyLength = readKeyLength(buffer);
+            int keyStart = buffer.position();
+            buffer.position(keyStart + keyLength);
+
+            if (guildId == 0 && keyEquals(buffer, keyStart, keyLength, "guild_id")) {
+                byte tag = buffer.get(buffer.position());
+                if (tag == SMALL_BIGINT) {
+                    guildId = readSmallBigint(buffer);
+                } else {
+                    String id = readString(buffer);
+                    guildId = id == null ? 0 : Long.parseLong(id);
+                }
+            } else {
+                skipTerm(buffer);
+            }
+        }
+        return guildId;
+    }
+
+    private static int readKeyLength(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case SMALL_ATOM_UTF8:
+            case SMALL_ATOM:
+                return Byte.toUnsignedInt(buffer.get());
+            case ATOM_UTF8:
+            case ATOM:
+                return Short.toUnsignedInt(buffer.getShort());
+            case BINARY:
+                return buffer.getInt();
+            default:
+                throw new IllegalArgumentException("Unsupported key tag " + tag);
+        }
+    }
+
+    private static boolean keyEquals(ByteBuffer buffer, int start, int length, String key) {
+        if (length != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readInt(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case SMALL_INT:
+                return Byte.toUnsignedInt(buffer.get());
+            case INT:
+                return buffer.getInt();
+            default:
+                throw new IllegalArgumentException("Expected integer but got tag " + tag);
+        }
+    }
+
+    private static long readSmallBigint(ByteBuffer buffer) {
+        buffer.get(); // SMALL_BIGINT
+        int arity = Byte.toUnsignedInt(buffer.get());
+        int sign = Byte.toUnsignedInt(buffer.get());
+        long sum = 0;
+        long offset = 0;
+        while (arity-- > 0) {
+            sum += Byte.toUnsignedLong(buffer.get()) << offset;
+            offset += 8;
+        }
+        return sign == 0 ? sum : -sum;
+    }
+
+    @Nullable
+    private static String readString(ByteBuffer buffer) {
+        int length = readKeyLength(buffer);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        return value.equals("nil") ? null : value;
+    }
+
+    private static void skipTerm(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case SMALL_INT:
+                skip(buffer, 1);
+                break;
+            case INT:
+                skip(buffer, 4);
+                break;
+            case SMALL_BIGINT:
+                skip(buffer, 1 + Byte.toUnsignedInt(buffer.get()));
+                break;
+            case FLOAT:
+                skip(buffer, 31);
+                break;
+            case NEW_FLOAT:
+                skip(buffer, 8);
+                break;
+            case SMALL_ATOM_UTF8:
+            case SMALL_ATOM:
+                skip(buffer, Byte.toUnsignedInt(buffer.get()));
+                break;
+            case ATOM_UTF8:
+            case ATOM:
+            case STRING:
+                skip(buffer, Short.toUnsignedInt(buffer.getShort()));
+                break;
+            case BINARY:
+                skip(buffer, buffer.getInt());
+                break;
+            case NIL:
+                break;
+            case LIST: {
+                // Elements followed by the tail
+                int length = buffer.getInt();
+                for (int i = 0; i <= length; i++) {
+                    skipTerm(buffer);
+                }
+                break;
+            }
+            case MAP: {
+                int arity = buffer.getInt();
+                for (int i = 0; i < arity; i++) {
+                    skipTerm(buffer);
+                    skipTerm(buffer);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Cannot skip tag " + tag);
+        }
+    }
+
+    private static void skip(ByteBuffer buffer, int length) {
+        buffer.position(buffer.position() + length);
+    }
+}
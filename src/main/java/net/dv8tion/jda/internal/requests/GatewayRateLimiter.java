@@ -0,0 +1,162 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Send budget of a gateway connection, which allows {@value #LIMIT} messages in any {@value #WINDOW_MILLIS} ms window.
+ *
+ * <p>This works like a token bucket, where every token is returned exactly one window after it was used.
+ * Unlike a counter that resets at a fixed interval, this never allows more than the limit in any window,
+ * and it can tell exactly when the next token becomes available.
+ *
+ * <p>A few tokens are reserved for priority messages, like heartbeats and identify/resume,
+ * so they can still be sent while the queued messages have used up the rest of the budget.
+ */
+public class GatewayRateLimiter {
+    public static final int LIMIT = 120;
+    public static final long WINDOW_MILLIS = 60000;
+    public static final int PRIORITY_RESERVE = 5;
+
+    private final int limit;
+    private final long window;
+    private final int reserve;
+    // Ring buffer of the send times in the current window, in order of use
+    private final long[] sendTimes;
+    private int head, size;
+
+    private long blockedSince = -1;
+    private long totalWait;
+    private long sentCount;
+    private long blockedCount;
+
+    public GatewayRateLimiter() {
+        this(LIMIT, WINDOW_MILLIS, PRIORITY_RESERVE);
+    }
+
+    public GatewayRateLimiter(int limit, long window, int reserve) {
+        this.limit = limit;
+        this.window = window;
+        this.reserve = reserve;
+        this.sendTimes = new long[limit];
+    }
+
+    public static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    public boolean tryAcquire(boolean priority) {
+        return tryAcquire(priority, now());
+    }
+
+    public synchronized boolean tryAcquire(boolean priority, long now) {
+        expire(now);
+        if (size >= getLimit(priority)) {
+            if (!priority && blockedSince < 0) {
+                blockedSince = now;
+                blockedCount++;
+            }
+            return false;
+        }
+
+        sendTimes[(head + size) % limit] = now;
+        size++;
+        sentCount++;
+        if (!priority && blockedSince >= 0) {
+            totalWait += now - blockedSince;
+            blockedSince = -1;
+        }
+        return true;
+    }
+
+    public long getDelay(boolean priority) {
+        return getDelay(priority, now());
+    }
+
+    /**
+     * The time in milliseconds until a message of the provided priority can be sent.
+     *
+     * @param  priority
+     *         Whether this is for a priority message, which can use the reserved tokens
+     * @param  now
+     *         The current time in milliseconds
+     *
+     * @return The delay in milliseconds, or 0 if a token is available right now
+     */
+    public synchronized long getDelay(boolean priority, long now) {
+        expire(now);
+        int allowed = getLimit(priority);
+        if (size < allowed) {
+            return 0;
+        }
+        // Wait until enough tokens were returned to get below the limit again
+        long returnedAt = sendTimes[(head + size - allowed) % limit] + window;
+        return Math.max(1, returnedAt - now);
+    }
+
+    public synchronized void reset() {
+        head = 0;
+        size = 0;
+        blockedSince = -1;
+    }
+
+    public synchronized int getAvailable(boolean priority) {
+        expire(now());
+        return Math.max(0, getLimit(priority) - size);
+    }
+
+    public synchronized long getSentCount() {
+        return sentCount;
+    }
+
+    /**
+     * How often the queued messages had to wait for the budget.
+     *
+     * @return The number of times queued messages were rate limited
+     */
+    public synchronized long getBlockedCount() {
+        return blockedCount;
+    }
+
+    /**
+     * The total time queued messages spent waiting for the budget, since this limiter was created.
+     *
+     * @param  unit
+     *         The time unit to convert to
+     *
+     * @return The total wait time
+     */
+    public synchronized long getTotalWaitTime(TimeUnit unit) {
+        long wait = totalWait;
+        if (blockedSince >= 0) {
+            wait += now() - blockedSince;
+        }
+        return unit.convert(wait, TimeUnit.MILLISECONDS);
+    }
+
+    private int getLimit(boolean priority) {
+        return priority ? limit : limit - reserve;
+    }
+
+    private void expire(long now) {
+        while (size > 0 && sendTimes[head] + window <= now) {
+            head = (head + 1) % limit;
+            size--;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
@@ -39,8 +40,10 @@ import java.util.LinkedHashSet;
 import java.util.Locale;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
@@ -76,6 +79,7 @@ public class Requester {
     private final String baseUrl;
     private final String userAgent;
     private final Consumer<? super okhttp3.Request.Builder> customBuilder;
+    private final boolean asyncExecution;
 
     private final OkHttpClient httpClient;
 
@@ -97,6 +101,7 @@ public class Requester {
         this.baseUrl = config.getBaseUrl();
         this.userAgent = config.getUserAgent();
         this.customBuilder = config.getCustomBuilder();
+        this.asyncExecution = config.isAsyncExecution();
         this.httpClient = this.api.getHttpClient();
     }
 
@@ -157,26 +162,8 @@ public class Requester {
     }
 
     public okhttp3.Response execute(WorkTask task, boolean retried, boolean handleOnRatelimit) {
-        Route.CompiledRoute route = task.getRoute();
-
-        okhttp3.Request.Builder builder = new okhttp3.Request.Builder();
-
-        String url = baseUrl + route.getCompiledRoute();
-        builder.url(url);
-
         Request<?> apiRequest = task.request;
-
-        applyBody(apiRequest, builder);
-        applyHeaders(apiRequest, builder);
-        if (customBuilder != null) {
-            try {
-                customBuilder.accept(builder);
-            } catch (Exception e) {
-                LOG.error("Custom request builder caused exception", e);
-            }
-        }
-
-        okhttp3.Request request = builder.build();
+        okhttp3.Request request = buildRequest(task);
 
         Set<String> rays = new LinkedHashSet<>();
         okhttp3.Response[] responses = new okhttp3.Response[4];
@@ -184,8 +171,7 @@ public class Requester {
         // the response below this comment is used as the first successful response from the server
         okhttp3.Response lastResponse = null;
         try {
-            LOG.trace("Executing request {} {}", task.getRoute().getMethod(), url);
-            int code = 0;
+            LOG.trace("Executing request {} {}", task.getRoute().getMethod(), request.url());
             for (int attempt = 0; attempt < responses.length; attempt++) {
                 if (apiRequest.isSkipped()) {
                     return null;
@@ -193,7 +179,6 @@ public class Requester {
 
                 Call call = httpClient.newCall(request);
                 lastResponse = call.execute();
-                code = lastResponse.code();
                 responses[attempt] = lastResponse;
                 String cfRay = lastResponse.header("CF-RAY");
                 if (cfRay != null) {
@@ -201,16 +186,11 @@ public class Requester {
                 }
 
                 // Retry a few specific server errors that are related to server issues
-                if (!shouldRetry(code)) {
+                if (!shouldRetry(lastResponse.code()) || attempt + 1 == responses.length) {
                     break;
                 }
 
-                LOG.debug(
-                        "Requesting {} -> {} returned status {}... retrying (attempt {})",
-                        apiRequest.getRoute().getMethod(),
-                        url,
-                        code,
-                        attempt + 1);
+                logRetry(request, lastResponse, attempt);
                 try {
                     Thread.sleep(500 << attempt);
                 } catch (InterruptedException ignored) {
@@ -218,68 +198,137 @@ public class Requester {
                 }
             }
 
-            LOG.trace(
-                    "Finished Request {} {} with code {}",
-                    route.getMethod(),
-                    lastResponse.request().url(),
-                    code);
-
-            if (shouldRetry(code)) {
-                // Epic failure from other end. Attempted 4 times.
-                task.handleResponse(lastResponse, -1, rays);
-                return null;
-            }
-
-            if (!rays.isEmpty()) {
-                LOG.debug("Received response with following cf-rays: {}", rays);
-            }
-
-            if (handleOnRatelimit && code == 429) {
-                long retryAfter = parseRetry(lastResponse);
-                task.handleResponse(lastResponse, retryAfter, rays);
-            } else if (code != 429) {
-                task.handleResponse(lastResponse, rays);
-            } else if (getContentType(lastResponse)
-                    .startsWith("application/json")) // potentially not json when cloudflare does 429
-            {
-                // On 429, replace the retry-after header if its wrong (discord moment)
-                // We just pick whichever is bigger between body and header
-                try (InputStream body = IOUtil.getBody(lastResponse)) {
-                    long retryAfterBody =
-                            (long) Math.ceil(DataObject.fromJson(body).getDouble("retry_after", 0));
-                    long retryAfterHeader = Long.parseLong(lastResponse.header(RestRateLimiter.RETRY_AFTER_HEADER));
-                    lastResponse = lastResponse
-                            .newBuilder()
-                            .header(
-                                    RestRateLimiter.RETRY_AFTER_HEADER,
-                                    Long.toString(Math.max(retryAfterHeader, retryAfterBody)))
-                            .build();
-                } catch (Exception e) {
-                    LOG.warn("Failed to parse retry-after response body", e);
-                }
-            }
-
-            return lastResponse;
-        } catch (UnknownHostException e) {
-            LOG.error("DNS resolution failed: {}", e.getMessage());
-            task.handleResponse(e, rays);
-            return null;
+            return handleResult(task, lastResponse, rays, handleOnRatelimit);
         } catch (IOException e) {
             if (retryOnTimeout && !retried && isRetry(e)) {
                 return execute(task, true, handleOnRatelimit);
             }
-            LOG.error("There was an I/O error while executing a REST request: {}", e.getMessage());
-            task.handleResponse(e, rays);
+            handleError(task, e, rays);
             return null;
         } catch (Exception e) {
-            LOG.error("There was an unexpected error while executing a REST request", e);
-            task.handleResponse(e, rays);
+            handleError(task, e, rays);
             return null;
         } finally {
-            for (okhttp3.Response r : responses) {
-                if (r == null) {
-                    break;
-                }
+            closeAll(responses);
+        }
+    }
+
+    /**
+     * Used to execute a Request without blocking the calling thread.
+     * <br>The request is sent with {@link Call#enqueue(okhttp3.Callback)} and retries are scheduled on the rate-limit pool.
+     *
+     * @param  task
+     *         The API request that needs to be sent
+     * @param  handleOnRateLimit
+     *         Whether to forward rate-limits, false if rate limit handling should take over
+     *
+     * @return Future completing with the same result as {@link #execute(WorkTask, boolean)}
+     */
+    public CompletableFuture<okhttp3.Response> executeAsync(WorkTask task, boolean handleOnRateLimit) {
+        AsyncExecution execution = new AsyncExecution(task, handleOnRateLimit);
+        try {
+            LOG.trace("Executing request {} {}", task.getRoute().getMethod(), execution.request.url());
+            execution.start();
+        } catch (Exception e) {
+            execution.fail(e);
+        }
+        return execution.future;
+    }
+
+    private okhttp3.Request buildRequest(WorkTask task) {
+        Route.CompiledRoute route = task.getRoute();
+
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder();
+
+        String url = baseUrl + route.getCompiledRoute();
+        builder.url(url);
+
+        Request<?> apiRequest = task.request;
+
+        applyBody(apiRequest, builder);
+        applyHeaders(apiRequest, builder);
+        if (customBuilder != null) {
+            try {
+                customBuilder.accept(builder);
+            } catch (Exception e) {
+                LOG.error("Custom request builder caused exception", e);
+            }
+        }
+
+        return builder.build();
+    }
+
+    private okhttp3.Response handleResult(
+            WorkTask task, okhttp3.Response lastResponse, Set<String> rays, boolean handleOnRatelimit) {
+        int code = lastResponse.code();
+
+        LOG.trace(
+                "Finished Request {} {} with code {}",
+                task.getRoute().getMethod(),
+                lastResponse.request().url(),
+                code);
+
+        if (shouldRetry(code)) {
+            // Epic failure from other end. Attempted 4 times.
+            task.handleResponse(lastResponse, -1, rays);
+            return null;
+        }
+
+        if (!rays.isEmpty()) {
+            LOG.debug("Received response with following cf-rays: {}", rays);
+        }
+
+        if (handleOnRatelimit && code == 429) {
+            long retryAfter = parseRetry(lastResponse);
+            task.handleResponse(lastResponse, retryAfter, rays);
+        } else if (code != 429) {
+            task.handleResponse(lastResponse, rays);
+        } else if (getContentType(lastResponse)
+                .startsWith("application/json")) // potentially not json when cloudflare does 429
+        {
+            // On 429, replace the retry-after header if its wrong (discord moment)
+            // We just pick whichever is bigger between body and header
+            try (InputStream body = IOUtil.getBody(lastResponse)) {
+                long retryAfterBody =
+                        (long) Math.ceil(DataObject.fromJson(body).getDouble("retry_after", 0));
+                long retryAfterHeader = Long.parseLong(lastResponse.header(RestRateLimiter.RETRY_AFTER_HEADER));
+                lastResponse = lastResponse
+                        .newBuilder()
+                        .header(
+                                RestRateLimiter.RETRY_AFTER_HEADER,
+                                Long.toString(Math.max(retryAfterHeader, retryAfterBody)))
+                        .build();
+            } catch (Exception e) {
+                LOG.warn("Failed to parse retry-after response body", e);
+            }
+        }
+
+        return lastResponse;
+    }
+
+    private void handleError(WorkTask task, Exception error, Set<String> rays) {
+        if (error instanceof UnknownHostException) {
+            LOG.error("DNS resolution failed: {}", error.getMessage());
+        } else if (error instanceof IOException) {
+            LOG.error("There was an I/O error while executing a REST request: {}", error.getMessage());
+        } else {
+            LOG.error("There was an unexpected error while executing a REST request", error);
+        }
+        task.handleResponse(error, rays);
+    }
+
+    private void logRetry(okhttp3.Request request, okhttp3.Response response, int attempt) {
+        LOG.debug(
+                "Requesting {} -> {} returned status {}... retrying (attempt {})",
+                request.method(),
+                request.url(),
+                response.code(),
+                attempt + 1);
+    }
+
+    private static void closeAll(okhttp3.Response[] responses) {
+        for (okhttp3.Response r : responses) {
+            if (r != null) {
                 r.close();
             }
         }
@@ -357,9 +406,106 @@ public class Requester {
         return type == null ? "" : type.toLowerCase(Locale.ROOT);
     }
 
+    private class AsyncExecution implements Callback {
+        private final CompletableFuture<okhttp3.Response> future = new CompletableFuture<>();
+        private final Set<String> rays = new LinkedHashSet<>();
+        private final okhttp3.Response[] responses = new okhttp3.Response[4];
+        private final WorkTask task;
+        private final okhttp3.Request request;
+        private final boolean handleOnRatelimit;
+
+        private boolean retried;
+        private int attempt;
+
+        private AsyncExecution(WorkTask task, boolean handleOnRatelimit) {
+            this.task = task;
+            this.request = buildRequest(task);
+            this.handleOnRatelimit = handleOnRatelimit;
+        }
+
+        private void start() {
+            if (task.request.isSkipped()) {
+                complete(null);
+                return;
+            }
+
+            httpClient.newCall(request).enqueue(this);
+        }
+
+        @Override
+        public void onResponse(@Nonnull Call call, @Nonnull okhttp3.Response response) {
+            try {
+                responses[attempt] = response;
+                String cfRay = response.header("CF-RAY");
+                if (cfRay != null) {
+                    rays.add(cfRay);
+                }
+
+                // Retry a few specific server errors that are related to server issues
+                if (shouldRetry(response.code()) && attempt + 1 < responses.length) {
+                    logRetry(request, response, attempt);
+                    if (scheduleRetry()) {
+                        return;
+                    }
+                }
+
+                complete(handleResult(task, response, rays, handleOnRatelimit));
+            } catch (Exception e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void onFailure(@Nonnull Call call, @Nonnull IOException e) {
+            if (retryOnTimeout && !retried && isRetry(e)) {
+                retried = true;
+                try {
+                    start();
+                    return;
+                } catch (Exception ex) {
+                    e.addSuppressed(ex);
+                }
+            }
+            fail(e);
+        }
+
+        private boolean scheduleRetry() {
+            long delay = 500L << attempt++;
+            try {
+                api.getRateLimitPool().schedule(this::retry, delay, TimeUnit.MILLISECONDS);
+                return true;
+            } catch (RejectedExecutionException ex) {
+                // The pool is shutting down, use the response we already have
+                attempt--;
+                return false;
+            }
+        }
+
+        private void retry() {
+            try {
+                start();
+            } catch (Exception e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Exception error) {
+            try {
+                handleError(task, error, rays);
+            } finally {
+                complete(null);
+            }
+        }
+
+        private void complete(okhttp3.Response response) {
+            closeAll(responses);
+            future.complete(response);
+        }
+    }
+
     private class WorkTask implements RestRateLimiter.Work {
         private final Request<?> request;
-        private boolean done;
+        private volatile boolean done;
 
         private WorkTask(Request<?> request) {
             this.request = request;
@@ -383,6 +529,15 @@ public class Requester {
             return Requester.this.execute(this);
         }
 
+        @Nonnull
+        @Override
+        public CompletableFuture<okhttp3.Response> executeAsync() {
+            if (!asyncExecution) {
+                return RestRateLimiter.Work.super.executeAsync();
+            }
+            return Requester.this.executeAsync(this, false);
+        }
+
         @Override
         public boolean isSkipped() {
             return request.isSkipped();
@@ -53,6 +53,7 @@ import net.dv8tion.jda.internal.utils.UnlockHook;
 import net.dv8tion.jda.internal.utils.cache.AbstractCacheView;
 import net.dv8tion.jda.internal.utils.compress.Decompressor;
 import net.dv8tion.jda.internal.utils.compress.ZlibDecompressor;
+import net.dv8tion.jda.internal.utils.compress.ZstdDecompressor;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
 
@@ -62,11 +63,12 @@ import java.lang.ref.SoftReference;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
@@ -81,11 +83,14 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     public static final Logger LOG = JDALogger.getLog(WebSocketClient.class);
 
     protected static final String INVALIDATE_REASON = "INVALIDATE_SESSION";
+    // Any close code other than 1000 and 1001 keeps the session resumable
+    protected static final int SNAPSHOT_CLOSE_CODE = 4900;
     protected static final long IDENTIFY_BACKOFF = TimeUnit.SECONDS.toMillis(SessionController.IDENTIFY_DELAY);
 
     protected final JDAImpl api;
     protected final JDA.ShardInfo shardInfo;
     protected final Map<String, SocketHandler> handlers = new HashMap<>();
+    protected final DispatchLanes<Map<String, SocketHandler>> dispatchLanes;
     protected final Compression compression;
     protected final int gatewayIntents;
     protected final MemberChunkManager chunkManager;
@@ -100,7 +105,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     protected final ReentrantLock queueLock = new ReentrantLock();
     protected final ScheduledExecutorService executor;
-    protected WebSocketSendingThread ratelimitThread;
+    protected volatile WebSocketSendingThread ratelimitThread;
     protected volatile Future<?> keepAliveThread;
 
     protected final ReentrantLock reconnectLock = new ReentrantLock();
@@ -117,8 +122,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     protected final Queue<DataObject> chunkSyncQueue = new ConcurrentLinkedQueue<>();
     protected final Queue<DataObject> ratelimitQueue = new ConcurrentLinkedQueue<>();
 
-    protected volatile long ratelimitResetTime;
-    protected final AtomicInteger messagesSent = new AtomicInteger(0);
+    protected final GatewayRateLimiter rateLimiter = new GatewayRateLimiter();
 
     protected volatile boolean shutdown = false;
     protected boolean shouldReconnect;
@@ -129,6 +133,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     protected volatile boolean sentAuthInfo = false;
     protected boolean firstInit = true;
     protected boolean processingReady = true;
+    protected boolean restoredSession = false;
 
     protected volatile ConnectNode connectNode;
 
@@ -142,11 +147,16 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         this.encoding = encoding;
         this.shouldReconnect = api.isAutoReconnect();
         this.connectNode = new StartingNode();
-        setupHandlers();
+        setupHandlers(handlers);
+        this.dispatchLanes = api.isParallelDispatch() ? createDispatchLanes() : null;
+        restoreSnapshot();
         try {
             api.getSessionController().appendSession(connectNode);
         } catch (RuntimeException | Error e) {
             LOG.error("Failed to append new session to session controller queue. Shutting down!", e);
+            if (dispatchLanes != null) {
+                dispatchLanes.shutdown();
+            }
             this.api.setStatus(JDA.Status.SHUTDOWN);
             this.api.handleEvent(new ShutdownEvent(api, OffsetDateTime.now(), 1006));
             if (e instanceof RuntimeException) {
@@ -218,11 +228,14 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     }
 
     public void handle(List<DataObject> events) {
-        events.forEach(this::onDispatch);
+        // Cached events are replayed by the thread which finished the guild setup, which already has exclusive access
+        Map<String, SocketHandler> handlers = getHandlers();
+        events.forEach(event -> handleDispatch(event, api.getResponseTotal(), handlers));
     }
 
     public void send(DataObject message) {
         locked("Interrupted while trying to add request to queue", () -> ratelimitQueue.add(message));
+        wakeupSendingThread();
     }
 
     public void cancelChunkRequest(String nonce) {
@@ -233,6 +246,27 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     public void sendChunkRequest(DataObject request) {
         locked("Interrupted while trying to add chunk request", () -> chunkSyncQueue.add(request));
+        wakeupSendingThread();
+    }
+
+    public GatewayRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * The number of messages waiting to be sent by the gateway sending thread.
+     *
+     * @return The current send queue depth
+     */
+    public int getSendQueueSize() {
+        return ratelimitQueue.size() + chunkSyncQueue.size() + queuedAudioConnections.size();
+    }
+
+    protected void wakeupSendingThread() {
+        WebSocketSendingThread thread = ratelimitThread;
+        if (thread != null) {
+            thread.wakeup();
+        }
     }
 
     protected boolean send(DataObject message, boolean skipQueue) {
@@ -240,23 +274,15 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             return false;
         }
 
-        long now = System.currentTimeMillis();
-
-        if (this.ratelimitResetTime <= now) {
-            this.messagesSent.set(0);
-            this.ratelimitResetTime = now + 60000; // 60 seconds
-            this.printedRateLimitMessage = false;
-        }
-
-        // Allows 115 messages to be sent before limiting.
-        if (this.messagesSent.get() <= 115 || (skipQueue && this.messagesSent.get() <= 119)) {
+        // Messages that skip the queue (heartbeats, identify, resume) can use the reserved budget
+        if (rateLimiter.tryAcquire(skipQueue)) {
             LOG.trace("<- {}", message);
             if (encoding == GatewayEncoding.ETF) {
                 socket.sendBinary(message.toETF());
             } else {
                 socket.sendText(message.toString());
             }
-            this.messagesSent.getAndIncrement();
+            printedRateLimitMessage = false;
             return true;
         } else {
             if (!printedRateLimitMessage) {
@@ -322,7 +348,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                 api.getSessionController().removeSession(connectNode);
             }
             boolean wasConnected = connected;
-            close(1000, "Shutting down");
+            // Closing with 1000 would invalidate the session, which the snapshot needs to resume
+            boolean resumable = wasConnected && writeSnapshot();
+            close(resumable ? SNAPSHOT_CLOSE_CODE : 1000, "Shutting down");
             reconnectCondvar.signalAll(); // signal reconnect attempts to stop
             return !wasConnected;
         });
@@ -337,6 +365,12 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     */
 
     protected void onShutdown(int rawCloseCode) {
+        if (rawCloseCode == SNAPSHOT_CLOSE_CODE) {
+            rawCloseCode = 1000;
+        }
+        if (dispatchLanes != null) {
+            dispatchLanes.shutdown();
+        }
         api.shutdownInternals(new ShutdownEvent(api, OffsetDateTime.now(), rawCloseCode));
     }
 
@@ -361,6 +395,11 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                             decompressor = new ZlibDecompressor(api.getMaxBufferSize());
                         }
                         break;
+                    case ZSTD:
+                        if (decompressor == null || decompressor.getType() != Compression.ZSTD) {
+                            decompressor = new ZstdDecompressor(api.getMaxBufferSize());
+                        }
+                        break;
                     default:
                         throw new IllegalStateException("Unknown compression");
                 }
@@ -406,8 +445,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         connected = true;
         // reconnectTimeoutS = 2; We will reset this when the session was started successfully
         // (ready/resume)
-        messagesSent.set(0);
-        ratelimitResetTime = System.currentTimeMillis() + 60000;
+        rateLimiter.reset();
         if (sessionId == null) {
             sendIdentify();
         } else {
@@ -573,6 +611,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             this.api.getSessionController().appendSession(connectNode);
         } catch (IllegalStateException ex) {
             LOG.error("Reconnect queue rejected session. Shutting down...");
+            if (dispatchLanes != null) {
+                dispatchLanes.shutdown();
+            }
             this.api.setStatus(JDA.Status.SHUTDOWN);
             this.api.handleEvent(new ShutdownEvent(api, OffsetDateTime.now(), 1006));
         }
@@ -718,6 +759,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         handleIdentifyRateLimit = true;
         identifyTime = System.currentTimeMillis();
         sentAuthInfo = true;
+        wakeupSendingThread();
         api.setStatus(JDA.Status.AWAITING_LOGIN_CONFIRMATION);
     }
 
@@ -737,9 +779,14 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     }
 
     protected void invalidate() {
+        // Finish the pending dispatches before dropping the cache they would be applied to
+        if (dispatchLanes != null) {
+            dispatchLanes.awaitIdle();
+        }
         resumeUrl = null;
         sessionId = null;
         sentAuthInfo = false;
+        restoredSession = false;
 
         locked("Interrupted while trying to invalidate chunk/sync queue", chunkSyncQueue::clear);
 
@@ -755,6 +802,79 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         api.handleEvent(new SessionInvalidateEvent(api));
     }
 
+    protected void restoreSnapshot() {
+        Path file = api.getSessionSnapshotFile();
+        if (file == null) {
+            return;
+        }
+
+        try {
+            SessionSnapshot snapshot = SessionSnapshot.read(file);
+            if (snapshot == null) {
+                return;
+            }
+            if (!snapshot.isCompatible(api, gatewayIntents)) {
+                LOG.debug("Ignoring session snapshot of a different account, shard, or intents");
+                return;
+            }
+            if (!SessionSnapshot.isSupported(api)) {
+                LOG.debug("Ignoring session snapshot, because presences are cached and would be missing");
+                return;
+            }
+            if (!snapshot.restore(api)) {
+                LOG.warn("Session snapshot is missing the self member, identifying a new session instead");
+                clearRestoredCache();
+                return;
+            }
+
+            sessionId = snapshot.getSessionId();
+            resumeUrl = snapshot.getResumeUrl();
+            api.setResponseTotal(snapshot.getSequence());
+            processingReady = false;
+            restoredSession = true;
+            LOG.info("Restored {} guilds from session snapshot, attempting to resume", snapshot.getGuildCount());
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to restore session snapshot, identifying a new session instead", e);
+            clearRestoredCache();
+        }
+    }
+
+    protected void clearRestoredCache() {
+        api.getChannelsView().clear();
+        api.getGuildsView().clear();
+        api.getUsersView().clear();
+        api.getGuildSetupController().clearCache();
+    }
+
+    protected boolean writeSnapshot() {
+        Path file = api.getSessionSnapshotFile();
+        String sessionId = this.sessionId;
+        // Guilds which are still loading would be missing from the snapshot
+        if (file == null
+                || sessionId == null
+                || initiating
+                || !api.getGuildSetupController().getSetupNodes().isEmpty()) {
+            return false;
+        }
+        if (!SessionSnapshot.isSupported(api)) {
+            LOG.debug("Not writing a session snapshot, because presences are cached and cannot be restored");
+            return false;
+        }
+
+        if (dispatchLanes != null) {
+            dispatchLanes.awaitIdle();
+        }
+        try {
+            SessionSnapshot snapshot = SessionSnapshot.capture(api, sessionId, resumeUrl, gatewayIntents);
+            snapshot.write(file);
+            LOG.info("Wrote session snapshot with {} guilds to {}", snapshot.getGuildCount(), file);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Failed to write session snapshot", e);
+            return false;
+        }
+    }
+
     protected void updateAudioManagerReferences() {
         AbstractCacheView<AudioManager> managerView = api.getAudioManagersView();
         try (UnlockHook hook = managerView.writeLock()) {
@@ -864,15 +984,63 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     }
 
     protected void onDispatch(DataObject raw) {
-        String type = raw.getString("t");
         long responseTotal = api.getResponseTotal();
+        if (dispatchLanes == null) {
+            handleDispatch(raw, responseTotal, handlers);
+            return;
+        }
+
+        long key = getDispatchKey(raw);
+        if (key < 0) {
+            dispatchLanes.awaitIdle();
+            handleDispatch(raw, responseTotal, handlers);
+        } else {
+            dispatchLanes.execute(key, laneHandlers -> handleDispatch(raw, responseTotal, laneHandlers));
+        }
+    }
+
+    // Returns the guild id used to pick the dispatch lane, 0 for the serial lane,
+    // or -1 if the dispatch changes state shared by all lanes and must run while the lanes are idle
+    protected long getDispatchKey(DataObject raw) {
+        String type = raw.getString("t");
+        switch (type) {
+            case "READY":
+            case "RESUMED":
+            case "GUILD_CREATE":
+            case "GUILD_DELETE":
+            case "GUILD_MEMBERS_CHUNK":
+                return -1;
+        }
+
+        // The guild setup is not thread-safe, so everything runs in order until the session is ready
+        if (initiating) {
+            return -1;
+        }
+        if (!raw.isType("d", DataType.OBJECT)) {
+            return 0;
+        }
+
+        DataObject content = raw.getObject("d");
+        long guildId = content.getLong("guild_id", 0L);
+        if (guildId == 0 && type.equals("GUILD_UPDATE")) {
+            guildId = content.getLong("id", 0L);
+        }
+        // Events of guilds that are still being set up are cached by the setup controller
+        if (guildId != 0 && api.getGuildSetupController().isKnown(guildId)) {
+            return -1;
+        }
+        return guildId;
+    }
+
+    protected void handleDispatch(DataObject raw, long responseTotal, Map<String, SocketHandler> handlers) {
+        String type = raw.getString("t");
 
         if (!raw.isType("d", DataType.OBJECT)) {
             // Needs special handling due to content of "d" being an array
             if (type.equals("PRESENCES_REPLACE")) {
                 DataArray payload = raw.getArray("d");
                 List<DataObject> converted = convertPresencesReplace(responseTotal, payload);
-                SocketHandler handler = getHandler("PRESENCE_UPDATE");
+                SocketHandler handler = handlers.get("PRESENCE_UPDATE");
                 LOG.trace("{} -> {}", type, payload);
                 for (DataObject o : converted) {
                     handler.handle(responseTotal, o);
@@ -913,8 +1081,13 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                 case "RESUMED":
                     reconnectTimeoutS = 2;
                     sentAuthInfo = true;
+                    wakeupSendingThread();
                     traceMetadata = content.opt("_trace").map(String::valueOf).orElse(traceMetadata);
-                    if (!processingReady) {
+                    if (restoredSession) {
+                        // Resumed a session restored from a snapshot, this is still the first ready of this instance
+                        restoredSession = false;
+                        ready();
+                    } else if (!processingReady) {
                         initiating = false;
                         ready();
                     } else {
@@ -956,14 +1129,15 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                     ex);
         }
 
-        if (responseTotal % EventCache.TIMEOUT_AMOUNT == 0) {
-            jda.getEventCache().timeout(responseTotal);
-        }
+        // Only drains the expiry buckets which are old enough, usually this does nothing
+        jda.getEventCache().timeout(responseTotal);
     }
 
     @Override
     public void onTextMessage(WebSocket websocket, byte[] data) {
-        handleEvent(DataObject.fromJson(data));
+        if (!skipDispatch(ByteBuffer.wrap(data))) {
+            handleEvent(DataObject.fromJson(data));
+        }
     }
 
     @Override
@@ -978,18 +1152,27 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         }
     }
 
+    protected boolean isParseSnowflakes() {
+        // Snowflakes decoded as numbers are also serialized as numbers,
+        // which would change the payloads exposed by raw events and event passthrough
+        return !api.isRawEvents() && !api.isEventPassthrough();
+    }
+
     protected DataObject handleBinary(byte[] binary) throws DataFormatException {
         if (decompressor == null) {
             if (encoding == GatewayEncoding.ETF) {
-                return DataObject.fromETF(binary);
+                return skipDispatch(ByteBuffer.wrap(binary))
+                        ? null
+                        : DataObject.fromETF(ByteBuffer.wrap(binary), isParseSnowflakes());
             }
             throw new IllegalStateException(
                     "Cannot decompress binary message due to unknown compression algorithm: " + compression);
         }
         // Scoping allows us to print the json that possibly failed parsing
-        byte[] data;
+        // The decompressed buffer is reused by the decompressor, so it must be parsed before the next message is read
+        ByteBuffer data;
         try {
-            data = decompressor.decompress(binary);
+            data = decompressor.decompressToBuffer(binary);
             if (data == null) {
                 return null;
             }
@@ -998,16 +1181,20 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             throw e;
         }
 
+        if (skipDispatch(data)) {
+            return null;
+        }
+
         try {
             if (encoding == GatewayEncoding.ETF) {
-                return DataObject.fromETF(data);
+                return DataObject.fromETF(data, isParseSnowflakes());
             } else {
                 return DataObject.fromJson(data);
             }
         } catch (ParsingException e) {
             String jsonString = "malformed";
             try {
-                jsonString = new String(data, StandardCharsets.UTF_8);
+                jsonString = StandardCharsets.UTF_8.decode(data.duplicate()).toString();
             } catch (Exception ignored) {
             }
             // Print the string that could not be parsed and re-throw the exception
@@ -1016,6 +1203,55 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         }
     }
 
+    // Peeks the routing fields of the payload and returns true if it is a dispatch which onDispatch would ignore,
+    // in which case we only track the sequence and never materialize the payload
+    protected boolean skipDispatch(ByteBuffer data) {
+        if (api.isRawEvents()) {
+            return false;
+        }
+
+        // Scanning for the guild id is only worth it while we actually have unavailable guilds to ignore
+        boolean includeGuildId = !api.getGuildSetupController().getUnavailableGuilds().isEmpty();
+        GatewayPayloadHeader header = encoding == GatewayEncoding.ETF
+                ? GatewayPayloadHeader.peekETF(data, includeGuildId)
+                : GatewayPayloadHeader.peekJson(data, includeGuildId);
+        if (header == null || header.getOp() != WebSocketCode.DISPATCH || header.getType() == null) {
+            return false;
+        }
+
+        String type = header.getType();
+        switch (type) {
+            case "READY":
+            case "RESUMED":
+            case "PRESENCES_REPLACE":
+                return false;
+        }
+
+        long guildId = header.getGuildId();
+        boolean unavailable = guildId != 0
+                && api.isUnavailable(guildId)
+                && !type.equals("GUILD_CREATE")
+                && !type.equals("GUILD_DELETE");
+        if (!unavailable && handlers.get(type) != null) {
+            return false;
+        }
+
+        WS_THREAD.set(true);
+        if (header.hasSequence()) {
+            api.setResponseTotal(header.getSequence());
+        }
+
+        if (unavailable) {
+            LOG.debug("Ignoring {} for unavailable guild with id {}", type, guildId);
+        } else {
+            LOG.debug("Unrecognized event: {}", type);
+        }
+
+        long responseTotal = api.getResponseTotal();
+        api.getEventCache().timeout(responseTotal);
+        return true;
+    }
+
     @Override
     public void handleCallbackError(WebSocket websocket, Throwable cause) throws Exception {
         handleError(cause);
@@ -1091,6 +1327,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             // in all cases, update to this channel
             request.setChannel(channel);
         });
+        wakeupSendingThread();
     }
 
     public void queueAudioConnect(AudioChannel channel) {
@@ -1110,6 +1347,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             // in all cases, update to this channel
             request.setChannel(channel);
         });
+        wakeupSendingThread();
     }
 
     public void queueAudioDisconnect(Guild guild) {
@@ -1125,6 +1363,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                 request.setStage(ConnectionStage.DISCONNECT);
             }
         });
+        wakeupSendingThread();
     }
 
     public ConnectionRequest removeAudioConnection(long guildId) {
@@ -1237,19 +1476,37 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     }
 
     public Map<String, SocketHandler> getHandlers() {
-        return handlers;
+        Map<String, SocketHandler> laneHandlers = dispatchLanes == null ? null : dispatchLanes.getCurrentContext();
+        return laneHandlers != null ? laneHandlers : handlers;
     }
 
     @SuppressWarnings("unchecked")
     public <T extends SocketHandler> T getHandler(String type) {
         try {
-            return (T) handlers.get(type);
+            return (T) getHandlers().get(type);
         } catch (ClassCastException e) {
             throw new IllegalStateException(e);
         }
     }
 
-    protected void setupHandlers() {
+    protected DispatchLanes<Map<String, SocketHandler>> createDispatchLanes() {
+        // Every lane gets its own handlers, since a handler only processes one event at a time
+        return new DispatchLanes<>(
+                api.getIdentifierString(),
+                DispatchLanes.DEFAULT_LANES,
+                DispatchLanes.DEFAULT_CAPACITY,
+                () -> {
+                    Map<String, SocketHandler> laneHandlers = new HashMap<>();
+                    setupHandlers(laneHandlers);
+                    return laneHandlers;
+                },
+                () -> {
+                    WS_THREAD.set(true);
+                    api.setContext();
+                });
+    }
+
+    protected void setupHandlers(Map<String, SocketHandler> handlers) {
         SocketHandler.NOPHandler nopHandler = new SocketHandler.NOPHandler(api);
         handlers.put("APPLICATION_COMMAND_PERMISSIONS_UPDATE", new ApplicationCommandPermissionsUpdateHandler(api));
         handlers.put("AUTO_MODERATION_RULE_CREATE", new AutoModRuleHandler(api, "CREATE"));
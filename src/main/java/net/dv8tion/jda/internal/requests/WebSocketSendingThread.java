@@ -35,8 +35,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 // Helper class delegated to WebSocketClient
-class WebSocketSendingThread implements Runnable {
+class WebSocketSendingThread {
     private static final Logger LOG = WebSocketClient.LOG;
+    // Audio connection requests are retried based on time, so we still have to poll while idle
+    private static final long IDLE_DELAY = 500;
 
     private final WebSocketClient client;
     private final JDAImpl api;
@@ -44,12 +46,16 @@ class WebSocketSendingThread implements Runnable {
     private final Queue<DataObject> chunkQueue;
     private final Queue<DataObject> ratelimitQueue;
     private final TLongObjectMap<ConnectionRequest> queuedAudioConnections;
+    private final GatewayRateLimiter rateLimiter;
     private final ScheduledExecutorService executor;
     private Future<?> handle;
+    // Incremented for every scheduled run, runs of an older generation were replaced by a wakeup
+    private long generation;
+    private boolean idle = false;
 
     private boolean needRateLimit = false;
     private boolean attemptedToSend = false;
-    private boolean shutdown = false;
+    private volatile boolean shutdown = false;
 
     WebSocketSendingThread(WebSocketClient client) {
         this.client = client;
@@ -58,52 +64,66 @@ class WebSocketSendingThread implements Runnable {
         this.chunkQueue = client.chunkSyncQueue;
         this.ratelimitQueue = client.ratelimitQueue;
         this.queuedAudioConnections = client.queuedAudioConnections;
+        this.rateLimiter = client.rateLimiter;
         this.executor = client.executor;
     }
 
-    public void shutdown() {
+    public synchronized void shutdown() {
         shutdown = true;
         if (handle != null) {
             handle.cancel(false);
         }
     }
 
-    public void start() {
+    public synchronized void start() {
         shutdown = false;
-        handle = executor.submit(this);
+        schedule(0, false);
     }
 
-    private void scheduleIdle() {
-        if (shutdown) {
+    // Called when something was queued, to avoid waiting for the next idle poll
+    public synchronized void wakeup() {
+        if (!idle || shutdown) {
             return;
         }
-        handle = executor.schedule(this, 500, TimeUnit.MILLISECONDS);
+        try {
+            handle.cancel(false);
+            schedule(0, false);
+        } catch (RejectedExecutionException ex) {
+            LOG.debug("Rejected wakeup of gateway sending thread", ex);
+        }
     }
 
-    private void scheduleSentMessage() {
-        if (shutdown) {
-            return;
+    private void schedule(long delay, boolean idle) {
+        long generation = ++this.generation;
+        this.idle = idle;
+        Runnable task = () -> run(generation);
+        if (delay > 0) {
+            handle = executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+        } else {
+            handle = executor.submit(task);
         }
-        handle = executor.schedule(this, 10, TimeUnit.MILLISECONDS);
     }
 
-    private void scheduleRateLimit() {
-        if (shutdown) {
-            return;
+    private void run(long generation) {
+        synchronized (this) {
+            // A cancelled run might have already been started by the executor
+            if (shutdown || generation != this.generation) {
+                return;
+            }
+            idle = false;
         }
-        handle = executor.schedule(this, 1, TimeUnit.MINUTES);
-    }
 
-    @Override
-    public void run() {
         // Make sure that we don't send any packets before sending auth info.
         if (!client.sentAuthInfo) {
-            scheduleIdle();
+            attemptedToSend = false;
+            needRateLimit = false;
+            scheduleNext();
             return;
         }
 
         ConnectionRequest audioRequest = null;
         DataObject chunkRequest = null;
+        DataObject normalRequest = null;
 
         boolean hasLock = false;
 
@@ -120,13 +140,13 @@ class WebSocketSendingThread implements Runnable {
                 return;
             }
 
-            chunkRequest = chunkQueue.peek();
-            if (chunkRequest != null) {
-                handleChunkSync(chunkRequest);
-            } else if (audioRequest != null) {
+            // Voice state updates are small and time sensitive, so they go before the bulk of chunk requests
+            if (audioRequest != null) {
                 handleAudioRequest(audioRequest);
-            } else {
-                handleNormalRequest();
+            } else if ((chunkRequest = chunkQueue.peek()) != null) {
+                handleChunkSync(chunkRequest);
+            } else if ((normalRequest = ratelimitQueue.peek()) != null) {
+                handleNormalRequest(normalRequest);
             }
         } catch (InterruptedException ignored) {
             LOG.debug("Main WS send thread interrupted. Most likely JDA is disconnecting the websocket.");
@@ -137,10 +157,12 @@ class WebSocketSendingThread implements Runnable {
 
             if (!attemptedToSend) {
                 // Try to remove the failed request
-                if (chunkRequest != null) {
-                    client.chunkSyncQueue.remove(chunkRequest);
-                } else if (audioRequest != null) {
+                if (audioRequest != null) {
                     client.removeAudioConnection(audioRequest.getGuildIdLong());
+                } else if (chunkRequest != null) {
+                    client.chunkSyncQueue.remove(chunkRequest);
+                } else if (normalRequest != null) {
+                    client.ratelimitQueue.remove(normalRequest);
                 }
             }
 
@@ -157,14 +179,23 @@ class WebSocketSendingThread implements Runnable {
         scheduleNext();
     }
 
-    private void scheduleNext() {
+    private synchronized void scheduleNext() {
+        if (shutdown) {
+            return;
+        }
         try {
-            if (needRateLimit) {
-                scheduleRateLimit();
-            } else if (!attemptedToSend) {
-                scheduleIdle();
+            if (!client.sentAuthInfo) {
+                schedule(IDLE_DELAY, true);
+            } else if (needRateLimit) {
+                // Wake up exactly when the budget allows the next message,
+                // if there is budget left the message failed for other reasons (disconnected)
+                long delay = rateLimiter.getDelay(false);
+                schedule(delay > 0 ? delay : IDLE_DELAY, delay == 0);
+            } else if (attemptedToSend || hasQueuedMessages()) {
+                // Keep sending while we have budget, without waiting for a poll
+                schedule(0, false);
             } else {
-                scheduleSentMessage();
+                schedule(IDLE_DELAY, true);
             }
         } catch (RejectedExecutionException ex) {
             if (api.getStatus() == JDA.Status.SHUTTING_DOWN || api.getStatus() == JDA.Status.SHUTDOWN) {
@@ -175,6 +206,10 @@ class WebSocketSendingThread implements Runnable {
         }
     }
 
+    private boolean hasQueuedMessages() {
+        return !chunkQueue.isEmpty() || !ratelimitQueue.isEmpty();
+    }
+
     private void handleChunkSync(DataObject chunkOrSyncRequest) {
         LOG.debug("Sending chunk/sync request {}", chunkOrSyncRequest);
         boolean success = send(
@@ -221,13 +256,10 @@ class WebSocketSendingThread implements Runnable {
         }
     }
 
-    private void handleNormalRequest() {
-        DataObject message = ratelimitQueue.peek();
-        if (message != null) {
-            LOG.debug("Sending normal message {}", message);
-            if (send(message)) {
-                ratelimitQueue.remove();
-            }
+    private void handleNormalRequest(DataObject message) {
+        LOG.debug("Sending normal message {}", message);
+        if (send(message)) {
+            ratelimitQueue.remove();
         }
     }
 
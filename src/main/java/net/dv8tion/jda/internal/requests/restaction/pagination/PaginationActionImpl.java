@@ -17,20 +17,24 @@
 package net.dv8tion.jda.internal.requests.restaction.pagination;
 
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.pagination.PaginationAction;
 import net.dv8tion.jda.api.utils.Procedure;
+import net.dv8tion.jda.internal.requests.CallbackContext;
 import net.dv8tion.jda.internal.requests.RestActionImpl;
 import net.dv8tion.jda.internal.utils.Checks;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
 
@@ -47,6 +51,7 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
     protected volatile long lastKey = 0;
     protected volatile T last = null;
     protected volatile boolean useCache = true;
+    protected volatile int prefetch = 0;
 
     /**
      * Creates a new PaginationAction instance
@@ -211,6 +216,20 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
         return useCache;
     }
 
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public M prefetch(int pages) {
+        Checks.notNegative(pages, "Pages");
+        this.prefetch = pages;
+        return (M) this;
+    }
+
+    @Override
+    public int getPrefetch() {
+        return prefetch;
+    }
+
     @Override
     public final int getMaxLimit() {
         return maxLimit;
@@ -264,6 +283,14 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
     @Nonnull
     @Override
     public PaginationIterator<T> iterator() {
+        int prefetch = this.prefetch;
+        if (prefetch > 0) {
+            PrefetchingSupplier supplier = new PrefetchingSupplier(prefetch);
+            PaginationIterator<T> iterator = new PaginationIterator<>(cached, supplier);
+            // Only start once the iterator copied the cache, otherwise the first page could be added to it in between
+            supplier.start();
+            return iterator;
+        }
         return new PaginationIterator<>(cached, this::getNextChunk);
     }
 
@@ -406,6 +433,98 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
         }
     }
 
+    /**
+     * Supplies the pages for a prefetching {@link PaginationIterator}.
+     * <br>The next page is requested as soon as the previous one is received, until {@code capacity} pages are buffered.
+     */
+    protected class PrefetchingSupplier implements Supplier<List<T>> {
+        protected final Deque<List<T>> pages = new ArrayDeque<>();
+        protected final int capacity;
+        protected boolean requesting = false;
+        protected boolean reachedEnd = false;
+        protected Throwable failure;
+
+        protected PrefetchingSupplier(int capacity) {
+            this.capacity = capacity;
+        }
+
+        protected synchronized void start() {
+            requestNext();
+        }
+
+        @Override
+        public synchronized List<T> get() {
+            if (CallbackContext.isCallbackContext()) {
+                throw new IllegalStateException(
+                        "Preventing use of complete() in callback threads! This operation can be a deadlock cause");
+            }
+            try {
+                while (pages.isEmpty() && failure == null && !reachedEnd) {
+                    requestNext();
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+
+            List<T> page = pages.poll();
+            if (page != null) {
+                requestNext();
+                return page;
+            }
+            if (failure != null) {
+                throw toUnchecked(failure);
+            }
+            return Collections.emptyList();
+        }
+
+        // Must hold the lock
+        protected void requestNext() {
+            if (requesting || reachedEnd || failure != null || pages.size() >= capacity) {
+                return;
+            }
+            requesting = true;
+            int current = limit.getAndSet(getMaxLimit());
+            try {
+                queue(this::onPage, this::onFailure);
+            } finally {
+                limit.set(current);
+            }
+        }
+
+        protected synchronized void onPage(List<T> page) {
+            requesting = false;
+            if (page.isEmpty()) {
+                reachedEnd = true;
+            } else {
+                pages.add(page);
+                requestNext();
+            }
+            notifyAll();
+        }
+
+        protected synchronized void onFailure(Throwable throwable) {
+            requesting = false;
+            failure = throwable;
+            notifyAll();
+        }
+
+        private RuntimeException toUnchecked(Throwable throwable) {
+            if (throwable instanceof ErrorResponseException) {
+                // Update the stacktrace to the current thread stack, like complete() does
+                return (ErrorResponseException) throwable.fillInStackTrace();
+            }
+            if (throwable instanceof RuntimeException) {
+                return (RuntimeException) throwable;
+            }
+            if (throwable instanceof Error) {
+                throw (Error) throwable;
+            }
+            return new CompletionException(throwable);
+        }
+    }
+
     protected class ChainedConsumer implements Consumer<List<T>> {
         protected final CompletableFuture<?> task;
         protected final Procedure<? super T> action;
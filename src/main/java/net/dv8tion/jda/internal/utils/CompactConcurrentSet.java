@@ -0,0 +1,213 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils;
+
+import java.util.*;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Thread-safe set backed by a copy-on-write array.
+ *
+ * <p>This has a much smaller footprint than a concurrent hash set, which makes it suitable for small sets
+ * held by a large number of entities, such as the roles of each member.
+ * Reads and iteration never block and operate on a snapshot of the set, while every write copies the array.
+ * Lookups are linear, so this should not be used for large sets.
+ *
+ * @param <E> The element type
+ */
+public class CompactConcurrentSet<E> extends AbstractSet<E> {
+    private static final Object[] EMPTY = new Object[0];
+
+    private volatile Object[] elements = EMPTY;
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return elements.length == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(elements, o) >= 0;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<E> iterator() {
+        return new SnapshotIterator(elements);
+    }
+
+    @Nonnull
+    @Override
+    public Object[] toArray() {
+        Object[] snapshot = elements;
+        return Arrays.copyOf(snapshot, snapshot.length);
+    }
+
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(@Nonnull T[] array) {
+        Object[] snapshot = elements;
+        if (array.length < snapshot.length) {
+            return (T[]) Arrays.copyOf(snapshot, snapshot.length, array.getClass());
+        }
+        System.arraycopy(snapshot, 0, array, 0, snapshot.length);
+        if (array.length > snapshot.length) {
+            array[snapshot.length] = null;
+        }
+        return array;
+    }
+
+    @Override
+    public synchronized boolean add(E e) {
+        Checks.notNull(e, "Element");
+        Object[] current = elements;
+        if (indexOf(current, e) >= 0) {
+            return false;
+        }
+        Object[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = e;
+        elements = updated;
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addAll(@Nonnull Collection<? extends E> collection) {
+        Object[] current = elements;
+        Object[] updated = Arrays.copyOf(current, current.length + collection.size());
+        int size = current.length;
+        for (E e : collection) {
+            Checks.notNull(e, "Element");
+            if (indexOf(updated, size, e) < 0) {
+                updated[size++] = e;
+            }
+        }
+
+        if (size == current.length) {
+            return false;
+        }
+        elements = size == updated.length ? updated : Arrays.copyOf(updated, size);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        Object[] current = elements;
+        int index = indexOf(current, o);
+        if (index < 0) {
+            return false;
+        }
+        elements = removeAt(current, index);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean removeAll(@Nonnull Collection<?> collection) {
+        return filter(collection, false);
+    }
+
+    @Override
+    public synchronized boolean retainAll(@Nonnull Collection<?> collection) {
+        return filter(collection, true);
+    }
+
+    @Override
+    public synchronized void clear() {
+        elements = EMPTY;
+    }
+
+    // Keeps only the elements for which collection.contains(e) == retain
+    private boolean filter(Collection<?> collection, boolean retain) {
+        Object[] current = elements;
+        Object[] updated = new Object[current.length];
+        int size = 0;
+        for (Object e : current) {
+            if (collection.contains(e) == retain) {
+                updated[size++] = e;
+            }
+        }
+
+        if (size == current.length) {
+            return false;
+        }
+        elements = size == 0 ? EMPTY : Arrays.copyOf(updated, size);
+        return true;
+    }
+
+    private static Object[] removeAt(Object[] array, int index) {
+        if (array.length == 1) {
+            return EMPTY;
+        }
+        Object[] updated = new Object[array.length - 1];
+        System.arraycopy(array, 0, updated, 0, index);
+        System.arraycopy(array, index + 1, updated, index, array.length - index - 1);
+        return updated;
+    }
+
+    private static int indexOf(Object[] array, Object o) {
+        return indexOf(array, array.length, o);
+    }
+
+    private static int indexOf(Object[] array, int length, Object o) {
+        for (int i = 0; i < length; i++) {
+            if (array[i].equals(o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private class SnapshotIterator implements Iterator<E> {
+        private final Object[] snapshot;
+        private int index = 0;
+        private int lastIndex = -1;
+
+        private SnapshotIterator(Object[] snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < snapshot.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastIndex = index++;
+            return (E) snapshot[lastIndex];
+        }
+
+        @Override
+        public void remove() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+            CompactConcurrentSet.this.remove(snapshot[lastIndex]);
+            lastIndex = -1;
+        }
+    }
+}
@@ -26,6 +26,8 @@ import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.entities.emoji.RichCustomEmoji;
 import net.dv8tion.jda.api.exceptions.DetachedEntityException;
 import net.dv8tion.jda.api.exceptions.InsufficientPermissionException;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.utils.cache.PermissionCache;
 import org.apache.commons.collections4.CollectionUtils;
 
 import java.time.Instant;
@@ -413,6 +415,24 @@ public class PermissionUtil {
             return ALL_PERMISSIONS;
         }
 
+        // Timeouts run out without any update from the gateway, so we cannot cache these permissions
+        if (!(member instanceof MemberImpl) || member.isTimedOut()) {
+            return computeEffectivePermission(channel, member);
+        }
+
+        // Read the version before computing, so results based on a concurrent update are stored as outdated
+        MemberImpl memberImpl = (MemberImpl) member;
+        long version = memberImpl.getGuild().getPermissionVersion();
+        PermissionCache cache = memberImpl.getPermissionCache();
+        long permission = cache.get(version, channel.getIdLong());
+        if (permission == PermissionCache.NOT_CACHED) {
+            permission = computeEffectivePermission(channel, member);
+            cache.put(version, channel.getIdLong(), permission);
+        }
+        return permission;
+    }
+
+    private static long computeEffectivePermission(GuildChannel channel, Member member) {
         long permission = getEffectivePermission(member);
         long admin = Permission.ADMINISTRATOR.getRawValue();
         if (isApplied(permission, admin)) {
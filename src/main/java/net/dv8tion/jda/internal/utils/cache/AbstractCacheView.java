@@ -25,8 +25,10 @@ import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.cache.CacheView;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.concurrent.NoOpLock;
 import org.apache.commons.collections4.iterators.ObjectArrayIterator;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.util.*;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -38,16 +40,51 @@ import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
 
 public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> implements CacheView<T> {
-    protected final TLongObjectMap<T> elements = new TLongObjectHashMap<>();
+    private static final UnlockHook NO_LOCK = new UnlockHook(NoOpLock.INSTANCE);
+
+    protected final TLongObjectMap<T> elements;
     protected final T[] emptyArray;
     protected final Function<T, String> nameMapper;
     protected final Class<T> type;
+    protected final boolean lockFree;
+
+    // Only used with lock-free reads, validated against the modification count of the map
+    private volatile Snapshot<List<T>> listSnapshot;
+    private volatile Snapshot<Set<T>> setSnapshot;
 
-    @SuppressWarnings("unchecked")
     protected AbstractCacheView(Class<T> type, Function<T, String> nameMapper) {
+        this(type, nameMapper, false);
+    }
+
+    protected AbstractCacheView(Class<T> type, Function<T, String> nameMapper, boolean lockFree) {
+        this(type, nameMapper, lockFree, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected AbstractCacheView(
+            Class<T> type, Function<T, String> nameMapper, boolean lockFree, CacheIndex.Binding index) {
         this.nameMapper = nameMapper;
         this.type = type;
         this.emptyArray = (T[]) Array.newInstance(type, 0);
+        this.lockFree = lockFree;
+        if (lockFree) {
+            this.elements = new ConcurrentLongObjectMap<>(index);
+        } else {
+            this.elements = index != null ? new IndexedLongObjectMap<>(index) : new TLongObjectHashMap<>();
+        }
+    }
+
+    @Override
+    public UnlockHook readLock() {
+        // Writers still hold the write lock, but readers never need to exclude them
+        return lockFree ? NO_LOCK : super.readLock();
+    }
+
+    @Override
+    public void clearCachedLists() {
+        super.clearCachedLists();
+        listSnapshot = null;
+        setSnapshot = null;
     }
 
     public void clear() {
@@ -94,6 +131,9 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
     @Nonnull
     @Override
     public LockIterator<T> lockedIterator() {
+        if (lockFree) {
+            return new LockIterator<>(elements.valueCollection().iterator(), NoOpLock.INSTANCE);
+        }
         ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
         MiscUtil.tryLock(readLock);
         try {
@@ -111,6 +151,9 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
         if (isEmpty()) {
             return Collections.emptyList();
         }
+        if (lockFree) {
+            return lockFreeList();
+        }
         try (UnlockHook hook = readLock()) {
             List<T> list = getCachedList();
             if (list != null) {
@@ -128,6 +171,9 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
         if (isEmpty()) {
             return Collections.emptySet();
         }
+        if (lockFree) {
+            return lockFreeSet();
+        }
         try (UnlockHook hook = readLock()) {
             Set<T> set = getCachedSet();
             if (set != null) {
@@ -139,6 +185,36 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
         }
     }
 
+    private List<T> lockFreeList() {
+        // The modification count has to be read before copying,
+        // a write during the copy then invalidates the snapshot for the next reader
+        long modCount = ((ConcurrentLongObjectMap<T>) elements).getModificationCount();
+        Snapshot<List<T>> snapshot = listSnapshot;
+        List<T> list = snapshot == null ? null : snapshot.get(modCount);
+        if (list != null) {
+            return list;
+        }
+        list = new ArrayList<>(elements.size());
+        elements.forEachValue(list::add);
+        list = Collections.unmodifiableList(list);
+        listSnapshot = new Snapshot<>(list, modCount);
+        return list;
+    }
+
+    private Set<T> lockFreeSet() {
+        long modCount = ((ConcurrentLongObjectMap<T>) elements).getModificationCount();
+        Snapshot<Set<T>> snapshot = setSnapshot;
+        Set<T> set = snapshot == null ? null : snapshot.get(modCount);
+        if (set != null) {
+            return set;
+        }
+        set = new HashSet<>(elements.size());
+        elements.forEachValue(set::add);
+        set = Collections.unmodifiableSet(set);
+        setSnapshot = new Snapshot<>(set, modCount);
+        return set;
+    }
+
     @Override
     public long size() {
         return elements.size();
@@ -229,4 +305,17 @@ public abstract class AbstractCacheView<T> extends ReadWriteLockCache<T> impleme
     protected boolean equals(boolean ignoreCase, String first, String second) {
         return ignoreCase ? first.equalsIgnoreCase(second) : first.equals(second);
     }
+
+    private static final class Snapshot<C> extends WeakReference<C> {
+        private final long modCount;
+
+        private Snapshot(C referent, long modCount) {
+            super(referent);
+            this.modCount = modCount;
+        }
+
+        private C get(long currentModCount) {
+            return modCount == currentModCount ? get() : null;
+        }
+    }
 }
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.iterator.TLongIntIterator;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Index of which shard holds an entity, shared by the caches of all shards of a shard manager.
+ *
+ * <p>The caches of each shard report additions and removals through their {@link Binding},
+ * which allows unified lookups to go directly to the right shard, instead of probing every shard.
+ * Since entities such as users can be cached by multiple shards at once, every shard holding an id is tracked.
+ *
+ * <p>The index is split into stripes by id, to avoid contention between shards updating their caches concurrently.
+ */
+public class CacheIndex {
+    public static final int NO_SHARD = -1;
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final TIntObjectMap<Binding> bindings = new TIntObjectHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public CacheIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Creates a new binding for the caches of the provided shard.
+     * <br>If the shard was bound before, the previous binding is disabled and its entries are removed from the index.
+     *
+     * @param  shardId
+     *         The shard id
+     *
+     * @return The binding used to report changes of the shard cache
+     */
+    public Binding bind(int shardId) {
+        Binding binding = new Binding(shardId);
+        Binding previous;
+        synchronized (bindings) {
+            previous = bindings.put(shardId, binding);
+        }
+        if (previous != null) {
+            previous.disable();
+        }
+        return binding;
+    }
+
+    /**
+     * Disables the current binding of the shard and removes all its entries from the index.
+     *
+     * @param shardId
+     *        The shard id
+     */
+    public void unbind(int shardId) {
+        Binding previous;
+        synchronized (bindings) {
+            previous = bindings.remove(shardId);
+        }
+        if (previous != null) {
+            previous.disable();
+        }
+    }
+
+    /**
+     * The id of a shard which currently holds the entity, or {@link #NO_SHARD} if no shard holds it.
+     *
+     * @param  id
+     *         The entity id
+     *
+     * @return The shard id, or {@link #NO_SHARD}
+     */
+    public int getShard(long id) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            return stripe.owners.get(id);
+        }
+    }
+
+    /**
+     * The number of distinct ids held by all shards.
+     *
+     * @return The number of ids
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private Stripe stripe(long id) {
+        // Snowflakes share their low bits with other ids created in the same millisecond, mix in the timestamp
+        long hash = id ^ (id >>> 22) ^ (id >>> 32);
+        return stripes[(int) (hash & (STRIPES - 1))];
+    }
+
+    private void add(long id, Binding binding) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            // Checked under the stripe lock, so removing a shard cannot miss an entry added concurrently
+            if (!binding.enabled) {
+                return;
+            }
+            stripe.add(id, binding.shardId);
+        }
+    }
+
+    private void remove(long id, Binding binding) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            if (!binding.enabled) {
+                return;
+            }
+            stripe.remove(id, binding.shardId);
+        }
+    }
+
+    private void removeShard(int shardId) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.removeShard(shardId);
+            }
+        }
+    }
+
+    private class Stripe {
+        // The first shard holding an id, additional shards are only tracked if an id is held by more than one
+        private final TLongIntMap owners =
+                new TLongIntHashMap(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR, 0, NO_SHARD);
+        private final TLongObjectMap<TIntSet> shared = new TLongObjectHashMap<>();
+
+        private void add(long id, int shardId) {
+            int owner = owners.putIfAbsent(id, shardId);
+            if (owner == NO_SHARD) {
+                size.incrementAndGet();
+            } else if (owner != shardId) {
+                TIntSet others = shared.get(id);
+                if (others == null) {
+                    shared.put(id, others = new TIntHashSet(4));
+                }
+                others.add(shardId);
+            }
+        }
+
+        private void remove(long id, int shardId) {
+            int owner = owners.get(id);
+            if (owner == NO_SHARD) {
+                return;
+            }
+
+            TIntSet others = shared.get(id);
+            if (owner != shardId) {
+                if (others != null && others.remove(shardId) && others.isEmpty()) {
+                    shared.remove(id);
+                }
+                return;
+            }
+
+            if (others == null) {
+                owners.remove(id);
+                size.decrementAndGet();
+                return;
+            }
+
+            // Promote another shard holding this id
+            TIntIterator iterator = others.iterator();
+            owners.put(id, iterator.next());
+            iterator.remove();
+            if (others.isEmpty()) {
+                shared.remove(id);
+            }
+        }
+
+        private void removeShard(int shardId) {
+            for (TLongObjectIterator<TIntSet> it = shared.iterator(); it.hasNext(); ) {
+                it.advance();
+                if (it.value().remove(shardId) && it.value().isEmpty()) {
+                    it.remove();
+                }
+            }
+
+            for (TLongIntIterator it = owners.iterator(); it.hasNext(); ) {
+                it.advance();
+                if (it.value() != shardId) {
+                    continue;
+                }
+                TIntSet others = shared.get(it.key());
+                if (others == null) {
+                    it.remove();
+                    size.decrementAndGet();
+                } else {
+                    TIntIterator next = others.iterator();
+                    it.setValue(next.next());
+                    next.remove();
+                    if (others.isEmpty()) {
+                        shared.remove(it.key());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports changes of a single shard cache to the index.
+     */
+    public class Binding {
+        private final int shardId;
+        private volatile boolean enabled = true;
+
+        private Binding(int shardId) {
+            this.shardId = shardId;
+        }
+
+        public int getShardId() {
+            return shardId;
+        }
+
+        public void add(long id) {
+            CacheIndex.this.add(id, this);
+        }
+
+        public void remove(long id) {
+            CacheIndex.this.remove(id, this);
+        }
+
+        private void disable() {
+            enabled = false;
+            removeShard(shardId);
+        }
+    }
+}
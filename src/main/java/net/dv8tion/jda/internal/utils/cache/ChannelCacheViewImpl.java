@@ -31,6 +31,7 @@ import net.dv8tion.jda.internal.utils.UnlockHook;
 import java.util.*;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -42,12 +43,20 @@ public class ChannelCacheViewImpl<T extends Channel> extends ReadWriteLockCache<
     protected final EnumMap<ChannelType, TLongObjectMap<T>> caches = new EnumMap<>(ChannelType.class);
 
     public ChannelCacheViewImpl(Class<T> type) {
+        this(type, null);
+    }
+
+    public ChannelCacheViewImpl(Class<T> type, Function<ChannelType, CacheIndex.Binding> indexProvider) {
         for (ChannelType channelType : ChannelType.values()) {
             channelType = normalizeKey(channelType);
             Class<? extends Channel> clazz = channelType.getInterface();
-            if (channelType != ChannelType.UNKNOWN && type.isAssignableFrom(clazz)) {
-                caches.put(channelType, new TLongObjectHashMap<>());
+            if (channelType == ChannelType.UNKNOWN
+                    || !type.isAssignableFrom(clazz)
+                    || caches.containsKey(channelType)) {
+                continue;
             }
+            CacheIndex.Binding index = indexProvider == null ? null : indexProvider.apply(channelType);
+            caches.put(channelType, index == null ? new TLongObjectHashMap<>() : new IndexedLongObjectMap<>(index));
         }
     }
 
@@ -0,0 +1,559 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import gnu.trove.function.TObjectFunction;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.procedure.TLongObjectProcedure;
+import gnu.trove.procedure.TLongProcedure;
+import gnu.trove.procedure.TObjectProcedure;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Open addressing map of primitive long keys, which allows lock-free reads concurrent to writes.
+ *
+ * <p>Writes are serialized on the monitor of the map, in practice they are already serialized by the write lock of the owning cache view.
+ * Reads never block and observe every write which completed before they started.
+ * Iteration is weakly consistent, like the iterators of {@link java.util.concurrent.ConcurrentHashMap}.
+ *
+ * <p>Every write increments the {@link #getModificationCount() modification count},
+ * which readers can use to validate snapshots of the map.
+ *
+ * <p>This map does not support {@code null} values.
+ * A removed entry keeps its key slot until the table is rebuilt on the next resize.
+ *
+ * @param <V> The value type
+ */
+public class ConcurrentLongObjectMap<V> implements TLongObjectMap<V> {
+    // Key 0 marks a free slot in the table, so its value is stored in a separate field
+    private static final long FREE = 0;
+    private static final int MIN_CAPACITY = 16;
+
+    private final CacheIndex.Binding index;
+    private volatile Table<V> table = new Table<>(MIN_CAPACITY);
+    private volatile V freeKeyValue;
+    private volatile int size;
+    private volatile long modCount;
+
+    public ConcurrentLongObjectMap() {
+        this(null);
+    }
+
+    /**
+     * Creates a map which reports every added and removed key to the provided {@link CacheIndex}.
+     *
+     * @param index
+     *        The index binding, or null
+     */
+    public ConcurrentLongObjectMap(CacheIndex.Binding index) {
+        this.index = index;
+    }
+
+    public long getModificationCount() {
+        return modCount;
+    }
+
+    @Override
+    public long getNoEntryKey() {
+        return FREE;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return value != null && !forEachValue(v -> !v.equals(value));
+    }
+
+    @Override
+    public V get(long key) {
+        if (key == FREE) {
+            return freeKeyValue;
+        }
+        Table<V> table = this.table;
+        int slot = table.indexOf(key);
+        return slot < 0 ? null : table.values.get(slot);
+    }
+
+    @Override
+    public synchronized V put(long key, V value) {
+        Objects.requireNonNull(value, "Value");
+        V old;
+        if (key == FREE) {
+            old = freeKeyValue;
+            freeKeyValue = value;
+        } else {
+            Table<V> table = this.table;
+            int slot = table.slotOf(key);
+            if (table.keys.get(slot) == key) {
+                old = table.values.getAndSet(slot, value);
+            } else {
+                // Publish the value before the key, readers which find the key will always see the value
+                old = null;
+                table.values.set(slot, value);
+                table.keys.set(slot, key);
+                table.used++;
+            }
+        }
+
+        if (old == null) {
+            size++;
+            if (index != null) {
+                index.add(key);
+            }
+        }
+        modCount++;
+
+        if (this.table.isOverloaded()) {
+            rebuild();
+        }
+        return old;
+    }
+
+    @Override
+    public synchronized V putIfAbsent(long key, V value) {
+        V current = get(key);
+        if (current != null) {
+            return current;
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public synchronized V remove(long key) {
+        V old;
+        if (key == FREE) {
+            old = freeKeyValue;
+            freeKeyValue = null;
+        } else {
+            Table<V> table = this.table;
+            int slot = table.indexOf(key);
+            old = slot < 0 ? null : table.values.getAndSet(slot, null);
+        }
+
+        if (old != null) {
+            size--;
+            modCount++;
+            if (index != null) {
+                index.remove(key);
+            }
+        }
+        return old;
+    }
+
+    @Override
+    public synchronized void putAll(Map<? extends Long, ? extends V> map) {
+        map.forEach(this::put);
+    }
+
+    @Override
+    public synchronized void putAll(TLongObjectMap<? extends V> map) {
+        map.forEachEntry((key, value) -> {
+            put(key, value);
+            return true;
+        });
+    }
+
+    @Override
+    public synchronized void clear() {
+        if (index != null) {
+            forEachKey(key -> {
+                index.remove(key);
+                return true;
+            });
+        }
+        table = new Table<>(MIN_CAPACITY);
+        freeKeyValue = null;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Snapshot of the current keys.
+     * <br>Unlike other implementations, this is a copy and not a view of the map.
+     *
+     * @return Copy of the key set
+     */
+    @Override
+    public TLongSet keySet() {
+        return new TLongHashSet(keys());
+    }
+
+    @Override
+    public long[] keys() {
+        return keys(new long[size]);
+    }
+
+    @Override
+    public long[] keys(long[] array) {
+        TLongArrayList keys = new TLongArrayList(size);
+        forEachKey(keys::add);
+        return array.length >= keys.size() ? keys.toArray(array, 0, keys.size()) : keys.toArray();
+    }
+
+    @Override
+    public Collection<V> valueCollection() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                TLongObjectIterator<V> iterator = ConcurrentLongObjectMap.this.iterator();
+                return new Iterator<V>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public V next() {
+                        iterator.advance();
+                        return iterator.value();
+                    }
+
+                    @Override
+                    public void remove() {
+                        iterator.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Object[] values() {
+        return snapshotValues().toArray();
+    }
+
+    @Override
+    public V[] values(V[] array) {
+        return snapshotValues().toArray(array);
+    }
+
+    private List<V> snapshotValues() {
+        List<V> values = new ArrayList<>(size);
+        forEachValue(values::add);
+        return values;
+    }
+
+    @Override
+    public TLongObjectIterator<V> iterator() {
+        return new EntryIterator();
+    }
+
+    @Override
+    public boolean forEachKey(TLongProcedure procedure) {
+        return forEachEntry((key, value) -> procedure.execute(key));
+    }
+
+    @Override
+    public boolean forEachValue(TObjectProcedure<? super V> procedure) {
+        return forEachEntry((key, value) -> procedure.execute(value));
+    }
+
+    @Override
+    public boolean forEachEntry(TLongObjectProcedure<? super V> procedure) {
+        V freeValue = freeKeyValue;
+        if (freeValue != null && !procedure.execute(FREE, freeValue)) {
+            return false;
+        }
+
+        Table<V> table = this.table;
+        for (int i = 0, capacity = table.capacity(); i < capacity; i++) {
+            long key = table.keys.get(i);
+            if (key == FREE) {
+                continue;
+            }
+            V value = table.values.get(i);
+            if (value != null && !procedure.execute(key, value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void transformValues(TObjectFunction<V, V> function) {
+        if (freeKeyValue != null) {
+            freeKeyValue = Objects.requireNonNull(function.execute(freeKeyValue), "Value");
+        }
+
+        Table<V> table = this.table;
+        for (int i = 0, capacity = table.capacity(); i < capacity; i++) {
+            V value = table.values.get(i);
+            if (value != null) {
+                table.values.set(i, Objects.requireNonNull(function.execute(value), "Value"));
+            }
+        }
+        modCount++;
+    }
+
+    @Override
+    public synchronized boolean retainEntries(TLongObjectProcedure<? super V> procedure) {
+        boolean modified = false;
+        if (freeKeyValue != null && !procedure.execute(FREE, freeKeyValue)) {
+            freeKeyValue = null;
+            size--;
+            modified = true;
+            if (index != null) {
+                index.remove(FREE);
+            }
+        }
+
+        Table<V> table = this.table;
+        for (int i = 0, capacity = table.capacity(); i < capacity; i++) {
+            long key = table.keys.get(i);
+            V value = table.values.get(i);
+            if (value != null && !procedure.execute(key, value)) {
+                table.values.set(i, null);
+                size--;
+                modified = true;
+                if (index != null) {
+                    index.remove(key);
+                }
+            }
+        }
+
+        if (modified) {
+            modCount++;
+        }
+        return modified;
+    }
+
+    // Copies all live entries into a new table sized for the current size, which also drops removed keys
+    private void rebuild() {
+        int capacity = MIN_CAPACITY;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+
+        Table<V> old = this.table;
+        Table<V> table = new Table<>(capacity);
+        for (int i = 0, oldCapacity = old.capacity(); i < oldCapacity; i++) {
+            V value = old.values.get(i);
+            if (value != null) {
+                long key = old.keys.get(i);
+                int slot = table.slotOf(key);
+                table.values.set(slot, value);
+                table.keys.set(slot, key);
+                table.used++;
+            }
+        }
+        this.table = table;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof TLongObjectMap)) {
+            return false;
+        }
+        TLongObjectMap<?> other = (TLongObjectMap<?>) obj;
+        if (other.size() != size()) {
+            return false;
+        }
+        return forEachEntry((key, value) -> value.equals(other.get(key)));
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hashCode = {0};
+        forEachEntry((key, value) -> {
+            hashCode[0] += Long.hashCode(key) ^ value.hashCode();
+            return true;
+        });
+        return hashCode[0];
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        forEachEntry((key, value) -> {
+            joiner.add(key + "=" + value);
+            return true;
+        });
+        return joiner.toString();
+    }
+
+    private static final class Table<V> {
+        private final AtomicLongArray keys;
+        private final AtomicReferenceArray<V> values;
+        private final int mask;
+        // Number of slots with an assigned key, only accessed by the writer
+        private int used;
+
+        private Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        private int capacity() {
+            return mask + 1;
+        }
+
+        private boolean isOverloaded() {
+            return used * 4 >= capacity() * 3;
+        }
+
+        private static int hash(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+
+        // Index of the slot assigned to this key, or -1 if there is none
+        private int indexOf(long key) {
+            for (int index = hash(key) & mask; ; index = (index + 1) & mask) {
+                long current = keys.get(index);
+                if (current == key) {
+                    return index;
+                }
+                if (current == FREE) {
+                    return -1;
+                }
+            }
+        }
+
+        // Index of the slot assigned to this key, or the free slot it should be assigned to
+        private int slotOf(long key) {
+            for (int index = hash(key) & mask; ; index = (index + 1) & mask) {
+                long current = keys.get(index);
+                if (current == key || current == FREE) {
+                    return index;
+                }
+            }
+        }
+    }
+
+    private class EntryIterator implements TLongObjectIterator<V> {
+        private final Table<V> table = ConcurrentLongObjectMap.this.table;
+        // -1 is the position of the free key value, which is stored outside the table
+        private int position = -1;
+        private boolean hasNext;
+        private long nextKey;
+        private V nextValue;
+        private boolean hasCurrent;
+        private long currentKey;
+        private V currentValue;
+
+        private EntryIterator() {
+            findNext();
+        }
+
+        private void findNext() {
+            hasNext = false;
+            if (position == -1) {
+                position = 0;
+                V freeValue = freeKeyValue;
+                if (freeValue != null) {
+                    setNext(FREE, freeValue);
+                    return;
+                }
+            }
+
+            while (position < table.capacity()) {
+                int slot = position++;
+                long key = table.keys.get(slot);
+                if (key == FREE) {
+                    continue;
+                }
+                V value = table.values.get(slot);
+                if (value != null) {
+                    setNext(key, value);
+                    return;
+                }
+            }
+        }
+
+        private void setNext(long key, V value) {
+            hasNext = true;
+            nextKey = key;
+            nextValue = value;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public void advance() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            hasCurrent = true;
+            currentKey = nextKey;
+            currentValue = nextValue;
+            findNext();
+        }
+
+        @Override
+        public long key() {
+            return currentKey;
+        }
+
+        @Override
+        public V value() {
+            return currentValue;
+        }
+
+        @Override
+        public V setValue(V value) {
+            if (!hasCurrent) {
+                throw new IllegalStateException();
+            }
+            V old = put(currentKey, value);
+            currentValue = value;
+            return old;
+        }
+
+        @Override
+        public void remove() {
+            if (!hasCurrent) {
+                throw new IllegalStateException();
+            }
+            ConcurrentLongObjectMap.this.remove(currentKey);
+            hasCurrent = false;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+
+import java.util.Map;
+
+/**
+ * Map of a shard cache, which reports every added and removed key to a {@link CacheIndex}.
+ *
+ * <p>All removals of {@link TLongObjectHashMap}, including those through iterators and views,
+ * go through {@link #removeAt(int)}.
+ */
+public class IndexedLongObjectMap<V> extends TLongObjectHashMap<V> {
+    private final CacheIndex.Binding index;
+
+    public IndexedLongObjectMap(CacheIndex.Binding index) {
+        this.index = index;
+    }
+
+    @Override
+    public V put(long key, V value) {
+        V previous = super.put(key, value);
+        if (previous == null) {
+            index.add(key);
+        }
+        return previous;
+    }
+
+    @Override
+    public V putIfAbsent(long key, V value) {
+        V previous = super.putIfAbsent(key, value);
+        if (previous == null) {
+            index.add(key);
+        }
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends Long, ? extends V> map) {
+        map.forEach(this::put);
+    }
+
+    @Override
+    public void putAll(TLongObjectMap<? extends V> map) {
+        map.forEachEntry((key, value) -> {
+            put(key, value);
+            return true;
+        });
+    }
+
+    @Override
+    protected void removeAt(int index) {
+        long key = _set[index];
+        super.removeAt(index);
+        this.index.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        forEachKey(key -> {
+            index.remove(key);
+            return true;
+        });
+        super.clear();
+    }
+}
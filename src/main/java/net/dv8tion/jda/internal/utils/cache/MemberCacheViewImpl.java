@@ -29,7 +29,11 @@ import javax.annotation.Nullable;
 
 public class MemberCacheViewImpl extends SnowflakeCacheViewImpl<Member> implements MemberCacheView {
     public MemberCacheViewImpl() {
-        super(Member.class, Member::getEffectiveName);
+        this(false);
+    }
+
+    public MemberCacheViewImpl(boolean lockFree) {
+        super(Member.class, Member::getEffectiveName, lockFree);
     }
 
     @Override
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import gnu.trove.map.TLongLongMap;
+import gnu.trove.map.hash.TLongLongHashMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the effective channel permissions of a single member, keyed by channel id.
+ *
+ * <p>Every entry is computed for a specific permission version of the guild.
+ * Any change that can affect permissions (roles, overrides, member roles, ownership) assigns the guild a new version,
+ * which discards all entries of this cache on the next access.
+ *
+ * <p>Versions are taken from a single global sequence, which means they are strictly increasing
+ * even if a guild is recreated after it became unavailable.
+ */
+public class PermissionCache {
+    /** Returned by {@link #get(long, long)} if no permissions are cached for the channel */
+    public static final long NOT_CACHED = -1L;
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    // Permission bitsets never have every bit set, so the no entry value cannot collide with cached permissions
+    private final TLongLongMap permissions = new TLongLongHashMap(4, 0.5f, 0L, NOT_CACHED);
+    private long version;
+
+    public static long nextVersion() {
+        return VERSIONS.incrementAndGet();
+    }
+
+    public synchronized long get(long version, long channelId) {
+        if (this.version != version) {
+            return NOT_CACHED;
+        }
+        return permissions.get(channelId);
+    }
+
+    public synchronized void put(long version, long channelId, long permission) {
+        if (version < this.version) {
+            // Computed before the latest invalidation, this is already outdated
+            return;
+        }
+        if (version > this.version) {
+            permissions.clear();
+            this.version = version;
+        }
+        permissions.put(channelId, permission);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import net.dv8tion.jda.api.entities.channel.Channel;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link CacheIndex indices} of all entity caches of a shard manager, which are shared by all shards.
+ */
+public class ShardCacheIndex {
+    private final CacheIndex users = new CacheIndex();
+    private final CacheIndex guilds = new CacheIndex();
+    private final Map<ChannelType, CacheIndex> channels = new EnumMap<>(ChannelType.class);
+
+    public ShardCacheIndex() {
+        for (ChannelType type : ChannelType.values()) {
+            if (type != ChannelType.UNKNOWN) {
+                channels.computeIfAbsent(normalize(type), k -> new CacheIndex());
+            }
+        }
+    }
+
+    /**
+     * Creates new bindings for the caches of the provided shard.
+     * <br>This replaces the bindings of any previous instance of the shard.
+     *
+     * @param  shardId
+     *         The shard id
+     *
+     * @return The bindings for the caches of the shard
+     */
+    public Bindings bind(int shardId) {
+        return new Bindings(shardId);
+    }
+
+    /**
+     * Removes all entries of the provided shard.
+     *
+     * @param shardId
+     *        The shard id
+     */
+    public void unbind(int shardId) {
+        users.unbind(shardId);
+        guilds.unbind(shardId);
+        channels.values().forEach(index -> index.unbind(shardId));
+    }
+
+    public CacheIndex getUserIndex() {
+        return users;
+    }
+
+    public CacheIndex getGuildIndex() {
+        return guilds;
+    }
+
+    /**
+     * The indices of all channel types, which implement the provided channel interface.
+     *
+     * @param  type
+     *         The channel interface
+     *
+     * @return The channel indices
+     */
+    public List<CacheIndex> getChannelIndices(Class<? extends Channel> type) {
+        List<CacheIndex> indices = new ArrayList<>();
+        channels.forEach((channelType, index) -> {
+            if (type.isAssignableFrom(channelType.getInterface())) {
+                indices.add(index);
+            }
+        });
+        return indices;
+    }
+
+    // All threads share a cache, see ChannelCacheViewImpl#normalizeKey
+    private static ChannelType normalize(ChannelType type) {
+        return type.isThread() ? ChannelType.GUILD_PUBLIC_THREAD : type;
+    }
+
+    public class Bindings {
+        private final CacheIndex.Binding users;
+        private final CacheIndex.Binding guilds;
+        private final Map<ChannelType, CacheIndex.Binding> channels = new EnumMap<>(ChannelType.class);
+
+        private Bindings(int shardId) {
+            this.users = ShardCacheIndex.this.users.bind(shardId);
+            this.guilds = ShardCacheIndex.this.guilds.bind(shardId);
+            ShardCacheIndex.this.channels.forEach((type, index) -> channels.put(type, index.bind(shardId)));
+        }
+
+        public CacheIndex.Binding getUserBinding() {
+            return users;
+        }
+
+        public CacheIndex.Binding getGuildBinding() {
+            return guilds;
+        }
+
+        public CacheIndex.Binding getChannelBinding(ChannelType type) {
+            return channels.get(normalize(type));
+        }
+    }
+}
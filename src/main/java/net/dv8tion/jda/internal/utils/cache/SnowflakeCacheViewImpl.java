@@ -27,6 +27,15 @@ public class SnowflakeCacheViewImpl<T extends ISnowflake> extends AbstractCacheV
         super(type, nameMapper);
     }
 
+    public SnowflakeCacheViewImpl(Class<T> type, Function<T, String> nameMapper, boolean lockFree) {
+        super(type, nameMapper, lockFree);
+    }
+
+    public SnowflakeCacheViewImpl(
+            Class<T> type, Function<T, String> nameMapper, boolean lockFree, CacheIndex.Binding index) {
+        super(type, nameMapper, lockFree, index);
+    }
+
     @Override
     public T getElementById(long id) {
         if (elements.isEmpty()) {
@@ -16,6 +16,7 @@
 
 package net.dv8tion.jda.internal.utils.cache;
 
+import gnu.trove.map.TLongObjectMap;
 import net.dv8tion.jda.api.entities.channel.Channel;
 import net.dv8tion.jda.api.utils.cache.SortedChannelCacheView;
 import net.dv8tion.jda.internal.utils.Checks;
@@ -23,6 +24,7 @@ import net.dv8tion.jda.internal.utils.Helpers;
 import net.dv8tion.jda.internal.utils.UnlockHook;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -31,10 +33,20 @@ import javax.annotation.Nonnull;
 
 public class SortedChannelCacheViewImpl<T extends Channel & Comparable<? super T>> extends ChannelCacheViewImpl<T>
         implements SortedChannelCacheView<T> {
+    private final AtomicLong version = new AtomicLong();
+    private volatile SortedSnapshot<T> snapshot;
+
     public SortedChannelCacheViewImpl(Class<T> type) {
         super(type);
     }
 
+    @Override
+    public void clearCachedLists() {
+        super.clearCachedLists();
+        // The snapshot is kept as the starting order for the next sort
+        version.incrementAndGet();
+    }
+
     @Nonnull
     @Override
     public <C extends T> SortedFilteredCacheView<C> ofType(@Nonnull Class<C> type) {
@@ -44,21 +56,13 @@ public class SortedChannelCacheViewImpl<T extends Channel & Comparable<? super T
     @Nonnull
     @Override
     public List<T> asList() {
-        List<T> list = getCachedList();
-        if (list == null) {
-            list = cache(new ArrayList<>(asSet()));
-        }
-        return list;
+        return getSnapshot().getList();
     }
 
     @Nonnull
     @Override
     public NavigableSet<T> asSet() {
-        NavigableSet<T> set = (NavigableSet<T>) getCachedSet();
-        if (set == null) {
-            set = cache((NavigableSet<T>) applyStream(stream -> stream.collect(Collectors.toCollection(TreeSet::new))));
-        }
-        return set;
+        return getSnapshot().getSet();
     }
 
     @Override
@@ -68,7 +72,7 @@ public class SortedChannelCacheViewImpl<T extends Channel & Comparable<? super T
 
     @Override
     public void forEach(@Nonnull Consumer<? super T> action) {
-        asSet().forEach(action);
+        asList().forEach(action);
     }
 
     @Nonnull
@@ -98,13 +102,32 @@ public class SortedChannelCacheViewImpl<T extends Channel & Comparable<? super T
 
     @Override
     public Spliterator<T> spliterator() {
-        return asSet().spliterator();
+        return asList().spliterator();
     }
 
     @Nonnull
     @Override
     public Iterator<T> iterator() {
-        return asSet().iterator();
+        return asList().iterator();
+    }
+
+    private SortedSnapshot<T> getSnapshot() {
+        try (UnlockHook hook = readLock()) {
+            long currentVersion = version.get();
+            SortedSnapshot<T> current = snapshot;
+            if (current != null && current.isValid(currentVersion)) {
+                return current;
+            }
+            List<T> elements = new ArrayList<>();
+            for (TLongObjectMap<T> cache : caches.values()) {
+                elements.addAll(cache.valueCollection());
+            }
+            @SuppressWarnings("unchecked")
+            T[] array = elements.toArray((T[]) new Channel[0]);
+            current = SortedSnapshot.create(current, array, Comparator.naturalOrder(), currentVersion);
+            snapshot = current;
+            return current;
+        }
     }
 
     public class SortedFilteredCacheView<C extends T> extends FilteredCacheView<C>
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import java.util.*;
+
+/**
+ * Immutable sorted copy of the elements of a cache.
+ *
+ * <p>The sort keys of cached entities, such as positions, change in place without going through the cache.
+ * Instead of keeping a tree which could be corrupted by such changes, the last sorted order is kept around
+ * and used as the starting point for the next snapshot. Since only a few elements change between snapshots,
+ * sorting the previous order is close to linear.
+ *
+ * @param <T> The element type
+ */
+final class SortedSnapshot<T> {
+    private final T[] elements;
+    private final List<T> list;
+    private final Comparator<? super T> comparator;
+    private final long version;
+    private volatile NavigableSet<T> set;
+
+    private SortedSnapshot(T[] elements, Comparator<? super T> comparator, long version) {
+        this.elements = elements;
+        this.list = Collections.unmodifiableList(Arrays.asList(elements));
+        this.comparator = comparator;
+        this.version = version;
+    }
+
+    /**
+     * Creates a new snapshot for the provided elements.
+     *
+     * @param  previous
+     *         The previous snapshot, used as the initial order, or null
+     * @param  current
+     *         The current elements of the cache, in any order. This array is owned by the snapshot after this call.
+     * @param  comparator
+     *         The comparator which defines the order
+     * @param  version
+     *         The modification version of the cache, at the time the elements were copied
+     *
+     * @return The new snapshot
+     */
+    static <T> SortedSnapshot<T> create(
+            SortedSnapshot<T> previous, T[] current, Comparator<? super T> comparator, long version) {
+        if (previous != null && previous.elements.length > 0) {
+            Set<T> remaining = Collections.newSetFromMap(new IdentityHashMap<>(current.length * 2));
+            Collections.addAll(remaining, current);
+
+            // Retain the previous order of elements which are still cached, and append new elements at the end
+            int index = 0;
+            for (T element : previous.elements) {
+                if (remaining.remove(element)) {
+                    current[index++] = element;
+                }
+            }
+            for (T element : remaining) {
+                current[index++] = element;
+            }
+        }
+
+        // TimSort only has to merge a few short runs here, unless most of the order changed
+        Arrays.sort(current, comparator);
+        return new SortedSnapshot<>(current, comparator, version);
+    }
+
+    boolean isValid(long version) {
+        return this.version == version;
+    }
+
+    int size() {
+        return elements.length;
+    }
+
+    T[] getArray() {
+        return elements;
+    }
+
+    List<T> getList() {
+        return list;
+    }
+
+    NavigableSet<T> getSet() {
+        NavigableSet<T> set = this.set;
+        if (set == null) {
+            TreeSet<T> tree = new TreeSet<>(comparator);
+            tree.addAll(list);
+            this.set = set = Collections.unmodifiableNavigableSet(tree);
+        }
+        return set;
+    }
+}
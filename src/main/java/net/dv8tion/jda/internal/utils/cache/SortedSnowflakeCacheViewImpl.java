@@ -22,9 +22,11 @@ import net.dv8tion.jda.internal.utils.UnlockHook;
 import org.apache.commons.collections4.iterators.ObjectArrayIterator;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Nonnull;
 
@@ -35,6 +37,9 @@ public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? su
 
     protected final Comparator<T> comparator;
 
+    private final AtomicLong version = new AtomicLong();
+    private volatile SortedSnapshot<T> snapshot;
+
     public SortedSnowflakeCacheViewImpl(Class<T> type, Comparator<T> comparator) {
         this(type, null, comparator);
     }
@@ -44,10 +49,18 @@ public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? su
         this.comparator = comparator;
     }
 
+    @Override
+    public void clearCachedLists() {
+        super.clearCachedLists();
+        // The snapshot is kept as the starting order for the next sort
+        version.incrementAndGet();
+    }
+
     @Override
     public void forEach(@Nonnull Consumer<? super T> action) {
-        try (UnlockHook hook = readLock()) {
-            iterator().forEachRemaining(action);
+        Objects.requireNonNull(action);
+        for (T element : getSnapshot().getArray()) {
+            action.accept(element);
         }
     }
 
@@ -62,16 +75,7 @@ public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? su
         if (isEmpty()) {
             return Collections.emptyList();
         }
-        try (UnlockHook hook = readLock()) {
-            List<T> list = getCachedList();
-            if (list != null) {
-                return list;
-            }
-            list = new ArrayList<>(elements.size());
-            elements.forEachValue(list::add);
-            list.sort(comparator);
-            return cache(list);
-        }
+        return getSnapshot().getList();
     }
 
     @Nonnull
@@ -80,15 +84,7 @@ public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? su
         if (isEmpty()) {
             return Collections.emptyNavigableSet();
         }
-        try (UnlockHook hook = readLock()) {
-            NavigableSet<T> set = (NavigableSet<T>) getCachedSet();
-            if (set != null) {
-                return set;
-            }
-            set = new TreeSet<>(comparator);
-            elements.forEachValue(set::add);
-            return cache(set);
-        }
+        return getSnapshot().getSet();
     }
 
     @Nonnull
@@ -101,9 +97,7 @@ public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? su
 
     @Override
     public Spliterator<T> spliterator() {
-        try (UnlockHook hook = readLock()) {
-            return Spliterators.spliterator(iterator(), elements.size(), SPLIT_CHARACTERISTICS);
-        }
+        return Spliterators.spliterator(getSnapshot().getArray(), SPLIT_CHARACTERISTICS);
     }
 
     @Nonnull
@@ -121,22 +115,31 @@ public class SortedSnowflakeCacheViewImpl<T extends ISnowflake & Comparable<? su
     @Nonnull
     @Override
     public Stream<T> stream() {
-        return super.stream().sorted(comparator);
+        return StreamSupport.stream(spliterator(), false);
     }
 
     @Nonnull
     @Override
     public Stream<T> parallelStream() {
-        return super.parallelStream().sorted(comparator);
+        return StreamSupport.stream(spliterator(), true);
     }
 
     @Nonnull
     @Override
     public Iterator<T> iterator() {
+        return new ObjectArrayIterator<>(getSnapshot().getArray());
+    }
+
+    private SortedSnapshot<T> getSnapshot() {
         try (UnlockHook hook = readLock()) {
-            T[] arr = elements.values(emptyArray);
-            Arrays.sort(arr, comparator);
-            return new ObjectArrayIterator<>(arr);
+            long currentVersion = version.get();
+            SortedSnapshot<T> current = snapshot;
+            if (current != null && current.isValid(currentVersion)) {
+                return current;
+            }
+            current = SortedSnapshot.create(current, elements.values(emptyArray), comparator, currentVersion);
+            snapshot = current;
+            return current;
         }
     }
 }
@@ -29,6 +29,7 @@ import net.dv8tion.jda.internal.utils.Helpers;
 
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -138,6 +139,59 @@ public class UnifiedCacheViewImpl<T, E extends CacheView<T>> implements CacheVie
         }
     }
 
+    /**
+     * Unified view which uses {@link CacheIndex indices} to find the shard holding an element,
+     * instead of probing the cache of every shard.
+     */
+    public static class IndexedSnowflakeCacheView<T extends ISnowflake> extends UnifiedSnowflakeCacheView<T> {
+        private final List<CacheIndex> indices;
+        private final IntFunction<? extends SnowflakeCacheView<T>> shardView;
+
+        public IndexedSnowflakeCacheView(
+                Supplier<? extends Stream<? extends SnowflakeCacheView<T>>> generator,
+                List<CacheIndex> indices,
+                IntFunction<? extends SnowflakeCacheView<T>> shardView) {
+            super(generator);
+            this.indices = indices;
+            this.shardView = shardView;
+        }
+
+        @Override
+        public long size() {
+            long size = 0;
+            for (CacheIndex index : indices) {
+                size += index.size();
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            for (CacheIndex index : indices) {
+                if (index.size() > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T getElementById(long id) {
+            for (CacheIndex index : indices) {
+                int shardId = index.getShard(id);
+                if (shardId == CacheIndex.NO_SHARD) {
+                    continue;
+                }
+
+                SnowflakeCacheView<T> view = shardView.apply(shardId);
+                T element = view == null ? null : view.getElementById(id);
+                // The shard might have removed the element since the lookup, or is being replaced right now
+                return element != null ? element : super.getElementById(id);
+            }
+            return null;
+        }
+    }
+
     public static class UnifiedMemberCacheViewImpl extends UnifiedCacheViewImpl<Member, MemberCacheView>
             implements UnifiedMemberCacheView {
 
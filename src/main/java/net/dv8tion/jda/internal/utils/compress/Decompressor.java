@@ -20,6 +20,7 @@ import net.dv8tion.jda.api.utils.Compression;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import org.slf4j.Logger;
 
+import java.nio.ByteBuffer;
 import java.util.zip.DataFormatException;
 
 import javax.annotation.Nullable;
@@ -37,4 +38,12 @@ public interface Decompressor {
     // for example when no Z_SYNC_FLUSH was present
     @Nullable
     byte[] decompress(byte[] data) throws DataFormatException;
+
+    // same as decompress, but the returned buffer may be backed by memory reused across calls,
+    // it is only valid until the next call to this decompressor and must not be modified
+    @Nullable
+    default ByteBuffer decompressToBuffer(byte[] data) throws DataFormatException {
+        byte[] decompressed = decompress(data);
+        return decompressed == null ? null : ByteBuffer.wrap(decompressed);
+    }
 }
@@ -20,14 +20,11 @@ import net.dv8tion.jda.api.utils.Compression;
 import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.JDALogger;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.lang.ref.SoftReference;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
-import java.util.zip.InflaterOutputStream;
 
 public class ZlibDecompressor implements Decompressor {
     private static final int Z_SYNC_FLUSH = 0x0000FFFF;
@@ -35,25 +32,26 @@ public class ZlibDecompressor implements Decompressor {
     private final int maxBufferSize;
     private final Inflater inflater = new Inflater();
     private ByteBuffer flushBuffer = null;
-    private SoftReference<ByteArrayOutputStream> decompressBuffer = null;
+    private SoftReference<byte[]> decompressBuffer = null;
 
     public ZlibDecompressor(int maxBufferSize) {
         this.maxBufferSize = maxBufferSize;
     }
 
-    private SoftReference<ByteArrayOutputStream> newDecompressBuffer() {
-        return new SoftReference<>(new ByteArrayOutputStream(Math.min(1024, maxBufferSize)));
+    private SoftReference<byte[]> newDecompressBuffer() {
+        return new SoftReference<>(new byte[Math.min(1024, maxBufferSize)]);
     }
 
-    private ByteArrayOutputStream getDecompressBuffer() {
+    private byte[] getDecompressBuffer() {
         // If no buffer has been allocated yet we do that here (lazy init)
         if (decompressBuffer == null) {
             decompressBuffer = newDecompressBuffer();
         }
         // Check if the buffer has been collected by the GC or not
-        ByteArrayOutputStream buffer = decompressBuffer.get();
-        if (buffer == null) { // create a ne buffer because the GC got it
-            decompressBuffer = new SoftReference<>(buffer = new ByteArrayOutputStream(Math.min(1024, maxBufferSize)));
+        byte[] buffer = decompressBuffer.get();
+        if (buffer == null) { // create a new buffer because the GC got it
+            decompressBuffer = newDecompressBuffer();
+            buffer = decompressBuffer.get();
         }
         return buffer;
     }
@@ -66,6 +64,10 @@ public class ZlibDecompressor implements Decompressor {
         return suffix == Z_SYNC_FLUSH;
     }
 
+    private boolean hasBufferedData() {
+        return flushBuffer != null && flushBuffer.position() > 0;
+    }
+
     private void buffer(byte[] data) {
         if (flushBuffer == null) {
             flushBuffer = ByteBuffer.allocate(data.length * 2);
@@ -82,8 +84,17 @@ public class ZlibDecompressor implements Decompressor {
         flushBuffer.put(data);
     }
 
-    private Object lazy(byte[] data) {
-        return JDALogger.getLazyString(() -> Arrays.toString(data));
+    private void releaseFlushBuffer() {
+        // Keep the buffer around for the next split message, unless it grew too large
+        if (flushBuffer.capacity() > maxBufferSize) {
+            flushBuffer = null;
+        } else {
+            flushBuffer.clear();
+        }
+    }
+
+    private Object lazy(byte[] data, int length) {
+        return JDALogger.getLazyString(() -> Arrays.toString(Arrays.copyOf(data, length)));
     }
 
     @Override
@@ -94,6 +105,9 @@ public class ZlibDecompressor implements Decompressor {
     @Override
     public void reset() {
         inflater.reset();
+        if (flushBuffer != null) {
+            releaseFlushBuffer();
+        }
     }
 
     @Override
@@ -103,43 +117,80 @@ public class ZlibDecompressor implements Decompressor {
 
     @Override
     public byte[] decompress(byte[] data) throws DataFormatException {
+        ByteBuffer decompressed = decompressToBuffer(data);
+        if (decompressed == null) {
+            return null;
+        }
+        // Copy out of the shared buffer, since it will be overwritten by the next message
+        byte[] result = new byte[decompressed.remaining()];
+        decompressed.get(result);
+        return result;
+    }
+
+    @Override
+    public ByteBuffer decompressToBuffer(byte[] data) throws DataFormatException {
         // Handle split messages
         if (!isFlush(data)) {
             // There is no flush suffix so this is not the end of the message
             LOG.debug("Received incomplete data, writing to buffer. Length: {}", data.length);
             buffer(data);
             return null; // signal failure to decompress
-        } else if (flushBuffer != null) {
-            // This has a flush suffix and we have an incomplete package buffered
-            // concatenate the package with the new data and decompress it below
-            LOG.debug("Received final part of incomplete data");
-            buffer(data);
-            byte[] arr = flushBuffer.array();
-            data = new byte[flushBuffer.position()];
-            System.arraycopy(arr, 0, data, 0, data.length);
-            flushBuffer = null;
         }
-        LOG.trace("Decompressing data {}", lazy(data));
+
+        if (!hasBufferedData()) {
+            // This is a complete message, inflate it without copying it anywhere first
+            return inflate(data, data.length);
+        }
+
+        // This has a flush suffix and we have an incomplete package buffered
+        // append the package to the buffer and inflate directly from its backing array
+        LOG.debug("Received final part of incomplete data");
+        buffer(data);
+        try {
+            return inflate(flushBuffer.array(), flushBuffer.position());
+        } finally {
+            releaseFlushBuffer();
+        }
+    }
+
+    private ByteBuffer inflate(byte[] data, int length) throws DataFormatException {
+        LOG.trace("Decompressing data {}", lazy(data, length));
         // Get the compressed message and inflate it
         // We use the same buffer here to optimize gc use
-        ByteArrayOutputStream buffer = getDecompressBuffer();
-        try (InflaterOutputStream decompressor = new InflaterOutputStream(buffer, inflater)) {
-            // This decompressor writes the received data and inflates it
-            decompressor.write(data);
-            // Once decompressed we re-interpret the data as a String which can be used for JSON
-            // parsing
-            return buffer.toByteArray();
-        } catch (IOException e) {
-            // Some issue appeared during decompression that caused a failure
-            throw (DataFormatException) new DataFormatException("Malformed").initCause(e);
-        } finally {
-            // When done with decompression we want to reset the buffer so it can be used again
-            // later
-            if (buffer.size() > maxBufferSize) {
-                decompressBuffer = newDecompressBuffer();
-            } else {
-                buffer.reset();
+        inflater.setInput(data, 0, length);
+        byte[] buffer = getDecompressBuffer();
+        int size = 0;
+        while (true) {
+            if (size == buffer.length) {
+                // Grow the buffer, the old one is no longer useful to us
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+
+            int written = inflater.inflate(buffer, size, buffer.length - size);
+            size += written;
+
+            // Z_SYNC_FLUSH guarantees that all output is available once the input has been consumed,
+            // unless the output buffer was filled before the inflater could write everything
+            if (size < buffer.length && inflater.needsInput()) {
+                break;
+            }
+            if (written == 0 && !inflater.needsInput()) {
+                if (inflater.needsDictionary()) {
+                    throw new DataFormatException("Malformed, inflater requires a preset dictionary");
+                }
+                if (inflater.finished()) {
+                    break;
+                }
             }
         }
+
+        // When done with decompression we want to keep the buffer so it can be used again later
+        if (buffer.length > maxBufferSize) {
+            decompressBuffer = newDecompressBuffer();
+        } else if (buffer != decompressBuffer.get()) {
+            decompressBuffer = new SoftReference<>(buffer);
+        }
+
+        return ByteBuffer.wrap(buffer, 0, size);
     }
 }
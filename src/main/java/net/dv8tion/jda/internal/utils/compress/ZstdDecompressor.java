@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.compress;
+
+import com.github.luben.zstd.ZstdDecompressCtx;
+import net.dv8tion.jda.api.utils.Compression;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+
+/**
+ * Decompressor for the {@code zstd-stream} transport compression.
+ *
+ * <p>The gateway sends a single zstd frame for the entire connection, with every message being flushed.
+ * This means each binary message can be fully decompressed on its own, but only with the context
+ * of all previous messages. The decompression context is therefore kept until {@link #reset()} is called.
+ *
+ * <p>This requires the optional <a href="https://github.com/luben/zstd-jni" target="_blank">zstd-jni</a> dependency.
+ */
+public class ZstdDecompressor implements Decompressor {
+    private static final String CONTEXT_CLASS = "com.github.luben.zstd.ZstdDecompressCtx";
+    private static final int INITIAL_BUFFER_SIZE = 2048;
+
+    private final int maxBufferSize;
+    private ZstdDecompressCtx context;
+    private ByteBuffer inputBuffer;
+    private ByteBuffer outputBuffer;
+    private byte[] resultBuffer;
+
+    public ZstdDecompressor(int maxBufferSize) {
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    /**
+     * Whether zstd-jni is present on the classpath and its native library can be loaded.
+     *
+     * @return True, if {@link Compression#ZSTD} can be used
+     */
+    public static boolean isAvailable() {
+        try {
+            // Initializing the class also loads the native library
+            Class.forName(CONTEXT_CLASS, true, ZstdDecompressor.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Compression getType() {
+        return Compression.ZSTD;
+    }
+
+    @Override
+    public void reset() {
+        // The next connection starts a new frame, the old context cannot be used for it
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+        releaseBuffers();
+    }
+
+    @Override
+    public void shutdown() {
+        reset();
+    }
+
+    @Override
+    public byte[] decompress(byte[] data) throws DataFormatException {
+        ByteBuffer decompressed = decompressToBuffer(data);
+        // Copy out of the shared buffer, since it will be overwritten by the next message
+        byte[] result = new byte[decompressed.remaining()];
+        decompressed.get(result);
+        return result;
+    }
+
+    @Override
+    public ByteBuffer decompressToBuffer(byte[] data) throws DataFormatException {
+        LOG.trace("Decompressing {} bytes of zstd data", data.length);
+        if (context == null) {
+            context = new ZstdDecompressCtx();
+        }
+
+        ByteBuffer input = getInputBuffer(data.length);
+        input.put(data);
+        ((Buffer) input).flip();
+
+        ByteBuffer output = getOutputBuffer();
+        try {
+            while (true) {
+                context.decompressDirectByteBufferStream(output, input);
+                // Every message is flushed, so once the input is consumed and there is still space left
+                // in the output, the decompressor has nothing more to give us
+                if (!input.hasRemaining() && output.hasRemaining()) {
+                    break;
+                }
+                if (!output.hasRemaining()) {
+                    output = growOutputBuffer();
+                }
+            }
+        } catch (RuntimeException e) {
+            DataFormatException exception = new DataFormatException(e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        }
+
+        // The payload parsers need a heap buffer, copy into an array we keep around for the next message
+        ((Buffer) output).flip();
+        int size = output.remaining();
+        if (resultBuffer == null || resultBuffer.length < size) {
+            resultBuffer = new byte[Math.max(size, INITIAL_BUFFER_SIZE)];
+        }
+        output.get(resultBuffer, 0, size);
+        ByteBuffer result = ByteBuffer.wrap(resultBuffer, 0, size);
+
+        trimBuffers();
+        return result;
+    }
+
+    private ByteBuffer getInputBuffer(int size) {
+        if (inputBuffer == null || inputBuffer.capacity() < size) {
+            inputBuffer = ByteBuffer.allocateDirect(Math.max(size, INITIAL_BUFFER_SIZE));
+        }
+        ((Buffer) inputBuffer).clear();
+        return inputBuffer;
+    }
+
+    private ByteBuffer getOutputBuffer() {
+        if (outputBuffer == null) {
+            outputBuffer = ByteBuffer.allocateDirect(Math.max(INITIAL_BUFFER_SIZE, Math.min(maxBufferSize, 8192)));
+        }
+        ((Buffer) outputBuffer).clear();
+        return outputBuffer;
+    }
+
+    private ByteBuffer growOutputBuffer() throws DataFormatException {
+        if (outputBuffer.capacity() >= Integer.MAX_VALUE / 2) {
+            throw new DataFormatException("Decompressed message is too large");
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(outputBuffer.capacity() * 2);
+        ((Buffer) outputBuffer).flip();
+        grown.put(outputBuffer);
+        outputBuffer = grown;
+        return grown;
+    }
+
+    private void trimBuffers() {
+        // Keep the buffers around for the next message, unless a single large message grew them too much
+        if (inputBuffer.capacity() > maxBufferSize) {
+            inputBuffer = null;
+        }
+        if (outputBuffer.capacity() > maxBufferSize) {
+            outputBuffer = null;
+        }
+        if (resultBuffer.length > maxBufferSize) {
+            // The returned buffer still references the old array, so this is safe to drop here
+            resultBuffer = null;
+        }
+    }
+
+    private void releaseBuffers() {
+        inputBuffer = null;
+        outputBuffer = null;
+        resultBuffer = null;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Lock which never blocks, used where a {@link Lock} is required by the API but no mutual exclusion is needed.
+ */
+public final class NoOpLock implements Lock {
+    public static final NoOpLock INSTANCE = new NoOpLock();
+
+    private NoOpLock() {}
+
+    @Override
+    public void lock() {}
+
+    @Override
+    public void lockInterruptibly() {}
+
+    @Override
+    public boolean tryLock() {
+        return true;
+    }
+
+    @Override
+    public boolean tryLock(long time, @Nonnull TimeUnit unit) {
+        return true;
+    }
+
+    @Override
+    public void unlock() {}
+
+    @Nonnull
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -17,6 +17,7 @@
 package net.dv8tion.jda.internal.utils.config;
 
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.internal.utils.cache.ShardCacheIndex;
 import net.dv8tion.jda.internal.utils.config.flags.ConfigFlag;
 
 import java.util.EnumSet;
@@ -33,14 +34,29 @@ public class MetaConfig {
     private final EnumSet<CacheFlag> cacheFlags;
     private final boolean enableMDC;
     private final boolean useShutdownHook;
+    private final boolean lockFreeCache;
+    private final boolean streamingChunks;
+    private final boolean compactMemberRoles;
+    private final boolean parallelDispatch;
     private final int maxBufferSize;
+    private final ShardCacheIndex.Bindings cacheIndex;
 
     public MetaConfig(
             int maxBufferSize,
             @Nullable ConcurrentMap<String, String> mdcContextMap,
             @Nullable EnumSet<CacheFlag> cacheFlags,
             EnumSet<ConfigFlag> flags) {
+        this(maxBufferSize, mdcContextMap, cacheFlags, flags, null);
+    }
+
+    public MetaConfig(
+            int maxBufferSize,
+            @Nullable ConcurrentMap<String, String> mdcContextMap,
+            @Nullable EnumSet<CacheFlag> cacheFlags,
+            EnumSet<ConfigFlag> flags,
+            @Nullable ShardCacheIndex.Bindings cacheIndex) {
         this.maxBufferSize = maxBufferSize;
+        this.cacheIndex = cacheIndex;
         this.cacheFlags = cacheFlags == null ? EnumSet.allOf(CacheFlag.class) : cacheFlags;
         this.enableMDC = flags.contains(ConfigFlag.MDC_CONTEXT);
         if (enableMDC) {
@@ -49,6 +65,10 @@ public class MetaConfig {
             this.mdcContextMap = null;
         }
         this.useShutdownHook = flags.contains(ConfigFlag.SHUTDOWN_HOOK);
+        this.lockFreeCache = flags.contains(ConfigFlag.LOCK_FREE_CACHE);
+        this.streamingChunks = flags.contains(ConfigFlag.STREAMING_CHUNKS);
+        this.compactMemberRoles = flags.contains(ConfigFlag.COMPACT_MEMBER_ROLES);
+        this.parallelDispatch = flags.contains(ConfigFlag.PARALLEL_DISPATCH);
     }
 
     @Nullable
@@ -69,10 +89,31 @@ public class MetaConfig {
         return useShutdownHook;
     }
 
+    public boolean isLockFreeCache() {
+        return lockFreeCache;
+    }
+
+    public boolean isStreamingChunks() {
+        return streamingChunks;
+    }
+
+    public boolean isCompactMemberRoles() {
+        return compactMemberRoles;
+    }
+
+    public boolean isParallelDispatch() {
+        return parallelDispatch;
+    }
+
     public int getMaxBufferSize() {
         return maxBufferSize;
     }
 
+    @Nullable
+    public ShardCacheIndex.Bindings getCacheIndex() {
+        return cacheIndex;
+    }
+
     @Nonnull
     public static MetaConfig getDefault() {
         return defaultConfig;
@@ -26,7 +26,11 @@ public enum ConfigFlag {
     BULK_DELETE_SPLIT(true),
     SHUTDOWN_HOOK(true),
     MDC_CONTEXT(true),
-    AUTO_RECONNECT(true);
+    AUTO_RECONNECT(true),
+    LOCK_FREE_CACHE,
+    STREAMING_CHUNKS,
+    COMPACT_MEMBER_ROLES,
+    PARALLEL_DISPATCH;
 
     private final boolean isDefault;
 
@@ -26,6 +26,7 @@ import net.dv8tion.jda.internal.utils.config.flags.ConfigFlag;
 import net.dv8tion.jda.internal.utils.config.flags.ShardingConfigFlag;
 import okhttp3.OkHttpClient;
 
+import java.nio.file.Path;
 import java.util.EnumSet;
 
 import javax.annotation.Nonnull;
@@ -34,6 +35,7 @@ import javax.annotation.Nullable;
 public class ShardingSessionConfig extends SessionConfig {
     private final OkHttpClient.Builder builder;
     private final IAudioSendFactory audioSendFactory;
+    private final Path sessionSnapshotDirectory;
     private final EnumSet<ShardingConfigFlag> shardingFlags;
 
     public ShardingSessionConfig(
@@ -43,6 +45,7 @@ public class ShardingSessionConfig extends SessionConfig {
             @Nullable OkHttpClient.Builder httpClientBuilder,
             @Nullable WebSocketFactory webSocketFactory,
             @Nullable IAudioSendFactory audioSendFactory,
+            @Nullable Path sessionSnapshotDirectory,
             EnumSet<ConfigFlag> flags,
             EnumSet<ShardingConfigFlag> shardingFlags,
             int maxReconnectDelay,
@@ -54,6 +57,7 @@ public class ShardingSessionConfig extends SessionConfig {
             this.builder = null;
         }
         this.audioSendFactory = audioSendFactory;
+        this.sessionSnapshotDirectory = sessionSnapshotDirectory;
         this.shardingFlags = shardingFlags;
     }
 
@@ -82,6 +86,11 @@ public class ShardingSessionConfig extends SessionConfig {
         return audioSendFactory;
     }
 
+    @Nullable
+    public Path getSessionSnapshotDirectory() {
+        return sessionSnapshotDirectory;
+    }
+
     @Nonnull
     public static ShardingSessionConfig getDefault() {
         return new ShardingSessionConfig(
@@ -91,6 +100,7 @@ public class ShardingSessionConfig extends SessionConfig {
                 null,
                 null,
                 null,
+                null,
                 ConfigFlag.getDefault(),
                 ShardingConfigFlag.getDefault(),
                 900,
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.requestbody;
+
+import okhttp3.MediaType;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Request body which streams a file directly from disk.
+ *
+ * <p>The file is opened again for every write, so the same body can be retried and sent by multiple requests concurrently,
+ * without holding the data in memory.
+ * The size of the file is only read once, every write sends exactly that many bytes.
+ */
+public class FileBody extends TypedBody<FileBody> {
+    private final Path path;
+    private final AtomicLong length;
+
+    public FileBody(MediaType type, Path path) {
+        this(type, path, new AtomicLong(-1));
+    }
+
+    private FileBody(MediaType type, Path path, AtomicLong length) {
+        super(type);
+        this.path = path;
+        this.length = length;
+    }
+
+    @Nonnull
+    @Override
+    public FileBody withType(@Nonnull MediaType newType) {
+        if (this.type.equals(newType)) {
+            return this;
+        }
+        return new FileBody(newType, path, length);
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        long size = length.get();
+        if (size < 0) {
+            // The first measurement wins, all requests have to agree on the size they announced
+            length.compareAndSet(-1, Files.size(path));
+            size = length.get();
+        }
+        return size;
+    }
+
+    @Override
+    public void writeTo(@Nonnull BufferedSink sink) throws IOException {
+        // The request has to match its content length, even if the file grew since it was measured
+        long length = contentLength();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < length) {
+                long transferred = channel.transferTo(position, length - position, sink);
+                if (transferred <= 0) {
+                    throw new IOException("File was truncated while uploading. Path: " + path);
+                }
+                position += transferred;
+            }
+        }
+    }
+}
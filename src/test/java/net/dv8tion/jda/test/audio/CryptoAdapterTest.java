@@ -20,11 +20,14 @@ import net.dv8tion.jda.internal.audio.AudioEncryption;
 import net.dv8tion.jda.internal.audio.AudioPacket;
 import net.dv8tion.jda.internal.audio.CryptoAdapter;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.net.DatagramPacket;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
+import java.util.Arrays;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -71,6 +74,100 @@ public class CryptoAdapterTest {
         doRoundTripAndAssertPayload(adapter, original);
     }
 
+    @ParameterizedTest
+    @EnumSource(AudioEncryption.class)
+    void repeatedRoundTrip(AudioEncryption mode) {
+        CryptoAdapter adapter = CryptoAdapter.getAdapter(mode, getKey());
+        // The adapter reuses its ciphers and buffers between packets
+        for (int i = 0; i < 10; i++) {
+            doRoundTripAndAssertPayload(adapter, i % 2 == 0 ? getMinimalPacket() : getPacketWithExtension());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(AudioEncryption.class)
+    void directAudioBuffer(AudioEncryption mode) {
+        CryptoAdapter adapter = CryptoAdapter.getAdapter(mode, getKey());
+        ByteBuffer audio = ByteBuffer.allocateDirect(16);
+        audio.position(8);
+        audio.put(TEST_PAYLOAD.getBytes(StandardCharsets.UTF_8)).flip().position(8);
+
+        ByteBuffer buffer = AudioPacket.writeEncryptedPacket(
+                adapter, ByteBuffer.allocate(512), TEST_SEQ, TEST_TIMESTAMP, TEST_SSRC, audio);
+        // The audio buffer can be reused by the send handler as is
+        assertThat(audio.position()).isEqualTo(8);
+
+        AudioPacket decrypted = AudioPacket.decryptAudioPacket(
+                adapter, new DatagramPacket(buffer.array(), buffer.position(), buffer.limit()));
+        byte[] payload = new byte[4];
+        decrypted.getEncodedAudio().get(payload);
+
+        assertThat(new String(payload, StandardCharsets.UTF_8)).isEqualTo(TEST_PAYLOAD);
+        assertThat(decrypted.getSequence()).isEqualTo(TEST_SEQ);
+    }
+
+    @ParameterizedTest
+    @EnumSource(AudioEncryption.class)
+    void decryptAtOffset(AudioEncryption mode) {
+        CryptoAdapter adapter = CryptoAdapter.getAdapter(mode, getKey());
+        ByteBuffer encrypted = getMinimalPacket().asEncryptedPacket(adapter, ByteBuffer.allocate(512));
+
+        byte[] receiveBuffer = new byte[512];
+        Arrays.fill(receiveBuffer, (byte) 0x7F);
+        DatagramPacket packet = receive(receiveBuffer, 7, encrypted);
+
+        assertDecryptedPayload(AudioPacket.decryptAudioPacket(adapter, packet));
+    }
+
+    @ParameterizedTest
+    @EnumSource(AudioEncryption.class)
+    void decryptReusedBuffer(AudioEncryption mode) {
+        CryptoAdapter adapter = CryptoAdapter.getAdapter(mode, getKey());
+        byte[] receiveBuffer = new byte[512];
+
+        // The longer packet leaves stale bytes behind the shorter one in the receive buffer
+        for (int i = 0; i < 10; i++) {
+            AudioPacket original = i % 2 == 0 ? getPacketWithExtension() : getMinimalPacket();
+            ByteBuffer encrypted = original.asEncryptedPacket(adapter, ByteBuffer.allocate(512));
+            DatagramPacket packet = receive(receiveBuffer, 0, encrypted);
+
+            assertDecryptedPayload(AudioPacket.decryptAudioPacket(adapter, packet));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(AudioEncryption.class)
+    void decryptedPacketDoesNotAliasReceiveBuffer(AudioEncryption mode) {
+        CryptoAdapter adapter = CryptoAdapter.getAdapter(mode, getKey());
+        ByteBuffer encrypted = getPacketWithExtension().asEncryptedPacket(adapter, ByteBuffer.allocate(512));
+
+        byte[] receiveBuffer = new byte[512];
+        AudioPacket decrypted = AudioPacket.decryptAudioPacket(adapter, receive(receiveBuffer, 0, encrypted));
+        assertThat(decrypted.getEncodedAudio().array()).isNotSameAs(receiveBuffer);
+
+        // The next receive overwrites the buffer, while the handlers still use the previous packet
+        Arrays.fill(receiveBuffer, (byte) 0);
+        assertDecryptedPayload(decrypted);
+    }
+
+    private static DatagramPacket receive(byte[] receiveBuffer, int offset, ByteBuffer encrypted) {
+        int length = encrypted.remaining();
+        System.arraycopy(
+                encrypted.array(), encrypted.arrayOffset() + encrypted.position(), receiveBuffer, offset, length);
+        return new DatagramPacket(receiveBuffer, offset, length);
+    }
+
+    private static void assertDecryptedPayload(AudioPacket decrypted) {
+        byte[] payload = new byte[4];
+        decrypted.getEncodedAudio().duplicate().get(payload);
+
+        assertThat(new String(payload, StandardCharsets.UTF_8)).isEqualTo(TEST_PAYLOAD);
+        assertThat(decrypted.getEncodedAudio().remaining()).isEqualTo(payload.length);
+        assertThat(decrypted.getSequence()).isEqualTo(TEST_SEQ);
+        assertThat(decrypted.getTimestamp()).isEqualTo(TEST_TIMESTAMP);
+        assertThat(decrypted.getSSRC()).isEqualTo(TEST_SSRC);
+    }
+
     private void doRoundTripAndAssertPayload(CryptoAdapter adapter, AudioPacket original) {
         ByteBuffer buffer = ByteBuffer.allocate(512);
         buffer = original.asEncryptedPacket(adapter, buffer);
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.test.audio;
+
+import net.dv8tion.jda.api.audio.factory.IAudioSendSystem;
+import net.dv8tion.jda.api.audio.factory.IPacketProvider;
+import net.dv8tion.jda.api.audio.factory.MultiplexedSendFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MultiplexedSendFactoryTest {
+    private MultiplexedSendFactory factory;
+    private DatagramChannel receiver;
+    private DatagramSocket socket;
+
+    @BeforeEach
+    void setup() throws Exception {
+        factory = new MultiplexedSendFactory(2);
+        receiver = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        socket = new DatagramSocket();
+    }
+
+    @AfterEach
+    void teardown() throws Exception {
+        factory.shutdown();
+        receiver.close();
+        socket.close();
+    }
+
+    @Test
+    void testInvalidThreadCount() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new MultiplexedSendFactory(0));
+    }
+
+    @Test
+    void testSendsFromAllConnections() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            factory.createSendSystem(provider(i, new AtomicInteger())).start();
+        }
+        assertThat(factory.getConnectionCount()).isEqualTo(5);
+
+        Set<Integer> senders = new HashSet<>();
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        while (senders.size() < 5) {
+            buffer.clear();
+            receiver.receive(buffer);
+            buffer.flip();
+            senders.add(buffer.getInt());
+        }
+        assertThat(senders).containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void testPacing() throws Exception {
+        AtomicInteger polls = new AtomicInteger();
+        factory.createSendSystem(provider(0, polls)).start();
+
+        Thread.sleep(500);
+        // One packet every 20 milliseconds, with some tolerance for slow test machines
+        assertThat(polls.get()).isBetween(15, 30);
+    }
+
+    @Test
+    void testShutdownStopsSending() throws Exception {
+        AtomicInteger polls = new AtomicInteger();
+        IAudioSendSystem system = factory.createSendSystem(provider(0, polls));
+        system.start();
+        Thread.sleep(100);
+
+        system.shutdown();
+        assertThat(factory.getConnectionCount()).isZero();
+        Thread.sleep(50);
+        int count = polls.get();
+        Thread.sleep(100);
+        assertThat(polls.get()).isEqualTo(count);
+    }
+
+    private IPacketProvider provider(int id, AtomicInteger polls) throws Exception {
+        IPacketProvider provider = mock(IPacketProvider.class);
+        when(provider.getIdentifier()).thenReturn("Test " + id);
+        when(provider.getUdpSocket()).thenReturn(socket);
+        when(provider.getSocketAddress()).thenReturn((InetSocketAddress) receiver.getLocalAddress());
+        when(provider.getNextPacketRaw(anyBoolean())).thenAnswer(invocation -> {
+            polls.incrementAndGet();
+            ByteBuffer packet = ByteBuffer.allocate(4);
+            packet.putInt(id).flip();
+            return packet;
+        });
+        return provider;
+    }
+}
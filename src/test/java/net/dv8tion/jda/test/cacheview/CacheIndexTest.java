@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.cacheview;
+
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.map.TLongObjectMap;
+import net.dv8tion.jda.internal.utils.cache.CacheIndex;
+import net.dv8tion.jda.internal.utils.cache.ConcurrentLongObjectMap;
+import net.dv8tion.jda.internal.utils.cache.IndexedLongObjectMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheIndexTest {
+    private final CacheIndex index = new CacheIndex();
+
+    @Test
+    void testSharedIds() {
+        CacheIndex.Binding first = index.bind(0);
+        CacheIndex.Binding second = index.bind(1);
+
+        first.add(42);
+        second.add(42);
+        second.add(43);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.getShard(42)).isEqualTo(0);
+
+        // Another shard still holds the id, so it takes over
+        first.remove(42);
+        assertThat(index.getShard(42)).isEqualTo(1);
+
+        second.remove(42);
+        assertThat(index.getShard(42)).isEqualTo(CacheIndex.NO_SHARD);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testRebindRemovesPreviousEntries() {
+        CacheIndex.Binding first = index.bind(0);
+        CacheIndex.Binding other = index.bind(1);
+        first.add(1);
+        first.add(2);
+        other.add(2);
+
+        CacheIndex.Binding replacement = index.bind(0);
+        assertThat(index.getShard(1)).isEqualTo(CacheIndex.NO_SHARD);
+        assertThat(index.getShard(2)).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(1);
+
+        // The old instance of the shard might still clear its cache while shutting down
+        first.add(3);
+        first.remove(2);
+        assertThat(index.getShard(3)).isEqualTo(CacheIndex.NO_SHARD);
+        assertThat(index.getShard(2)).isEqualTo(1);
+
+        replacement.add(1);
+        assertThat(index.getShard(1)).isEqualTo(0);
+
+        index.unbind(0);
+        assertThat(index.getShard(1)).isEqualTo(CacheIndex.NO_SHARD);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testMapReportsChanges(boolean lockFree) {
+        CacheIndex.Binding binding = index.bind(5);
+        TLongObjectMap<String> map =
+                lockFree ? new ConcurrentLongObjectMap<>(binding) : new IndexedLongObjectMap<>(binding);
+
+        for (long id = 1; id <= 10; id++) {
+            map.put(id, "value");
+        }
+        map.put(1, "replaced");
+        assertThat(index.size()).isEqualTo(10);
+        assertThat(index.getShard(1)).isEqualTo(5);
+
+        map.remove(1);
+        map.retainEntries((key, value) -> key != 2);
+        for (TLongObjectIterator<String> it = map.iterator(); it.hasNext(); ) {
+            it.advance();
+            if (it.key() == 3) {
+                it.remove();
+            }
+        }
+        assertThat(index.size()).isEqualTo(7);
+        assertThat(index.getShard(3)).isEqualTo(CacheIndex.NO_SHARD);
+
+        map.clear();
+        assertThat(index.size()).isZero();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.cacheview;
+
+import gnu.trove.map.TLongObjectMap;
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnowflakeCacheViewTest {
+    private static SnowflakeCacheViewImpl<ISnowflake> createCache(boolean lockFree, long... ids) {
+        SnowflakeCacheViewImpl<ISnowflake> cache = new SnowflakeCacheViewImpl<>(ISnowflake.class, null, lockFree);
+        try (UnlockHook hook = cache.writeLock()) {
+            TLongObjectMap<ISnowflake> map = cache.getMap();
+            for (long id : ids) {
+                map.put(id, () -> id);
+            }
+        }
+        return cache;
+    }
+
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest
+    void testGetElementById(boolean lockFree) {
+        SnowflakeCacheViewImpl<ISnowflake> cache = createCache(lockFree, 0L, 1L, 1234567890123456789L);
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.getElementById(0L)).isNotNull();
+        assertThat(cache.getElementById(1234567890123456789L))
+                .extracting(ISnowflake::getIdLong)
+                .isEqualTo(1234567890123456789L);
+        assertThat(cache.getElementById(2L)).isNull();
+
+        cache.remove(1L);
+        assertThat(cache.getElementById(1L)).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest
+    void testCachedListIsInvalidatedByWrites(boolean lockFree) {
+        SnowflakeCacheViewImpl<ISnowflake> cache = createCache(lockFree, 1L, 2L);
+
+        List<ISnowflake> list = cache.asList();
+        assertThat(cache.asList()).isSameAs(list);
+
+        try (UnlockHook hook = cache.writeLock()) {
+            cache.getMap().put(3L, () -> 3L);
+        }
+
+        assertThat(cache.asList()).hasSize(3).isNotSameAs(list);
+        assertThat(cache.asSet()).hasSize(3);
+        assertThat(cache.stream().mapToLong(ISnowflake::getIdLong)).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @ValueSource(booleans = {true, false})
+    @ParameterizedTest
+    void testGrowsBeyondInitialCapacity(boolean lockFree) {
+        SnowflakeCacheViewImpl<ISnowflake> cache = createCache(lockFree);
+        try (UnlockHook hook = cache.writeLock()) {
+            for (long id = 1; id <= 1000; id++) {
+                long snowflake = id << 22;
+                cache.getMap().put(snowflake, () -> snowflake);
+            }
+        }
+
+        assertThat(cache.size()).isEqualTo(1000);
+        for (long id = 1; id <= 1000; id++) {
+            assertThat(cache.getElementById(id << 22)).isNotNull();
+        }
+    }
+}
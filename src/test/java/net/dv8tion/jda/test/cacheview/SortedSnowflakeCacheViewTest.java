@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.cacheview;
+
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.SortedSnowflakeCacheViewImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SortedSnowflakeCacheViewTest {
+    private SortedSnowflakeCacheViewImpl<Entry> cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new SortedSnowflakeCacheViewImpl<>(Entry.class, Comparator.naturalOrder());
+        for (int i = 0; i < 10; i++) {
+            put(new Entry(i, 9 - i));
+        }
+    }
+
+    @Test
+    void testSortedReads() {
+        List<Entry> list = cache.asList();
+        assertThat(list).isSortedAccordingTo(Comparator.naturalOrder()).hasSize(10);
+        assertThat(cache.asList()).isSameAs(list);
+        assertThat(cache.asSet()).containsExactlyElementsOf(list);
+        assertThat(cache.stream().collect(Collectors.toList())).containsExactlyElementsOf(list);
+        assertThat(cache).containsExactlyElementsOf(list);
+    }
+
+    @Test
+    void testInsertAndRemove() {
+        List<Entry> before = cache.asList();
+
+        put(new Entry(100, 4));
+        cache.remove(0);
+
+        List<Entry> after = cache.asList();
+        assertThat(after).isNotSameAs(before).isSortedAccordingTo(Comparator.naturalOrder()).hasSize(10);
+        assertThat(after).extracting(Entry::getIdLong).contains(100L).doesNotContain(0L);
+    }
+
+    @Test
+    void testPositionChange() {
+        cache.asList();
+
+        Entry entry = cache.getElementById(3);
+        entry.position = 42;
+        cache.clearCachedLists();
+
+        List<Entry> list = cache.asList();
+        assertThat(list).isSortedAccordingTo(Comparator.naturalOrder());
+        assertThat(list.get(list.size() - 1)).isSameAs(entry);
+    }
+
+    private void put(Entry entry) {
+        try (UnlockHook hook = cache.writeLock()) {
+            cache.getMap().put(entry.getIdLong(), entry);
+        }
+    }
+
+    static class Entry implements ISnowflake, Comparable<Entry> {
+        private final long id;
+        private int position;
+
+        Entry(long id, int position) {
+            this.id = id;
+            this.position = position;
+        }
+
+        @Override
+        public long getIdLong() {
+            return id;
+        }
+
+        @Override
+        public int compareTo(@Nonnull Entry other) {
+            int compare = Integer.compare(position, other.position);
+            return compare != 0 ? compare : Long.compare(id, other.id);
+        }
+    }
+}
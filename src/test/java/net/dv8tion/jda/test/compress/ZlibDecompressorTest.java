@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.compress;
+
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.utils.compress.ZlibDecompressor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ZlibDecompressorTest {
+    private final Deflater deflater = new Deflater();
+
+    @Test
+    void testSingleFrame() throws DataFormatException {
+        ZlibDecompressor decompressor = new ZlibDecompressor(2048);
+
+        ByteBuffer first = decompressor.decompressToBuffer(compress("{\"op\":10}"));
+        assertThat(DataObject.fromJson(first).getInt("op")).isEqualTo(10);
+
+        // The inflater context is shared across messages
+        ByteBuffer second = decompressor.decompressToBuffer(compress("{\"op\":11}"));
+        assertThat(DataObject.fromJson(second).getInt("op")).isEqualTo(11);
+    }
+
+    @Test
+    void testSplitFrame() throws DataFormatException {
+        ZlibDecompressor decompressor = new ZlibDecompressor(2048);
+        byte[] frame = compress("{\"op\":0,\"t\":\"TEST\"}");
+        int split = frame.length / 2;
+
+        assertThat(decompressor.decompressToBuffer(Arrays.copyOfRange(frame, 0, split)))
+                .isNull();
+        ByteBuffer result = decompressor.decompressToBuffer(Arrays.copyOfRange(frame, split, frame.length));
+        assertThat(DataObject.fromJson(result).getString("t")).isEqualTo("TEST");
+
+        // The flush buffer must not leak into the next message
+        assertThat(decompressor.decompress(compress("{\"op\":1}")))
+                .asString(StandardCharsets.UTF_8)
+                .isEqualTo("{\"op\":1}");
+    }
+
+    @Test
+    void testGrowsBeyondInitialBuffer() throws DataFormatException {
+        ZlibDecompressor decompressor = new ZlibDecompressor(1024);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            builder.append(i);
+        }
+        String payload = builder.toString();
+
+        assertThat(decompressor.decompress(compress(payload)))
+                .asString(StandardCharsets.UTF_8)
+                .isEqualTo(payload);
+        assertThat(decompressor.decompress(compress("small")))
+                .asString(StandardCharsets.UTF_8)
+                .isEqualTo("small");
+    }
+
+    private byte[] compress(String payload) {
+        deflater.setInput(payload.getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[payload.length() + 64];
+        int size = 0;
+        while (true) {
+            size += deflater.deflate(buffer, size, buffer.length - size, Deflater.SYNC_FLUSH);
+            if (size < buffer.length) {
+                return Arrays.copyOf(buffer, size);
+            }
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.compress;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.utils.compress.ZstdDecompressor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ZstdDecompressorTest {
+    private final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+    private ZstdOutputStream compressor;
+
+    @BeforeEach
+    void setup() throws IOException {
+        compressor = new ZstdOutputStream(sink);
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        compressor.close();
+    }
+
+    @Test
+    void testStreamContext() throws Exception {
+        ZstdDecompressor decompressor = new ZstdDecompressor(2048);
+
+        ByteBuffer first = decompressor.decompressToBuffer(compress("{\"op\":10}"));
+        assertThat(DataObject.fromJson(first).getInt("op")).isEqualTo(10);
+
+        // All messages are part of the same frame and depend on the previous context
+        ByteBuffer second = decompressor.decompressToBuffer(compress("{\"op\":11}"));
+        assertThat(DataObject.fromJson(second).getInt("op")).isEqualTo(11);
+    }
+
+    @Test
+    void testGrowsBeyondInitialBuffer() throws Exception {
+        ZstdDecompressor decompressor = new ZstdDecompressor(1024);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            builder.append(i);
+        }
+        String payload = builder.toString();
+
+        assertThat(decompressor.decompress(compress(payload)))
+                .asString(StandardCharsets.UTF_8)
+                .isEqualTo(payload);
+        assertThat(decompressor.decompress(compress("small")))
+                .asString(StandardCharsets.UTF_8)
+                .isEqualTo("small");
+    }
+
+    @Test
+    void testResetStartsNewFrame() throws Exception {
+        ZstdDecompressor decompressor = new ZstdDecompressor(2048);
+        assertThat(decompressor.decompress(compress("first"))).asString(StandardCharsets.UTF_8).isEqualTo("first");
+
+        decompressor.reset();
+        compressor.close();
+        compressor = new ZstdOutputStream(sink);
+
+        assertThat(decompressor.decompress(compress("second"))).asString(StandardCharsets.UTF_8).isEqualTo("second");
+    }
+
+    @Test
+    void testMalformedData() {
+        ZstdDecompressor decompressor = new ZstdDecompressor(2048);
+        byte[] garbage = "not zstd at all".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> decompressor.decompress(garbage)).isInstanceOf(DataFormatException.class);
+    }
+
+    private byte[] compress(String payload) throws IOException {
+        sink.reset();
+        compressor.write(payload.getBytes(StandardCharsets.UTF_8));
+        compressor.flush();
+        return sink.toByteArray();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.data;
+
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
+import net.dv8tion.jda.api.utils.data.etf.ExTermTag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExTermDecoderTest {
+    private static final DataObject PAYLOAD = DataObject.empty()
+            .put("id", "81384788765712384")
+            .put("guild_id", "0123")
+            .put("custom_id", "42")
+            .put("name", "test")
+            .put("count", 200)
+            .put("roles", DataArray.empty().add("1").add("not a snowflake"));
+
+    @Test
+    void testSnowflakesKeptAsStrings() {
+        Map<String, Object> map = ExTermDecoder.unpackMap(ByteBuffer.wrap(PAYLOAD.toETF()));
+
+        assertThat(map).isEqualTo(PAYLOAD.toMap());
+    }
+
+    @Test
+    void testParseSnowflakes() {
+        Map<String, Object> map = ExTermDecoder.unpackMap(ByteBuffer.wrap(PAYLOAD.toETF()), true);
+
+        assertThat(map)
+                .containsEntry("id", 81384788765712384L)
+                .containsEntry("guild_id", "0123")
+                .containsEntry("custom_id", "42")
+                .containsEntry("name", "test")
+                .containsEntry("count", 200);
+        assertThat((List<?>) map.get("roles")).containsExactly(1L, "not a snowflake");
+
+        DataObject data = DataObject.fromETF(ByteBuffer.wrap(PAYLOAD.toETF()), true);
+        assertThat(data.getString("id")).isEqualTo("81384788765712384");
+        assertThat(data.getUnsignedLong("id")).isEqualTo(81384788765712384L);
+        assertThat(data.getArray("roles").getUnsignedLong(0)).isEqualTo(1L);
+    }
+
+    @Test
+    void testSerializeParsedSnowflakes() {
+        DataObject strings = DataObject.fromETF(ByteBuffer.wrap(PAYLOAD.toETF()), false);
+        DataObject numbers = DataObject.fromETF(ByteBuffer.wrap(PAYLOAD.toETF()), true);
+
+        // Only the payload with snowflakes kept as strings can be exposed as-is
+        assertThat(strings.toString()).contains("\"id\":\"81384788765712384\"");
+        assertThat(numbers.toString()).contains("\"id\":81384788765712384");
+    }
+
+    @Test
+    void testCompressedTerm() {
+        byte[] term = PAYLOAD.toETF();
+        Deflater deflater = new Deflater();
+        deflater.setInput(term, 1, term.length - 1);
+        deflater.finish();
+        byte[] compressed = new byte[term.length + 64];
+        int compressedLength = deflater.deflate(compressed);
+        deflater.end();
+
+        ByteBuffer buffer = ByteBuffer.allocate(6 + compressedLength);
+        buffer.put((byte) 131).put(ExTermTag.COMPRESSED).putInt(term.length - 1).put(compressed, 0, compressedLength);
+        buffer.flip();
+
+        // Decode twice, the second time reuses the inflate buffer
+        assertThat(ExTermDecoder.unpackMap(buffer.duplicate())).isEqualTo(PAYLOAD.toMap());
+        assertThat(ExTermDecoder.unpackMap(buffer.duplicate())).isEqualTo(PAYLOAD.toMap());
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.test.entities;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.hash.TLongHashSet;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.GuildVoiceState;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.Channel;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.concrete.VoiceChannel;
+import net.dv8tion.jda.api.entities.emoji.RichCustomEmoji;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.entities.SelfUserImpl;
+import net.dv8tion.jda.internal.handle.EventCache;
+import net.dv8tion.jda.internal.handle.GuildSetupController;
+import net.dv8tion.jda.internal.handle.SessionSnapshot;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.ChannelCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import net.dv8tion.jda.test.Constants;
+import net.dv8tion.jda.test.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+
+import java.nio.file.Path;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class SessionSnapshotTest extends IntegrationTest {
+    private static final int INTENTS = 513;
+    private static final long ROLE_ID = 1234L;
+    private static final long USER_ID = 5678L;
+    private static final long TEXT_CHANNEL_ID = 2000L;
+    private static final long VOICE_CHANNEL_ID = 3000L;
+    private static final long EMOJI_ID = 4000L;
+
+    @Mock
+    private SelfUserImpl selfUser;
+
+    @Mock
+    private GuildSetupController setupController;
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    void setupSession() {
+        when(selfUser.getId()).thenReturn(Long.toUnsignedString(Constants.MINN_USER_ID));
+        when(selfUser.getIdLong()).thenReturn(Constants.MINN_USER_ID);
+        when(selfUser.getName()).thenReturn("minn");
+        when(selfUser.getDiscriminator()).thenReturn("0000");
+        when(jda.hasSelfUser()).thenReturn(true);
+        when(jda.getSelfUser()).thenReturn(selfUser);
+        when(jda.getResponseTotal()).thenReturn(42L);
+        when(jda.getShardInfo()).thenReturn(JDA.ShardInfo.SINGLE);
+        when(jda.getGuildsView()).thenReturn(new SnowflakeCacheViewImpl<>(Guild.class, Guild::getName));
+        when(jda.getGuildSetupController()).thenReturn(setupController);
+        when(setupController.getUnavailableGuilds()).thenReturn(new TLongHashSet(new long[] {Constants.GUILD_ID}));
+    }
+
+    @Test
+    void testWriteAndRead() throws Exception {
+        Path file = directory.resolve("shard-0.snapshot");
+        SessionSnapshot.capture(jda, "session", "wss://resume.example", INTENTS).write(file);
+
+        SessionSnapshot snapshot = SessionSnapshot.read(file);
+        assertThat(file).doesNotExist();
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.getSessionId()).isEqualTo("session");
+        assertThat(snapshot.getResumeUrl()).isEqualTo("wss://resume.example");
+        assertThat(snapshot.getSequence()).isEqualTo(42);
+        assertThat(snapshot.getGuildCount()).isZero();
+    }
+
+    @Test
+    void testCompatibility() throws Exception {
+        Path file = directory.resolve("shard-0.snapshot");
+        SessionSnapshot.capture(jda, "session", null, INTENTS).write(file);
+        SessionSnapshot snapshot = SessionSnapshot.read(file);
+
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.isCompatible(jda, INTENTS)).isTrue();
+        assertThat(snapshot.isCompatible(jda, INTENTS | 2)).isFalse();
+
+        when(jda.getShardInfo()).thenReturn(new JDA.ShardInfo(1, 2));
+        assertThat(snapshot.isCompatible(jda, INTENTS)).isFalse();
+
+        when(selfUser.getIdLong()).thenReturn(Constants.MINN_USER_ID + 1);
+        when(jda.getShardInfo()).thenReturn(JDA.ShardInfo.SINGLE);
+        assertThat(snapshot.isCompatible(jda, INTENTS)).isFalse();
+    }
+
+    @Test
+    void testReadMissingFile() throws Exception {
+        assertThat(SessionSnapshot.read(directory.resolve("missing.snapshot"))).isNull();
+    }
+
+    @Test
+    void testRestoreGuild() throws Exception {
+        EnumSet<CacheFlag> cacheFlags = EnumSet.of(CacheFlag.EMOJI, CacheFlag.VOICE_STATE);
+        when(jda.getCacheFlags()).thenReturn(cacheFlags);
+        when(jda.isCacheFlagSet(any())).thenAnswer(invocation -> cacheFlags.contains(invocation.getArgument(0)));
+        when(jda.getEventCache()).thenReturn(new EventCache());
+        when(jda.cacheMember(any())).thenReturn(true);
+        when(setupController.getUnavailableGuilds()).thenReturn(new TLongHashSet());
+
+        TLongObjectMap<DataObject> members = new TLongObjectHashMap<>();
+        members.put(Constants.MINN_USER_ID, memberJson(Constants.MINN_USER_ID, "minn", "0000"));
+        members.put(USER_ID, memberJson(USER_ID, "user", "0").put("nick", "nick"));
+        resetCache();
+        jda.getEntityBuilder().createGuild(Constants.GUILD_ID, guildJson(), members, 2);
+
+        Path file = directory.resolve("shard-0.snapshot");
+        SessionSnapshot.capture(jda, "session", null, INTENTS).write(file);
+        SessionSnapshot snapshot = SessionSnapshot.read(file);
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.getGuildCount()).isEqualTo(1);
+
+        // Restore into an empty cache, like a fresh JDA instance would
+        resetCache();
+        assertThat(snapshot.restore(jda)).isTrue();
+
+        Guild guild = jda.getGuildsView().get(Constants.GUILD_ID);
+        assertThat(guild).isNotNull();
+        assertThat(guild.getName()).isEqualTo("guild");
+        assertThat(guild.getMemberCount()).isEqualTo(2);
+        assertThat(guild.getOwnerIdLong()).isEqualTo(USER_ID);
+
+        Role role = guild.getRoleById(ROLE_ID);
+        assertThat(role).isNotNull();
+        assertThat(role.getName()).isEqualTo("role");
+        assertThat(role.getPermissionsRaw()).isEqualTo(8);
+        assertThat(guild.getPublicRole().getIdLong()).isEqualTo(Constants.GUILD_ID);
+
+        TextChannel textChannel = guild.getTextChannelById(TEXT_CHANNEL_ID);
+        assertThat(textChannel).isNotNull();
+        assertThat(textChannel.getName()).isEqualTo("general");
+        assertThat(textChannel.getTopic()).isEqualTo("topic");
+        VoiceChannel voiceChannel = guild.getVoiceChannelById(VOICE_CHANNEL_ID);
+        assertThat(voiceChannel).isNotNull();
+        assertThat(voiceChannel.getBitrate()).isEqualTo(64000);
+
+        Member member = guild.getMemberById(USER_ID);
+        assertThat(member).isNotNull();
+        assertThat(member.getNickname()).isEqualTo("nick");
+        assertThat(member.getUser().getName()).isEqualTo("user");
+        assertThat(member.getRoles()).containsExactly(role);
+        assertThat(guild.getMemberById(Constants.MINN_USER_ID)).isNotNull();
+
+        GuildVoiceState voiceState = member.getVoiceState();
+        assertThat(voiceState).isNotNull();
+        assertThat(voiceState.getChannel()).isSameAs(voiceChannel);
+        assertThat(voiceState.getSessionId()).isEqualTo("voice-session");
+        assertThat(voiceState.isSelfMuted()).isTrue();
+
+        RichCustomEmoji emoji = guild.getEmojiById(EMOJI_ID);
+        assertThat(emoji).isNotNull();
+        assertThat(emoji.getName()).isEqualTo("emoji");
+        assertThat(emoji.getRoles()).containsExactly(role);
+    }
+
+    private void resetCache() {
+        // The self user is usually loaded before the guilds, the entity builder expects to find it in cache
+        SnowflakeCacheViewImpl<User> usersView = new SnowflakeCacheViewImpl<>(User.class, User::getName);
+        try (UnlockHook hook = usersView.writeLock()) {
+            usersView.getMap().put(Constants.MINN_USER_ID, selfUser);
+        }
+        when(jda.getUsersView()).thenReturn(usersView);
+        when(jda.getGuildsView()).thenReturn(new SnowflakeCacheViewImpl<>(Guild.class, Guild::getName));
+        when(jda.getChannelsView()).thenReturn(new ChannelCacheViewImpl<>(Channel.class));
+    }
+
+    private static DataObject guildJson() {
+        DataObject publicRole = roleJson(Constants.GUILD_ID, "@everyone", 0, 0);
+        DataObject role = roleJson(ROLE_ID, "role", 1, 8);
+        DataObject textChannel = DataObject.empty()
+                .put("id", TEXT_CHANNEL_ID)
+                .put("type", 0)
+                .put("name", "general")
+                .put("topic", "topic")
+                .put("position", 0);
+        DataObject voiceChannel = DataObject.empty()
+                .put("id", VOICE_CHANNEL_ID)
+                .put("type", 2)
+                .put("name", "voice")
+                .put("position", 1)
+                .put("bitrate", 64000);
+        DataObject voiceState = DataObject.empty()
+                .put("user_id", USER_ID)
+                .put("channel_id", VOICE_CHANNEL_ID)
+                .put("session_id", "voice-session")
+                .put("self_mute", true);
+        DataObject emoji = DataObject.empty()
+                .put("id", EMOJI_ID)
+                .put("name", "emoji")
+                .put("roles", DataArray.empty().add(ROLE_ID));
+        return DataObject.empty()
+                .put("id", Constants.GUILD_ID)
+                .put("name", "guild")
+                .put("owner_id", USER_ID)
+                .put("roles", DataArray.empty().add(publicRole).add(role))
+                .put("channels", DataArray.empty().add(textChannel).add(voiceChannel))
+                .put("threads", DataArray.empty())
+                .put("guild_scheduled_events", DataArray.empty())
+                .put("emojis", DataArray.empty().add(emoji))
+                .put("voice_states", DataArray.empty().add(voiceState));
+    }
+
+    private static DataObject roleJson(long id, String name, int position, long permissions) {
+        return DataObject.empty()
+                .put("id", id)
+                .put("name", name)
+                .put("position", position)
+                .put("permissions", permissions)
+                .put("colors", DataObject.empty().put("primary_color", 0));
+    }
+
+    private static DataObject memberJson(long userId, String name, String discriminator) {
+        DataObject user = DataObject.empty()
+                .put("id", userId)
+                .put("username", name)
+                .put("discriminator", discriminator);
+        return DataObject.empty()
+                .put("user", user)
+                .put("roles", DataArray.empty().add(ROLE_ID))
+                .put("joined_at", "2015-10-29T12:00:00.000000+00:00");
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.test.entities.guild;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.UserSnowflake;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.internal.entities.EntityBuilder;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.entities.UserImpl;
+import net.dv8tion.jda.internal.handle.EventCache;
+import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import net.dv8tion.jda.test.Constants;
+import net.dv8tion.jda.test.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class MemberCacheTest extends IntegrationTest {
+    private SnowflakeCacheViewImpl<User> usersView;
+    private EntityBuilder builder;
+    private GuildImpl first;
+    private GuildImpl second;
+
+    @BeforeEach
+    void setupCache() {
+        usersView = new SnowflakeCacheViewImpl<>(User.class, User::getName);
+        when(jda.getCacheFlags()).thenReturn(EnumSet.noneOf(CacheFlag.class));
+        when(jda.getUsersView()).thenReturn(usersView);
+        when(jda.getEventCache()).thenReturn(new EventCache());
+        when(jda.cacheMember(any())).thenReturn(true);
+        builder = jda.getEntityBuilder();
+
+        first = new GuildImpl(jda, Constants.GUILD_ID);
+        second = new GuildImpl(jda, Constants.GUILD_ID + 1);
+        when(jda.getMutualGuilds(any(UserSnowflake[].class))).thenAnswer(invocation -> Stream.of(first, second)
+                .filter(guild -> guild.getMembersView().get(Constants.MINN_USER_ID) != null)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testLoadUsesCachedUser() {
+        MemberImpl firstMember = new MemberImpl(first, new UserImpl(Constants.MINN_USER_ID, jda));
+        MemberImpl secondMember = new MemberImpl(second, new UserImpl(Constants.MINN_USER_ID, jda));
+
+        builder.updateMemberCache(firstMember);
+        builder.updateMemberCache(secondMember);
+
+        assertThat(usersView.get(Constants.MINN_USER_ID)).isSameAs(firstMember.getUser());
+        assertThat(secondMember.getUser()).isSameAs(firstMember.getUser());
+    }
+
+    @Test
+    void testUnloadKeepsUserOfOtherGuild() {
+        UserImpl user = new UserImpl(Constants.MINN_USER_ID, jda);
+        MemberImpl firstMember = new MemberImpl(first, user);
+        MemberImpl secondMember = new MemberImpl(second, user);
+        builder.updateMemberCache(firstMember);
+        builder.updateMemberCache(secondMember);
+
+        builder.updateMemberCache(firstMember, true);
+        assertThat(usersView.get(Constants.MINN_USER_ID)).isSameAs(user);
+
+        builder.updateMemberCache(secondMember, true);
+        assertThat(usersView.get(Constants.MINN_USER_ID)).isNull();
+    }
+
+    @Test
+    void testConcurrentLoadAndUnload() throws Exception {
+        // Mimics two dispatch lanes, which add and remove the same user as a member of different guilds
+        CompletableFuture<Void> firstLane = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                MemberImpl member = loadMember(first);
+                builder.updateMemberCache(member, true);
+            }
+        });
+        CompletableFuture<Void> secondLane = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                MemberImpl member = loadMember(second);
+                if (i < 9_999) {
+                    builder.updateMemberCache(member, true);
+                }
+            }
+        });
+        CompletableFuture.allOf(firstLane, secondLane).get(30, TimeUnit.SECONDS);
+
+        // The second guild still has the member cached, so the user has to be cached too
+        List<Guild> mutualGuilds = jda.getMutualGuilds(UserSnowflake.fromId(Constants.MINN_USER_ID));
+        assertThat(mutualGuilds).containsExactly(second);
+        User user = usersView.get(Constants.MINN_USER_ID);
+        assertThat(user).isNotNull();
+        assertThat(second.getMemberById(Constants.MINN_USER_ID).getUser()).isSameAs(user);
+    }
+
+    private MemberImpl loadMember(GuildImpl guild) {
+        // Resolve the user the same way createUser does, without holding any lock
+        User user = usersView.get(Constants.MINN_USER_ID);
+        MemberImpl member = new MemberImpl(guild, user != null ? user : new UserImpl(Constants.MINN_USER_ID, jda));
+        builder.updateMemberCache(member);
+        return member;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.test.entities.guild;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.entities.EntityBuilder;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.entities.SelfMemberImpl;
+import net.dv8tion.jda.internal.entities.SelfUserImpl;
+import net.dv8tion.jda.internal.handle.EventCache;
+import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.MemberCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import net.dv8tion.jda.test.Constants;
+import net.dv8tion.jda.test.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class StreamingGuildSetupTest extends IntegrationTest {
+    private static final long ROLE_ID = 1234L;
+    private static final long USER_ID = 5678L;
+
+    @Mock
+    private SelfUserImpl selfUser;
+
+    private SnowflakeCacheViewImpl<User> usersView;
+    private EntityBuilder builder;
+
+    @BeforeEach
+    void setupCache() {
+        usersView = new SnowflakeCacheViewImpl<>(User.class, User::getName);
+        when(selfUser.getJDA()).thenReturn(jda);
+        when(selfUser.getIdLong()).thenReturn(Constants.BUTLER_USER_ID);
+        when(jda.getSelfUser()).thenReturn(selfUser);
+        when(jda.getCacheFlags()).thenReturn(EnumSet.noneOf(CacheFlag.class));
+        when(jda.getUsersView()).thenReturn(usersView);
+        when(jda.getGuildsView()).thenReturn(new SnowflakeCacheViewImpl<>(Guild.class, Guild::getName));
+        when(jda.getEventCache()).thenReturn(new EventCache());
+        when(jda.cacheMember(any())).thenReturn(true);
+        builder = jda.getEntityBuilder();
+    }
+
+    @Test
+    void testMembersAreCachedOnCompletion() {
+        long guildId = Constants.GUILD_ID;
+        GuildImpl guild = builder.createStreamingGuild(guildId, guildJson(guildId));
+        TLongObjectMap<MemberImpl> loadedMembers = new TLongObjectHashMap<>();
+        loadedMembers.put(USER_ID, builder.createMember(guild, memberJson(USER_ID)));
+
+        // Nothing is cached until the guild is complete
+        assertThat(usersView.isEmpty()).isTrue();
+        assertThat(guild.getMembersView().isEmpty()).isTrue();
+
+        completeGuild(guild, loadedMembers);
+
+        MemberImpl member = loadedMembers.get(USER_ID);
+        assertThat(guild.getMemberById(USER_ID)).isSameAs(member);
+        assertThat(usersView.get(USER_ID)).isSameAs(member.getUser());
+        // The roles were created before the guild was registered, the member should still use the same instances
+        Role role = guild.getRoleById(ROLE_ID);
+        assertThat(role).isNotNull();
+        assertThat(member.getRoleSet()).containsExactly(role);
+    }
+
+    @Test
+    void testUserIsSharedBetweenGuilds() {
+        GuildImpl first = builder.createStreamingGuild(Constants.GUILD_ID, guildJson(Constants.GUILD_ID));
+        GuildImpl second = builder.createStreamingGuild(Constants.GUILD_ID + 1, guildJson(Constants.GUILD_ID + 1));
+
+        // Both guilds are chunking at the same time, so neither finds the user in cache
+        TLongObjectMap<MemberImpl> firstMembers = new TLongObjectHashMap<>();
+        firstMembers.put(USER_ID, builder.createMember(first, memberJson(USER_ID)));
+        TLongObjectMap<MemberImpl> secondMembers = new TLongObjectHashMap<>();
+        secondMembers.put(USER_ID, builder.createMember(second, memberJson(USER_ID)));
+        assertThat(firstMembers.get(USER_ID).getUser()).isNotSameAs(secondMembers.get(USER_ID).getUser());
+
+        completeGuild(first, firstMembers);
+        completeGuild(second, secondMembers);
+
+        User cachedUser = usersView.get(USER_ID);
+        assertThat(cachedUser).isNotNull();
+        assertThat(first.getMemberById(USER_ID).getUser()).isSameAs(cachedUser);
+        assertThat(second.getMemberById(USER_ID).getUser()).isSameAs(cachedUser);
+    }
+
+    private void completeGuild(GuildImpl guild, TLongObjectMap<MemberImpl> loadedMembers) {
+        // The self member is expected to be part of every guild
+        MemberCacheViewImpl membersView = guild.getMembersView();
+        try (UnlockHook hook = membersView.writeLock()) {
+            membersView.getMap().put(Constants.BUTLER_USER_ID, new SelfMemberImpl(guild, selfUser));
+        }
+
+        builder.createGuild(
+                guild,
+                guildJson(guild.getIdLong()),
+                new TLongObjectHashMap<>(),
+                loadedMembers,
+                loadedMembers.size() + 1);
+    }
+
+    private static DataObject guildJson(long guildId) {
+        DataObject role = DataObject.empty()
+                .put("id", ROLE_ID)
+                .put("name", "role")
+                .put("position", 1)
+                .put("permissions", 0)
+                .put("colors", DataObject.empty().put("primary_color", 0));
+        return DataObject.empty()
+                .put("id", guildId)
+                .put("name", "guild")
+                .put("roles", DataArray.empty().add(role))
+                .put("channels", DataArray.empty())
+                .put("threads", DataArray.empty())
+                .put("guild_scheduled_events", DataArray.empty())
+                .put("emojis", DataArray.empty())
+                .put("voice_states", DataArray.empty());
+    }
+
+    private static DataObject memberJson(long userId) {
+        DataObject user = DataObject.empty()
+                .put("id", userId)
+                .put("username", "user")
+                .put("discriminator", "0");
+        return DataObject.empty()
+                .put("user", user)
+                .put("roles", DataArray.empty().add(ROLE_ID))
+                .put("joined_at", "2015-10-29T12:00:00.000000+00:00");
+    }
+}
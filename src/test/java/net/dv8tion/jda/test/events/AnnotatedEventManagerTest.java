@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.events;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.hooks.AnnotatedEventManager;
+import net.dv8tion.jda.api.hooks.SubscribeEvent;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnnotatedEventManagerTest {
+    private static final List<String> STATIC_CALLS = new ArrayList<>();
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testDispatch(boolean compiled) {
+        AnnotatedEventManager manager = new AnnotatedEventManager(compiled);
+        Listener listener = new Listener();
+        manager.register(listener);
+
+        manager.handle(new TestEvent());
+        assertThat(listener.calls).containsExactlyInAnyOrder("generic", "test");
+
+        listener.calls.clear();
+        manager.handle(new OtherEvent());
+        assertThat(listener.calls).containsExactly("generic");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testStaticListener(boolean compiled) {
+        AnnotatedEventManager manager = new AnnotatedEventManager(compiled);
+        STATIC_CALLS.clear();
+        manager.register(StaticListener.class);
+
+        manager.handle(new TestEvent());
+        assertThat(STATIC_CALLS).containsExactly("static");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testRegisterInvalidatesDispatch(boolean compiled) {
+        AnnotatedEventManager manager = new AnnotatedEventManager(compiled);
+        Listener first = new Listener();
+        Listener second = new Listener();
+        manager.register(first);
+        manager.handle(new TestEvent());
+
+        manager.register(second);
+        manager.handle(new TestEvent());
+        assertThat(second.calls).containsExactlyInAnyOrder("generic", "test");
+
+        manager.unregister(first);
+        first.calls.clear();
+        manager.handle(new TestEvent());
+        assertThat(first.calls).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testExceptionDoesNotStopDispatch(boolean compiled) {
+        AnnotatedEventManager manager = new AnnotatedEventManager(compiled);
+        Listener listener = new Listener();
+        manager.register(new ThrowingListener());
+        manager.register(listener);
+
+        manager.handle(new TestEvent());
+        assertThat(listener.calls).containsExactlyInAnyOrder("generic", "test");
+    }
+
+    static class TestEvent implements GenericEvent {
+        @Nonnull
+        @Override
+        public JDA getJDA() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getResponseNumber() {
+            return 0;
+        }
+
+        @Override
+        public DataObject getRawData() {
+            return null;
+        }
+    }
+
+    static class OtherEvent extends TestEvent {}
+
+    static class Listener {
+        private final List<String> calls = new ArrayList<>();
+
+        @SubscribeEvent
+        public void onGeneric(GenericEvent event) {
+            calls.add("generic");
+        }
+
+        @SubscribeEvent
+        private String onTest(TestEvent event) {
+            if (!(event instanceof OtherEvent)) {
+                calls.add("test");
+            }
+            return "ignored";
+        }
+    }
+
+    static class StaticListener {
+        @SubscribeEvent
+        static void onTest(TestEvent event) {
+            STATIC_CALLS.add("static");
+        }
+    }
+
+    static class ThrowingListener {
+        @SubscribeEvent
+        public void onTest(TestEvent event) {
+            throw new IllegalStateException("Expected failure");
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.test.events;
+
+import net.dv8tion.jda.api.utils.cache.EventCacheMetrics;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.handle.EventCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventCacheTest {
+    private final EventCache cache = new EventCache();
+
+    @Test
+    void testPlayback() {
+        List<Long> replayed = new ArrayList<>();
+        cache.cache(
+                EventCache.Type.GUILD, 1, 5, DataObject.empty(), (responseTotal, event) -> replayed.add(responseTotal));
+        cache.cache(
+                EventCache.Type.GUILD, 1, 6, DataObject.empty(), (responseTotal, event) -> replayed.add(responseTotal));
+        cache.cache(
+                EventCache.Type.GUILD, 2, 7, DataObject.empty(), (responseTotal, event) -> replayed.add(responseTotal));
+        assertThat(cache.size()).isEqualTo(3);
+
+        cache.playbackCache(EventCache.Type.GUILD, 1);
+        assertThat(replayed).containsExactly(5L, 6L);
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.playbackCache(EventCache.Type.GUILD, 1);
+        assertThat(replayed).hasSize(2);
+
+        EventCache.Metrics metrics = cache.getMetrics(EventCache.Type.GUILD);
+        assertThat(metrics.getCached()).isEqualTo(3);
+        assertThat(metrics.getReplayed()).isEqualTo(2);
+        assertThat(metrics.getExpired()).isZero();
+    }
+
+    @Test
+    void testPlaybackUsesCurrentHandler() {
+        List<String> replayed = new ArrayList<>();
+        EventCache laneCache = new EventCache(type -> type.equals("MESSAGE_CREATE")
+                ? (responseTotal, event) -> replayed.add("current " + event.getString("t"))
+                : null);
+
+        DataObject message = DataObject.empty().put("t", "MESSAGE_CREATE");
+        DataObject typing = DataObject.empty().put("t", "TYPING_START");
+        laneCache.cache(EventCache.Type.USER, 1, 5, message, (responseTotal, event) -> replayed.add("cached"));
+        laneCache.cache(EventCache.Type.USER, 1, 6, typing, (responseTotal, event) -> replayed.add("cached"));
+
+        // Events without a current handler fall back to the handler they were cached with
+        laneCache.playbackCache(EventCache.Type.USER, 1);
+        assertThat(replayed).containsExactly("current MESSAGE_CREATE", "cached");
+    }
+
+    @Test
+    void testTimeout() {
+        List<Long> replayed = new ArrayList<>();
+        cache.cache(
+                EventCache.Type.CHANNEL,
+                1,
+                5,
+                DataObject.empty(),
+                (responseTotal, event) -> replayed.add(responseTotal));
+
+        cache.timeout(5 + EventCache.TIMEOUT_AMOUNT);
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.timeout(5 + EventCache.TIMEOUT_AMOUNT + EventCache.BUCKET_WIDTH);
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getMetrics(EventCache.Type.CHANNEL).getExpired()).isEqualTo(1);
+
+        cache.playbackCache(EventCache.Type.CHANNEL, 1);
+        assertThat(replayed).isEmpty();
+    }
+
+    @Test
+    void testTimeoutAfterSequenceJump() {
+        cache.cache(EventCache.Type.USER, 1, 10, DataObject.empty(), (responseTotal, event) -> {});
+        cache.timeout(1_000_000);
+        assertThat(cache.size()).isZero();
+
+        cache.cache(EventCache.Type.USER, 1, 1_000_050, DataObject.empty(), (responseTotal, event) -> {});
+        cache.timeout(1_000_100);
+        assertThat(cache.size()).isEqualTo(1);
+        cache.timeout(1_000_200);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testCacheAheadOfWindow() {
+        // A restored session continues with the sequence of the previous session, before any timeout ran
+        List<Long> replayed = new ArrayList<>();
+        cache.cache(
+                EventCache.Type.USER,
+                1,
+                1_000_000,
+                DataObject.empty(),
+                (responseTotal, event) -> replayed.add(responseTotal));
+        cache.timeout(1_000_000);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getMetrics(EventCache.Type.USER).getExpired()).isZero();
+
+        cache.playbackCache(EventCache.Type.USER, 1);
+        assertThat(replayed).containsExactly(1_000_000L);
+
+        cache.cache(EventCache.Type.USER, 2, 1_000_001, DataObject.empty(), (responseTotal, event) -> {});
+        cache.timeout(1_000_001 + EventCache.TIMEOUT_AMOUNT + EventCache.BUCKET_WIDTH);
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getMetrics(EventCache.Type.USER).getExpired()).isEqualTo(1);
+    }
+
+    @Test
+    void testPublicTypes() {
+        // JDA#getEventCacheMetrics resolves the internal type by name
+        assertThat(Arrays.stream(EventCacheMetrics.Type.values()).map(Enum::name))
+                .containsExactlyElementsOf(
+                        Arrays.stream(EventCache.Type.values()).map(Enum::name).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testClear() {
+        cache.cache(EventCache.Type.MEMBER, 1, 1, DataObject.empty(), (responseTotal, event) -> {});
+        cache.cache(EventCache.Type.MEMBER, 2, 2, DataObject.empty(), (responseTotal, event) -> {});
+
+        cache.clear(EventCache.Type.MEMBER, 1);
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.clear();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getMetrics(EventCache.Type.MEMBER).getCleared()).isEqualTo(2);
+    }
+
+    @Test
+    void testConcurrentAccess() throws Exception {
+        AtomicLong sequence = new AtomicLong();
+        AtomicLong executed = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                tasks.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int j = 0; j < 10_000; j++) {
+                        long responseTotal = sequence.incrementAndGet();
+                        EventCache.Type type = EventCache.Type.values()[random.nextInt(3)];
+                        cache.cache(type, random.nextInt(20), responseTotal, DataObject.empty(), (r, event) -> {
+                            executed.incrementAndGet();
+                        });
+                        cache.timeout(responseTotal);
+                        if (random.nextInt(10) == 0) {
+                            cache.playbackCache(type, random.nextInt(20));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long cached = 0, replayed = 0, expired = 0;
+        for (EventCache.Type type : EventCache.Type.values()) {
+            EventCache.Metrics metrics = cache.getMetrics(type);
+            cached += metrics.getCached();
+            replayed += metrics.getReplayed();
+            expired += metrics.getExpired();
+        }
+        // Every event is either replayed exactly once, expired, or still cached
+        assertThat(cached).isEqualTo(40_000);
+        assertThat(replayed).isEqualTo(executed.get());
+        assertThat(replayed + expired + cache.size()).isEqualTo(cached);
+
+        cache.timeout(sequence.get() + EventCache.TIMEOUT_AMOUNT * 2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testConcurrentClear() throws Exception {
+        AtomicLong sequence = new AtomicLong(1_000_000);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> clearing = executor.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    cache.clear();
+                }
+            });
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                tasks.add(executor.submit(() -> {
+                    while (!clearing.isDone()) {
+                        long responseTotal = sequence.incrementAndGet();
+                        cache.timeout(responseTotal);
+                        cache.cache(EventCache.Type.GUILD, 1, responseTotal, DataObject.empty(), (r, event) -> {});
+                    }
+                    // Buckets of the previous sequence, which were created while clearing, must not block the new one
+                    for (int j = 0; j < 200; j++) {
+                        cache.cache(EventCache.Type.GUILD, 1, j, DataObject.empty(), (r, event) -> {});
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        cache.clear();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.events;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.StatusChangeEvent;
+import net.dv8tion.jda.api.events.UpdateEvent;
+import net.dv8tion.jda.api.events.session.GenericSessionEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.hooks.InterfacedEventManager;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+class InterfacedEventManagerTest {
+    private final List<String> calls = new ArrayList<>();
+    private JDA jda;
+
+    @BeforeEach
+    void setup() {
+        jda = mock(JDA.class, RETURNS_DEEP_STUBS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testDispatch(boolean indexed) {
+        InterfacedEventManager manager = new InterfacedEventManager(indexed);
+        manager.register(new ListenerAdapter() {
+            @Override
+            public void onReady(@Nonnull ReadyEvent event) {
+                calls.add("ready");
+            }
+        });
+        manager.register(new ListenerAdapter() {
+            @Override
+            public void onGenericSession(@Nonnull GenericSessionEvent event) {
+                calls.add("session");
+            }
+        });
+        manager.register(new ListenerAdapter() {
+            @Override
+            public void onGenericUpdate(@Nonnull UpdateEvent<?, ?> event) {
+                calls.add("update");
+            }
+        });
+        manager.register(new ListenerAdapter() {
+            @Override
+            public void onGenericEvent(@Nonnull GenericEvent event) {
+                calls.add("generic");
+            }
+        });
+        manager.register((EventListener) event -> calls.add("interface"));
+
+        manager.handle(new ReadyEvent(jda));
+        assertThat(calls).containsExactly("ready", "session", "generic", "interface");
+
+        calls.clear();
+        manager.handle(new StatusChangeEvent(jda, JDA.Status.CONNECTED, JDA.Status.LOADING_SUBSYSTEMS));
+        assertThat(calls).containsExactly("update", "generic", "interface");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testRegisterInvalidatesDispatch(boolean indexed) {
+        InterfacedEventManager manager = new InterfacedEventManager(indexed);
+        ListenerAdapter first = new ListenerAdapter() {
+            @Override
+            public void onReady(@Nonnull ReadyEvent event) {
+                calls.add("first");
+            }
+        };
+        ListenerAdapter second = new ListenerAdapter() {
+            @Override
+            public void onReady(@Nonnull ReadyEvent event) {
+                calls.add("second");
+            }
+        };
+
+        manager.register(first);
+        manager.handle(new ReadyEvent(jda));
+        manager.register(second);
+        manager.handle(new ReadyEvent(jda));
+        manager.unregister(first);
+        manager.handle(new ReadyEvent(jda));
+
+        assertThat(calls).containsExactly("first", "first", "second", "second");
+    }
+}
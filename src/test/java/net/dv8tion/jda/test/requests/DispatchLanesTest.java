@@ -0,0 +1,179 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.test.requests;
+
+import net.dv8tion.jda.internal.requests.DispatchLanes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DispatchLanesTest {
+    private final AtomicInteger contexts = new AtomicInteger();
+    private final DispatchLanes<Integer> lanes =
+            new DispatchLanes<>("Test", 4, 16, contexts::incrementAndGet, () -> {});
+
+    @AfterEach
+    void teardown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    void testPerKeyOrdering() {
+        Map<Long, List<Integer>> received = new ConcurrentHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            long key = i % 10;
+            int index = i;
+            lanes.execute(key, context -> received
+                    .computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(index));
+        }
+        lanes.awaitIdle();
+
+        assertThat(received).hasSize(10);
+        received.forEach((key, indices) -> {
+            assertThat(indices).hasSize(100).isSorted();
+            assertThat(indices).allMatch(index -> index % 10 == key);
+        });
+    }
+
+    @Test
+    void testKeysRunConcurrently() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        lanes.execute(0, context -> {
+            blocked.countDown();
+            await(release);
+        });
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The serial lane is busy, but the guild lanes can still make progress
+        CountDownLatch done = new CountDownLatch(1);
+        lanes.execute(1234L, context -> done.countDown());
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+        release.countDown();
+    }
+
+    @Test
+    void testAwaitIdle() {
+        AtomicBoolean finished = new AtomicBoolean();
+        lanes.execute(42L, context -> {
+            sleep();
+            finished.set(true);
+        });
+
+        lanes.awaitIdle();
+        assertThat(finished).isTrue();
+    }
+
+    @Test
+    void testLaneContext() throws Exception {
+        assertThat(lanes.getCurrentContext()).isNull();
+        assertThat(contexts).hasValue(5);
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean matches = new AtomicBoolean();
+        lanes.execute(42L, context -> {
+            matches.set(context.equals(lanes.getCurrentContext()));
+            // Waiting for the lanes on a lane would never finish
+            lanes.awaitIdle();
+            done.countDown();
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(matches).isTrue();
+    }
+
+    @Test
+    void testShutdown() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean dropped = new AtomicBoolean(true);
+        lanes.execute(42L, context -> {
+            blocked.countDown();
+            await(release);
+        });
+        lanes.execute(42L, context -> dropped.set(false));
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        lanes.shutdown();
+        lanes.awaitIdle();
+        lanes.execute(42L, context -> dropped.set(false));
+
+        assertThat(lanes.isShutdown()).isTrue();
+        assertThat(dropped).isTrue();
+    }
+
+    @Test
+    void testLaneSurvivesError() throws Exception {
+        lanes.execute(42L, context -> {
+            throw new AssertionError("Failed handler");
+        });
+
+        CountDownLatch done = new CountDownLatch(1);
+        lanes.execute(42L, context -> done.countDown());
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testDeadLaneDoesNotBlock() throws Exception {
+        DispatchLanes<Integer> dead = new DispatchLanes<>("Dead", 1, 1, () -> 0, () -> {
+            throw new IllegalStateException("Failed to initialize");
+        });
+        try {
+            Thread caller = new Thread(() -> {
+                for (int i = 0; i < 3; i++) {
+                    dead.execute(42L, context -> {});
+                }
+                dead.awaitIdle();
+            });
+            caller.start();
+            caller.join(TimeUnit.SECONDS.toMillis(10));
+            assertThat(caller.isAlive()).isFalse();
+        } finally {
+            dead.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
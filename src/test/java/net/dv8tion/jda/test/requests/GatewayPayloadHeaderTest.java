@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.requests;
+
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.GatewayPayloadHeader;
+import net.dv8tion.jda.internal.requests.WebSocketCode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GatewayPayloadHeaderTest {
+    private static final long GUILD_ID = 123456789012345678L;
+
+    private static DataObject getDispatch() {
+        return DataObject.empty()
+                .put("t", "MESSAGE_CREATE")
+                .put("s", 42)
+                .put("op", WebSocketCode.DISPATCH)
+                .put(
+                        "d",
+                        DataObject.empty()
+                                .put("nested", DataArray.empty().add(DataObject.empty().put("guild_id", "1")))
+                                .put("guild_id", Long.toUnsignedString(GUILD_ID)));
+    }
+
+    @Test
+    void testPeekJson() {
+        ByteBuffer data = ByteBuffer.wrap(getDispatch().toJson());
+        GatewayPayloadHeader header = GatewayPayloadHeader.peekJson(data, true);
+
+        assertThat(header).isNotNull();
+        assertThat(header.getOp()).isEqualTo(WebSocketCode.DISPATCH);
+        assertThat(header.getSequence()).isEqualTo(42);
+        assertThat(header.getType()).isEqualTo("MESSAGE_CREATE");
+        assertThat(header.getGuildId()).isEqualTo(GUILD_ID);
+        assertThat(data.position()).isZero();
+    }
+
+    @Test
+    void testPeekJsonWithoutGuildId() {
+        ByteBuffer data = ByteBuffer.wrap(getDispatch().toJson());
+        GatewayPayloadHeader header = GatewayPayloadHeader.peekJson(data, false);
+
+        assertThat(header).isNotNull();
+        assertThat(header.getType()).isEqualTo("MESSAGE_CREATE");
+        assertThat(header.getGuildId()).isZero();
+    }
+
+    @Test
+    void testPeekJsonNonDispatch() {
+        byte[] json = "{\"op\":11,\"d\":null,\"s\":null,\"t\":null}".getBytes(StandardCharsets.UTF_8);
+        GatewayPayloadHeader header = GatewayPayloadHeader.peekJson(ByteBuffer.wrap(json), true);
+
+        assertThat(header).isNotNull();
+        assertThat(header.getOp()).isEqualTo(WebSocketCode.HEARTBEAT_ACK);
+        assertThat(header.hasSequence()).isFalse();
+        assertThat(header.getType()).isNull();
+    }
+
+    @Test
+    void testPeekJsonMalformed() {
+        byte[] json = "[1, 2, 3]".getBytes(StandardCharsets.UTF_8);
+        assertThat(GatewayPayloadHeader.peekJson(ByteBuffer.wrap(json), true)).isNull();
+    }
+
+    @Test
+    void testPeekETF() {
+        ByteBuffer data = ByteBuffer.wrap(getDispatch().toETF());
+        GatewayPayloadHeader header = GatewayPayloadHeader.peekETF(data, true);
+
+        assertThat(header).isNotNull();
+        assertThat(header.getOp()).isEqualTo(WebSocketCode.DISPATCH);
+        assertThat(header.getSequence()).isEqualTo(42);
+        assertThat(header.getType()).isEqualTo("MESSAGE_CREATE");
+        assertThat(header.getGuildId()).isEqualTo(GUILD_ID);
+        assertThat(data.position()).isZero();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.requests;
+
+import net.dv8tion.jda.internal.requests.GatewayRateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayRateLimiterTest {
+    private static final long WINDOW = GatewayRateLimiter.WINDOW_MILLIS;
+    private static final int NORMAL_LIMIT = GatewayRateLimiter.LIMIT - GatewayRateLimiter.PRIORITY_RESERVE;
+
+    private final GatewayRateLimiter rateLimiter = new GatewayRateLimiter();
+
+    @Test
+    void testReserveForPriorityMessages() {
+        for (int i = 0; i < NORMAL_LIMIT; i++) {
+            assertThat(rateLimiter.tryAcquire(false, 0)).isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire(false, 0)).isFalse();
+
+        for (int i = 0; i < GatewayRateLimiter.PRIORITY_RESERVE; i++) {
+            assertThat(rateLimiter.tryAcquire(true, 0)).isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire(true, 0)).isFalse();
+    }
+
+    @Test
+    void testDelayUntilTokenIsReturned() {
+        for (int i = 0; i < NORMAL_LIMIT; i++) {
+            assertThat(rateLimiter.tryAcquire(false, i * 100L)).isTrue();
+        }
+
+        long now = NORMAL_LIMIT * 100L;
+        // The first token is returned one window after it was used, not at a fixed reset
+        assertThat(rateLimiter.getDelay(false, now)).isEqualTo(WINDOW - now);
+        assertThat(rateLimiter.getDelay(true, now)).isZero();
+
+        assertThat(rateLimiter.tryAcquire(false, WINDOW - 1)).isFalse();
+        assertThat(rateLimiter.tryAcquire(false, WINDOW)).isTrue();
+        assertThat(rateLimiter.getDelay(false, WINDOW)).isEqualTo(100);
+    }
+
+    @Test
+    void testNeverExceedsLimitInWindow() {
+        int sent = 0;
+        for (long now = 0; now < WINDOW; now += 10) {
+            while (rateLimiter.tryAcquire(true, now)) {
+                sent++;
+            }
+        }
+        assertThat(sent).isEqualTo(GatewayRateLimiter.LIMIT);
+    }
+
+    @Test
+    void testWaitTimeMetrics() {
+        for (int i = 0; i < NORMAL_LIMIT; i++) {
+            rateLimiter.tryAcquire(false, 0);
+        }
+
+        assertThat(rateLimiter.tryAcquire(false, 1000)).isFalse();
+        assertThat(rateLimiter.tryAcquire(false, 2000)).isFalse();
+        assertThat(rateLimiter.tryAcquire(false, WINDOW)).isTrue();
+
+        assertThat(rateLimiter.getBlockedCount()).isEqualTo(1);
+        assertThat(rateLimiter.getSentCount()).isEqualTo(NORMAL_LIMIT + 1);
+        assertThat(rateLimiter.getTotalWaitTime(TimeUnit.MILLISECONDS)).isEqualTo(WINDOW - 1000);
+    }
+
+    @Test
+    void testReset() {
+        for (int i = 0; i < NORMAL_LIMIT; i++) {
+            rateLimiter.tryAcquire(false, 0);
+        }
+        rateLimiter.reset();
+
+        assertThat(rateLimiter.getDelay(false, 0)).isZero();
+        assertThat(rateLimiter.tryAcquire(false, 0)).isTrue();
+    }
+}
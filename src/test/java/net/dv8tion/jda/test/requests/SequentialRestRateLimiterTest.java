@@ -0,0 +1,209 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.requests;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.requests.SequentialRestRateLimiter;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import javax.annotation.Nonnull;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class SequentialRestRateLimiterTest {
+    private ScheduledExecutorService scheduler;
+    private SequentialRestRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setup() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        rateLimiter = new SequentialRestRateLimiter(
+                new RestRateLimiter.RateLimitConfig(scheduler, RestRateLimiter.GlobalRateLimit.create(), true));
+    }
+
+    @AfterEach
+    void teardown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testAsyncWorkDoesNotBlockWorker() throws Exception {
+        AsyncWork first = new AsyncWork(Route.Messages.SEND_MESSAGE.compile("1"));
+        AsyncWork second = new AsyncWork(Route.Messages.SEND_MESSAGE.compile("1"));
+        AsyncWork otherBucket = new AsyncWork(Route.Messages.SEND_MESSAGE.compile("2"));
+
+        rateLimiter.enqueue(first);
+        rateLimiter.enqueue(second);
+        rateLimiter.enqueue(otherBucket);
+
+        // Both buckets start a request, even though the only worker thread is shared
+        first.started.get(5, TimeUnit.SECONDS);
+        otherBucket.started.get(5, TimeUnit.SECONDS);
+        // Requests of the same bucket are still executed in sequence
+        assertThat(second.started).isNotDone();
+
+        first.response.complete(null);
+        second.started.get(5, TimeUnit.SECONDS);
+
+        second.response.complete(null);
+        otherBucket.response.complete(null);
+        assertThat(first.isDone()).isTrue();
+        assertThat(second.isDone()).isTrue();
+        assertThat(otherBucket.isDone()).isTrue();
+    }
+
+    @Test
+    void testAsyncFailureDoesNotStallBucket() throws Exception {
+        AsyncWork first = new AsyncWork(Route.Messages.SEND_MESSAGE.compile("1"));
+        AsyncWork second = new AsyncWork(Route.Messages.SEND_MESSAGE.compile("1"));
+
+        rateLimiter.enqueue(first);
+        rateLimiter.enqueue(second);
+
+        first.started.get(5, TimeUnit.SECONDS);
+        first.response.completeExceptionally(new IllegalStateException("Test failure"));
+
+        second.started.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testConcurrentEnqueue() throws Exception {
+        int threads = 8;
+        List<AsyncWork> requests = new ArrayList<>();
+        for (int i = 0; i < threads * 100; i++) {
+            AsyncWork request = new AsyncWork(Route.Messages.SEND_MESSAGE.compile(String.valueOf(i % 16)));
+            request.response.complete(null);
+            requests.add(request);
+        }
+
+        ExecutorService producers = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                List<AsyncWork> chunk = requests.subList(i * 100, (i + 1) * 100);
+                producers.execute(() -> chunk.forEach(rateLimiter::enqueue));
+            }
+
+            CompletableFuture.allOf(requests.stream().map(r -> r.started).toArray(CompletableFuture[]::new))
+                    .get(10, TimeUnit.SECONDS);
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRetryAfterDelaysBucket() throws Exception {
+        AsyncWork first = new AsyncWork(Route.Messages.SEND_MESSAGE.compile("1"));
+        AsyncWork second = new AsyncWork(Route.Messages.SEND_MESSAGE.compile("1"));
+
+        rateLimiter.enqueue(first);
+        first.started.get(5, TimeUnit.SECONDS);
+        first.response.complete(rateLimitedResponse(1));
+
+        rateLimiter.enqueue(second);
+        // The bucket is rate limited for a second, after which the request is sent
+        assertThat(second.started).isNotDone();
+        Thread.sleep(300);
+        assertThat(second.started).isNotDone();
+        second.started.get(5, TimeUnit.SECONDS);
+        second.response.complete(null);
+    }
+
+    private static Response rateLimitedResponse(int retryAfter) {
+        return new Response.Builder()
+                .request(new Request.Builder()
+                        .url("https://discord.com/api/channels/1/messages")
+                        .build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(429)
+                .message("Too Many Requests")
+                .header(RestRateLimiter.HASH_HEADER, "hash")
+                .header(RestRateLimiter.RETRY_AFTER_HEADER, String.valueOf(retryAfter))
+                .header(RestRateLimiter.SCOPE_HEADER, "user")
+                // Without this header, the response is treated as a cloudflare rate limit
+                .header("via", "1.1 google")
+                .build();
+    }
+
+    private static class AsyncWork implements RestRateLimiter.Work {
+        private final CompletableFuture<Void> started = new CompletableFuture<>();
+        private final CompletableFuture<Response> response = new CompletableFuture<>();
+        private final Route.CompiledRoute route;
+
+        private AsyncWork(Route.CompiledRoute route) {
+            this.route = route;
+        }
+
+        @Nonnull
+        @Override
+        public Route.CompiledRoute getRoute() {
+            return route;
+        }
+
+        @Nonnull
+        @Override
+        public JDA getJDA() {
+            return mock(JDA.class);
+        }
+
+        @Override
+        public Response execute() {
+            return executeAsync().join();
+        }
+
+        @Nonnull
+        @Override
+        public CompletableFuture<Response> executeAsync() {
+            started.complete(null);
+            return response;
+        }
+
+        @Override
+        public boolean isSkipped() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return response.isDone();
+        }
+
+        @Override
+        public boolean isPriority() {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void cancel() {}
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction.pagination;
+
+import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.requests.restaction.pagination.PaginationAction;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.Requester;
+import net.dv8tion.jda.internal.requests.restaction.pagination.PaginationActionImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PaginationPrefetchTest {
+    private final BlockingQueue<Request<List<Integer>>> requests = new LinkedBlockingQueue<>();
+    private ExecutorService callbackPool;
+    private Requester requester;
+    private JDAImpl jda;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        callbackPool = Executors.newSingleThreadExecutor();
+        requester = mock(Requester.class);
+        doAnswer(invocation -> requests.add(invocation.getArgument(0)))
+                .when(requester)
+                .request(any());
+        jda = mock(JDAImpl.class);
+        when(jda.getRequester()).thenReturn(requester);
+        when(jda.getCallbackPool()).thenReturn(callbackPool);
+    }
+
+    @AfterEach
+    void teardown() {
+        callbackPool.shutdownNow();
+    }
+
+    @Test
+    void testPrefetchIsBounded() throws Exception {
+        NumberPaginationActionImpl action = new NumberPaginationActionImpl(jda);
+        Iterator<Integer> iterator = action.prefetch(2).iterator();
+
+        // The first page is requested right away, and the next ones without waiting for the consumer
+        nextRequest().onSuccess(Arrays.asList(1, 2));
+        nextRequest().onSuccess(Arrays.asList(3, 4));
+        nextRequest().onSuccess(Arrays.asList(5, 6));
+        // Two pages are buffered, so nothing else is requested until a page is consumed
+        assertThat(requests.poll(100, TimeUnit.MILLISECONDS)).isNull();
+
+        assertThat(iterator.next()).isEqualTo(1);
+        nextRequest().onSuccess(Collections.emptyList());
+
+        assertThat(iterator).toIterable().containsExactly(2, 3, 4, 5, 6);
+        assertThat(requests).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCachedItemsAreNotDuplicated() throws Exception {
+        NumberPaginationActionImpl action = new NumberPaginationActionImpl(jda);
+        action.cache(Arrays.asList(1, 2));
+        // Respond to the first request right away, before iterator() has returned
+        doAnswer(invocation -> {
+                    Request<List<Integer>> request = invocation.getArgument(0);
+                    if (action.getCached().size() == 2) {
+                        action.cache(Arrays.asList(3, 4));
+                        request.onSuccess(Arrays.asList(3, 4));
+                    } else {
+                        request.onSuccess(Collections.emptyList());
+                    }
+                    return null;
+                })
+                .when(requester)
+                .request(any());
+
+        Iterator<Integer> iterator = action.prefetch(1).iterator();
+        assertThat(iterator).toIterable().containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void testPrefetchDisabled() throws Exception {
+        NumberPaginationActionImpl action = new NumberPaginationActionImpl(jda);
+        action.iterator();
+
+        assertThat(action.getPrefetch()).isZero();
+        assertThat(requests.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private Request<List<Integer>> nextRequest() throws InterruptedException {
+        Request<List<Integer>> request = requests.poll(5, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        return request;
+    }
+
+    interface NumberPaginationAction extends PaginationAction<Integer, NumberPaginationAction> {}
+
+    static class NumberPaginationActionImpl extends PaginationActionImpl<Integer, NumberPaginationAction>
+            implements NumberPaginationAction {
+        NumberPaginationActionImpl(JDAImpl api) {
+            super(api, Route.Messages.GET_MESSAGE_HISTORY.compile("1"), 1, 100, 100);
+        }
+
+        @Override
+        protected long getKey(Integer it) {
+            return it;
+        }
+
+        // Real implementations add every page to the cache before passing it to the callback
+        void cache(List<Integer> page) {
+            cached.addAll(page);
+            last = page.get(page.size() - 1);
+            lastKey = last;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.internal.utils.CompactConcurrentSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactConcurrentSetTest {
+    @Test
+    void testAddAndRemove() {
+        Set<String> set = new CompactConcurrentSet<>();
+
+        assertThat(set.add("a")).isTrue();
+        assertThat(set.add("b")).isTrue();
+        assertThat(set.add("a")).isFalse();
+        assertThat(set).containsExactlyInAnyOrder("a", "b");
+
+        assertThat(set.remove("a")).isTrue();
+        assertThat(set.remove("a")).isFalse();
+        assertThat(set).containsExactly("b");
+
+        set.clear();
+        assertThat(set).isEmpty();
+    }
+
+    @Test
+    void testBulkOperations() {
+        Set<Integer> set = new CompactConcurrentSet<>();
+
+        assertThat(set.addAll(Arrays.asList(1, 2, 2, 3))).isTrue();
+        assertThat(set.addAll(Arrays.asList(1, 2))).isFalse();
+        assertThat(set).containsExactlyInAnyOrder(1, 2, 3);
+
+        assertThat(set.removeAll(Arrays.asList(1, 4))).isTrue();
+        assertThat(set).containsExactlyInAnyOrder(2, 3);
+
+        assertThat(set.retainAll(Arrays.asList(3, 4))).isTrue();
+        assertThat(set).containsExactly(3);
+
+        assertThat(set).isEqualTo(new HashSet<>(Arrays.asList(3)));
+        assertThat(set.hashCode()).isEqualTo(new HashSet<>(Arrays.asList(3)).hashCode());
+    }
+
+    @Test
+    void testIteratorIsSnapshot() {
+        Set<Integer> set = new CompactConcurrentSet<>();
+        set.addAll(Arrays.asList(1, 2, 3));
+
+        Iterator<Integer> iterator = set.iterator();
+        set.add(4);
+        assertThat(iterator).toIterable().containsExactly(1, 2, 3);
+
+        for (Iterator<Integer> it = set.iterator(); it.hasNext(); ) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertThat(set).containsExactlyInAnyOrder(1, 3);
+    }
+}
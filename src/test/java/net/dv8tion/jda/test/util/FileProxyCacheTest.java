@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.api.utils.FileProxy;
+import net.dv8tion.jda.api.utils.FileProxyCache;
+import net.dv8tion.jda.internal.utils.IOUtil;
+import okhttp3.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class FileProxyCacheTest {
+    private final List<Request> requests = new ArrayList<>();
+    private OkHttpClient client;
+    private int responseCode;
+    private byte[] responseData;
+
+    @BeforeEach
+    void setup() {
+        responseCode = 200;
+        responseData = new byte[] {1, 2, 3, 4};
+        client = mock(OkHttpClient.class);
+        when(client.newCall(any())).thenAnswer(invocation -> {
+            Request request = invocation.getArgument(0);
+            requests.add(request);
+            Call call = mock(Call.class);
+            doAnswer(enqueue -> {
+                        Callback callback = enqueue.getArgument(0);
+                        callback.onResponse(call, createResponse(request));
+                        return null;
+                    })
+                    .when(call)
+                    .enqueue(any());
+            return call;
+        });
+    }
+
+    @Test
+    void testRepeatedDownloadIsServedFromMemory() throws Exception {
+        FileProxyCache cache = new FileProxyCache();
+
+        assertThat(download(cache, "https://cdn.discordapp.com/avatars/1/a.png")).isEqualTo(responseData);
+        assertThat(download(cache, "https://cdn.discordapp.com/avatars/1/a.png")).isEqualTo(responseData);
+        assertThat(download(cache, "https://cdn.discordapp.com/avatars/1/a.png?size=64"))
+                .isEqualTo(responseData);
+
+        assertThat(requests).hasSize(2);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testExpiredEntryIsRevalidated() throws Exception {
+        FileProxyCache cache = new FileProxyCache().setExpireAfter(Duration.ZERO);
+        byte[] original = responseData;
+
+        download(cache, "https://cdn.discordapp.com/avatars/1/a.png");
+        responseCode = 304;
+        responseData = new byte[0];
+
+        assertThat(download(cache, "https://cdn.discordapp.com/avatars/1/a.png")).isEqualTo(original);
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1).header("if-none-match")).isEqualTo("\"etag\"");
+        assertThat(cache.getRevalidationCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testMemoryLimit() throws Exception {
+        FileProxyCache cache = new FileProxyCache().setMemoryLimit(150, 100);
+        responseData = new byte[60];
+
+        download(cache, "https://cdn.discordapp.com/attachments/1/a.png");
+        download(cache, "https://cdn.discordapp.com/attachments/1/b.png");
+        download(cache, "https://cdn.discordapp.com/attachments/1/c.png");
+
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.getMemorySize()).isEqualTo(120);
+
+        // Files larger than the entry limit are streamed, but not kept in memory
+        responseData = new byte[10_000];
+        Arrays.fill(responseData, (byte) 42);
+        assertThat(download(cache, "https://cdn.discordapp.com/attachments/1/d.png"))
+                .isEqualTo(responseData);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    private byte[] download(FileProxyCache cache, String url) throws Exception {
+        FileProxy proxy = new FileProxy(url).withClient(client).withCache(cache);
+        try (InputStream stream = proxy.download().get(5, TimeUnit.SECONDS)) {
+            return IOUtil.readFully(stream);
+        }
+    }
+
+    private Response createResponse(Request request) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(responseCode)
+                .message(responseCode == 200 ? "OK" : "Not Modified")
+                .header("etag", "\"etag\"")
+                .body(ResponseBody.create(responseData, null))
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.api.utils.FileUpload;
+import net.dv8tion.jda.internal.requests.Requester;
+import net.dv8tion.jda.internal.utils.requestbody.FileBody;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileUploadTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testFileBodyIsReusable() throws IOException {
+        byte[] data = new byte[100_000];
+        new Random(42).nextBytes(data);
+        Path path = Files.write(directory.resolve("data.bin"), data);
+
+        try (FileUpload upload = FileUpload.fromData(path)) {
+            RequestBody body = upload.getRequestBody(Requester.MEDIA_TYPE_OCTET);
+            assertThat(body.contentLength()).isEqualTo(data.length);
+
+            for (int i = 0; i < 2; i++) {
+                Buffer sink = new Buffer();
+                upload.getRequestBody(Requester.MEDIA_TYPE_OCTET).writeTo(sink);
+                assertThat(sink.readByteArray()).isEqualTo(data);
+            }
+
+            try (InputStream stream = upload.getData()) {
+                assertThat(stream).hasBinaryContent(data);
+            }
+        }
+    }
+
+    @Test
+    void testFileBodyStopsAtContentLength() throws IOException {
+        byte[] data = new byte[100_000];
+        new Random(42).nextBytes(data);
+        Path path = Files.write(directory.resolve("data.bin"), data);
+
+        RequestBody body = new FileBody(Requester.MEDIA_TYPE_OCTET, path);
+        assertThat(body.contentLength()).isEqualTo(data.length);
+
+        // The file grew after the content length was sent
+        Files.write(path, new byte[1000], StandardOpenOption.APPEND);
+        assertThat(body.contentLength()).isEqualTo(data.length);
+
+        Buffer sink = new Buffer();
+        body.writeTo(sink);
+        assertThat(sink.readByteArray()).isEqualTo(data);
+    }
+
+    @Test
+    void testFileBodyFailsIfFileIsShorter() throws IOException {
+        Path path = Files.write(directory.resolve("data.bin"), new byte[2000]);
+
+        RequestBody body = new FileBody(Requester.MEDIA_TYPE_OCTET, path);
+        assertThat(body.contentLength()).isEqualTo(2000);
+        Files.write(path, new byte[1000]);
+
+        assertThatThrownBy(() -> body.writeTo(new Buffer()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("truncated");
+    }
+
+    @Test
+    void testMissingFile() {
+        File file = directory.resolve("missing.bin").toFile();
+        assertThatThrownBy(() -> FileUpload.fromData(file)).isInstanceOf(UncheckedIOException.class);
+    }
+}
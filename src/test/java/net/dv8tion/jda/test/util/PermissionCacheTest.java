@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.PermissionOverride;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.utils.PermissionUtil;
+import net.dv8tion.jda.internal.utils.cache.PermissionCache;
+import net.dv8tion.jda.test.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class PermissionCacheTest extends IntegrationTest {
+    @Mock
+    private GuildImpl guild;
+
+    @Mock
+    private MemberImpl member;
+
+    @Mock
+    private TextChannel textChannel;
+
+    @Mock
+    private Role role;
+
+    @Mock
+    private Role publicRole;
+
+    @Mock
+    private PermissionOverride roleOverride;
+
+    @Mock
+    private PermissionOverride publicRoleOverride;
+
+    @Mock
+    private PermissionOverride memberOverride;
+
+    @BeforeEach
+    void setupMocks() {
+        when(member.getGuild()).thenReturn(guild);
+        when(member.getUnsortedRoles()).thenReturn(Collections.singleton(role));
+        when(member.getPermissionCache()).thenReturn(new PermissionCache());
+        when(guild.getPublicRole()).thenReturn(publicRole);
+        when(guild.getPermissionVersion()).thenReturn(1L);
+
+        when(textChannel.getType()).thenReturn(ChannelType.TEXT);
+        when(textChannel.getGuild()).thenReturn(guild);
+        when(textChannel.getPermissionContainer()).thenReturn(textChannel);
+        when(textChannel.getPermissionOverride(any(Member.class))).thenReturn(memberOverride);
+        when(textChannel.getPermissionOverride(any(Role.class))).thenReturn(roleOverride);
+        when(textChannel.getPermissionOverride(eq(publicRole))).thenReturn(publicRoleOverride);
+    }
+
+    @Test
+    void testEffectivePermissionIsCachedUntilInvalidated() {
+        when(publicRole.getPermissionsRaw()).thenReturn(Permission.VIEW_CHANNEL.getRawValue());
+
+        assertThat(PermissionUtil.getEffectivePermission(textChannel, member))
+                .isEqualTo(Permission.VIEW_CHANNEL.getRawValue());
+
+        // Changes are only visible once the guild invalidated its permission cache
+        when(role.getPermissionsRaw()).thenReturn(Permission.MESSAGE_SEND.getRawValue());
+        assertThat(PermissionUtil.getEffectivePermission(textChannel, member))
+                .isEqualTo(Permission.VIEW_CHANNEL.getRawValue());
+
+        when(guild.getPermissionVersion()).thenReturn(2L);
+        assertThat(PermissionUtil.getEffectivePermission(textChannel, member))
+                .isEqualTo(Permission.VIEW_CHANNEL.getRawValue() | Permission.MESSAGE_SEND.getRawValue());
+    }
+
+    @Test
+    void testTimedOutMemberIsNotCached() {
+        when(member.isTimedOut()).thenReturn(true);
+        when(publicRole.getPermissionsRaw())
+                .thenReturn(Permission.VIEW_CHANNEL.getRawValue() | Permission.MESSAGE_SEND.getRawValue());
+
+        assertThat(PermissionUtil.getEffectivePermission(textChannel, member))
+                .isEqualTo(Permission.VIEW_CHANNEL.getRawValue());
+
+        // The timeout expires without any invalidation
+        when(member.isTimedOut()).thenReturn(false);
+        assertThat(PermissionUtil.getEffectivePermission(textChannel, member))
+                .isEqualTo(Permission.VIEW_CHANNEL.getRawValue() | Permission.MESSAGE_SEND.getRawValue());
+    }
+
+    @Test
+    void testOutdatedPermissionsAreNotCached() {
+        PermissionCache cache = new PermissionCache();
+        cache.put(2, 1, Permission.VIEW_CHANNEL.getRawValue());
+        cache.put(1, 2, Permission.MESSAGE_SEND.getRawValue());
+
+        assertThat(cache.get(2, 1)).isEqualTo(Permission.VIEW_CHANNEL.getRawValue());
+        assertThat(cache.get(2, 2)).isEqualTo(PermissionCache.NOT_CACHED);
+        assertThat(cache.get(1, 1)).isEqualTo(PermissionCache.NOT_CACHED);
+
+        cache.put(3, 2, Permission.MESSAGE_SEND.getRawValue());
+        assertThat(cache.get(3, 1)).isEqualTo(PermissionCache.NOT_CACHED);
+        assertThat(cache.get(3, 2)).isEqualTo(Permission.MESSAGE_SEND.getRawValue());
+    }
+}